@@ -0,0 +1,241 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.LargeMeanPoissonSampler.LargeMeanPoissonSamplerState;
+
+/**
+ * Create a sampler for the
+ * <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson
+ * distribution</a> using a cache of bounded size to minimise construction cost.
+ * <p>
+ * The cache will return a sampler equivalent to
+ * {@link org.apache.commons.rng.sampling.distribution#PoissonSampler(UniformRandomProvider, double)}.
+ * <p>
+ * Unlike the {@link PoissonSamplerCache} the range of the mean is not
+ * specified. The cache holds a maximum number of states for
+ * {@code n = floor(mean)} and evicts states using an approximate least
+ * recently used policy. This is advantageous when the means cover a very wide
+ * range but only a small number of distinct values are frequently used.
+ * <p>
+ * The cache is organised as a set-associative table. Each {@code n} maps to a
+ * set of 4 entries. The number of sets is not restricted to a power of 2 so the
+ * capacity is the maximum number of entries rounded down to a multiple of 4. A miss replaces an entry in the set using the CLOCK (second
+ * chance) algorithm: an entry is marked as referenced on a hit and the eviction
+ * clears the mark of each referenced entry until an unreferenced entry is
+ * found. Reads and writes are lock-free. Concurrent misses for the same
+ * {@code n} may store duplicate states which is harmless.
+ * <p>
+ * The cache records the number of hits and misses.
+ * <p>
+ * The cache is thread safe.
+ */
+public class BoundedPoissonSamplerCache {
+
+    /** The number of entries in each set. */
+    private static final int WAYS = 4;
+    /**
+     * The estimated memory size in bytes of an entry. This includes the entry, the
+     * state and the reference in the table.
+     */
+    static final int ENTRY_BYTES = 192;
+
+    /** The table of entries. */
+    private final AtomicReferenceArray<Entry> entries;
+    /** The clock hand for each set. Updates are not atomic. */
+    private final int[] hands;
+    /** The number of sets. */
+    private final int sets;
+    /** The number of hits. */
+    private final LongAdder hits = new LongAdder();
+    /** The number of misses. */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * An entry in the cache.
+     */
+    private static class Entry {
+        /** The value n. */
+        final int n;
+        /** The state. */
+        final LargeMeanPoissonSamplerState state;
+        /** Set to true when the entry is used. */
+        volatile boolean referenced;
+
+        /**
+         * @param n     the value n
+         * @param state the state
+         */
+        Entry(int n, LargeMeanPoissonSamplerState state) {
+            this.n = n;
+            this.state = state;
+        }
+    }
+
+    /**
+     * Create an instance with the maximum number of entries. The capacity is
+     * rounded down to a multiple of the set size (4) so the maximum is never
+     * exceeded and at most 3 entries are lost. The effective capacity is
+     * returned by {@link #getMaxEntries()}.
+     *
+     * @param maxEntries The maximum number of entries.
+     * @throws IllegalArgumentException if {@code maxEntries < 4} (one set of
+     *                                  entries) or {@code maxEntries > 2^30}.
+     */
+    public BoundedPoissonSamplerCache(int maxEntries) {
+        if (maxEntries < WAYS || maxEntries > 1 << 30) {
+            throw new IllegalArgumentException("Unsupported maximum entries: " + maxEntries);
+        }
+        sets = maxEntries / WAYS;
+        entries = new AtomicReferenceArray<>(sets * WAYS);
+        hands = new int[sets];
+    }
+
+    /**
+     * Create an instance with the maximum number of entries that can be stored
+     * in the memory budget.
+     *
+     * @param byteBudget The memory budget in bytes.
+     * @return the cache
+     * @throws IllegalArgumentException if the budget cannot store one set of
+     *                                  entries.
+     */
+    public static BoundedPoissonSamplerCache fromByteBudget(long byteBudget) {
+        final long maxEntries = byteBudget / ENTRY_BYTES;
+        if (maxEntries < WAYS) {
+            throw new IllegalArgumentException("Byte budget too small: " + byteBudget);
+        }
+        // The capacity is rounded down so the budget is not exceeded
+        return new BoundedPoissonSamplerCache((int) Math.min(maxEntries, 1 << 30));
+    }
+
+    /**
+     * Creates a Poisson sampler. The returned sampler will function exactly the
+     * same as
+     * {@link org.apache.commons.rng.sampling.distribution#PoissonSampler(UniformRandomProvider, double)}.
+     *
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @return A Poisson sampler
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    public DiscreteSampler getPoissonSampler(UniformRandomProvider rng,
+            double mean) {
+        // Ensure the same functionality as the PoissonSampler by
+        // using a SmallMeanPoissonSampler under the switch point.
+        if (mean < WrapperPoissonSampler.PIVOT)
+            return new SmallMeanPoissonSampler(rng, mean);
+        // The largest supported n is Integer.MAX_VALUE.
+        if (mean >= Integer.MAX_VALUE)
+            return new LargeMeanPoissonSampler(rng, mean);
+
+        final int n = (int) Math.floor(mean);
+        return new FlyweightLargeMeanPoissonSampler(rng, getState(n), mean - n);
+    }
+
+    /**
+     * Gets the set for {@code n}.
+     *
+     * @param n    the value n
+     * @param sets the number of sets
+     * @return the set index in {@code [0, sets)}
+     */
+    static int getSet(int n, int sets) {
+        // Mix the bits so consecutive n are spread over the sets
+        int hash = n * 0x9e3779b9;
+        hash ^= hash >>> 16;
+        // Map the unsigned hash to [0, sets) using a multiply and shift
+        return (int) (((hash & 0xffffffffL) * sets) >>> 32);
+    }
+
+    /**
+     * Gets the state for {@code n} from the cache, creating it if necessary.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return the state
+     */
+    private LargeMeanPoissonSamplerState getState(int n) {
+        final int set = getSet(n, sets);
+        final int base = set * WAYS;
+        for (int i = 0; i < WAYS; i++) {
+            final Entry e = entries.get(base + i);
+            if (e != null && e.n == n) {
+                // Avoid a volatile write if already referenced
+                if (!e.referenced) {
+                    e.referenced = true;
+                }
+                hits.increment();
+                return e.state;
+            }
+        }
+        misses.increment();
+        final LargeMeanPoissonSamplerState state = LargeMeanPoissonSamplerState.create(n);
+        // Store in the first empty slot or evict using the clock
+        int victim = -1;
+        for (int i = 0; i < WAYS; i++) {
+            if (entries.get(base + i) == null) {
+                victim = i;
+                break;
+            }
+        }
+        if (victim < 0) {
+            int hand = hands[set];
+            // At most one full cycle to clear the reference marks
+            for (int i = 0; i <= WAYS; i++) {
+                final Entry e = entries.get(base + hand);
+                if (e == null || !e.referenced) {
+                    break;
+                }
+                e.referenced = false;
+                hand = (hand + 1) & (WAYS - 1);
+            }
+            victim = hand;
+            hands[set] = (hand + 1) & (WAYS - 1);
+        }
+        // Ordering with other threads is not required. Any concurrent
+        // write is a valid state for its n.
+        entries.lazySet(base + victim, new Entry(n, state));
+        return state;
+    }
+
+    /**
+     * Gets the maximum number of entries.
+     *
+     * @return the maximum number of entries
+     */
+    public int getMaxEntries() {
+        return entries.length();
+    }
+
+    /**
+     * Gets the number of cache hits.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of cache misses.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the hit rate. This is {@code hits / (hits + misses)}; it is zero if the
+     * cache has not been used.
+     *
+     * @return the hit rate
+     */
+    public double getHitRate() {
+        final long h = hits.sum();
+        final long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+}
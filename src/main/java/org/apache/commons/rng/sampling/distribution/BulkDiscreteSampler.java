@@ -0,0 +1,22 @@
+package org.apache.commons.rng.sampling.distribution;
+
+/**
+ * Sampler that can fill an array with samples from a discrete distribution.
+ * <p>
+ * The bulk method allows the per-sample overhead of the {@link #sample()}
+ * method (virtual call dispatch and reloading of the sampler state) to be
+ * hoisted out of the loop. The samples must be identical to the samples
+ * generated by repeat calls to {@link #sample()}.
+ */
+public interface BulkDiscreteSampler extends DiscreteSampler {
+    /**
+     * Fill the array with samples in the range {@code from} (inclusive) to
+     * {@code to} (exclusive).
+     *
+     * @param out  The output array.
+     * @param from The from index (inclusive).
+     * @param to   The to index (exclusive).
+     * @throws ArrayIndexOutOfBoundsException if the range is outside the array.
+     */
+    void sample(int[] out, int from, int to);
+}
@@ -0,0 +1,60 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Store the state of a sampler for each {@code n} in the range
+ * {@code [minN, maxN]} using an array with an entry for every {@code n}.
+ * <p>
+ * This is the fastest store when most of the range is used.
+ *
+ * @param <T> the type of the state
+ */
+final class DenseStateStore<T> implements StateStore<T> {
+    /** The minimum n. */
+    private final int minN;
+    /** The states. The array is offset by minN. */
+    private final AtomicReferenceArray<T> values;
+
+    /**
+     * @param minN the minimum n
+     * @param maxN the maximum n
+     */
+    DenseStateStore(int minN, int maxN) {
+        this.minN = minN;
+        values = new AtomicReferenceArray<>(maxN - minN + 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Assumes {@code minN <= n <= maxN}.
+     */
+    @Override
+    public T get(int n) {
+        // From the java.util.concurrent.atomic Javadoc:
+        // get has the memory effects of reading a volatile variable.
+        return values.get(n - minN);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Assumes {@code minN <= n <= maxN}.
+     */
+    @Override
+    public void put(int n, T state) {
+        // Set this but do not worry about strict ordering
+        // as would be imposed for .set(int, Object) since any later
+        // objects that may be written by other threads will be the same.
+        // Allows concurrent threads to set the state without
+        // excess synchronisation over the exact object that is stored.
+        //
+        // From the java.util.concurrent.atomic Javadoc:
+        // lazySet has the memory effects of writing (assigning) a volatile
+        // variable except that it permits reorderings with subsequent (but
+        // not previous) memory actions that do not themselves impose
+        // reordering constraints with ordinary non-volatile writes.
+        values.lazySet(n - minN, state);
+    }
+}
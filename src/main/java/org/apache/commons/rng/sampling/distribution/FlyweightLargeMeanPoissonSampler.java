@@ -0,0 +1,208 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.LargeMeanPoissonSampler.LargeMeanPoissonSamplerState;
+import org.apache.commons.rng.sampling.distribution.SmallMeanPoissonSampler.SmallMeanPoissonSamplerState;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.Mode;
+
+/**
+ * Sampler for the
+ * <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson
+ * distribution</a>.
+ *
+ * <ul>
+ * <li>For large means, we use the rejection algorithm described in <blockquote>
+ * Devroye, Luc. (1981).<i>The Computer Generation of Poisson Random
+ * Variables</i><br>
+ * <strong>Computing</strong> vol. 26 pp. 197-207. </blockquote></li>
+ * </ul>
+ *
+ * This is a flyweight version of the {@link LargeMeanPoissonSampler}. It holds a
+ * reference to a precomputed {@link LargeMeanPoissonSamplerState} rather than a
+ * copy of the values. The internal Gaussian, exponential and lambda fraction
+ * samplers are created on first use. This minimises the construction cost when
+ * the sampler is used for a small number of samples. The final acceptance check
+ * uses the acceptance window of the state if available.
+ * <p>
+ * The samples are identical to those of the {@link LargeMeanPoissonSampler}
+ * unless the {@link Mode#FAST} mode is used. This samples the lambda fraction
+ * using the {@link FractionalPoissonSampler}.
+ */
+public class FlyweightLargeMeanPoissonSampler extends SamplerBase implements BulkDiscreteSampler {
+
+    /** Generator of uniformly distributed random numbers. */
+    private final UniformRandomProvider rng;
+    /** The shared state. */
+    private final LargeMeanPoissonSamplerState state;
+    /** The lambda fractional value. */
+    private final double lambdaFractional;
+    /** Set to true to use the {@link Mode#FAST} mode. */
+    private final boolean fast;
+    /** The precomputed state for the lambda fraction (can be null). */
+    private final SmallMeanPoissonSamplerState fraction;
+
+    /** Exponential. Created on the first sample. */
+    private ContinuousSampler exponential;
+    /** Gaussian. Created on the first sample. */
+    private ContinuousSampler gaussian;
+    /** The internal Poisson sampler for the lambda fraction. Created on first use. */
+    private DiscreteSampler smallMeanPoissonSampler;
+
+    /**
+     * Instantiates a sampler using a precomputed state.
+     *
+     * @param rng              Generator of uniformly distributed random numbers.
+     * @param state            the state
+     * @param lambdaFractional the lambda fractional value
+     *                         ({@code 0 <= lambdaFractional < 1})
+     * @throws IllegalArgumentException if
+     *                                  {@code lambdaFractional < 0 || lambdaFractional >= 1}.
+     */
+    FlyweightLargeMeanPoissonSampler(UniformRandomProvider rng, LargeMeanPoissonSamplerState state,
+            double lambdaFractional) {
+        this(rng, state, lambdaFractional, Mode.EXACT);
+    }
+
+    /**
+     * Instantiates a sampler using a precomputed state.
+     * <p>
+     * Note: If the mode is {@link Mode#FAST} then the samples will
+     * <strong>not</strong> match the {@link LargeMeanPoissonSampler}.
+     *
+     * @param rng              Generator of uniformly distributed random numbers.
+     * @param state            the state
+     * @param lambdaFractional the lambda fractional value
+     *                         ({@code 0 <= lambdaFractional < 1})
+     * @param mode             The sampling mode.
+     * @throws IllegalArgumentException if
+     *                                  {@code lambdaFractional < 0 || lambdaFractional >= 1}.
+     */
+    FlyweightLargeMeanPoissonSampler(UniformRandomProvider rng, LargeMeanPoissonSamplerState state,
+            double lambdaFractional, Mode mode) {
+        this(rng, state, lambdaFractional, mode, null, null);
+    }
+
+    /**
+     * Instantiates a sampler using a precomputed state and optional Gaussian and
+     * exponential samplers. The samplers can be shared with other samplers using
+     * the same generator. This allows the second Gaussian deviate of the
+     * Box-Muller transform to be used by the next sampler.
+     * <p>
+     * Note: If the samplers are shared then the samples will <strong>not</strong>
+     * match the {@link LargeMeanPoissonSampler}.
+     *
+     * @param rng              Generator of uniformly distributed random numbers.
+     * @param state            the state
+     * @param lambdaFractional the lambda fractional value
+     *                         ({@code 0 <= lambdaFractional < 1})
+     * @param mode             The sampling mode.
+     * @param gaussian         The standard Gaussian sampler (can be null).
+     * @param exponential      The standard exponential sampler (can be null).
+     * @throws IllegalArgumentException if
+     *                                  {@code lambdaFractional < 0 || lambdaFractional >= 1}.
+     */
+    FlyweightLargeMeanPoissonSampler(UniformRandomProvider rng, LargeMeanPoissonSamplerState state,
+            double lambdaFractional, Mode mode, ContinuousSampler gaussian, ContinuousSampler exponential) {
+        super(rng);
+        if (lambdaFractional < 0 || lambdaFractional >= 1) {
+            throw new IllegalArgumentException(
+                    "lambdaFractional must be in the range 0 (inclusive) to 1 (exclusive): " + lambdaFractional);
+        }
+        this.rng = rng;
+        this.state = state;
+        this.lambdaFractional = lambdaFractional;
+        this.fast = mode == Mode.FAST;
+        this.fraction = null;
+        this.gaussian = gaussian;
+        this.exponential = exponential;
+    }
+
+    /**
+     * Instantiates a sampler using a precomputed state for {@code lambda} and
+     * the lambda fraction, and optional Gaussian and exponential samplers. This
+     * uses the {@link Mode#EXACT} mode and performs no floating-point setup.
+     * <p>
+     * Note: If the samplers are shared then the samples will <strong>not</strong>
+     * match the {@link LargeMeanPoissonSampler}.
+     *
+     * @param rng         Generator of uniformly distributed random numbers.
+     * @param state       the state
+     * @param fraction    the state for the lambda fraction (null if the fraction
+     *                    is zero)
+     * @param gaussian    The standard Gaussian sampler (can be null).
+     * @param exponential The standard exponential sampler (can be null).
+     */
+    FlyweightLargeMeanPoissonSampler(UniformRandomProvider rng, LargeMeanPoissonSamplerState state,
+            SmallMeanPoissonSamplerState fraction, ContinuousSampler gaussian, ContinuousSampler exponential) {
+        super(rng);
+        this.rng = rng;
+        this.state = state;
+        lambdaFractional = fraction == null ? 0 : fraction.mean;
+        this.fast = false;
+        this.fraction = fraction;
+        this.gaussian = gaussian;
+        this.exponential = exponential;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int sample() {
+        // Sample the fraction first to match the LargeMeanPoissonSampler
+        final int y2 = sampleFraction();
+        final double y = sampleLambda();
+        return (int) Math.min(y2 + (long) y, Integer.MAX_VALUE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = sample();
+        }
+    }
+
+    /**
+     * Sample from the Poisson distribution with mean {@code lambdaFractional}.
+     *
+     * @return the sample
+     */
+    private int sampleFraction() {
+        if (lambdaFractional < Double.MIN_VALUE) {
+            return 0;
+        }
+        if (smallMeanPoissonSampler == null) {
+            if (fraction != null) {
+                smallMeanPoissonSampler = new SmallMeanPoissonSampler(rng, fraction);
+            } else {
+                smallMeanPoissonSampler = fast
+                        ? new FractionalPoissonSampler(rng, lambdaFractional)
+                        : new SmallMeanPoissonSampler(rng, lambdaFractional);
+            }
+        }
+        return smallMeanPoissonSampler.sample();
+    }
+
+    /**
+     * Sample from the Poisson distribution with mean {@code lambda} using the
+     * rejection algorithm. The Gaussian and exponential samplers are created if
+     * necessary.
+     *
+     * @return the sample
+     */
+    private double sampleLambda() {
+        if (gaussian == null) {
+            gaussian = new BoxMullerGaussianSampler(rng, 0, 1);
+        }
+        if (exponential == null) {
+            exponential = new AhrensDieterExponentialSampler(rng, 1);
+        }
+        // This may use the acceptance window of the state
+        return LargeMeanPoissonSampler.sampleLambda(rng, gaussian, exponential, state);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "Flyweight Large Mean Poisson deviate [" + super.toString() + "]";
+    }
+}
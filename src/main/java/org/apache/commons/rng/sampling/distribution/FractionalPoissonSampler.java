@@ -0,0 +1,146 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+
+/**
+ * Sampler for the <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson distribution</a>
+ * with a mean in the range {@code [0, 1)}.
+ * <p>
+ * Each sample uses a single uniform deviate and inversion of the cumulative
+ * probability. The cumulative probabilities for 0 and 1 are bracketed using
+ * the Taylor series of {@code exp(-mean)}:
+ *
+ * <pre>
+ * 1 - mean                 &lt;= P(X=0)  &lt;= 1 - mean + mean^2 / 2
+ * 1 - mean^2 / 2           &lt;= P(X&lt;=1)
+ * </pre>
+ *
+ * The value {@code exp(-mean)} is only computed when the uniform deviate falls
+ * outside the squeeze. This has a probability of approximately
+ * {@code mean^2}.
+ * <p>
+ * This sampler is intended to sample the fraction of the mean for the large mean
+ * samplers. The samples are <strong>not</strong> the same as the
+ * {@link SmallMeanPoissonSampler}.
+ */
+public class FractionalPoissonSampler extends SamplerBase implements BulkDiscreteSampler {
+
+    /** Mean of the distribution. */
+    private final double mean;
+    /** Lower bound for {@code P(X=0)}: {@code 1 - mean}. */
+    private final double lower0;
+    /** Upper bound for {@code P(X=0)}: {@code 1 - mean + mean^2 / 2}. */
+    private final double upper0;
+    /** Lower bound for {@code P(X<=1)}: {@code 1 - mean^2 / 2}. */
+    private final double lower1;
+    /**
+     * {@code Math.exp(-mean)}. Computed on first use. Zero if not computed
+     * (the value is above {@code exp(-1)}).
+     */
+    private double p0;
+
+    /**
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @throws IllegalArgumentException if {@code mean < 0 || mean >= 1}.
+     */
+    FractionalPoissonSampler(UniformRandomProvider rng, double mean) {
+        super(rng);
+        if (mean < 0 || mean >= 1) {
+            throw new IllegalArgumentException(
+                    "mean must be in the range 0 (inclusive) to 1 (exclusive): " + mean);
+        }
+        this.mean = mean;
+        final double halfMean2 = 0.5 * mean * mean;
+        lower0 = 1 - mean;
+        upper0 = lower0 + halfMean2;
+        lower1 = 1 - halfMean2;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int sample() {
+        return sample(nextDouble());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = sample(nextDouble());
+        }
+    }
+
+    /**
+     * Create a sample using the uniform deviate. This allows the sampler to be
+     * used with a uniform deviate that is independent of any other sample.
+     *
+     * @param u the uniform deviate in the range {@code [0, 1)}
+     * @return the sample
+     */
+    public int sample(double u) {
+        // Squeeze
+        if (u < lower0) {
+            return 0;
+        }
+        if (u >= upper0 && u < lower1) {
+            return 1;
+        }
+        if (p0 == 0) {
+            p0 = Math.exp(-mean);
+        }
+        return inversion(mean, p0, u);
+    }
+
+    /**
+     * Create a sample using the uniform deviate without a sampler instance. The
+     * sample is the same as {@link #sample(double)} of a sampler with the same
+     * mean.
+     *
+     * @param mean Mean ({@code 0 <= mean < 1}).
+     * @param u    the uniform deviate in the range {@code [0, 1)}
+     * @return the sample
+     */
+    static int sample(double mean, double u) {
+        // Squeeze
+        final double halfMean2 = 0.5 * mean * mean;
+        final double lower0 = 1 - mean;
+        if (u < lower0) {
+            return 0;
+        }
+        if (u >= lower0 + halfMean2 && u < 1 - halfMean2) {
+            return 1;
+        }
+        return inversion(mean, Math.exp(-mean), u);
+    }
+
+    /**
+     * Inversion of the cumulative probability.
+     *
+     * @param mean Mean.
+     * @param p0   {@code Math.exp(-mean)}
+     * @param u    the uniform deviate in the range {@code [0, 1)}
+     * @return the sample
+     */
+    private static int inversion(double mean, double p0, double u) {
+        double p = p0;
+        double cdf = p;
+        int n = 0;
+        while (u >= cdf) {
+            n++;
+            p *= mean / n;
+            if (p == 0) {
+                // The cumulative probability cannot reach u due to round-off
+                break;
+            }
+            cdf += p;
+        }
+        return n;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "Fractional Poisson deviate [" + super.toString() + "]";
+    }
+}
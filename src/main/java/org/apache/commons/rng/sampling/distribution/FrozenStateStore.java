@@ -0,0 +1,62 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Store the state of a sampler for every {@code n} in the range
+ * {@code [minN, maxN]} in a read-only array.
+ * <p>
+ * The states are copied from a store when this is created; any state missing
+ * from the store is computed in parallel directly into the array. The source
+ * store is not modified. The array is not modified after construction and is
+ * safely published by the {@code final} field so reads use no memory
+ * barriers.
+ *
+ * @param <T> the type of the state
+ */
+final class FrozenStateStore<T> implements StateStore<T> {
+    /** The minimum n. */
+    private final int minN;
+    /** The states. The array is offset by minN. */
+    private final Object[] values;
+
+    /**
+     * @param source  the source of the states
+     * @param minN    the minimum n
+     * @param maxN    the maximum n
+     * @param factory the factory to create a missing state
+     */
+    FrozenStateStore(StateStore<T> source, int minN, int maxN, IntFunction<T> factory) {
+        this.minN = minN;
+        final Object[] array = new Object[maxN - minN + 1];
+        // Each task writes distinct elements. Completion of the parallel
+        // stream happens-before the return of forEach.
+        IntStream.rangeClosed(minN, maxN).parallel().forEach(n -> {
+            final T state = source.get(n);
+            array[n - minN] = state == null ? factory.apply(n) : state;
+        });
+        values = array;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Assumes {@code minN <= n <= maxN}.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(int n) {
+        return (T) values[n - minN];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void put(int n, T state) {
+        throw new UnsupportedOperationException("Read-only store");
+    }
+}
@@ -0,0 +1,250 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+
+/**
+ * Sampler for the
+ * <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson
+ * distribution</a>.
+ *
+ * <ul>
+ * <li>For large means, we use the transformed rejection with squeeze (PTRS)
+ * algorithm described in <blockquote> H&ouml;rmann, Wolfgang. (1993).<i>The
+ * transformed rejection method for generating Poisson random variables</i><br>
+ * <strong>Insurance: Mathematics and Economics</strong> vol. 12 pp. 39-45.
+ * </blockquote></li>
+ * </ul>
+ *
+ * The PTRS algorithm is applied to the full mean. There is no separate sampler
+ * for the fraction of the mean and no extra uniform deviates.
+ * <p>
+ * The hat function is centred on the mean and is computed using
+ * {@code sqrt(mean)}. The normalisation constant {@code 1/alpha} decreases and
+ * the squeeze bound {@code vr} increases with the mean. Values computed for any
+ * {@code n <= mean} scale the hat up and shrink the squeeze so are at least as
+ * conservative as the values for the mean. The ratio {@code vr / alpha}
+ * ({@code vr * invAlpha}) is non-decreasing with the mean.
+ * This allows them to be cached in a {@link FullMeanPoissonSamplerState} for
+ * each integer {@code n} and used for any mean in the range {@code [n, n+1)}.
+ * <p>
+ * The {@code log(mean)} required for the final acceptance check is computed
+ * on first use.
+ * <p>
+ * This sampler is suitable for {@code mean>=10}.
+ */
+public class FullMeanPoissonSampler extends SamplerBase implements BulkDiscreteSampler {
+
+    /** The minimum mean supported by the algorithm. */
+    static final double MIN_MEAN = PtrsPoissonSampler.MIN_MEAN;
+
+    /** Class to compute {@code log(n!)}. */
+    private static final LogFactorial LOG_FACTORIAL = StirlingLogFactorial.getInstance();
+
+    /** The mean. */
+    private final double mean;
+    /** The hat function parameter {@code a}. */
+    private final double a;
+    /** The hat function parameter {@code b}. */
+    private final double b;
+    /** {@code log(1/alpha)}. */
+    private final double logInvAlpha;
+    /** The squeeze bound. */
+    private final double vr;
+    /** {@code log(mean)}. Computed on first use. */
+    private double logMean = Double.NaN;
+
+    /**
+     * Encapsulate the state of the sampler that does not depend on the fraction of
+     * the mean. The state is valid for construction of a sampler in the range
+     * {@code n <= mean < n+1}.
+     */
+    static class FullMeanPoissonSamplerState {
+        /** The value n. */
+        private final int n;
+        /** {@code log(1/alpha)} for n. */
+        private final double logInvAlpha;
+        /** The squeeze bound for n. */
+        private final double vr;
+
+        private FullMeanPoissonSamplerState(int n, double logInvAlpha, double vr) {
+            this.n = n;
+            this.logInvAlpha = logInvAlpha;
+            this.vr = vr;
+        }
+
+        /**
+         * Gets {@code log(1/alpha)}.
+         *
+         * @return log(1/alpha)
+         */
+        double getLogInvAlpha() {
+            return logInvAlpha;
+        }
+
+        /**
+         * Gets the squeeze bound.
+         *
+         * @return vr
+         */
+        double getVr() {
+            return vr;
+        }
+
+        /**
+         * Creates the state. The state is valid for construction of a sampler in the
+         * range {@code n <= mean < n+1}.
+         *
+         * @param n the value n ({@code floor(mean)})
+         * @return the state
+         * @throws IllegalArgumentException if {@code n < 10}.
+         */
+        static FullMeanPoissonSamplerState create(int n) {
+            if (n < MIN_MEAN) {
+                throw new IllegalArgumentException(n + " < " + MIN_MEAN);
+            }
+            final double b = computeB(n);
+            return new FullMeanPoissonSamplerState(n, computeLogInvAlpha(b), computeVr(b));
+        }
+    }
+
+    /**
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @throws IllegalArgumentException if {@code mean < 10}.
+     */
+    FullMeanPoissonSampler(UniformRandomProvider rng, double mean) {
+        super(rng);
+        if (!(mean >= MIN_MEAN)) {
+            throw new IllegalArgumentException(mean + " < " + MIN_MEAN);
+        }
+        this.mean = mean;
+        b = computeB(mean);
+        a = computeA(b);
+        logInvAlpha = computeLogInvAlpha(b);
+        vr = computeVr(b);
+    }
+
+    /**
+     * Instantiates a sampler using a precomputed state.
+     *
+     * @param rng   Generator of uniformly distributed random numbers.
+     * @param state the state
+     * @param mean  Mean ({@code n <= mean < n+1}).
+     * @throws IllegalArgumentException if the mean is not valid for the state.
+     */
+    FullMeanPoissonSampler(UniformRandomProvider rng, FullMeanPoissonSamplerState state, double mean) {
+        super(rng);
+        if (!(mean >= state.n && mean < state.n + 1)) {
+            throw new IllegalArgumentException(
+                    "mean must be in the range " + state.n + " (inclusive) to " + (state.n + 1) +
+                    " (exclusive): " + mean);
+        }
+        this.mean = mean;
+        b = computeB(mean);
+        a = computeA(b);
+        // These are conservative for mean >= n
+        logInvAlpha = state.logInvAlpha;
+        vr = state.vr;
+    }
+
+    /**
+     * Compute the hat function parameter {@code b}.
+     *
+     * @param mean Mean.
+     * @return b
+     */
+    private static double computeB(double mean) {
+        return 0.931 + 2.53 * Math.sqrt(mean);
+    }
+
+    /**
+     * Compute the hat function parameter {@code a}.
+     *
+     * @param b the hat function parameter {@code b}
+     * @return a
+     */
+    private static double computeA(double b) {
+        return -0.059 + 0.02483 * b;
+    }
+
+    /**
+     * Compute {@code log(1/alpha)}. This decreases as {@code b} increases.
+     *
+     * @param b the hat function parameter {@code b}
+     * @return log(1/alpha)
+     */
+    private static double computeLogInvAlpha(double b) {
+        return Math.log(1.1239 + 1.1328 / (b - 3.4));
+    }
+
+    /**
+     * Compute the squeeze bound. This increases as {@code b} increases.
+     *
+     * @param b the hat function parameter {@code b}
+     * @return vr
+     */
+    private static double computeVr(double b) {
+        return 0.9277 - 3.6224 / (b - 2);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int sample() {
+        return (int) Math.min(sampleMean(), Integer.MAX_VALUE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = (int) Math.min(sampleMean(), Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Sample from the Poisson distribution using the transformed rejection with
+     * squeeze.
+     *
+     * @return the sample
+     */
+    private long sampleMean() {
+        while (true) {
+            final double u = nextDouble() - 0.5;
+            final double v = nextDouble();
+            final double us = 0.5 - Math.abs(u);
+            final long k = (long) Math.floor((2 * a / us + b) * u + mean + 0.43);
+            // Squeeze acceptance
+            if (us >= 0.07 && v <= vr) {
+                return k;
+            }
+            // Rejection of the tails.
+            // Note: Values above Integer.MAX_VALUE have a negligible probability.
+            if (k < 0 || k > Integer.MAX_VALUE || (us < 0.013 && v > us)) {
+                continue;
+            }
+            if (Math.log(v) + logInvAlpha - Math.log(a / (us * us) + b) <=
+                    -mean + k * getLogMean() - LOG_FACTORIAL.value((int) k)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * Gets {@code log(mean)}.
+     *
+     * @return log(mean)
+     */
+    private double getLogMean() {
+        double l = logMean;
+        if (Double.isNaN(l)) {
+            l = logMean = Math.log(mean);
+        }
+        return l;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "Full Mean Poisson deviate [" + super.toString() + "]";
+    }
+}
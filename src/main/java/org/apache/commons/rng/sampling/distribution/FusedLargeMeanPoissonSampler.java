@@ -0,0 +1,250 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.LargeMeanPoissonSampler.LargeMeanPoissonSamplerState;
+
+/**
+ * Sampler for the
+ * <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson
+ * distribution</a>.
+ *
+ * <ul>
+ * <li>For large means, we use the rejection algorithm described in <blockquote>
+ * Devroye, Luc. (1981).<i>The Computer Generation of Poisson Random
+ * Variables</i><br>
+ * <strong>Computing</strong> vol. 26 pp. 197-207. </blockquote></li>
+ * </ul>
+ *
+ * This is a fused version of the {@link LargeMeanPoissonSampler}. The loop
+ * invariant constants are precomputed in the {@link LargeMeanPoissonSamplerState}
+ * and the lambda fraction sampler is inlined. The Box-Muller Gaussian and
+ * Ahrens-Dieter exponential samplers are final classes that are created with
+ * the sampler; they are used by the rejection loop shared with the
+ * {@link LargeMeanPoissonSampler}.
+ * <p>
+ * The samples are identical to those of the {@link LargeMeanPoissonSampler}.
+ * <p>
+ * This sampler is suitable for {@code mean>=40}.
+ */
+public class FusedLargeMeanPoissonSampler extends SamplerBase implements BulkDiscreteSampler {
+
+    /**
+     * Table containing the constants
+     * \( q_i = sum_{j=1}^i (\ln 2)^j / j! = \ln 2 + (\ln 2)^2 / 2 + ... + (\ln 2)^i / i! \)
+     * until the largest representable fraction below 1 is exceeded.
+     * This is computed exactly as in the {@link AhrensDieterExponentialSampler}.
+     */
+    private static final double[] EXPONENTIAL_SA_QI = new double[16];
+
+    static {
+        final double ln2 = Math.log(2);
+        double qi = 0;
+        for (int i = 0; i < EXPONENTIAL_SA_QI.length; i++) {
+            qi += Math.pow(ln2, i + 1) / InternalUtils.factorial(i + 1);
+            EXPONENTIAL_SA_QI[i] = qi;
+        }
+    }
+
+    /** Generator of uniformly distributed random numbers. */
+    private final UniformRandomProvider rng;
+    /** The state of the rejection algorithm. */
+    private final LargeMeanPoissonSamplerState state;
+    /** Gaussian. */
+    private final GaussianSampler gaussian;
+    /** Exponential. */
+    private final ExponentialSampler exponential;
+
+    /** {@code Math.exp(-lambdaFractional)} for the lambda fraction sample. */
+    private final double p0;
+    /** {@code 1000 * lambdaFractional} as the upper limit of the lambda fraction sample. */
+    private final int limit;
+
+    /**
+     * Sample from the standard Gaussian distribution using the Box-Muller
+     * transform. This computes the same samples as the
+     * {@link BoxMullerGaussianSampler}.
+     * <p>
+     * The cached value can be discarded to compute the same samples as a new
+     * {@link BoxMullerGaussianSampler}.
+     */
+    static final class GaussianSampler implements ContinuousSampler {
+        /** Generator of uniformly distributed random numbers. */
+        private final UniformRandomProvider rng;
+        /** The cached second value from the Box-Muller Gaussian transform. */
+        private double nextGaussian = Double.NaN;
+
+        /**
+         * @param rng Generator of uniformly distributed random numbers.
+         */
+        GaussianSampler(UniformRandomProvider rng) {
+            this.rng = rng;
+        }
+
+        @Override
+        public double sample() {
+            if (Double.isNaN(nextGaussian)) {
+                final double alpha = 2 * Math.PI * rng.nextDouble();
+                final double radius = Math.sqrt(-2 * Math.log(rng.nextDouble()));
+                nextGaussian = radius * Math.sin(alpha);
+                return radius * Math.cos(alpha);
+            }
+            final double n = nextGaussian;
+            nextGaussian = Double.NaN;
+            return n;
+        }
+
+        /**
+         * Discard the cached second value from the Box-Muller Gaussian transform.
+         */
+        void reset() {
+            nextGaussian = Double.NaN;
+        }
+    }
+
+    /**
+     * Sample from the standard exponential distribution using the Ahrens-Dieter
+     * algorithm. This computes the same samples as the
+     * {@link AhrensDieterExponentialSampler}.
+     */
+    static final class ExponentialSampler implements ContinuousSampler {
+        /** Generator of uniformly distributed random numbers. */
+        private final UniformRandomProvider rng;
+
+        /**
+         * @param rng Generator of uniformly distributed random numbers.
+         */
+        ExponentialSampler(UniformRandomProvider rng) {
+            this.rng = rng;
+        }
+
+        @Override
+        public double sample() {
+            // Step 1:
+            double a = 0;
+            double u = rng.nextDouble();
+
+            // Step 2 and 3:
+            while (u < 0.5) {
+                a += EXPONENTIAL_SA_QI[0];
+                u *= 2;
+            }
+
+            // Step 4 (now u > 0.5):
+            u += u - 1;
+
+            // Step 5:
+            if (u <= EXPONENTIAL_SA_QI[0]) {
+                return a + u;
+            }
+
+            // Step 6:
+            int i = 0; // Should be 1, be we iterate before it in while using 0.
+            double u2 = rng.nextDouble();
+            double umin = u2;
+
+            // Step 7 and 8:
+            do {
+                ++i;
+                u2 = rng.nextDouble();
+
+                if (u2 < umin) {
+                    umin = u2;
+                }
+
+                // Step 8:
+            } while (u > EXPONENTIAL_SA_QI[i]); // Ensured to exit since EXPONENTIAL_SA_QI[MAX] = 1.
+
+            return a + umin * EXPONENTIAL_SA_QI[0];
+        }
+    }
+
+    /**
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    FusedLargeMeanPoissonSampler(UniformRandomProvider rng, double mean) {
+        this(rng, createState(mean), mean - Math.floor(mean));
+    }
+
+    /**
+     * Instantiates a sampler using a precomputed state.
+     *
+     * @param rng              Generator of uniformly distributed random numbers.
+     * @param state            the state
+     * @param lambdaFractional the lambda fractional value
+     *                         ({@code 0 <= lambdaFractional < 1})
+     * @throws IllegalArgumentException if
+     *                                  {@code lambdaFractional < 0 || lambdaFractional >= 1}.
+     */
+    FusedLargeMeanPoissonSampler(UniformRandomProvider rng, LargeMeanPoissonSamplerState state,
+            double lambdaFractional) {
+        super(rng);
+        if (lambdaFractional < 0 || lambdaFractional >= 1) {
+            throw new IllegalArgumentException(
+                    "lambdaFractional must be in the range 0 (inclusive) to 1 (exclusive): " + lambdaFractional);
+        }
+
+        this.rng = rng;
+        this.state = state;
+        gaussian = new GaussianSampler(rng);
+        exponential = new ExponentialSampler(rng);
+
+        if (lambdaFractional < Double.MIN_VALUE) {
+            // No sample for the fraction
+            p0 = 1;
+            limit = 0;
+        } else {
+            p0 = Math.exp(-lambdaFractional);
+            limit = (int) Math.ceil(Math.min(1000 * lambdaFractional, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Creates the state for the mean.
+     *
+     * @param mean Mean.
+     * @return the state
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    private static LargeMeanPoissonSamplerState createState(double mean) {
+        if (mean <= 0) {
+            throw new IllegalArgumentException(mean + " <= " + 0);
+        }
+        return LargeMeanPoissonSamplerState.create((int) Math.floor(mean));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int sample() {
+        // Sample the lambda fraction first to match the LargeMeanPoissonSampler
+        int y2 = 0;
+        double r = 1;
+        while (y2 < limit) {
+            r *= nextDouble();
+            if (r >= p0) {
+                y2++;
+            } else {
+                break;
+            }
+        }
+
+        final double y = LargeMeanPoissonSampler.sampleLambda(rng, gaussian, exponential, state);
+
+        return (int) Math.min(y2 + (long) y, Integer.MAX_VALUE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = sample();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "Fused Large Mean Poisson deviate [" + super.toString() + "]";
+    }
+}
@@ -0,0 +1,180 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Store the state of a sampler for each {@code n} in a range that can grow on
+ * demand using an array with an entry for every {@code n}.
+ * <p>
+ * The range and array are held in an immutable segment published using a
+ * {@code volatile} field. Reads are lock-free. Growth is synchronized: the
+ * range is extended towards the requested {@code n} by a geometric factor and
+ * the existing states are copied to a new array. The size of the range never
+ * exceeds a maximum.
+ * <p>
+ * A state written to the old array while it is copied may be lost; it will be
+ * recomputed on the next request.
+ *
+ * @param <T> the type of the state
+ */
+final class GrowableStateStore<T> implements StateStore<T> {
+    /** The factor to increase the size of the range. */
+    static final int GROWTH_FACTOR = 2;
+    /**
+     * The maximum n. A mean of {@code 2^31 - 1} is not supported by the large
+     * mean samplers.
+     */
+    private static final int MAX_N = Integer.MAX_VALUE - 1;
+
+    /** The lowest minimum n. */
+    private final int lowerBound;
+    /** The maximum number of n in the range. */
+    private final int maxSize;
+    /** The current range and states. */
+    private volatile Segment<T> segment;
+
+    /**
+     * The states for the range {@code [minN, maxN]}.
+     *
+     * @param <T> the type of the state
+     */
+    private static final class Segment<T> {
+        /** The minimum n. */
+        final int minN;
+        /** The maximum n. */
+        final int maxN;
+        /** The states. The array is offset by minN. */
+        final AtomicReferenceArray<T> values;
+
+        /**
+         * @param minN the minimum n
+         * @param maxN the maximum n
+         */
+        Segment(int minN, int maxN) {
+            this.minN = minN;
+            this.maxN = maxN;
+            values = new AtomicReferenceArray<>(maxN - minN + 1);
+        }
+
+        /**
+         * Checks if the range contains {@code n}.
+         *
+         * @param n the value n
+         * @return true if in the range
+         */
+        boolean contains(int n) {
+            return n >= minN && n <= maxN;
+        }
+    }
+
+    /**
+     * @param minN       the minimum n
+     * @param maxN       the maximum n
+     * @param lowerBound the lowest minimum n when the range grows
+     * @param maxSize    the maximum number of n in the range
+     */
+    GrowableStateStore(int minN, int maxN, int lowerBound, int maxSize) {
+        this.lowerBound = lowerBound;
+        this.maxSize = maxSize;
+        segment = new Segment<>(minN, maxN);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns null if {@code n} is outside the current range.
+     */
+    @Override
+    public T get(int n) {
+        final Segment<T> s = segment;
+        return s.contains(n) ? s.values.get(n - s.minN) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The state is not stored if {@code n} is outside the current range.
+     */
+    @Override
+    public void put(int n, T state) {
+        final Segment<T> s = segment;
+        if (s.contains(n)) {
+            // Any later objects that may be written by other threads will be the same
+            s.values.lazySet(n - s.minN, state);
+        }
+    }
+
+    /**
+     * Ensure the range contains {@code n}. The range is extended if the size
+     * of the new range does not exceed the maximum.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return true if the range contains {@code n}
+     */
+    boolean grow(int n) {
+        return segment.contains(n) || growTo(n);
+    }
+
+    /**
+     * Extend the range to contain {@code n}. The size of the range is
+     * multiplied by the growth factor, or increased to the size required for
+     * {@code n} if larger, and limited to the maximum size.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return true if the range contains {@code n}
+     */
+    private synchronized boolean growTo(int n) {
+        final Segment<T> s = segment;
+        if (s.contains(n)) {
+            // Grown by another thread
+            return true;
+        }
+        if (n < lowerBound || n > MAX_N) {
+            return false;
+        }
+        final long required = n > s.maxN
+                ? (long) n - s.minN + 1
+                : (long) s.maxN - n + 1;
+        if (required > maxSize) {
+            return false;
+        }
+        final long size = Math.min(maxSize,
+                Math.max(required, (long) GROWTH_FACTOR * (s.maxN - s.minN + 1)));
+        // Extend towards n. Any size clipped at one end is used at the other.
+        long lo;
+        long hi;
+        if (n > s.maxN) {
+            hi = Math.min(MAX_N, s.minN + size - 1);
+            lo = Math.max(lowerBound, hi - size + 1);
+        } else {
+            lo = Math.max(lowerBound, s.maxN - size + 1);
+            hi = Math.min(MAX_N, lo + size - 1);
+        }
+        final Segment<T> next = new Segment<>((int) lo, (int) hi);
+        final int offset = s.minN - next.minN;
+        for (int i = s.values.length(); i-- > 0;) {
+            next.values.lazySet(offset + i, s.values.get(i));
+        }
+        // Publish
+        segment = next;
+        return true;
+    }
+
+    /**
+     * Gets the minimum n of the current range.
+     *
+     * @return the minimum n
+     */
+    int getMinN() {
+        return segment.minN;
+    }
+
+    /**
+     * Gets the maximum n of the current range.
+     *
+     * @return the maximum n
+     */
+    int getMaxN() {
+        return segment.maxN;
+    }
+}
@@ -0,0 +1,143 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+
+/**
+ * Sampler for the <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson distribution</a>.
+ *
+ * <ul>
+ *  <li>
+ *   For small means, a Poisson variate is computed by inversion of the cumulative
+ *   probability using a sequential search that starts from the mode, as described in
+ *   <blockquote>
+ *    Kemp, C.D. and Kemp, A.W. (1991).<i>Poisson random variate generation</i><br>
+ *    <strong>Journal of the Royal Statistical Society. Series C (Applied Statistics)</strong>
+ *    vol. 40 pp. 143-158.
+ *   </blockquote>
+ *  </li>
+ * </ul>
+ *
+ * The sampler uses a single uniform deviate per sample and the expected number of
+ * search steps is {@code O(sqrt(mean))}. This compares to approximately
+ * {@code mean + 1} uniform deviates per sample for the {@link SmallMeanPoissonSampler}.
+ *
+ * This sampler is suitable for {@code mean<40}. The maximum supported mean is
+ * {@link #MAX_MEAN}.
+ */
+public class KempSmallMeanPoissonSampler
+    extends SamplerBase
+    implements BulkDiscreteSampler {
+
+    /**
+     * The maximum supported mean. The probability {@code P(n=0) = exp(-mean)} is a
+     * normal number so the probabilities computed by the recurrence are accurate.
+     * Above approximately 745 the probability is zero and the sampler cannot be
+     * used.
+     */
+    static final double MAX_MEAN = 700;
+
+    /** Mean of the distribution. */
+    final double mean;
+    /** The mode of the distribution: {@code floor(mean)}. */
+    final int mode;
+    /** The probability of the mode: {@code P(n=mode)}. */
+    final double pMode;
+    /** The cumulative probability of the mode: {@code P(n<=mode)}. */
+    final double cdfMode;
+
+    /**
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @throws IllegalArgumentException if {@code mean <= 0} or
+     *                                  {@code mean > }{@link #MAX_MEAN}.
+     */
+    KempSmallMeanPoissonSampler(UniformRandomProvider rng,
+                                double mean) {
+        super(rng);
+        if (mean <= 0) {
+            throw new IllegalArgumentException(mean + " <= " + 0);
+        }
+        if (mean > MAX_MEAN) {
+            throw new IllegalArgumentException(mean + " > " + MAX_MEAN);
+        }
+
+        this.mean = mean;
+        mode = (int) Math.floor(mean);
+
+        // Sum the probabilities up to the mode using the recurrence:
+        // P(n=k) = P(n=k-1) * mean / k
+        // This is accurate for small means where exp(-mean) does not underflow.
+        double p = Math.exp(-mean);
+        double cdf = p;
+        for (int k = 1; k <= mode; k++) {
+            p *= mean / k;
+            cdf += p;
+        }
+        pMode = p;
+        cdfMode = cdf;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int sample() {
+        return search(nextDouble(), mean, mode, pMode, cdfMode);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        // Hoist the field reads out of the loop
+        final double mean = this.mean;
+        final int mode = this.mode;
+        final double pMode = this.pMode;
+        final double cdfMode = this.cdfMode;
+        for (int i = from; i < to; i++) {
+            out[i] = search(nextDouble(), mean, mode, pMode, cdfMode);
+        }
+    }
+
+    /**
+     * Find the smallest {@code x} such that {@code u < P(n<=x)} using a
+     * sequential search starting from the mode.
+     *
+     * @param u       the uniform deviate in {@code [0, 1)}
+     * @param mean    the mean
+     * @param mode    the mode
+     * @param pMode   the probability of the mode
+     * @param cdfMode the cumulative probability of the mode
+     * @return the sample
+     */
+    private static int search(double u, double mean, int mode, double pMode, double cdfMode) {
+        int x = mode;
+        double p = pMode;
+        double cdf = cdfMode;
+        if (u < cdfMode) {
+            // Search down: P(n<=x-1) = P(n<=x) - P(n=x)
+            // P(n=x-1) = P(n=x) * x / mean
+            while (x > 0) {
+                cdf -= p;
+                if (u >= cdf) {
+                    break;
+                }
+                p *= x / mean;
+                x--;
+            }
+        } else {
+            // Search up: P(n=x+1) = P(n=x) * mean / (x+1)
+            // Stop if the probability underflows. This protects against the
+            // summed probability not reaching 1 due to rounding error.
+            do {
+                x++;
+                p *= mean / x;
+                cdf += p;
+            } while (u >= cdf && p != 0);
+        }
+        return x;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "Kemp Small Mean Poisson deviate [" + super.toString() + "]";
+    }
+}
@@ -2,6 +2,7 @@ package org.apache.commons.rng.sampling.distribution;
 
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.rng.sampling.distribution.InternalUtils.FactorialLog;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.Mode;
 
 /**
  * Sampler for the
@@ -17,7 +18,7 @@ import org.apache.commons.rng.sampling.distribution.InternalUtils.FactorialLog;
  * 
  * This sampler is suitable for {@code mean>=40}.
  */
-public class LargeMeanPoissonSampler extends SamplerBase implements DiscreteSampler {
+public class LargeMeanPoissonSampler extends SamplerBase implements BulkDiscreteSampler {
 
     /** Class to compute {@code log(n!)}. This has no cached values. */
     private static final InternalUtils.FactorialLog NO_CACHE_FACTORIAL_LOG;
@@ -29,33 +30,96 @@ public class LargeMeanPoissonSampler extends SamplerBase implements DiscreteSamp
         NO_CACHE_FACTORIAL_LOG = FactorialLog.create();
     }
 
+    /**
+     * The half-width of the optional acceptance window of the state in units of
+     * the standard deviation {@code sqrt(lambda)}.
+     */
+    private static final double ACCEPTANCE_WINDOW_SD = 6;
+
+    /** The default function to compute {@code log(n!)}. */
+    static final LogFactorial DEFAULT_LOG_FACTORIAL = NO_CACHE_FACTORIAL_LOG::value;
+
+    /** Generator of uniformly distributed random numbers. */
+    private final UniformRandomProvider rng;
     /** Exponential. */
     private final ContinuousSampler exponential;
     /** Gaussian. */
     private final ContinuousSampler gaussian;
-    /** Local class to compute {@code log(n!)}. This may have cached values. */
-    private final InternalUtils.FactorialLog factorialLog;
-
-    // Working values
-    private final double lambda;
+    /** The state of the rejection algorithm. */
+    private final LargeMeanPoissonSamplerState state;
+    /** The lambda fractional value. */
     private final double lambdaFractional;
-    private final double logLambda;
-    private final double logLambdaFactorial;
-    private final double delta;
-    private final double halfDelta;
-    private final double twolpd;
-    private final double p1;
-    private final double p2;
-    private final double c1;
 
     /** The internal Poisson sampler for the lambda fraction. */
     private final DiscreteSampler smallMeanPoissonSampler;
 
+    /**
+     * The values of the rejection algorithm for {@code lambda = floor(mean)}.
+     * The values are read once for each sample by the shared rejection loop
+     * (see {@link LargeMeanPoissonSampler#sampleLambda(UniformRandomProvider,
+     * ContinuousSampler, ContinuousSampler, RejectionParameters)}).
+     */
+    interface RejectionParameters {
+        /**
+         * @return the lambda value ({@code floor(mean)})
+         */
+        double getLambda();
+
+        /**
+         * @return the delta value
+         */
+        double getDelta();
+
+        /**
+         * @return {@code 2 * lambda + delta}
+         */
+        double getTwolpd();
+
+        /**
+         * @return the probability of the Gaussian branch
+         */
+        double getP1();
+
+        /**
+         * @return {@code p1 + p2}
+         */
+        double getP1PlusP2();
+
+        /**
+         * @return {@code 1 / (8 * lambda)}
+         */
+        double getC1();
+
+        /**
+         * @return {@code 2 * lambda}
+         */
+        double getTwoLambda();
+
+        /**
+         * @return {@code Math.sqrt(lambda + delta / 2)}
+         */
+        double getSqrtLambdaPlusHalfDelta();
+
+        /**
+         * @return {@code twolpd / delta}
+         */
+        double getTwolpdOverDelta();
+
+        /**
+         * Gets the bound for the final acceptance check of the rejection algorithm:
+         * {@code y * logLambda - log((lambda + y)!) + logLambdaFactorial}.
+         *
+         * @param y the value y (an integer with {@code y >= -lambda})
+         * @return the bound
+         */
+        double getAcceptanceBound(double y);
+    }
+
     /**
      * Encapsulate the state of the sampler. The state is valid for construction of
      * a sampler in the range {@code lambda <= mean < lambda+1}.
      */
-    static class LargeMeanPoissonSamplerState {
+    static class LargeMeanPoissonSamplerState implements RejectionParameters {
         private final double lambda;
         private final double logLambda;
         private final double logLambdaFactorial;
@@ -65,9 +129,31 @@ public class LargeMeanPoissonSampler extends SamplerBase implements DiscreteSamp
         private final double p1;
         private final double p2;
         private final double c1;
+        /** Function to compute {@code log(n!)} for the final acceptance check. */
+        private final LogFactorial factorialLog;
+
+        // Hoisted constants for the rejection loop
+        private final double twoLambda;
+        private final double sqrtLambdaPlusHalfDelta;
+        private final double twolpdOverDelta;
+        private final double p1PlusP2;
+
+        // Optional acceptance window for the final acceptance check
+
+        /** The minimum {@code y} covered by the acceptance window. */
+        private final int windowMin;
+        /** The length of the acceptance window (zero if not used). */
+        private final int windowLength;
+        /**
+         * The acceptance window of
+         * {@code y * logLambda - log((lambda + y)!) + logLambdaFactorial}.
+         * This is created on first use.
+         */
+        private volatile double[] window;
 
         private LargeMeanPoissonSamplerState(double lambda, double logLambda, double logLambdaFactorial, double delta,
-                double halfDelta, double twolpd, double p1, double p2, double c1) {
+                double halfDelta, double twolpd, double p1, double p2, double c1, LogFactorial factorialLog,
+                boolean acceptanceWindow) {
             this.lambda = lambda;
             this.logLambda = logLambda;
             this.logLambdaFactorial = logLambdaFactorial;
@@ -77,6 +163,20 @@ public class LargeMeanPoissonSampler extends SamplerBase implements DiscreteSamp
             this.p1 = p1;
             this.p2 = p2;
             this.c1 = c1;
+            this.factorialLog = factorialLog;
+            twoLambda = 2 * lambda;
+            sqrtLambdaPlusHalfDelta = Math.sqrt(lambda + halfDelta);
+            twolpdOverDelta = twolpd / delta;
+            p1PlusP2 = p1 + p2;
+            if (acceptanceWindow) {
+                final int halfWidth = (int) Math.ceil(ACCEPTANCE_WINDOW_SD * Math.sqrt(lambda));
+                // Note: y >= -lambda
+                windowMin = (int) -Math.min(halfWidth, lambda);
+                windowLength = halfWidth - windowMin + 1;
+            } else {
+                windowMin = 0;
+                windowLength = 0;
+            }
         }
 
         /**
@@ -88,12 +188,61 @@ public class LargeMeanPoissonSampler extends SamplerBase implements DiscreteSamp
          * @throws IllegalArgumentException if {@code n < 0}.
          */
         static LargeMeanPoissonSamplerState create(int n) {
+            return create(n, false);
+        }
+
+        /**
+         * Creates the state. The state is valid for construction of a sampler in the
+         * range {@code n <= mean < n+1}.
+         * <p>
+         * The state can optionally use an acceptance window for the final
+         * acceptance check of the rejection algorithm. The window covers
+         * {@code lambda +/- 6 * sqrt(lambda)} and is computed on first use.
+         *
+         * @param n                the value n ({@code floor(mean)})
+         * @param acceptanceWindow Set to true to use an acceptance window.
+         * @return the state
+         * @throws IllegalArgumentException if {@code n < 0}.
+         * @see #getAcceptanceBound(double)
+         */
+        static LargeMeanPoissonSamplerState create(int n, boolean acceptanceWindow) {
+            return create(n, acceptanceWindow, DEFAULT_LOG_FACTORIAL);
+        }
+
+        /**
+         * Creates the state using the function to compute {@code log(n!)}. The
+         * function is used for {@code log(n!)} of the state and the final
+         * acceptance check of the rejection algorithm.
+         * <p>
+         * Note: If the function is not the default then the samples will
+         * <strong>not</strong> match the output of the {@link PoissonSampler}.
+         *
+         * @param n                the value n ({@code floor(mean)})
+         * @param acceptanceWindow Set to true to use an acceptance window.
+         * @param factorialLog     Function to compute {@code log(n!)}.
+         * @return the state
+         * @throws IllegalArgumentException if {@code n < 0}.
+         * @see StirlingLogFactorial
+         */
+        static LargeMeanPoissonSamplerState create(int n, boolean acceptanceWindow, LogFactorial factorialLog) {
             if (n < 0) {
                 throw new IllegalArgumentException(n + " < " + 0);
             }
-            final double lambda = n;
+            return create((double) n, factorialLog, acceptanceWindow);
+        }
+
+        /**
+         * Creates the state for the lambda value.
+         *
+         * @param lambda           the lambda value ({@code floor(mean)})
+         * @param factorialLog     Function to compute {@code log(n!)}.
+         * @param acceptanceWindow Set to true to use an acceptance window.
+         * @return the state
+         */
+        private static LargeMeanPoissonSamplerState create(double lambda, LogFactorial factorialLog,
+                boolean acceptanceWindow) {
             final double logLambda = Math.log(lambda);
-            final double logLambdaFactorial = NO_CACHE_FACTORIAL_LOG.value(n);
+            final double logLambdaFactorial = factorialLog.value((int) lambda);
             final double delta = Math.sqrt(lambda * Math.log(32 * lambda / Math.PI + 1));
             final double halfDelta = delta / 2;
             final double twolpd = 2 * lambda + delta;
@@ -104,7 +253,170 @@ public class LargeMeanPoissonSampler extends SamplerBase implements DiscreteSamp
             final double p1 = a1 / aSum;
             final double p2 = a2 / aSum;
             return new LargeMeanPoissonSamplerState(lambda, logLambda, logLambdaFactorial, delta, halfDelta, twolpd, p1,
-                    p2, c1);
+                    p2, c1, factorialLog, acceptanceWindow);
+        }
+
+        /**
+         * Gets the bound for the final acceptance check of the rejection algorithm:
+         * {@code y * logLambda - log((lambda + y)!) + logLambdaFactorial}.
+         * <p>
+         * If the state has an acceptance window and {@code y} is within the window
+         * then the value is a table look-up. The value is identical to the
+         * direct computation.
+         *
+         * @param y the value y (an integer with {@code y >= -lambda})
+         * @return the bound
+         */
+        @Override
+        public double getAcceptanceBound(double y) {
+            final int index = (int) y - windowMin;
+            if (index >= 0 && index < windowLength) {
+                return getWindow()[index];
+            }
+            return computeAcceptanceBound(y);
+        }
+
+        /**
+         * Compute the bound for the final acceptance check of the rejection algorithm.
+         *
+         * @param y the value y (an integer with {@code y >= -lambda})
+         * @return the bound
+         */
+        private double computeAcceptanceBound(double y) {
+            return y * logLambda - factorialLog.value((int) (y + lambda)) + logLambdaFactorial;
+        }
+
+        /**
+         * Gets the acceptance window, creating it if necessary.
+         *
+         * @return the window
+         */
+        private double[] getWindow() {
+            double[] values = window;
+            if (values == null) {
+                // Concurrent threads may create the window. The contents are
+                // identical so any window can be stored.
+                values = new double[windowLength];
+                for (int i = 0; i < windowLength; i++) {
+                    values[i] = computeAcceptanceBound(windowMin + i);
+                }
+                window = values;
+            }
+            return values;
+        }
+
+        /**
+         * @return true if the state has an acceptance window
+         */
+        boolean hasAcceptanceWindow() {
+            return windowLength != 0;
+        }
+
+        /**
+         * @return the lambda value ({@code floor(mean)})
+         */
+        @Override
+        public double getLambda() {
+            return lambda;
+        }
+
+        /**
+         * @return {@code log(lambda)}
+         */
+        double getLogLambda() {
+            return logLambda;
+        }
+
+        /**
+         * @return {@code log(lambda!)}
+         */
+        double getLogLambdaFactorial() {
+            return logLambdaFactorial;
+        }
+
+        /**
+         * @return the function to compute {@code log(n!)}
+         */
+        LogFactorial getLogFactorial() {
+            return factorialLog;
+        }
+
+        /**
+         * @return the delta value
+         */
+        @Override
+        public double getDelta() {
+            return delta;
+        }
+
+        /**
+         * @return {@code delta / 2}
+         */
+        double getHalfDelta() {
+            return halfDelta;
+        }
+
+        /**
+         * @return {@code 2 * lambda + delta}
+         */
+        @Override
+        public double getTwolpd() {
+            return twolpd;
+        }
+
+        /**
+         * @return the probability of the Gaussian branch
+         */
+        @Override
+        public double getP1() {
+            return p1;
+        }
+
+        /**
+         * @return the probability of the exponential branch
+         */
+        double getP2() {
+            return p2;
+        }
+
+        /**
+         * @return {@code 1 / (8 * lambda)}
+         */
+        @Override
+        public double getC1() {
+            return c1;
+        }
+
+        /**
+         * @return {@code 2 * lambda}
+         */
+        @Override
+        public double getTwoLambda() {
+            return twoLambda;
+        }
+
+        /**
+         * @return {@code Math.sqrt(lambda + halfDelta)}
+         */
+        @Override
+        public double getSqrtLambdaPlusHalfDelta() {
+            return sqrtLambdaPlusHalfDelta;
+        }
+
+        /**
+         * @return {@code twolpd / delta}
+         */
+        @Override
+        public double getTwolpdOverDelta() {
+            return twolpdOverDelta;
+        }
+
+        /**
+         * @return {@code p1 + p2}
+         */
+        @Override
+        public double getP1PlusP2() {
+            return p1PlusP2;
         }
     }
 
@@ -114,35 +426,69 @@ public class LargeMeanPoissonSampler extends SamplerBase implements DiscreteSamp
      * @throws IllegalArgumentException if {@code mean <= 0}.
      */
     LargeMeanPoissonSampler(UniformRandomProvider rng, double mean) {
+        // Plain constructor uses the uncached function.
+        this(rng, mean, DEFAULT_LOG_FACTORIAL);
+    }
+
+    /**
+     * Instantiates a sampler using a function to compute {@code log(n!)}.
+     * <p>
+     * Note: If the function is not the default then the samples may
+     * <strong>not</strong> match the output of the {@link PoissonSampler}.
+     *
+     * @param rng          Generator of uniformly distributed random numbers.
+     * @param mean         Mean.
+     * @param factorialLog Function to compute {@code log(n!)}.
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     * @see StirlingLogFactorial
+     */
+    LargeMeanPoissonSampler(UniformRandomProvider rng, double mean, LogFactorial factorialLog) {
+        this(rng, mean, factorialLog, Mode.EXACT);
+    }
+
+    /**
+     * Instantiates a sampler using the sampling mode.
+     * <p>
+     * Note: If the mode is {@link Mode#FAST} then the samples will
+     * <strong>not</strong> match the output of the {@link PoissonSampler}.
+     *
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @param mode The sampling mode.
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    LargeMeanPoissonSampler(UniformRandomProvider rng, double mean, Mode mode) {
+        this(rng, mean, getLogFactorial(mode), mode);
+    }
+
+    /**
+     * Instantiates a sampler using a function to compute {@code log(n!)} and the
+     * sampling mode for the lambda fraction.
+     *
+     * @param rng          Generator of uniformly distributed random numbers.
+     * @param mean         Mean.
+     * @param factorialLog Function to compute {@code log(n!)}.
+     * @param mode         The sampling mode.
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    private LargeMeanPoissonSampler(UniformRandomProvider rng, double mean, LogFactorial factorialLog,
+            Mode mode) {
         super(rng);
         if (mean <= 0) {
             throw new IllegalArgumentException(mean + " <= " + 0);
         }
 
+        this.rng = rng;
         gaussian = new BoxMullerGaussianSampler(rng, 0, 1);
         exponential = new AhrensDieterExponentialSampler(rng, 1);
-        // Support future extension to input the cached log(n!) values.
-        // Plain constructor uses the uncached function.
-        factorialLog = NO_CACHE_FACTORIAL_LOG;
 
         // Cache values used in the algorithm
-        lambda = Math.floor(mean);
+        final double lambda = Math.floor(mean);
         lambdaFractional = mean - lambda;
-        logLambda = Math.log(lambda);
-        logLambdaFactorial = factorialLog((int) lambda);
-        delta = Math.sqrt(lambda * Math.log(32 * lambda / Math.PI + 1));
-        halfDelta = delta / 2;
-        twolpd = 2 * lambda + delta;
-        c1 = 1 / (8 * lambda);
-        final double a1 = Math.sqrt(Math.PI * twolpd) * Math.exp(c1);
-        final double a2 = (twolpd / delta) * Math.exp(-delta * (1 + delta) / twolpd);
-        final double aSum = a1 + a2 + 1;
-        p1 = a1 / aSum;
-        p2 = a2 / aSum;
+        state = LargeMeanPoissonSamplerState.create(lambda, factorialLog, false);
 
         // The algorithm requires a Poisson sample from the lambda fraction
-        smallMeanPoissonSampler = (lambdaFractional < Double.MIN_VALUE) ? null
-                : new SmallMeanPoissonSampler(rng, lambdaFractional);
+        smallMeanPoissonSampler = createFractionSampler(rng, lambdaFractional, mode);
     }
 
     /**
@@ -156,32 +502,69 @@ public class LargeMeanPoissonSampler extends SamplerBase implements DiscreteSamp
      *                                  {@code lambdaFractional < 0 || lambdaFractional >= 1}.
      */
     LargeMeanPoissonSampler(UniformRandomProvider rng, LargeMeanPoissonSamplerState state, double lambdaFractional) {
+        this(rng, state, lambdaFractional, Mode.EXACT);
+    }
+
+    /**
+     * Instantiates a sampler using a precomputed state and the sampling mode.
+     * <p>
+     * The final acceptance check uses the function of the state to compute
+     * {@code log(n!)}; the mode applies to the sampler of the lambda fraction.
+     * <p>
+     * Note: If the mode is {@link Mode#FAST} then the samples will
+     * <strong>not</strong> match the output of the {@link PoissonSampler}.
+     *
+     * @param rng              Generator of uniformly distributed random numbers.
+     * @param state            the state
+     * @param lambdaFractional the lambda fractional value
+     *                         ({@code 0 <= lambdaFractional < 1})
+     * @param mode             The sampling mode.
+     * @throws IllegalArgumentException if
+     *                                  {@code lambdaFractional < 0 || lambdaFractional >= 1}.
+     */
+    LargeMeanPoissonSampler(UniformRandomProvider rng, LargeMeanPoissonSamplerState state, double lambdaFractional,
+            Mode mode) {
         super(rng);
         if (lambdaFractional < 0 || lambdaFractional >= 1) {
             throw new IllegalArgumentException(
                     "lambdaFractional must be in the range 0 (inclusive) to 1 (exclusive): " + lambdaFractional);
         }
 
+        this.rng = rng;
         gaussian = new BoxMullerGaussianSampler(rng, 0, 1);
         exponential = new AhrensDieterExponentialSampler(rng, 1);
-        // Support future extension to input the cached log(n!) values.
-        // Plain constructor uses the uncached function.
-        factorialLog = NO_CACHE_FACTORIAL_LOG;
-
-        // Use the state to initialise the algorithm
-        this.lambda = state.lambda;
-        this.logLambda = state.logLambda;
-        this.logLambdaFactorial = state.logLambdaFactorial;
-        this.delta = state.delta;
-        this.halfDelta = state.halfDelta;
-        this.twolpd = state.twolpd;
-        this.p1 = state.p1;
-        this.p2 = state.p2;
-        this.c1 = state.c1;
+        this.state = state;
         this.lambdaFractional = lambdaFractional;
 
         // The algorithm requires a Poisson sample from the lambda fraction
-        smallMeanPoissonSampler = (lambdaFractional < Double.MIN_VALUE) ? null
+        smallMeanPoissonSampler = createFractionSampler(rng, lambdaFractional, mode);
+    }
+
+    /**
+     * Gets the function to compute {@code log(n!)} for the sampling mode.
+     *
+     * @param mode The sampling mode.
+     * @return the function
+     */
+    static LogFactorial getLogFactorial(Mode mode) {
+        return mode == Mode.FAST ? StirlingLogFactorial.getInstance() : DEFAULT_LOG_FACTORIAL;
+    }
+
+    /**
+     * Creates the sampler for the lambda fraction.
+     *
+     * @param rng              Generator of uniformly distributed random numbers.
+     * @param lambdaFractional the lambda fractional value
+     * @param mode             The sampling mode.
+     * @return the sampler (or null if the fraction is zero)
+     */
+    private static DiscreteSampler createFractionSampler(UniformRandomProvider rng, double lambdaFractional,
+            Mode mode) {
+        if (lambdaFractional < Double.MIN_VALUE) {
+            return null;
+        }
+        return mode == Mode.FAST
+                ? new FractionalPoissonSampler(rng, lambdaFractional)
                 : new SmallMeanPoissonSampler(rng, lambdaFractional);
     }
 
@@ -193,18 +576,78 @@ public class LargeMeanPoissonSampler extends SamplerBase implements DiscreteSamp
         // the original PoissonSampler
         final int y2 = (smallMeanPoissonSampler == null) ? 0 : smallMeanPoissonSampler.sample();
 
-        double x = 0;
-        double y = 0;
-        double v = 0;
-        int a = 0;
-        double t = 0;
-        double qr = 0;
-        double qa = 0;
+        final double y = sampleLambda();
+
+        //// Do this if the return value does not have to match the old PoissonSampler
+        // if (smallMeanPoissonSampler == null) {
+        // // No small mean to sample
+        // return (int) Math.min((long) y, Integer.MAX_VALUE);
+        // }
+        //
+        // return (int) Math.min(smallMeanPoissonSampler.sample() + (long) y,
+        //// Integer.MAX_VALUE);
+
+        return (int) Math.min(y2 + (long) y, Integer.MAX_VALUE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        // Perform the check for the lambda fraction once
+        final DiscreteSampler fractionSampler = smallMeanPoissonSampler;
+        if (fractionSampler == null) {
+            for (int i = from; i < to; i++) {
+                out[i] = (int) Math.min((long) sampleLambda(), Integer.MAX_VALUE);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                // Sample the fraction first to match the order of sample()
+                final int y2 = fractionSampler.sample();
+                out[i] = (int) Math.min(y2 + (long) sampleLambda(), Integer.MAX_VALUE);
+            }
+        }
+    }
+
+    /**
+     * Sample from the Poisson distribution with mean {@code lambda} using the
+     * rejection algorithm.
+     *
+     * @return the sample
+     */
+    private double sampleLambda() {
+        return sampleLambda(rng, gaussian, exponential, state);
+    }
+
+    /**
+     * Sample from the Poisson distribution with mean {@code lambda} using the
+     * rejection algorithm. This is shared by the samplers that use a
+     * precomputed state. The values are read from the parameters once.
+     *
+     * @param rng         Generator of uniformly distributed random numbers.
+     * @param gaussian    The standard Gaussian sampler.
+     * @param exponential The standard exponential sampler.
+     * @param parameters  The values of the algorithm.
+     * @return the sample
+     */
+    static double sampleLambda(UniformRandomProvider rng, ContinuousSampler gaussian,
+            ContinuousSampler exponential, RejectionParameters parameters) {
+        final double lambda = parameters.getLambda();
+        final double delta = parameters.getDelta();
+        final double twolpd = parameters.getTwolpd();
+        final double p1 = parameters.getP1();
+        final double p1PlusP2 = parameters.getP1PlusP2();
+        final double c1 = parameters.getC1();
+        final double twoLambda = parameters.getTwoLambda();
+        final double sqrtLambdaPlusHalfDelta = parameters.getSqrtLambdaPlusHalfDelta();
+        final double twolpdOverDelta = parameters.getTwolpdOverDelta();
+        double x;
+        double y;
+        double v;
         while (true) {
-            final double u = nextDouble();
+            final double u = rng.nextDouble();
             if (u <= p1) {
                 final double n = gaussian.sample();
-                x = n * Math.sqrt(lambda + halfDelta) - 0.5d;
+                x = n * sqrtLambdaPlusHalfDelta - 0.5d;
                 if (x > delta || x < -lambda) {
                     continue;
                 }
@@ -212,22 +655,22 @@ public class LargeMeanPoissonSampler extends SamplerBase implements DiscreteSamp
                 final double e = exponential.sample();
                 v = -e - 0.5 * n * n + c1;
             } else {
-                if (u > p1 + p2) {
+                if (u > p1PlusP2) {
                     y = lambda;
                     break;
                 }
-                x = delta + (twolpd / delta) * exponential.sample();
+                x = delta + twolpdOverDelta * exponential.sample();
                 y = Math.ceil(x);
                 v = -exponential.sample() - delta * (x + 1) / twolpd;
             }
-            a = x < 0 ? 1 : 0;
-            t = y * (y + 1) / (2 * lambda);
+            final int a = x < 0 ? 1 : 0;
+            final double t = y * (y + 1) / twoLambda;
             if (v < -t && a == 0) {
                 y = lambda + y;
                 break;
             }
-            qr = t * ((2 * y + 1) / (6 * lambda) - 1);
-            qa = qr - (t * t) / (3 * (lambda + a * (y + 1)));
+            final double qr = t * ((2 * y + 1) / (6 * lambda) - 1);
+            final double qa = qr - (t * t) / (3 * (lambda + a * (y + 1)));
             if (v < qa) {
                 y = lambda + y;
                 break;
@@ -235,33 +678,12 @@ public class LargeMeanPoissonSampler extends SamplerBase implements DiscreteSamp
             if (v > qr) {
                 continue;
             }
-            if (v < y * logLambda - factorialLog((int) (y + lambda)) + logLambdaFactorial) {
+            if (v < parameters.getAcceptanceBound(y)) {
                 y = lambda + y;
                 break;
             }
         }
-
-        //// Do this if the return value does not have to match the old PoissonSampler
-        // if (smallMeanPoissonSampler == null) {
-        // // No small mean to sample
-        // return (int) Math.min((long) y, Integer.MAX_VALUE);
-        // }
-        //
-        // return (int) Math.min(smallMeanPoissonSampler.sample() + (long) y,
-        //// Integer.MAX_VALUE);
-
-        return (int) Math.min(y2 + (long) y, Integer.MAX_VALUE);
-    }
-
-    /**
-     * Compute the natural logarithm of the factorial of {@code n}.
-     *
-     * @param n Argument.
-     * @return {@code log(n!)}
-     * @throws IllegalArgumentException if {@code n < 0}.
-     */
-    private final double factorialLog(int n) {
-        return factorialLog.value(n);
+        return y;
     }
 
     /** {@inheritDoc} */
@@ -0,0 +1,22 @@
+package org.apache.commons.rng.sampling.distribution;
+
+/**
+ * Compute the natural logarithm of the factorial of {@code n}.
+ * <p>
+ * This allows the {@code log(n!)} function used in the final acceptance check
+ * of the rejection algorithm of the {@link LargeMeanPoissonSampler} to be
+ * replaced.
+ *
+ * @see StirlingLogFactorial
+ */
+@FunctionalInterface
+public interface LogFactorial {
+    /**
+     * Compute the natural logarithm of the factorial of {@code n}.
+     *
+     * @param n Argument.
+     * @return {@code log(n!)}
+     * @throws IllegalArgumentException if {@code n < 0}.
+     */
+    double value(int n);
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.InternalUtils.FactorialLog;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Executes benchmark to compare the speed of computation of {@code log(n!)}
+ * using the {@link FactorialLog} and the {@link StirlingLogFactorial}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = { "-server", "-Xms128M", "-Xmx128M" })
+public class LogFactorialPerformance {
+    /** Number of arguments. */
+    private static final int SIZE = 10000;
+
+    /**
+     * The arguments for {@code log(n!)}.
+     */
+    @State(Scope.Benchmark)
+    public static class Arguments {
+        /**
+         * The mean of the Poisson sampler. The arguments are those used by the
+         * final acceptance check of the {@link LargeMeanPoissonSampler}.
+         */
+        @Param({ "40.3", "142.3", "1024.3", "65536.3" })
+        private double mean;
+
+        /** The arguments. */
+        private int[] values;
+
+        /** The {@link FactorialLog#withCache(int)} variant with all the arguments cached. */
+        private FactorialLog cache;
+
+        /**
+         * @return the arguments
+         */
+        public int[] getValues() {
+            return values;
+        }
+
+        /**
+         * @return the function with all the arguments cached
+         */
+        public FactorialLog getCache() {
+            return cache;
+        }
+
+        /** Create the arguments. */
+        @Setup
+        public void setup() {
+            // Arguments are distributed approximately as the Poisson distribution
+            final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+            final DiscreteSampler sampler = new LargeMeanPoissonSampler(rng, mean);
+            values = new int[SIZE];
+            int max = 0;
+            for (int i = 0; i < SIZE; i++) {
+                values[i] = sampler.sample();
+                max = Math.max(max, values[i]);
+            }
+            // Cache all the arguments
+            cache = FactorialLog.create().withCache(max + 1);
+        }
+    }
+
+    /**
+     * Exercises the {@code log(n!)} function.
+     *
+     * @param function  the function
+     * @param arguments the arguments
+     * @param bh        Data sink.
+     */
+    private static void run(LogFactorial function, Arguments arguments, Blackhole bh) {
+        for (final int n : arguments.getValues()) {
+            bh.consume(function.value(n));
+        }
+    }
+
+    // Benchmarks methods below.
+
+    /**
+     * The baseline consumes the arguments.
+     *
+     * @param arguments the arguments
+     * @param bh        Data sink.
+     */
+    @Benchmark
+    public void runBaseline(Arguments arguments, Blackhole bh) {
+        run(n -> n, arguments, bh);
+    }
+
+    /**
+     * @param arguments the arguments
+     * @param bh        Data sink.
+     */
+    @Benchmark
+    public void runFactorialLog(Arguments arguments, Blackhole bh) {
+        run(FactorialLog.create()::value, arguments, bh);
+    }
+
+    /**
+     * @param arguments the arguments
+     * @param bh        Data sink.
+     */
+    @Benchmark
+    public void runFactorialLogWithCache(Arguments arguments, Blackhole bh) {
+        run(arguments.getCache()::value, arguments, bh);
+    }
+
+    /**
+     * @param arguments the arguments
+     * @param bh        Data sink.
+     */
+    @Benchmark
+    public void runStirlingLogFactorial(Arguments arguments, Blackhole bh) {
+        run(StirlingLogFactorial.getInstance(), arguments, bh);
+    }
+}
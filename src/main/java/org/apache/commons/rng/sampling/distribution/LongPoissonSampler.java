@@ -0,0 +1,243 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+
+/**
+ * Sampler for the <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson distribution</a>
+ * that returns a {@code long} sample.
+ *
+ * <ul>
+ *  <li>
+ *   For small means, a Poisson process is simulated using uniform deviates, as
+ *   described <a href="http://mathaa.epfl.ch/cours/PMMI2001/interactive/rng7.htm">here</a>.
+ *   The Poisson process (and hence, the returned value) is bounded by 1000 * mean.
+ *  </li>
+ *  <li>
+ *   For large means, we use the transformed rejection with squeeze (PTRS)
+ *   algorithm described in
+ *   <blockquote>
+ *    H&ouml;rmann, Wolfgang. (1993).<i>The transformed rejection method for
+ *    generating Poisson random variables</i><br>
+ *    <strong>Insurance: Mathematics and Economics</strong> vol. 12 pp. 39-45.
+ *   </blockquote>
+ *  </li>
+ * </ul>
+ *
+ * The PTRS algorithm is applied to the full mean. The number of uniform deviates
+ * per sample does not grow with the mean. The log probability used in the final
+ * acceptance check is computed using the saddle point expansion described in
+ * <blockquote>
+ *  Loader, Catherine. (2000). <i>Fast and Accurate Computation of Binomial
+ *  Probabilities</i>.
+ * </blockquote>
+ * This avoids the cancellation in {@code -mean + k * log(mean) - log(k!)} when the
+ * mean is large.
+ * <p>
+ * The sampler supports means up to 2<sup>52</sup>. Samples are not clamped to
+ * {@link Integer#MAX_VALUE}.
+ */
+public class LongPoissonSampler extends SamplerBase {
+
+    /** The maximum mean supported by the sampler. */
+    public static final double MAX_MEAN = 0x1.0p52;
+    /** {@code 0.5 * log(2 * pi)}. */
+    private static final double HALF_LOG_2_PI = 0.5 * Math.log(2 * Math.PI);
+    /** The minimum value to use the Stirling series for the Stirling error. */
+    private static final int STIRLING_SERIES_MIN = StirlingLogFactorial.TABLE_SIZE;
+
+    /** Mean of the distribution. */
+    private final double mean;
+    /** Set to true if the large mean algorithm is used. */
+    private final boolean largeMean;
+
+    // Small mean algorithm
+
+    /** {@code Math.exp(-mean)} for the small mean algorithm. */
+    private final double p0;
+    /** {@code 1000 * mean} as the upper limit of the small mean sample. */
+    private final long limit;
+
+    // Large mean algorithm
+
+    private final double a;
+    private final double b;
+    private final double logInvAlpha;
+    private final double vr;
+
+    /**
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @throws IllegalArgumentException if {@code mean <= 0} or
+     *                                  {@code mean > 2^52}.
+     */
+    public LongPoissonSampler(UniformRandomProvider rng, double mean) {
+        super(rng);
+        if (mean <= 0) {
+            throw new IllegalArgumentException(mean + " <= " + 0);
+        }
+        if (mean > MAX_MEAN) {
+            throw new IllegalArgumentException(mean + " > " + MAX_MEAN);
+        }
+        this.mean = mean;
+        largeMean = mean >= WrapperPoissonSampler.PIVOT;
+        if (largeMean) {
+            p0 = 0;
+            limit = 0;
+            final double smu = Math.sqrt(mean);
+            b = 0.931 + 2.53 * smu;
+            a = -0.059 + 0.02483 * b;
+            logInvAlpha = Math.log(1.1239 + 1.1328 / (b - 3.4));
+            vr = 0.9277 - 3.6224 / (b - 2);
+        } else {
+            p0 = Math.exp(-mean);
+            limit = (long) Math.ceil(1000 * mean);
+            a = 0;
+            b = 0;
+            logInvAlpha = 0;
+            vr = 0;
+        }
+    }
+
+    /**
+     * Creates a sample.
+     *
+     * @return a sample.
+     */
+    public long sample() {
+        return largeMean ? sampleLargeMean() : sampleSmallMean();
+    }
+
+    /**
+     * Fill the array with samples in the range {@code from} (inclusive) to
+     * {@code to} (exclusive).
+     *
+     * @param out  The output array.
+     * @param from The from index (inclusive).
+     * @param to   The to index (exclusive).
+     * @throws ArrayIndexOutOfBoundsException if the range is outside the array.
+     */
+    public void sample(long[] out, int from, int to) {
+        // Perform the check for the algorithm once
+        if (largeMean) {
+            for (int i = from; i < to; i++) {
+                out[i] = sampleLargeMean();
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                out[i] = sampleSmallMean();
+            }
+        }
+    }
+
+    /**
+     * Sample from the Poisson distribution using the small mean algorithm.
+     *
+     * @return the sample
+     */
+    private long sampleSmallMean() {
+        long n = 0;
+        double r = 1;
+
+        while (n < limit) {
+            r *= nextDouble();
+            if (r >= p0) {
+                n++;
+            } else {
+                break;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Sample from the Poisson distribution using the transformed rejection with
+     * squeeze.
+     *
+     * @return the sample
+     */
+    private long sampleLargeMean() {
+        while (true) {
+            final double u = nextDouble() - 0.5;
+            final double v = nextDouble();
+            final double us = 0.5 - Math.abs(u);
+            final double k = Math.floor((2 * a / us + b) * u + mean + 0.43);
+            // Squeeze acceptance
+            if (us >= 0.07 && v <= vr) {
+                return (long) k;
+            }
+            // Rejection of the tails
+            if (k < 0 || (us < 0.013 && v > us)) {
+                continue;
+            }
+            if (Math.log(v) + logInvAlpha - Math.log(a / (us * us) + b) <= logProbability(k, mean)) {
+                return (long) k;
+            }
+        }
+    }
+
+    /**
+     * Compute the log of the probability of the Poisson distribution:
+     * {@code -mean + k * log(mean) - log(k!)}.
+     *
+     * @param k    the value k (an integer)
+     * @param mean the mean
+     * @return the log probability
+     */
+    static double logProbability(double k, double mean) {
+        if (k < STIRLING_SERIES_MIN) {
+            // Small k has no significant cancellation
+            return -mean + k * Math.log(mean) - StirlingLogFactorial.getInstance().value((int) k);
+        }
+        return -stirlingError(k) - deviance(k, mean) - 0.5 * Math.log(k) - HALF_LOG_2_PI;
+    }
+
+    /**
+     * Compute the error of the Stirling approximation:
+     * {@code log(k!) - (k + 0.5) * log(k) + k - 0.5 * log(2 * pi)}.
+     * <p>
+     * The series is truncated after {@code 1 / (1260k^5)}. The truncation error
+     * is below {@code 1 / (1680k^7)}.
+     *
+     * @param k the value k ({@code k >= 256})
+     * @return the Stirling error
+     */
+    private static double stirlingError(double k) {
+        final double r = 1 / k;
+        final double r2 = r * r;
+        return r * (1.0 / 12 - r2 * (1.0 / 360 - r2 / 1260));
+    }
+
+    /**
+     * Compute the deviance term {@code x * log(x / np) + np - x} using a series
+     * when {@code x} is close to {@code np} to avoid cancellation.
+     *
+     * @param x  the value x
+     * @param np the mean
+     * @return the deviance
+     */
+    static double deviance(double x, double np) {
+        final double d = x - np;
+        if (Math.abs(d) < 0.1 * (x + np)) {
+            double v = d / (x + np);
+            double s = d * v;
+            double ej = 2 * x * v;
+            v *= v;
+            // The series converges quickly as v^2 < 0.01
+            for (int j = 1; j < 1000; j++) {
+                ej *= v;
+                final double s1 = s + ej / (2 * j + 1);
+                if (s1 == s) {
+                    return s1;
+                }
+                s = s1;
+            }
+        }
+        return x * Math.log(x / np) + np - x;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "Long Poisson deviate [" + super.toString() + "]";
+    }
+}
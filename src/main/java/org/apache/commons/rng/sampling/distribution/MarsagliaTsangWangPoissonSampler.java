@@ -0,0 +1,315 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.InternalUtils.FactorialLog;
+
+/**
+ * Sampler for the <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson distribution</a>.
+ *
+ * <ul>
+ *  <li>
+ *   A table lookup method using the compact 5-table method described in
+ *   <blockquote>
+ *    Marsaglia, G., Tsang, W.W. and Wang, J. (2004).<i>Fast Generation of Discrete Random Variables</i><br>
+ *    <strong>Journal of Statistical Software</strong> vol. 11 issue 3.
+ *   </blockquote>
+ *  </li>
+ * </ul>
+ *
+ * The probabilities of the distribution are represented as 30-bit integers. Values
+ * with a probability below {@code 2^-31} are not sampled. Each sample uses a single
+ * 32-bit random integer and up to 4 integer comparisons.
+ *
+ * <p>The table is expensive to construct and is suitable for repeat use of a sampler
+ * with a fixed mean. The table is immutable and can be shared across threads to
+ * create samplers that use a different {@link UniformRandomProvider}.
+ *
+ * This sampler is suitable for {@code 0<mean<=1024}.
+ */
+public class MarsagliaTsangWangPoissonSampler
+    extends SamplerBase
+    implements BulkDiscreteSampler {
+
+    /** The lookup table. */
+    private final MarsagliaTsangWangPoissonTable table;
+
+    /**
+     * Encapsulate the lookup table of the sampler.
+     */
+    public static final class MarsagliaTsangWangPoissonTable {
+        /** The maximum supported mean. This limits the size of the table. */
+        static final double MAX_MEAN = 1024;
+        /** The number of bits of the probability. */
+        private static final int BITS = 30;
+        /** The sum of the integer probabilities: {@code 2^30}. */
+        private static final int INT_30 = 1 << BITS;
+        /** Class to compute {@code log(n!)}. This has no cached values. */
+        private static final FactorialLog NO_CACHE_FACTORIAL_LOG = FactorialLog.create();
+
+        /** Mean of the distribution. */
+        private final double mean;
+        /** Limit for table A. */
+        private final int t1;
+        /** Limit for table B. */
+        private final int t2;
+        /** Limit for table C. */
+        private final int t3;
+        /** Limit for table D. */
+        private final int t4;
+        /** Table A: values for the first base-64 digit of the probability. */
+        private final int[] tableA;
+        /** Table B: values for the second base-64 digit of the probability. */
+        private final int[] tableB;
+        /** Table C: values for the third base-64 digit of the probability. */
+        private final int[] tableC;
+        /** Table D: values for the fourth base-64 digit of the probability. */
+        private final int[] tableD;
+        /** Table E: values for the fifth base-64 digit of the probability. */
+        private final int[] tableE;
+
+        /**
+         * @param mean   Mean.
+         * @param offset The value of the first probability.
+         * @param prob   The 30-bit integer probabilities (must sum to {@code 2^30}).
+         */
+        private MarsagliaTsangWangPoissonTable(double mean, int offset, int[] prob) {
+            this.mean = mean;
+
+            // Count the number of entries in each table.
+            // The first digit is not masked: a single value with probability
+            // 1 will have a digit of 64.
+            int na = 0;
+            int nb = 0;
+            int nc = 0;
+            int nd = 0;
+            int ne = 0;
+            for (final int p : prob) {
+                na += p >>> 24;
+                nb += getBase64Digit(p, 2);
+                nc += getBase64Digit(p, 3);
+                nd += getBase64Digit(p, 4);
+                ne += getBase64Digit(p, 5);
+            }
+
+            tableA = new int[na];
+            tableB = new int[nb];
+            tableC = new int[nc];
+            tableD = new int[nd];
+            tableE = new int[ne];
+
+            // Each table is filled with the value repeated by the count of the digit
+            na = 0;
+            nb = 0;
+            nc = 0;
+            nd = 0;
+            ne = 0;
+            for (int i = 0; i < prob.length; i++) {
+                final int p = prob[i];
+                final int value = i + offset;
+                na = fill(tableA, na, p >>> 24, value);
+                nb = fill(tableB, nb, getBase64Digit(p, 2), value);
+                nc = fill(tableC, nc, getBase64Digit(p, 3), value);
+                nd = fill(tableD, nd, getBase64Digit(p, 4), value);
+                ne = fill(tableE, ne, getBase64Digit(p, 5), value);
+            }
+
+            // Compute the limits for each table
+            t1 = tableA.length << 24;
+            t2 = t1 + (tableB.length << 18);
+            t3 = t2 + (tableC.length << 12);
+            t4 = t3 + (tableD.length << 6);
+        }
+
+        /**
+         * Creates the lookup table.
+         *
+         * @param mean Mean.
+         * @return the table
+         * @throws IllegalArgumentException if {@code mean <= 0} or
+         *                                  {@code mean > 1024}.
+         */
+        public static MarsagliaTsangWangPoissonTable create(double mean) {
+            if (mean <= 0) {
+                throw new IllegalArgumentException(mean + " <= " + 0);
+            }
+            if (mean > MAX_MEAN) {
+                throw new IllegalArgumentException(mean + " > " + MAX_MEAN);
+            }
+
+            // Compute the probabilities outward from the mode using the recurrence:
+            // P(n=k+1) = P(n=k) * mean / (k+1)
+            // Stop when the rounded 30-bit integer probability is zero.
+            final int mode = (int) Math.floor(mean);
+            final double pMode = Math.exp(mode * Math.log(mean) - mean -
+                    NO_CACHE_FACTORIAL_LOG.value(mode));
+
+            // Lower tail. Stored in reverse.
+            final double limit = 0.5 / INT_30;
+            int lower = mode;
+            double p = pMode;
+            while (lower > 0) {
+                p *= lower / mean;
+                if (p < limit) {
+                    break;
+                }
+                lower--;
+            }
+            // Upper tail
+            int upper = mode;
+            p = pMode;
+            while (true) {
+                p *= mean / (upper + 1);
+                if (p < limit) {
+                    break;
+                }
+                upper++;
+            }
+
+            final int[] prob = new int[upper - lower + 1];
+            long sum = 0;
+            p = pMode;
+            for (int k = mode; k >= lower; k--) {
+                prob[k - lower] = toInt30(p);
+                sum += prob[k - lower];
+                p *= k / mean;
+            }
+            p = pMode;
+            for (int k = mode + 1; k <= upper; k++) {
+                p *= mean / k;
+                prob[k - lower] = toInt30(p);
+                sum += prob[k - lower];
+            }
+
+            // Adjust the mode so the probabilities sum to 2^30.
+            // The mode has the highest probability and the rounding error is
+            // small relative to the size of the mode probability.
+            prob[mode - lower] += (int) (INT_30 - sum);
+
+            return new MarsagliaTsangWangPoissonTable(mean, lower, prob);
+        }
+
+        /**
+         * Convert the probability to a 30-bit integer.
+         *
+         * @param p the probability
+         * @return the integer probability
+         */
+        private static int toInt30(double p) {
+            return (int) Math.round(p * INT_30);
+        }
+
+        /**
+         * Gets the k<sup>th</sup> base 64 digit of {@code m}.
+         *
+         * @param m the value m
+         * @param k the digit (in the range 1-5)
+         * @return the base 64 digit
+         */
+        private static int getBase64Digit(int m, int k) {
+            return (m >>> (30 - 6 * k)) & 63;
+        }
+
+        /**
+         * Fill the table with the value.
+         *
+         * @param table the table
+         * @param from  the from index
+         * @param count the count
+         * @param value the value
+         * @return the to index
+         */
+        private static int fill(int[] table, int from, int count, int value) {
+            final int to = from + count;
+            for (int i = from; i < to; i++) {
+                table[i] = value;
+            }
+            return to;
+        }
+
+        /**
+         * Gets the mean.
+         *
+         * @return the mean
+         */
+        public double getMean() {
+            return mean;
+        }
+
+        /**
+         * Creates a sampler using the table.
+         *
+         * @param rng Generator of uniformly distributed random numbers.
+         * @return the sampler
+         */
+        public MarsagliaTsangWangPoissonSampler createSampler(UniformRandomProvider rng) {
+            return new MarsagliaTsangWangPoissonSampler(rng, this);
+        }
+
+        /**
+         * Sample from the table using a 30-bit unsigned integer.
+         *
+         * @param j the 30-bit unsigned integer
+         * @return the sample
+         */
+        int sample(int j) {
+            if (j < t1) {
+                return tableA[j >>> 24];
+            }
+            if (j < t2) {
+                return tableB[(j - t1) >>> 18];
+            }
+            if (j < t3) {
+                return tableC[(j - t2) >>> 12];
+            }
+            if (j < t4) {
+                return tableD[(j - t3) >>> 6];
+            }
+            // Note: If the tables sum to 2^30 then this is within the bounds of table E.
+            return tableE[j - t4];
+        }
+    }
+
+    /**
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @throws IllegalArgumentException if {@code mean <= 0} or
+     *                                  {@code mean > 1024}.
+     */
+    MarsagliaTsangWangPoissonSampler(UniformRandomProvider rng,
+                                     double mean) {
+        this(rng, MarsagliaTsangWangPoissonTable.create(mean));
+    }
+
+    /**
+     * Instantiates a sampler using a precomputed table.
+     *
+     * @param rng   Generator of uniformly distributed random numbers.
+     * @param table the table
+     */
+    MarsagliaTsangWangPoissonSampler(UniformRandomProvider rng,
+                                     MarsagliaTsangWangPoissonTable table) {
+        super(rng);
+        this.table = table;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int sample() {
+        return table.sample(nextInt() >>> 2);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        final MarsagliaTsangWangPoissonTable table = this.table;
+        for (int i = from; i < to; i++) {
+            out[i] = table.sample(nextInt() >>> 2);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "Marsaglia Tsang Wang Poisson deviate [" + super.toString() + "]";
+    }
+}
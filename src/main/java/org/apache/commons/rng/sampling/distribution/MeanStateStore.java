@@ -0,0 +1,262 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.LargeMeanPoissonSampler.LargeMeanPoissonSamplerState;
+import org.apache.commons.rng.sampling.distribution.SmallMeanPoissonSampler.SmallMeanPoissonSamplerState;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.Mode;
+
+/**
+ * Store the complete precomputation of a sampler for each mean using an
+ * open-addressing hash table with linear probing. The keys are the bits of the
+ * {@code double} mean.
+ * <p>
+ * The mean can be used exactly or rounded to the nearest multiple of a grid
+ * step. The table has a fixed capacity for the maximum number of means; when
+ * it is full new means are not stored and the caller must create the state.
+ * <p>
+ * Reads are lock-free. A new key is claimed using a compare-and-set.
+ */
+final class MeanStateStore {
+    /** The key for an empty slot. This is the bits of {@code 0.0} which is not a valid mean. */
+    private static final long EMPTY = 0;
+    /** The maximum capacity. */
+    private static final int MAX_CAPACITY = 1 << 30;
+    /** The maximum number of means. */
+    static final int MAX_SIZE = MAX_CAPACITY / 2;
+
+    /** The grid step (zero to use the exact mean). */
+    private final double gridStep;
+    /** The maximum number of means. */
+    private final int maxSize;
+    /** The keys. */
+    private final AtomicLongArray keys;
+    /** The states. */
+    private final AtomicReferenceArray<MeanState> states;
+    /** The mask to convert the hash to an index. */
+    private final int mask;
+    /** The number of claimed keys. */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * The immutable precomputation of a sampler for a mean.
+     */
+    static final class MeanState {
+        /** The state for a mean below the algorithm switch point (or null). */
+        private final SmallMeanPoissonSamplerState small;
+        /** The state for {@code n = floor(mean)} (or null). */
+        private final LargeMeanPoissonSamplerState large;
+        /** The lambda fractional value. */
+        private final double lambdaFractional;
+        /**
+         * The state for the lambda fraction. This is null if the fraction is zero
+         * or the fraction is not sampled using the {@link SmallMeanPoissonSampler}.
+         */
+        private final SmallMeanPoissonSamplerState fraction;
+
+        /**
+         * @param small            the state for a small mean
+         * @param large            the state for {@code n = floor(mean)}
+         * @param lambdaFractional the lambda fractional value
+         * @param fraction         the state for the lambda fraction
+         */
+        private MeanState(SmallMeanPoissonSamplerState small, LargeMeanPoissonSamplerState large,
+                double lambdaFractional, SmallMeanPoissonSamplerState fraction) {
+            this.small = small;
+            this.large = large;
+            this.lambdaFractional = lambdaFractional;
+            this.fraction = fraction;
+        }
+
+        /**
+         * Create the state for a mean below the algorithm switch point.
+         *
+         * @param mean Mean.
+         * @return the state
+         * @throws IllegalArgumentException if {@code mean <= 0}.
+         */
+        static MeanState createSmall(double mean) {
+            return new MeanState(SmallMeanPoissonSamplerState.create(mean), null, 0, null);
+        }
+
+        /**
+         * Create the state for a large mean. The fraction is precomputed in the
+         * {@link Mode#EXACT} mode.
+         *
+         * @param state the state for {@code n = floor(mean)}
+         * @param mean  Mean.
+         * @param mode  The sampling mode.
+         * @return the state
+         */
+        static MeanState createLarge(LargeMeanPoissonSamplerState state, double mean, Mode mode) {
+            final double lambdaFractional = mean - state.getLambda();
+            final SmallMeanPoissonSamplerState fraction =
+                    mode == Mode.EXACT && lambdaFractional >= Double.MIN_VALUE
+                    ? SmallMeanPoissonSamplerState.create(lambdaFractional)
+                    : null;
+            return new MeanState(null, state, lambdaFractional, fraction);
+        }
+
+        /**
+         * Creates a sampler bound to the generator.
+         *
+         * @param rng         Generator of uniformly distributed random numbers.
+         * @param mode        The sampling mode.
+         * @param gaussian    The standard Gaussian sampler (can be null).
+         * @param exponential The standard exponential sampler (can be null).
+         * @return the sampler
+         */
+        DiscreteSampler createSampler(UniformRandomProvider rng, Mode mode,
+                ContinuousSampler gaussian, ContinuousSampler exponential) {
+            if (small != null) {
+                return new SmallMeanPoissonSampler(rng, small);
+            }
+            if (mode == Mode.EXACT) {
+                return new FlyweightLargeMeanPoissonSampler(rng, large, fraction, gaussian, exponential);
+            }
+            return new FlyweightLargeMeanPoissonSampler(rng, large, lambdaFractional, mode,
+                    gaussian, exponential);
+        }
+    }
+
+    /**
+     * @param maxSize  the maximum number of means
+     * @param gridStep the grid step (zero to use the exact mean)
+     */
+    MeanStateStore(int maxSize, double gridStep) {
+        this.maxSize = maxSize;
+        this.gridStep = gridStep;
+        // Load factor 1/2
+        final int capacity = SparseStateStore.getCapacity(maxSize);
+        keys = new AtomicLongArray(capacity);
+        states = new AtomicReferenceArray<>(capacity);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Create a new empty store with the same settings.
+     *
+     * @return the store
+     */
+    MeanStateStore newInstance() {
+        return new MeanStateStore(maxSize, gridStep);
+    }
+
+    /**
+     * Gets the maximum number of means.
+     *
+     * @return the maximum number of means
+     */
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the grid step.
+     *
+     * @return the grid step (zero to use the exact mean)
+     */
+    double getGridStep() {
+        return gridStep;
+    }
+
+    /**
+     * Quantise the mean to the grid. Returns the mean if the grid step is zero,
+     * or the mean is not positive, or the mean rounds to zero.
+     *
+     * @param mean Mean.
+     * @return the quantised mean
+     */
+    double quantise(double mean) {
+        if (gridStep == 0 || !(mean > 0)) {
+            return mean;
+        }
+        final double q = Math.round(mean / gridStep) * gridStep;
+        return q > 0 ? q : mean;
+    }
+
+    /**
+     * Gets the index in the table for the key.
+     *
+     * @param key  the key
+     * @param mask the mask
+     * @return the index
+     */
+    private static int index(long key, int mask) {
+        // Mix the bits so nearby means are spread over the table
+        final long hash = key * 0x9e3779b97f4a7c15L;
+        final int h = (int) (hash ^ (hash >>> 32));
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Gets the state for the mean.
+     *
+     * @param mean Mean (must be positive).
+     * @return the state (or null)
+     */
+    MeanState get(double mean) {
+        final long key = Double.doubleToLongBits(mean);
+        int i = index(key, mask);
+        for (int probe = 0; probe <= mask; probe++) {
+            final long k = keys.get(i);
+            if (k == key) {
+                // Note: This may be null if the key was claimed but the
+                // state is not yet written
+                return states.get(i);
+            }
+            if (k == EMPTY) {
+                return null;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Stores the state for the mean. The state is not stored if the store is
+     * full.
+     *
+     * @param mean  Mean (must be positive).
+     * @param state the state
+     */
+    void put(double mean, MeanState state) {
+        final long key = Double.doubleToLongBits(mean);
+        int i = index(key, mask);
+        for (int probe = 0; probe <= mask; probe++) {
+            final long k = keys.get(i);
+            if (k == key) {
+                // Any state written by other threads will be the same
+                states.lazySet(i, state);
+                return;
+            }
+            if (k == EMPTY) {
+                if (size.get() >= maxSize) {
+                    // Full
+                    return;
+                }
+                if (keys.compareAndSet(i, EMPTY, key)) {
+                    size.incrementAndGet();
+                    states.lazySet(i, state);
+                    return;
+                }
+                // Lost the race for the slot; check the new key
+                probe--;
+                continue;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Gets the number of stored means.
+     *
+     * @return the size
+     */
+    int size() {
+        return size.get();
+    }
+}
@@ -0,0 +1,116 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+
+/**
+ * Sampler for an approximation of the
+ * <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson
+ * distribution</a> using the normal distribution.
+ * <p>
+ * A standard normal deviate {@code z} is transformed using the Cornish-Fisher
+ * expansion to include the skewness of the Poisson distribution and rounded to
+ * the nearest integer (continuity correction):
+ *
+ * <pre>
+ * k = floor(mean + sqrt(mean) * z + (z * z - 1) / 6 + 0.5)
+ * </pre>
+ *
+ * The sample is <strong>not</strong> exact. The total variation distance
+ * between the sampled distribution and the Poisson distribution is
+ * approximately {@code 0.0231 / mean}. Without the skewness correction it is
+ * approximately {@code 0.126 / sqrt(mean)}. The error bound used by this class
+ * ({@link #getErrorBound(double)}) is valid for {@code mean >= 40}.
+ * <p>
+ * The sampler requires a single Gaussian deviate per sample and the cost does
+ * not depend on the mean.
+ */
+public class NormalApproximationPoissonSampler extends SamplerBase implements BulkDiscreteSampler {
+
+    /** The minimum mean supported by the sampler. */
+    static final double MIN_MEAN = 40;
+    /**
+     * The constant {@code c} for the total variation error bound {@code c / mean}.
+     * This is the maximum of {@code mean * error} for {@code mean >= 40}.
+     */
+    static final double ERROR_CONSTANT = 0.0234;
+
+    /** {@code mean + 0.5 - 1/6}. */
+    private final double offset;
+    /** The standard deviation {@code sqrt(mean)}. */
+    private final double sd;
+    /** The Gaussian sampler. */
+    private final ContinuousSampler gaussian;
+
+    /**
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @throws IllegalArgumentException if {@code mean < 40}.
+     */
+    NormalApproximationPoissonSampler(UniformRandomProvider rng, double mean) {
+        super(rng);
+        if (!(mean >= MIN_MEAN)) {
+            throw new IllegalArgumentException(mean + " < " + MIN_MEAN);
+        }
+        // Combine the continuity correction and the constant term of the
+        // skewness correction
+        offset = mean + 0.5 - 1.0 / 6;
+        sd = Math.sqrt(mean);
+        gaussian = new BoxMullerGaussianSampler(rng, 0, 1);
+    }
+
+    /**
+     * Gets the bound on the total variation distance between the sampled
+     * distribution and the Poisson distribution.
+     *
+     * @param mean Mean ({@code mean >= 40}).
+     * @return the error bound
+     */
+    public static double getErrorBound(double mean) {
+        return ERROR_CONSTANT / mean;
+    }
+
+    /**
+     * Gets the minimum mean where the total variation distance between the
+     * sampled distribution and the Poisson distribution is within the error
+     * budget. The result is at least 40.
+     * <p>
+     * An error budget of zero returns positive infinity, i.e. the approximation
+     * is never used.
+     *
+     * @param errorBudget the total variation error budget
+     * @return the minimum mean
+     * @throws IllegalArgumentException if {@code errorBudget} is not in the range
+     *                                  {@code [0, 1]}.
+     */
+    public static double getMinimumMean(double errorBudget) {
+        if (!(errorBudget >= 0 && errorBudget <= 1)) {
+            throw new IllegalArgumentException(
+                    "Error budget is not in the range [0, 1]: " + errorBudget);
+        }
+        return Math.max(MIN_MEAN, ERROR_CONSTANT / errorBudget);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int sample() {
+        final double z = gaussian.sample();
+        // Note: The transform is not monotonic for z < -3 * sd. This has a
+        // negligible probability for mean >= 40.
+        final double x = offset + sd * z + z * z / 6;
+        return x < 0 ? 0 : (int) Math.min(x, Integer.MAX_VALUE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = sample();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "Normal approximation Poisson deviate [" + super.toString() + "]";
+    }
+}
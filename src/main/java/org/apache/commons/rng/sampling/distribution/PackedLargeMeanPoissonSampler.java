@@ -0,0 +1,157 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.PackedLargeMeanPoissonSamplerStates.Record;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.Mode;
+
+/**
+ * Sampler for the
+ * <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson
+ * distribution</a>.
+ *
+ * <ul>
+ * <li>For large means, we use the rejection algorithm described in <blockquote>
+ * Devroye, Luc. (1981).<i>The Computer Generation of Poisson Random
+ * Variables</i><br>
+ * <strong>Computing</strong> vol. 26 pp. 197-207. </blockquote></li>
+ * </ul>
+ *
+ * This is a version of the {@link FlyweightLargeMeanPoissonSampler} that reads
+ * the precomputed values once from a record in the
+ * {@link PackedLargeMeanPoissonSamplerStates} when it is constructed. The final
+ * acceptance check uses the acceptance window of the states if available.
+ * <p>
+ * The samples are identical to those of the {@link LargeMeanPoissonSampler}
+ * unless the {@link Mode#FAST} mode is used. This samples the lambda fraction
+ * using the {@link FractionalPoissonSampler}.
+ */
+public class PackedLargeMeanPoissonSampler extends SamplerBase implements BulkDiscreteSampler {
+
+    /** Generator of uniformly distributed random numbers. */
+    private final UniformRandomProvider rng;
+    /** The values of the record in the states. */
+    private final Record record;
+    /** The lambda fractional value. */
+    private final double lambdaFractional;
+    /** Set to true to use the {@link Mode#FAST} mode. */
+    private final boolean fast;
+
+    /** Exponential. Created on the first sample. */
+    private ContinuousSampler exponential;
+    /** Gaussian. Created on the first sample. */
+    private ContinuousSampler gaussian;
+    /** The internal Poisson sampler for the lambda fraction. Created on first use. */
+    private DiscreteSampler smallMeanPoissonSampler;
+
+    /**
+     * Instantiates a sampler using the precomputed states.
+     * <p>
+     * Note: If the mode is {@link Mode#FAST} then the samples will
+     * <strong>not</strong> match the {@link LargeMeanPoissonSampler}.
+     *
+     * @param rng              Generator of uniformly distributed random numbers.
+     * @param states           the states
+     * @param n                the value n ({@code floor(mean)})
+     * @param lambdaFractional the lambda fractional value
+     *                         ({@code 0 <= lambdaFractional < 1})
+     * @param mode             The sampling mode.
+     * @throws IllegalArgumentException if
+     *                                  {@code lambdaFractional < 0 || lambdaFractional >= 1}.
+     */
+    PackedLargeMeanPoissonSampler(UniformRandomProvider rng, PackedLargeMeanPoissonSamplerStates states,
+            int n, double lambdaFractional, Mode mode) {
+        this(rng, states, n, lambdaFractional, mode, null, null);
+    }
+
+    /**
+     * Instantiates a sampler using the precomputed states and optional Gaussian
+     * and exponential samplers. The samplers can be shared with other samplers
+     * using the same generator.
+     * <p>
+     * Note: If the samplers are shared then the samples will <strong>not</strong>
+     * match the {@link LargeMeanPoissonSampler}.
+     *
+     * @param rng              Generator of uniformly distributed random numbers.
+     * @param states           the states
+     * @param n                the value n ({@code floor(mean)})
+     * @param lambdaFractional the lambda fractional value
+     *                         ({@code 0 <= lambdaFractional < 1})
+     * @param mode             The sampling mode.
+     * @param gaussian         The standard Gaussian sampler (can be null).
+     * @param exponential      The standard exponential sampler (can be null).
+     * @throws IllegalArgumentException if
+     *                                  {@code lambdaFractional < 0 || lambdaFractional >= 1}.
+     */
+    PackedLargeMeanPoissonSampler(UniformRandomProvider rng, PackedLargeMeanPoissonSamplerStates states,
+            int n, double lambdaFractional, Mode mode, ContinuousSampler gaussian,
+            ContinuousSampler exponential) {
+        super(rng);
+        if (lambdaFractional < 0 || lambdaFractional >= 1) {
+            throw new IllegalArgumentException(
+                    "lambdaFractional must be in the range 0 (inclusive) to 1 (exclusive): " + lambdaFractional);
+        }
+        this.rng = rng;
+        record = states.getRecord(n);
+        this.lambdaFractional = lambdaFractional;
+        this.fast = mode == Mode.FAST;
+        this.gaussian = gaussian;
+        this.exponential = exponential;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int sample() {
+        // Sample the fraction first to match the LargeMeanPoissonSampler
+        final int y2 = sampleFraction();
+        final double y = sampleLambda();
+        return (int) Math.min(y2 + (long) y, Integer.MAX_VALUE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = sample();
+        }
+    }
+
+    /**
+     * Sample from the Poisson distribution with mean {@code lambdaFractional}.
+     *
+     * @return the sample
+     */
+    private int sampleFraction() {
+        if (lambdaFractional < Double.MIN_VALUE) {
+            return 0;
+        }
+        if (smallMeanPoissonSampler == null) {
+            smallMeanPoissonSampler = fast
+                    ? new FractionalPoissonSampler(rng, lambdaFractional)
+                    : new SmallMeanPoissonSampler(rng, lambdaFractional);
+        }
+        return smallMeanPoissonSampler.sample();
+    }
+
+    /**
+     * Sample from the Poisson distribution with mean {@code lambda} using the
+     * rejection algorithm. The Gaussian and exponential samplers are created if
+     * necessary.
+     *
+     * @return the sample
+     */
+    private double sampleLambda() {
+        if (gaussian == null) {
+            gaussian = new BoxMullerGaussianSampler(rng, 0, 1);
+        }
+        if (exponential == null) {
+            exponential = new AhrensDieterExponentialSampler(rng, 1);
+        }
+        return LargeMeanPoissonSampler.sampleLambda(rng, gaussian, exponential, record);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "Packed Large Mean Poisson deviate [" + super.toString() + "]";
+    }
+}
@@ -0,0 +1,713 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+import org.apache.commons.rng.sampling.distribution.LargeMeanPoissonSampler.LargeMeanPoissonSamplerState;
+import org.apache.commons.rng.sampling.distribution.LargeMeanPoissonSampler.RejectionParameters;
+
+/**
+ * Store the values of the {@link LargeMeanPoissonSamplerState} for each
+ * {@code n} in the range {@code [minN, maxN]} in a single array.
+ * <p>
+ * The values for each {@code n} are a record of 8 consecutive elements (64
+ * bytes). A sampler reads the values using the offset of the record. This
+ * avoids an object and a reference per {@code n} and places the values used
+ * to construct a sampler in the same cache line.
+ * <p>
+ * The records can be stored in memory and computed on first use
+ * ({@link #create(int, int)}), copied to a read-only array with every record
+ * ({@link #freeze()}), or read in place from a read-only memory-mapped
+ * snapshot file ({@link #map(Path)}). The snapshot is little-endian:
+ *
+ * <pre>
+ * offset  type      value
+ * 0       int       magic number 0x50534353
+ * 4       int       version (1)
+ * 8       int       record size in doubles (8)
+ * 12      int       reserved (0)
+ * 16      int       minN
+ * 20      int       maxN
+ * 24      long      reserved (0)
+ * 32      double[]  (maxN - minN + 1) records
+ * </pre>
+ *
+ * <p>The states can optionally use an acceptance window for the final
+ * acceptance check of the rejection algorithm. The window is not part of the
+ * record; a state with the window is created for {@code n} the first time it
+ * is used by any sampler (see
+ * {@link LargeMeanPoissonSamplerState#create(int, boolean)}).
+ */
+abstract class PackedLargeMeanPoissonSamplerStates {
+    /** The index of {@code 2 * lambda + delta} in the record. This is written last. */
+    static final int TWOLPD = 0;
+    /** The index of {@code log(lambda)} in the record. */
+    static final int LOG_LAMBDA = 1;
+    /** The index of {@code log(lambda!)} in the record. */
+    static final int LOG_LAMBDA_FACTORIAL = 2;
+    /** The index of delta in the record. */
+    static final int DELTA = 3;
+    /** The index of {@code sqrt(lambda + delta / 2)} in the record. */
+    static final int SQRT_LAMBDA_PLUS_HALF_DELTA = 4;
+    /** The index of the probability of the Gaussian branch in the record. */
+    static final int P1 = 5;
+    /** The index of the probability of the exponential branch in the record. */
+    static final int P2 = 6;
+    /** The index of {@code 1 / (8 * lambda)} in the record. */
+    static final int C1 = 7;
+    /** The size of the record. */
+    static final int RECORD_SIZE = 8;
+    /** The maximum number of records. */
+    static final int MAX_SIZE = Integer.MAX_VALUE / RECORD_SIZE;
+
+    /** The magic number of the snapshot. */
+    static final int MAGIC = 0x50534353;
+    /** The version of the snapshot. */
+    static final int VERSION = 1;
+    /** The size of the snapshot header in bytes. */
+    static final int HEADER_SIZE = 32;
+    /** The size of a record in the snapshot in bytes. */
+    private static final int RECORD_BYTES = RECORD_SIZE * Double.BYTES;
+    /** The maximum number of records in a snapshot. A mapped buffer is limited to 2GiB. */
+    static final int MAX_SNAPSHOT_SIZE = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_BYTES;
+    /** The number of records to buffer when writing a snapshot. */
+    private static final int WRITE_BUFFER_RECORDS = 1024;
+
+    /** The minimum n. */
+    final int minN;
+    /** The maximum n. */
+    final int maxN;
+    /** The states with an acceptance window for each n (null if not used). */
+    private final AtomicReferenceArray<LargeMeanPoissonSamplerState> windows;
+
+    /**
+     * The values of the rejection algorithm for {@code n} read once from the
+     * record.
+     */
+    static final class Record implements RejectionParameters {
+        /** The states. */
+        private final PackedLargeMeanPoissonSamplerStates states;
+        /** The value n ({@code floor(mean)}). */
+        private final int n;
+        private final double lambda;
+        private final double logLambda;
+        private final double logLambdaFactorial;
+        private final double delta;
+        private final double twolpd;
+        private final double p1;
+        private final double p1PlusP2;
+        private final double c1;
+        private final double twoLambda;
+        private final double sqrtLambdaPlusHalfDelta;
+        private final double twolpdOverDelta;
+
+        /**
+         * @param states the states
+         * @param n      the value n ({@code floor(mean)})
+         */
+        Record(PackedLargeMeanPoissonSamplerStates states, int n) {
+            this.states = states;
+            this.n = n;
+            final int offset = states.getOffset(n);
+            lambda = n;
+            logLambda = states.getLogLambda(offset);
+            logLambdaFactorial = states.getLogLambdaFactorial(offset);
+            delta = states.getDelta(offset);
+            twolpd = states.getTwolpd(offset);
+            p1 = states.getP1(offset);
+            p1PlusP2 = p1 + states.getP2(offset);
+            c1 = states.getC1(offset);
+            twoLambda = 2 * lambda;
+            sqrtLambdaPlusHalfDelta = states.getSqrtLambdaPlusHalfDelta(offset);
+            twolpdOverDelta = twolpd / delta;
+        }
+
+        @Override
+        public double getLambda() {
+            return lambda;
+        }
+
+        @Override
+        public double getDelta() {
+            return delta;
+        }
+
+        @Override
+        public double getTwolpd() {
+            return twolpd;
+        }
+
+        @Override
+        public double getP1() {
+            return p1;
+        }
+
+        @Override
+        public double getP1PlusP2() {
+            return p1PlusP2;
+        }
+
+        @Override
+        public double getC1() {
+            return c1;
+        }
+
+        @Override
+        public double getTwoLambda() {
+            return twoLambda;
+        }
+
+        @Override
+        public double getSqrtLambdaPlusHalfDelta() {
+            return sqrtLambdaPlusHalfDelta;
+        }
+
+        @Override
+        public double getTwolpdOverDelta() {
+            return twolpdOverDelta;
+        }
+
+        @Override
+        public double getAcceptanceBound(double y) {
+            if (states.windows != null) {
+                return states.getWindowState(n).getAcceptanceBound(y);
+            }
+            return y * logLambda - LargeMeanPoissonSampler.DEFAULT_LOG_FACTORIAL.value((int) (y + lambda)) +
+                    logLambdaFactorial;
+        }
+    }
+
+    /**
+     * Store the records in memory. The values are stored as the raw bits of the
+     * {@code double} in an {@link AtomicLongArray}. A record is computed on first
+     * use. The first element ({@code 2 * lambda + delta}) is non-zero and is
+     * written last to publish the record to other threads.
+     */
+    private static final class ArrayStates extends PackedLargeMeanPoissonSamplerStates {
+        /** The records. */
+        private final AtomicLongArray data;
+
+        /**
+         * @param minN             the minimum n
+         * @param maxN             the maximum n
+         * @param acceptanceWindow Set to true to use an acceptance window.
+         */
+        ArrayStates(int minN, int maxN, boolean acceptanceWindow) {
+            super(minN, maxN, acceptanceWindow);
+            data = new AtomicLongArray(size() * RECORD_SIZE);
+        }
+
+        @Override
+        int getOffset(int n) {
+            final int offset = (n - minN) * RECORD_SIZE;
+            if (data.get(offset + TWOLPD) == 0) {
+                // Concurrent threads may compute the record. The values are identical.
+                set(n, LargeMeanPoissonSamplerState.create(n));
+            }
+            return offset;
+        }
+
+        @Override
+        boolean isSet(int n) {
+            return data.get((n - minN) * RECORD_SIZE + TWOLPD) != 0;
+        }
+
+        @Override
+        void set(int n, LargeMeanPoissonSamplerState state) {
+            final int offset = (n - minN) * RECORD_SIZE;
+            data.lazySet(offset + LOG_LAMBDA, Double.doubleToRawLongBits(state.getLogLambda()));
+            data.lazySet(offset + LOG_LAMBDA_FACTORIAL,
+                    Double.doubleToRawLongBits(state.getLogLambdaFactorial()));
+            data.lazySet(offset + DELTA, Double.doubleToRawLongBits(state.getDelta()));
+            data.lazySet(offset + SQRT_LAMBDA_PLUS_HALF_DELTA,
+                    Double.doubleToRawLongBits(state.getSqrtLambdaPlusHalfDelta()));
+            data.lazySet(offset + P1, Double.doubleToRawLongBits(state.getP1()));
+            data.lazySet(offset + P2, Double.doubleToRawLongBits(state.getP2()));
+            data.lazySet(offset + C1, Double.doubleToRawLongBits(state.getC1()));
+            // Publish. The lazySet is ordered after the previous writes.
+            data.lazySet(offset + TWOLPD, Double.doubleToRawLongBits(state.getTwolpd()));
+        }
+
+        @Override
+        double get(int index) {
+            return Double.longBitsToDouble(data.get(index));
+        }
+
+        @Override
+        PackedLargeMeanPoissonSamplerStates newInstance(boolean acceptanceWindow) {
+            return new ArrayStates(minN, maxN, acceptanceWindow);
+        }
+
+        @Override
+        PackedLargeMeanPoissonSamplerStates freeze() {
+            return new FrozenStates(this);
+        }
+    }
+
+    /**
+     * Store every record in a plain array. The array is not modified after
+     * construction and is safely published by the {@code final} field so reads
+     * use no memory barriers.
+     */
+    private static final class FrozenStates extends PackedLargeMeanPoissonSamplerStates {
+        /** The records. */
+        private final double[] data;
+
+        /**
+         * Copy the records from the source. Any record missing from the source
+         * is computed in parallel directly into the array. The source is not
+         * modified.
+         *
+         * @param source the source
+         */
+        FrozenStates(ArrayStates source) {
+            super(source.minN, source.maxN, source.hasAcceptanceWindow());
+            final double[] array = new double[size() * RECORD_SIZE];
+            // Each task writes distinct elements. Completion of the parallel
+            // stream happens-before the return of forEach.
+            IntStream.rangeClosed(minN, maxN).parallel().forEach(n -> {
+                final int offset = (n - minN) * RECORD_SIZE;
+                if (source.isSet(n)) {
+                    for (int i = 0; i < RECORD_SIZE; i++) {
+                        array[offset + i] = source.get(offset + i);
+                    }
+                } else {
+                    final LargeMeanPoissonSamplerState state = LargeMeanPoissonSamplerState.create(n);
+                    array[offset + TWOLPD] = state.getTwolpd();
+                    array[offset + LOG_LAMBDA] = state.getLogLambda();
+                    array[offset + LOG_LAMBDA_FACTORIAL] = state.getLogLambdaFactorial();
+                    array[offset + DELTA] = state.getDelta();
+                    array[offset + SQRT_LAMBDA_PLUS_HALF_DELTA] = state.getSqrtLambdaPlusHalfDelta();
+                    array[offset + P1] = state.getP1();
+                    array[offset + P2] = state.getP2();
+                    array[offset + C1] = state.getC1();
+                }
+            });
+            data = array;
+        }
+
+        /**
+         * @param minN             the minimum n
+         * @param maxN             the maximum n
+         * @param data             the records
+         * @param acceptanceWindow Set to true to use an acceptance window.
+         */
+        private FrozenStates(int minN, int maxN, double[] data, boolean acceptanceWindow) {
+            super(minN, maxN, acceptanceWindow);
+            this.data = data;
+        }
+
+        @Override
+        int getOffset(int n) {
+            return (n - minN) * RECORD_SIZE;
+        }
+
+        @Override
+        boolean isSet(int n) {
+            return true;
+        }
+
+        @Override
+        void set(int n, LargeMeanPoissonSamplerState state) {
+            throw new UnsupportedOperationException("Read-only states");
+        }
+
+        @Override
+        double get(int index) {
+            return data[index];
+        }
+
+        @Override
+        PackedLargeMeanPoissonSamplerStates newInstance(boolean acceptanceWindow) {
+            // The records are immutable
+            return acceptanceWindow == hasAcceptanceWindow()
+                    ? this
+                    : new FrozenStates(minN, maxN, data, acceptanceWindow);
+        }
+
+        @Override
+        PackedLargeMeanPoissonSamplerStates freeze() {
+            return this;
+        }
+    }
+
+    /**
+     * Read the records in place from a read-only memory-mapped snapshot. All
+     * records are present. The buffer is only read using absolute positions so
+     * it can be shared by threads.
+     */
+    private static final class MappedStates extends PackedLargeMeanPoissonSamplerStates {
+        /** The snapshot including the header. */
+        private final ByteBuffer data;
+
+        /**
+         * @param minN             the minimum n
+         * @param maxN             the maximum n
+         * @param data             the snapshot including the header
+         * @param acceptanceWindow Set to true to use an acceptance window.
+         */
+        MappedStates(int minN, int maxN, ByteBuffer data, boolean acceptanceWindow) {
+            super(minN, maxN, acceptanceWindow);
+            this.data = data;
+        }
+
+        @Override
+        int getOffset(int n) {
+            return (n - minN) * RECORD_SIZE;
+        }
+
+        @Override
+        boolean isSet(int n) {
+            return true;
+        }
+
+        @Override
+        void set(int n, LargeMeanPoissonSamplerState state) {
+            throw new UnsupportedOperationException("Read-only snapshot");
+        }
+
+        @Override
+        double get(int index) {
+            return data.getDouble(HEADER_SIZE + index * Double.BYTES);
+        }
+
+        @Override
+        PackedLargeMeanPoissonSamplerStates newInstance(boolean acceptanceWindow) {
+            // The records are immutable. The states with a window have the
+            // same values so they can be shared.
+            return acceptanceWindow == hasAcceptanceWindow()
+                    ? this
+                    : new MappedStates(minN, maxN, data, acceptanceWindow);
+        }
+
+        @Override
+        PackedLargeMeanPoissonSamplerStates freeze() {
+            // Immutable
+            return this;
+        }
+    }
+
+    /**
+     * @param minN             the minimum n
+     * @param maxN             the maximum n
+     * @param acceptanceWindow Set to true to use an acceptance window.
+     * @throws IllegalArgumentException if the number of records is above
+     *                                  {@link #MAX_SIZE}.
+     */
+    PackedLargeMeanPoissonSamplerStates(int minN, int maxN, boolean acceptanceWindow) {
+        final long size = maxN - (long) minN + 1;
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Range is too large: " + size);
+        }
+        this.minN = minN;
+        this.maxN = maxN;
+        windows = acceptanceWindow ? new AtomicReferenceArray<>((int) size) : null;
+    }
+
+    /**
+     * Create the states in memory. The records are computed on first use.
+     *
+     * @param minN the minimum n
+     * @param maxN the maximum n
+     * @return the states
+     * @throws IllegalArgumentException if the number of records is above
+     *                                  {@link #MAX_SIZE}.
+     */
+    static PackedLargeMeanPoissonSamplerStates create(int minN, int maxN) {
+        return new ArrayStates(minN, maxN, false);
+    }
+
+    /**
+     * Write a snapshot of the states for the range {@code [minN, maxN]}. The
+     * states are computed directly and are identical to those computed on first
+     * use. An existing file is replaced.
+     *
+     * @param file the file
+     * @param minN the minimum n
+     * @param maxN the maximum n
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if {@code minN < 0}, {@code maxN < minN}
+     *                                  or the number of records is above
+     *                                  {@link #MAX_SNAPSHOT_SIZE}.
+     */
+    static void write(Path file, int minN, int maxN) throws IOException {
+        if (minN < 0 || maxN < minN) {
+            throw new IllegalArgumentException("Invalid range: " + minN + " to " + maxN);
+        }
+        final long size = maxN - (long) minN + 1;
+        if (size > MAX_SNAPSHOT_SIZE) {
+            throw new IllegalArgumentException("Range is too large for a snapshot: " + size);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_RECORDS * RECORD_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(0)
+                  .putInt(minN).putInt(maxN).putLong(0);
+            for (int n = minN; n <= maxN; n++) {
+                if (buffer.remaining() < RECORD_BYTES) {
+                    writeFully(channel, buffer);
+                }
+                final LargeMeanPoissonSamplerState state = LargeMeanPoissonSamplerState.create(n);
+                // The order of the fields in the record
+                buffer.putDouble(state.getTwolpd())
+                      .putDouble(state.getLogLambda())
+                      .putDouble(state.getLogLambdaFactorial())
+                      .putDouble(state.getDelta())
+                      .putDouble(state.getSqrtLambdaPlusHalfDelta())
+                      .putDouble(state.getP1())
+                      .putDouble(state.getP2())
+                      .putDouble(state.getC1());
+            }
+            writeFully(channel, buffer);
+        }
+    }
+
+    /**
+     * Write the buffer to the channel and clear the buffer.
+     *
+     * @param channel the channel
+     * @param buffer  the buffer
+     * @throws IOException if an I/O error occurs
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Map a snapshot of the states read-only. The header and the file length are
+     * validated; the records are read in place when used. The mapping remains
+     * valid after the file is closed. The pages are shared with other processes
+     * that map the same file.
+     *
+     * @param file the file
+     * @return the states
+     * @throws IOException if an I/O error occurs or the file is not a valid
+     *                     snapshot
+     */
+    static PackedLargeMeanPoissonSamplerStates map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long length = channel.size();
+            if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+                throw new IOException("Invalid snapshot length: " + length);
+            }
+            final ByteBuffer data = channel.map(MapMode.READ_ONLY, 0, length)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (data.getInt(0) != MAGIC) {
+                throw new IOException("Not a snapshot: " + file);
+            }
+            final int version = data.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version: " + version);
+            }
+            final int recordSize = data.getInt(8);
+            if (recordSize != RECORD_SIZE) {
+                throw new IOException("Unsupported snapshot record size: " + recordSize);
+            }
+            final int minN = data.getInt(16);
+            final int maxN = data.getInt(20);
+            if (minN < 0 || maxN < minN) {
+                throw new IOException("Invalid snapshot range: " + minN + " to " + maxN);
+            }
+            final long expected = HEADER_SIZE + (maxN - (long) minN + 1) * RECORD_BYTES;
+            if (length != expected) {
+                throw new IOException("Snapshot length " + length + " does not match the range: " +
+                        expected);
+            }
+            return new MappedStates(minN, maxN, data, false);
+        }
+    }
+
+    /**
+     * Gets the offset of the record for {@code n}, computing the record if
+     * necessary.
+     * <p>
+     * Assumes {@code minN <= n <= maxN}.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return the offset
+     */
+    abstract int getOffset(int n);
+
+    /**
+     * Checks if the record for {@code n} has been computed.
+     * <p>
+     * Assumes {@code minN <= n <= maxN}.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return true if computed
+     */
+    abstract boolean isSet(int n);
+
+    /**
+     * Sets the record for {@code n} using the values of the state.
+     * <p>
+     * Assumes {@code minN <= n <= maxN}.
+     *
+     * @param n     the value n ({@code floor(mean)})
+     * @param state the state
+     * @throws UnsupportedOperationException if the states are read-only
+     */
+    abstract void set(int n, LargeMeanPoissonSamplerState state);
+
+    /**
+     * Gets the value at the index.
+     *
+     * @param index the index ({@code offset + field})
+     * @return the value
+     */
+    abstract double get(int index);
+
+    /**
+     * Create an instance for the same range with no computed records. An
+     * immutable instance returns itself.
+     *
+     * @return the instance
+     */
+    PackedLargeMeanPoissonSamplerStates newInstance() {
+        return newInstance(hasAcceptanceWindow());
+    }
+
+    /**
+     * Create an instance for the same range with no computed records and the
+     * specified use of the acceptance window. An immutable instance with the
+     * same use of the window returns itself.
+     *
+     * @param acceptanceWindow Set to true to use an acceptance window.
+     * @return the instance
+     */
+    abstract PackedLargeMeanPoissonSamplerStates newInstance(boolean acceptanceWindow);
+
+    /**
+     * Create a read-only copy of the states with every record. Records that
+     * exist are copied and missing records are computed. An immutable instance
+     * returns itself. The states with an acceptance window are not copied;
+     * they are created on first use.
+     *
+     * @return the instance
+     */
+    abstract PackedLargeMeanPoissonSamplerStates freeze();
+
+    /**
+     * @return true if the states use an acceptance window
+     */
+    boolean hasAcceptanceWindow() {
+        return windows != null;
+    }
+
+    /**
+     * Gets the values of the rejection algorithm for {@code n}, computing the
+     * record if necessary.
+     * <p>
+     * Assumes {@code minN <= n <= maxN}.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return the values
+     */
+    Record getRecord(int n) {
+        return new Record(this, n);
+    }
+
+    /**
+     * Gets the state with an acceptance window for {@code n}, creating it if
+     * necessary. Assumes the states use an acceptance window.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return the state
+     */
+    private LargeMeanPoissonSamplerState getWindowState(int n) {
+        final int index = n - minN;
+        LargeMeanPoissonSamplerState state = windows.get(index);
+        if (state == null) {
+            // Concurrent threads may create the state. The values are identical.
+            state = LargeMeanPoissonSamplerState.create(n, true);
+            windows.lazySet(index, state);
+        }
+        return state;
+    }
+
+    /**
+     * @param offset the offset of the record
+     * @return {@code 2 * lambda + delta}
+     */
+    double getTwolpd(int offset) {
+        return get(offset + TWOLPD);
+    }
+
+    /**
+     * @param offset the offset of the record
+     * @return {@code log(lambda)}
+     */
+    double getLogLambda(int offset) {
+        return get(offset + LOG_LAMBDA);
+    }
+
+    /**
+     * @param offset the offset of the record
+     * @return {@code log(lambda!)}
+     */
+    double getLogLambdaFactorial(int offset) {
+        return get(offset + LOG_LAMBDA_FACTORIAL);
+    }
+
+    /**
+     * @param offset the offset of the record
+     * @return the delta value
+     */
+    double getDelta(int offset) {
+        return get(offset + DELTA);
+    }
+
+    /**
+     * @param offset the offset of the record
+     * @return {@code Math.sqrt(lambda + halfDelta)}
+     */
+    double getSqrtLambdaPlusHalfDelta(int offset) {
+        return get(offset + SQRT_LAMBDA_PLUS_HALF_DELTA);
+    }
+
+    /**
+     * @param offset the offset of the record
+     * @return the probability of the Gaussian branch
+     */
+    double getP1(int offset) {
+        return get(offset + P1);
+    }
+
+    /**
+     * @param offset the offset of the record
+     * @return the probability of the exponential branch
+     */
+    double getP2(int offset) {
+        return get(offset + P2);
+    }
+
+    /**
+     * @param offset the offset of the record
+     * @return {@code 1 / (8 * lambda)}
+     */
+    double getC1(int offset) {
+        return get(offset + C1);
+    }
+
+    /**
+     * Gets the number of records.
+     *
+     * @return the size
+     */
+    int size() {
+        return maxN - minN + 1;
+    }
+}
@@ -0,0 +1,54 @@
+package org.apache.commons.rng.sampling.distribution;
+
+/**
+ * Store the state of a sampler for each {@code n} in the range
+ * {@code [minN, maxN]} using a plain array with an entry for every {@code n}.
+ * <p>
+ * The array is read and written without memory barriers. This is thread safe
+ * only because the states are immutable: all fields are {@code final} (or
+ * {@code volatile}) so a state read by another thread through a data race is
+ * fully constructed (JLS 17.5). A thread may not see a state written by
+ * another thread and recompute it. This is harmless as the states for the
+ * same {@code n} are identical.
+ * <p>
+ * This is the baseline for the cost of the ordering imposed by the
+ * {@link DenseStateStore}.
+ *
+ * @param <T> the type of the state (must be immutable with final fields)
+ */
+final class PlainDenseStateStore<T> implements StateStore<T> {
+    /** The minimum n. */
+    private final int minN;
+    /** The states. The array is offset by minN. */
+    private final Object[] values;
+
+    /**
+     * @param minN the minimum n
+     * @param maxN the maximum n
+     */
+    PlainDenseStateStore(int minN, int maxN) {
+        this.minN = minN;
+        values = new Object[maxN - minN + 1];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Assumes {@code minN <= n <= maxN}.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(int n) {
+        return (T) values[n - minN];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Assumes {@code minN <= n <= maxN}.
+     */
+    @Override
+    public void put(int n, T state) {
+        values[n - minN] = state;
+    }
+}
@@ -0,0 +1,160 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+
+/**
+ * Calibrate the value for switching between the {@link SmallMeanPoissonSampler}
+ * and the {@link LargeMeanPoissonSampler}.
+ * <p>
+ * The speed of the small mean sampler is proportional to the mean and the speed
+ * of the uniform random provider. The speed of the large mean sampler is
+ * approximately constant. The crossover point thus depends on the provider.
+ * <p>
+ * The calibration times both samplers at a set of means in a range and chooses
+ * the pivot that minimises the total sample time across the range. The result
+ * can be passed to {@link WrapperPoissonSampler} and {@link PoissonSamplerCache}.
+ * <p>
+ * Note: The calibration uses wall-clock time and is subject to noise from the
+ * JIT compiler and other system activity.
+ */
+public final class PoissonPivotCalibration {
+
+    /** The default number of means to test in the range. */
+    private static final int DEFAULT_POINTS = 10;
+    /** The default number of samples for each timing. */
+    private static final int DEFAULT_SAMPLES = 20000;
+    /** The number of repeats of each timing. The fastest time is used. */
+    private static final int REPEATS = 5;
+
+    /** No public construction. */
+    private PoissonPivotCalibration() {}
+
+    /**
+     * Calibrate the pivot for the provider using means in the given range.
+     *
+     * @param rng     Generator of uniformly distributed random numbers.
+     * @param minMean The minimum mean.
+     * @param maxMean The maximum mean.
+     * @return the pivot
+     * @throws IllegalArgumentException if {@code maxMean <= minMean} or the range
+     *                                  is not within {@code [1, 500]}.
+     */
+    public static double calibrate(UniformRandomProvider rng, double minMean, double maxMean) {
+        return calibrate(rng, minMean, maxMean, DEFAULT_POINTS, DEFAULT_SAMPLES);
+    }
+
+    /**
+     * Calibrate the pivot for the provider using means in the given range.
+     *
+     * @param rng     Generator of uniformly distributed random numbers.
+     * @param minMean The minimum mean.
+     * @param maxMean The maximum mean.
+     * @param points  The number of means to test in the range.
+     * @param samples The number of samples for each timing.
+     * @return the pivot
+     * @throws IllegalArgumentException if {@code maxMean <= minMean}, the range
+     *                                  is not within {@code [1, 500]},
+     *                                  {@code points < 2} or {@code samples < 1}.
+     */
+    public static double calibrate(UniformRandomProvider rng, double minMean, double maxMean,
+            int points, int samples) {
+        WrapperPoissonSampler.checkPivot(minMean);
+        WrapperPoissonSampler.checkPivot(maxMean);
+        if (maxMean <= minMean) {
+            throw new IllegalArgumentException("Max mean: " + maxMean + " <= " + minMean);
+        }
+        if (points < 2) {
+            throw new IllegalArgumentException("Points: " + points + " < 2");
+        }
+        if (samples < 1) {
+            throw new IllegalArgumentException("Samples: " + samples + " < 1");
+        }
+
+        final double[] means = new double[points];
+        for (int i = 0; i < points; i++) {
+            means[i] = minMean + (maxMean - minMean) * i / (points - 1);
+        }
+
+        final long[] smallTimes = new long[points];
+        final long[] largeTimes = new long[points];
+        // The first round is a warm-up and is overwritten
+        for (int round = 0; round <= REPEATS; round++) {
+            for (int i = 0; i < points; i++) {
+                final long t1 = time(new SmallMeanPoissonSampler(rng, means[i]), samples);
+                final long t2 = time(new LargeMeanPoissonSampler(rng, means[i]), samples);
+                if (round == 0 || t1 < smallTimes[i]) {
+                    smallTimes[i] = t1;
+                }
+                if (round == 0 || t2 < largeTimes[i]) {
+                    largeTimes[i] = t2;
+                }
+            }
+        }
+
+        final int index = findCrossover(toDouble(smallTimes), toDouble(largeTimes));
+        // If the small mean sampler is always faster then use a pivot above the range
+        return index == points ? Math.min(Math.nextUp(maxMean), WrapperPoissonSampler.MAX_PIVOT)
+                : means[index];
+    }
+
+    /**
+     * Find the index of the crossover between the small and large mean samplers.
+     * This is the index {@code k} that minimises the total time
+     * {@code sum(small[0..k-1]) + sum(large[k..n-1])}. Using the total time is
+     * robust to noise in the times around the crossover.
+     *
+     * @param small The time for the small mean sampler at each mean.
+     * @param large The time for the large mean sampler at each mean.
+     * @return the index (in the range {@code [0, n]})
+     */
+    static int findCrossover(double[] small, double[] large) {
+        // Start with all means using the large mean sampler
+        double total = 0;
+        for (final double t : large) {
+            total += t;
+        }
+        double min = total;
+        int index = 0;
+        // Move the pivot up one mean at a time
+        for (int k = 0; k < small.length; k++) {
+            total += small[k] - large[k];
+            if (total < min) {
+                min = total;
+                index = k + 1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Time the sampler.
+     *
+     * @param sampler the sampler
+     * @param samples the number of samples
+     * @return the time (in nanoseconds)
+     */
+    private static long time(DiscreteSampler sampler, int samples) {
+        final long start = System.nanoTime();
+        int sum = 0;
+        for (int i = 0; i < samples; i++) {
+            sum += sampler.sample();
+        }
+        final long time = System.nanoTime() - start;
+        // Use the sum to prevent the loop being eliminated
+        return sum == Integer.MIN_VALUE ? time + 1 : time;
+    }
+
+    /**
+     * Convert to a double array.
+     *
+     * @param values the values
+     * @return the double array
+     */
+    private static double[] toDouble(long[] values) {
+        final double[] result = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+}
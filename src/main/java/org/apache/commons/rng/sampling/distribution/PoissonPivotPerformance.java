@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.rng.RandomProviderState;
+import org.apache.commons.rng.RestorableUniformRandomProvider;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executes benchmark to find the crossover in speed between the
+ * {@link SmallMeanPoissonSampler} and the {@link LargeMeanPoissonSampler}
+ * for the various source providers.
+ * <p>
+ * Run the {@link #main(String[])} method to execute the benchmark and report the
+ * crossover for each source provider.
+ *
+ * @see PoissonPivotCalibration
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = { "-server", "-Xms128M", "-Xmx128M" })
+public class PoissonPivotPerformance {
+    /** Number of samples per run. */
+    private static final int NUM_SAMPLES = 100000;
+
+    /**
+     * Seed used to ensure the tests are the same. This can be different per
+     * benchmark, but should be the same within the benchmark.
+     */
+    private static final int[] seed;
+
+    static {
+        seed = new int[128];
+        final UniformRandomProvider rng = RandomSource
+                .create(RandomSource.WELL_44497_B);
+        for (int i = seed.length; i-- > 0;)
+            seed[i] = rng.nextInt();
+    }
+
+    /**
+     * The benchmark state (retrieve the various "RandomSource"s).
+     */
+    @State(Scope.Benchmark)
+    public static class Sources {
+        /**
+         * RNG providers. Use all providers that do not require additional
+         * construction arguments.
+         *
+         * @see <a href="https://commons.apache.org/proper/commons-rng/userguide/rng.html">Commons RNG user guide</a>
+         */
+        @Param({ "JDK", "WELL_512_A", "WELL_1024_A", "WELL_19937_A",
+                "WELL_19937_C", "WELL_44497_A", "WELL_44497_B", "MT", "ISAAC",
+                "SPLIT_MIX_64", "XOR_SHIFT_1024_S", "TWO_CMRES", "MT_64",
+                "MWC_256", "KISS" })
+        private String randomSourceName;
+
+        /** RNG. */
+        private RestorableUniformRandomProvider generator;
+
+        /**
+         * The state of the generator at the start of the test (for reproducible
+         * results).
+         */
+        private RandomProviderState state;
+
+        /**
+         * @return the RNG.
+         */
+        public UniformRandomProvider getGenerator() {
+            generator.restoreState(state);
+            return generator;
+        }
+
+        /** Instantiates generator. */
+        @Setup
+        public void setup() {
+            final RandomSource randomSource = RandomSource
+                    .valueOf(randomSourceName);
+            // Use the same seed
+            generator = RandomSource.create(randomSource, seed);
+            state = generator.saveState();
+        }
+    }
+
+    /**
+     * The mean value for testing the crossover.
+     */
+    @State(Scope.Benchmark)
+    public static class PivotMean {
+        /**
+         * Test mean. Scan the range 10 to 100.
+         */
+        @Param({ "10", "20", "30", "40", "50", "60", "70", "80", "90", "100" })
+        private double mean;
+
+        /**
+         * Gets the mean.
+         *
+         * @return the mean
+         */
+        public double getMean() {
+            return mean;
+        }
+    }
+
+    /**
+     * Exercises a discrete sampler.
+     *
+     * @param sampler Sampler.
+     * @param bh      Data sink.
+     */
+    private static void runSample(DiscreteSampler sampler, Blackhole bh) {
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            bh.consume(sampler.sample());
+        }
+    }
+
+    // Benchmarks methods below.
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanPoissonSampler(Sources sources, PivotMean mean,
+            Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(new SmallMeanPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanPoissonSampler(Sources sources, PivotMean mean,
+            Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(new LargeMeanPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * Run the benchmark and report the measured crossover for each source
+     * provider.
+     *
+     * @param args the arguments (ignored)
+     * @throws RunnerException if the benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+                .include(PoissonPivotPerformance.class.getSimpleName())
+                .build();
+        final Collection<RunResult> results = new Runner(opt).run();
+
+        // Collect the scores: source -> mean -> {small, large}
+        final Map<String, TreeMap<Double, double[]>> scores = new TreeMap<>();
+        for (final RunResult result : results) {
+            final String source = result.getParams().getParam("randomSourceName");
+            final double mean = Double.parseDouble(result.getParams().getParam("mean"));
+            final int index = result.getParams().getBenchmark()
+                    .endsWith("runSmallMeanPoissonSampler") ? 0 : 1;
+            scores.computeIfAbsent(source, k -> new TreeMap<>())
+                    .computeIfAbsent(mean, k -> new double[2])[index] =
+                            result.getPrimaryResult().getScore();
+        }
+
+        System.out.println("Source,Crossover");
+        for (final Map.Entry<String, TreeMap<Double, double[]>> entry : scores.entrySet()) {
+            final TreeMap<Double, double[]> map = entry.getValue();
+            final double[] means = new double[map.size()];
+            final double[] small = new double[map.size()];
+            final double[] large = new double[map.size()];
+            int i = 0;
+            for (final Map.Entry<Double, double[]> e : map.entrySet()) {
+                means[i] = e.getKey();
+                small[i] = e.getValue()[0];
+                large[i] = e.getValue()[1];
+                i++;
+            }
+            final int index = PoissonPivotCalibration.findCrossover(small, large);
+            System.out.printf("%s,%s%n", entry.getKey(),
+                    index == means.length ? ">" + means[means.length - 1] : means[index]);
+        }
+    }
+}
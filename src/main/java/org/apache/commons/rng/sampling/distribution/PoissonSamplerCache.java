@@ -1,10 +1,27 @@
 package org.apache.commons.rng.sampling.distribution;
 
-import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
 
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.rng.sampling.distribution.PoissonSampler;
+import org.apache.commons.rng.sampling.distribution.FullMeanPoissonSampler.FullMeanPoissonSamplerState;
+import org.apache.commons.rng.sampling.distribution.FusedLargeMeanPoissonSampler.ExponentialSampler;
+import org.apache.commons.rng.sampling.distribution.FusedLargeMeanPoissonSampler.GaussianSampler;
 import org.apache.commons.rng.sampling.distribution.LargeMeanPoissonSampler.LargeMeanPoissonSamplerState;
+import org.apache.commons.rng.sampling.distribution.LargeMeanPoissonSampler.RejectionParameters;
+import org.apache.commons.rng.sampling.distribution.MeanStateStore.MeanState;
+import org.apache.commons.rng.sampling.distribution.PtrsPoissonSampler.PtrsPoissonSamplerState;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.LargeMeanAlgorithm;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.Mode;
 
 /**
  * Create a sampler for the
@@ -30,22 +47,96 @@ import org.apache.commons.rng.sampling.distribution.LargeMeanPoissonSampler.Larg
  * {@link UniformRandomProvider}. A fast provider can obtain a two-fold speed
  * improvement for a single-use Poisson sampler.
  * <p>
- * The cache is thread safe.
+ * The cache stores a state for each {@code n = floor(mean)} in an array
+ * covering the range. If only a small number of distinct {@code n} are
+ * expected from a wide range then a hash table can be used to reduce memory
+ * (see {@link #withExpectedDistinctMeans(int)}). The states for the default
+ * algorithm can be packed into a single array to reduce memory and improve
+ * locality for wide ranges (see {@link #withPackedStates()}), or read in
+ * place from a memory-mapped snapshot file (see {@link #withSnapshot(Path)}).
+ * <p>
+ * If the same means are used repeatedly then the complete precomputation for
+ * each mean, including the lambda fraction, can be stored (see
+ * {@link #withMeanStates(int)}).
+ * <p>
+ * If the range is not known then the cache can grow its range on demand up to
+ * a maximum size (see {@link #withGrowableRange(int)}).
+ * <p>
+ * The cache can count the requests in and out of the range to check the range
+ * is configured correctly (see {@link #withStatistics()}).
+ * <p>
+ * The settings can be combined when the cache is created using a
+ * {@link Builder} (see {@link #builder(double, double)}). The {@code with}
+ * methods create a new cache from the settings of an existing cache.
+ * <p>
+ * The cache is thread safe. If the range is known at start-up then a
+ * read-only copy with all the states computed avoids the memory ordering of
+ * the shared store (see {@link #freeze()}).
  */
 public class PoissonSamplerCache {
 
+    /**
+     * The ratio of the size of the range to the expected number of distinct
+     * {@code n} above which a sparse store is used. The sparse store uses
+     * approximately 6 times the memory of the dense array per stored key and
+     * has a higher lookup cost.
+     */
+    static final int SPARSE_RATIO = 8;
+
+    /** The number of consecutive {@code n} computed by each task of the prefill. */
+    static final int PREFILL_CHUNK_SIZE = 1024;
+
     /**
      * The minimum N covered by the cache where
-     * {@code N = (int)Math.floor(mean)}.
+     * {@code N = (int)Math.floor(mean)}. If the range can grow this is the
+     * initial minimum.
      */
     private final int minN;
     /**
      * The maximum N covered by the cache where
-     * {@code N = (int)Math.floor(mean)}.
+     * {@code N = (int)Math.floor(mean)}. If the range can grow this is the
+     * initial maximum.
      */
     private final int maxN;
     /** The cache of states between {@link minN} and {@link maxN}. */
-    private final AtomicReferenceArray<LargeMeanPoissonSamplerState> values;
+    private final StateStore<LargeMeanPoissonSamplerState> values;
+    /** The cache of PTRS states between {@link minN} and {@link maxN}. */
+    private final StateStore<PtrsPoissonSamplerState> ptrsValues;
+    /** The cache of full mean states between {@link minN} and {@link maxN}. */
+    private final StateStore<FullMeanPoissonSamplerState> fullMeanValues;
+    /** The packed states between {@link minN} and {@link maxN}. */
+    private final PackedLargeMeanPoissonSamplerStates packedValues;
+    /** The algorithm used for large means. */
+    private final LargeMeanAlgorithm largeMeanAlgorithm;
+    /** Value for switching sampling algorithm. */
+    private final double pivot;
+    /** The cache of tables for small means (can be null). */
+    private final SmallMeanPoissonTableCache smallMeanCache;
+    /** Set to true to use an acceptance window in the cached states. */
+    private final boolean acceptanceWindow;
+    /**
+     * The minimum mean to use the normal approximation. This is infinite if the
+     * approximation is disabled.
+     */
+    private final double approximationMean;
+    /** The sampling mode. */
+    private final Mode mode;
+    /**
+     * The expected number of distinct {@code n}. This is zero if not known.
+     */
+    private final int expectedDistinct;
+    /** Set to true to use a sparse store for the states. */
+    private final boolean sparse;
+    /** The statistics (can be null). */
+    private final PoissonSamplerCacheStatistics statistics;
+    /** The store for the state of each mean (can be null). */
+    private final MeanStateStore meanStates;
+    /** The maximum number of {@code n} when the range can grow. This is zero if the range is fixed. */
+    private final int maxRangeSize;
+    /** The store that can grow its range (can be null). This is one of the stores of states. */
+    private final GrowableStateStore<?> growable;
+    /** Factory for the {@link LargeMeanAlgorithm#REJECTION} state. */
+    private final IntFunction<LargeMeanPoissonSamplerState> stateFactory = this::createState;
 
     /**
      * @param minMean The minimum mean covered by the cache.
@@ -53,13 +144,581 @@ public class PoissonSamplerCache {
      * @throws IllegalArgumentException if {@code maxMean < minMean}
      */
     public PoissonSamplerCache(double minMean, double maxMean) {
+        this(builder(minMean, maxMean));
+    }
+
+    /**
+     * Create an instance with an optional cache of tables for means below the
+     * algorithm switch point.
+     * <p>
+     * Note: If the small mean cache is used then samplers for small means will
+     * <strong>not</strong> match the output of the {@link PoissonSampler}.
+     *
+     * @param minMean        The minimum mean covered by the cache.
+     * @param maxMean        The maximum mean covered by the cache.
+     * @param smallMeanCache The cache of tables for small means (can be null).
+     * @throws IllegalArgumentException if {@code maxMean < minMean}
+     */
+    public PoissonSamplerCache(double minMean, double maxMean,
+            SmallMeanPoissonTableCache smallMeanCache) {
+        this(builder(minMean, maxMean).smallMeanCache(smallMeanCache));
+    }
+
+    /**
+     * Create an instance with the algorithm used for large means.
+     * <p>
+     * Note: If the large mean algorithm is not
+     * {@link LargeMeanAlgorithm#REJECTION} then the samplers will
+     * <strong>not</strong> match the output of the {@link PoissonSampler}.
+     *
+     * @param minMean            The minimum mean covered by the cache.
+     * @param maxMean            The maximum mean covered by the cache.
+     * @param largeMeanAlgorithm The algorithm used for large means.
+     * @throws IllegalArgumentException if {@code maxMean < minMean}
+     */
+    public PoissonSamplerCache(double minMean, double maxMean,
+            LargeMeanAlgorithm largeMeanAlgorithm) {
+        this(builder(minMean, maxMean).largeMeanAlgorithm(largeMeanAlgorithm));
+    }
+
+    /**
+     * Create an instance with the sampling mode.
+     * <p>
+     * Note: If the mode is {@link Mode#FAST} then the samplers will
+     * <strong>not</strong> match the output of the {@link PoissonSampler}.
+     *
+     * @param minMean The minimum mean covered by the cache.
+     * @param maxMean The maximum mean covered by the cache.
+     * @param mode    The sampling mode.
+     * @throws IllegalArgumentException if {@code maxMean < minMean}
+     */
+    public PoissonSamplerCache(double minMean, double maxMean, Mode mode) {
+        this(builder(minMean, maxMean).mode(mode));
+    }
+
+    /**
+     * Create an instance with the value for switching sampling algorithm.
+     * <p>
+     * Note: If the pivot is not the default then the samplers will
+     * <strong>not</strong> match the output of the {@link PoissonSampler}.
+     *
+     * @param minMean The minimum mean covered by the cache.
+     * @param maxMean The maximum mean covered by the cache.
+     * @param pivot   Value for switching sampling algorithm.
+     * @throws IllegalArgumentException if {@code maxMean < minMean} or the pivot
+     *                                  is not in the range {@code [1, 500]}.
+     * @see PoissonPivotCalibration
+     */
+    public PoissonSamplerCache(double minMean, double maxMean, double pivot) {
+        this(builder(minMean, maxMean).pivot(pivot));
+    }
+
+    /**
+     * Create an instance with the value for switching sampling algorithm and an
+     * optional cache of tables for means below the algorithm switch point.
+     * <p>
+     * Note: If the pivot is not the default or the small mean cache is used then
+     * the samplers will <strong>not</strong> match the output of the
+     * {@link PoissonSampler}.
+     *
+     * @param minMean        The minimum mean covered by the cache.
+     * @param maxMean        The maximum mean covered by the cache.
+     * @param pivot          Value for switching sampling algorithm.
+     * @param smallMeanCache The cache of tables for small means (can be null).
+     * @throws IllegalArgumentException if {@code maxMean < minMean} or the pivot
+     *                                  is not in the range {@code [1, 500]}.
+     * @see PoissonPivotCalibration
+     */
+    public PoissonSamplerCache(double minMean, double maxMean, double pivot,
+            SmallMeanPoissonTableCache smallMeanCache) {
+        this(builder(minMean, maxMean).pivot(pivot).smallMeanCache(smallMeanCache));
+    }
+
+    /**
+     * Create an instance with the value for switching sampling algorithm, an
+     * optional cache of tables for means below the algorithm switch point and
+     * the algorithm used for large means.
+     * <p>
+     * Note: If the pivot is not the default, the small mean cache is used or the
+     * large mean algorithm is not {@link LargeMeanAlgorithm#REJECTION} then the
+     * samplers will <strong>not</strong> match the output of the
+     * {@link PoissonSampler}.
+     *
+     * @param minMean            The minimum mean covered by the cache.
+     * @param maxMean            The maximum mean covered by the cache.
+     * @param pivot              Value for switching sampling algorithm.
+     * @param smallMeanCache     The cache of tables for small means (can be null).
+     * @param largeMeanAlgorithm The algorithm used for large means.
+     * @throws IllegalArgumentException if {@code maxMean < minMean} or the pivot
+     *                                  is not in the range {@code [1, 500]}
+     *                                  ({@code [10, 500]} for the PTRS and FULL_MEAN
+     *                                  algorithms).
+     * @see PoissonPivotCalibration
+     */
+    public PoissonSamplerCache(double minMean, double maxMean, double pivot,
+            SmallMeanPoissonTableCache smallMeanCache, LargeMeanAlgorithm largeMeanAlgorithm) {
+        this(builder(minMean, maxMean).pivot(pivot).smallMeanCache(smallMeanCache)
+                .largeMeanAlgorithm(largeMeanAlgorithm));
+    }
+
+    /**
+     * Create an instance with the value for switching sampling algorithm, an
+     * optional cache of tables for means below the algorithm switch point, the
+     * algorithm used for large means and the sampling mode.
+     * <p>
+     * Note: If the pivot is not the default, the small mean cache is used, the
+     * large mean algorithm is not {@link LargeMeanAlgorithm#REJECTION} or the
+     * mode is not {@link Mode#EXACT} then the samplers will
+     * <strong>not</strong> match the output of the {@link PoissonSampler}.
+     *
+     * @param minMean            The minimum mean covered by the cache.
+     * @param maxMean            The maximum mean covered by the cache.
+     * @param pivot              Value for switching sampling algorithm.
+     * @param smallMeanCache     The cache of tables for small means (can be null).
+     * @param largeMeanAlgorithm The algorithm used for large means.
+     * @param mode               The sampling mode.
+     * @throws IllegalArgumentException if {@code maxMean < minMean} or the pivot
+     *                                  is not in the range {@code [1, 500]}
+     *                                  ({@code [10, 500]} for the PTRS and FULL_MEAN
+     *                                  algorithms).
+     * @see PoissonPivotCalibration
+     */
+    public PoissonSamplerCache(double minMean, double maxMean, double pivot,
+            SmallMeanPoissonTableCache smallMeanCache, LargeMeanAlgorithm largeMeanAlgorithm,
+            Mode mode) {
+        this(builder(minMean, maxMean).pivot(pivot).smallMeanCache(smallMeanCache)
+                .largeMeanAlgorithm(largeMeanAlgorithm).mode(mode));
+    }
+
+    /**
+     * Create an instance sized for the expected number of distinct
+     * {@code n = floor(mean)}. The store for the states is selected before it
+     * is allocated: if the size of the range is much larger than the expected
+     * number of distinct values (above {@link #SPARSE_RATIO} times) then a hash
+     * table is used and the memory is proportional to the number of distinct
+     * values; otherwise an array covering the range is used.
+     * <p>
+     * This avoids allocating the array for the range that is created by the
+     * constructors when a sparse store is required (see
+     * {@link #withExpectedDistinctMeans(int)}).
+     *
+     * @param minMean  The minimum mean covered by the cache.
+     * @param maxMean  The maximum mean covered by the cache.
+     * @param expected The expected number of distinct {@code n} (use zero if not
+     *                 known).
+     * @return the cache
+     * @throws IllegalArgumentException if {@code maxMean < minMean} or
+     *                                  {@code expected < 0}.
+     * @see Builder#expectedDistinctMeans(int)
+     */
+    public static PoissonSamplerCache createWithExpectedDistinctMeans(double minMean, double maxMean,
+            int expected) {
+        return builder(minMean, maxMean).expectedDistinctMeans(expected).build();
+    }
+
+    /**
+     * Create an instance that stores the states in a single packed array (see
+     * {@link #withPackedStates()}). The packed array is the only store that is
+     * allocated.
+     *
+     * @param minMean The minimum mean covered by the cache.
+     * @param maxMean The maximum mean covered by the cache.
+     * @return the cache
+     * @throws IllegalArgumentException if {@code maxMean < minMean} or the range
+     *                                  has more than {@code 2^28 - 1} values of
+     *                                  {@code n}.
+     * @see Builder#packedStates(boolean)
+     */
+    public static PoissonSamplerCache createWithPackedStates(double minMean, double maxMean) {
+        return builder(minMean, maxMean).packedStates(true).build();
+    }
+
+    /**
+     * Create an instance that reads the states in place from a snapshot file
+     * (see {@link #withSnapshot(Path)}). No other store is allocated.
+     *
+     * @param minMean The minimum mean covered by the cache.
+     * @param maxMean The maximum mean covered by the cache.
+     * @param file    The file.
+     * @return the cache
+     * @throws IOException if an I/O error occurs or the file is not a valid
+     *                     snapshot.
+     * @throws IllegalArgumentException if {@code maxMean < minMean} or the
+     *                                  snapshot does not cover the range of the
+     *                                  cache.
+     * @see #writeSnapshot(Path)
+     * @see Builder#snapshot(Path)
+     */
+    public static PoissonSamplerCache createWithSnapshot(double minMean, double maxMean, Path file)
+            throws IOException {
+        return builder(minMean, maxMean).snapshot(file).build();
+    }
+
+    /**
+     * Create a builder for a cache covering the range of the mean. The
+     * settings of the builder are the defaults of the
+     * {@link #PoissonSamplerCache(double, double)} constructor.
+     *
+     * @param minMean The minimum mean covered by the cache.
+     * @param maxMean The maximum mean covered by the cache.
+     * @return the builder
+     */
+    public static Builder builder(double minMean, double maxMean) {
+        return new Builder(minMean, maxMean);
+    }
+
+    /**
+     * Create a builder with the settings of this cache for the current range.
+     * The new cache does not share the store, packed states (unless
+     * read-only), statistics or store for each mean of this cache.
+     *
+     * @return the builder
+     */
+    private Builder toBuilder() {
+        // Use the largest mean for the maximum n. This is above a pivot that is
+        // between the maximum n and the maximum mean of this cache.
+        final int n = getCurrentMaxN();
+        final Builder builder = new Builder(getCurrentMinN(), n == 0 ? 0 : Math.nextDown(n + 1.0));
+        builder.pivot = pivot;
+        builder.smallMeanCache = smallMeanCache;
+        builder.largeMeanAlgorithm = largeMeanAlgorithm;
+        builder.mode = mode;
+        builder.acceptanceWindow = acceptanceWindow;
+        builder.approximationMean = approximationMean;
+        builder.expectedDistinct = expectedDistinct;
+        builder.sparse = sparse;
+        builder.packed = copyPackedValues();
+        builder.statistics = statistics != null;
+        if (meanStates != null) {
+            builder.maxMeans = meanStates.getMaxSize();
+            builder.gridStep = meanStates.getGridStep();
+        }
+        builder.maxRangeSize = maxRangeSize;
+        return builder;
+    }
+
+    /**
+     * Builds a {@link PoissonSamplerCache}. The constructors, the static
+     * factory methods and the {@code with} methods of the cache use the
+     * builder; it allows any combination of the settings.
+     * <p>
+     * Each setting is validated when it is set. The range and the combination
+     * of the settings are validated when the cache is built.
+     *
+     * @see PoissonSamplerCache#builder(double, double)
+     */
+    public static final class Builder {
+        /** The minimum mean covered by the cache. */
+        private final double minMean;
+        /** The maximum mean covered by the cache. */
+        private final double maxMean;
+        /** Value for switching sampling algorithm. */
+        private double pivot = WrapperPoissonSampler.PIVOT;
+        /** The cache of tables for small means (can be null). */
+        private SmallMeanPoissonTableCache smallMeanCache;
+        /** The algorithm used for large means. */
+        private LargeMeanAlgorithm largeMeanAlgorithm = LargeMeanAlgorithm.REJECTION;
+        /** The sampling mode. */
+        private Mode mode = Mode.EXACT;
+        /** Set to true to use an acceptance window in the cached states. */
+        private boolean acceptanceWindow;
+        /** The minimum mean to use the normal approximation. */
+        private double approximationMean = Double.POSITIVE_INFINITY;
+        /** The expected number of distinct {@code n} (zero if not known). */
+        private int expectedDistinct;
+        /** Set to true to use a sparse store irrespective of the size of the range. */
+        private boolean sparse;
+        /** Set to true to pack the states. */
+        private boolean packedStates;
+        /** The packed states or snapshot (can be null). */
+        private PackedLargeMeanPoissonSamplerStates packed;
+        /** Set to true to record the statistics. */
+        private boolean statistics;
+        /** The maximum number of means in the store for each mean (zero if not used). */
+        private int maxMeans;
+        /** The grid step of the store for each mean. */
+        private double gridStep;
+        /** The maximum number of {@code n} when the range can grow (zero if the range is fixed). */
+        private int maxRangeSize;
+
+        /**
+         * @param minMean The minimum mean covered by the cache.
+         * @param maxMean The maximum mean covered by the cache.
+         */
+        Builder(double minMean, double maxMean) {
+            this.minMean = minMean;
+            this.maxMean = maxMean;
+        }
+
+        /**
+         * Set the value for switching sampling algorithm. The value is checked
+         * against the large mean algorithm when the cache is built.
+         * <p>
+         * Note: If the pivot is not the default then the samplers will
+         * <strong>not</strong> match the output of the {@link PoissonSampler}.
+         *
+         * @param value Value for switching sampling algorithm.
+         * @return this builder
+         * @see PoissonPivotCalibration
+         */
+        public Builder pivot(double value) {
+            pivot = value;
+            return this;
+        }
+
+        /**
+         * Set the cache of tables for means below the algorithm switch point.
+         * <p>
+         * Note: If the small mean cache is used then samplers for small means
+         * will <strong>not</strong> match the output of the
+         * {@link PoissonSampler}.
+         *
+         * @param value The cache of tables for small means (can be null).
+         * @return this builder
+         */
+        public Builder smallMeanCache(SmallMeanPoissonTableCache value) {
+            smallMeanCache = value;
+            return this;
+        }
+
+        /**
+         * Set the algorithm used for large means.
+         * <p>
+         * Note: If the large mean algorithm is not
+         * {@link LargeMeanAlgorithm#REJECTION} then the samplers will
+         * <strong>not</strong> match the output of the {@link PoissonSampler}.
+         *
+         * @param value The algorithm used for large means.
+         * @return this builder
+         */
+        public Builder largeMeanAlgorithm(LargeMeanAlgorithm value) {
+            largeMeanAlgorithm = value;
+            return this;
+        }
+
+        /**
+         * Set the sampling mode.
+         * <p>
+         * Note: If the mode is {@link Mode#FAST} then the samplers will
+         * <strong>not</strong> match the output of the {@link PoissonSampler}.
+         *
+         * @param value The sampling mode.
+         * @return this builder
+         */
+        public Builder mode(Mode value) {
+            mode = value;
+            return this;
+        }
+
+        /**
+         * Set to true to store an acceptance window in each cached state (see
+         * {@link PoissonSamplerCache#withAcceptanceWindow()}).
+         *
+         * @param value Set to true to use an acceptance window.
+         * @return this builder
+         */
+        public Builder acceptanceWindow(boolean value) {
+            acceptanceWindow = value;
+            return this;
+        }
+
+        /**
+         * Set the error budget for the normal approximation (see
+         * {@link PoissonSamplerCache#withNormalApproximation(double)}).
+         *
+         * @param errorBudget The total variation error budget (use zero for no
+         *                    approximation).
+         * @return this builder
+         * @throws IllegalArgumentException if the error budget is not in the
+         *                                  range {@code [0, 1]}.
+         */
+        public Builder normalApproximation(double errorBudget) {
+            approximationMean = NormalApproximationPoissonSampler.getMinimumMean(errorBudget);
+            return this;
+        }
+
+        /**
+         * Set the expected number of distinct {@code n = floor(mean)} (see
+         * {@link PoissonSamplerCache#withExpectedDistinctMeans(int)}). The
+         * store for the states is selected when the cache is built.
+         *
+         * @param expected The expected number of distinct {@code n} (use zero if
+         *                 not known).
+         * @return this builder
+         * @throws IllegalArgumentException if {@code expected < 0}.
+         */
+        public Builder expectedDistinctMeans(int expected) {
+            checkExpectedDistinctMeans(expected);
+            expectedDistinct = expected;
+            sparse = false;
+            return this;
+        }
+
+        /**
+         * Use a sparse store for the states irrespective of the size of the
+         * range.
+         *
+         * @param expected The expected number of distinct {@code n}.
+         * @return this builder
+         * @throws IllegalArgumentException if {@code expected < 0}.
+         */
+        Builder sparseStore(int expected) {
+            checkExpectedDistinctMeans(expected);
+            expectedDistinct = expected;
+            sparse = true;
+            return this;
+        }
+
+        /**
+         * Set to true to store the states for the
+         * {@link LargeMeanAlgorithm#REJECTION} algorithm in a single packed
+         * array (see {@link PoissonSamplerCache#withPackedStates()}). This
+         * replaces any snapshot.
+         *
+         * @param value Set to true to pack the states.
+         * @return this builder
+         */
+        public Builder packedStates(boolean value) {
+            packedStates = value;
+            packed = null;
+            return this;
+        }
+
+        /**
+         * Set the snapshot file to read the states for the
+         * {@link LargeMeanAlgorithm#REJECTION} algorithm in place (see
+         * {@link PoissonSamplerCache#withSnapshot(Path)}). This replaces the
+         * packed states. The file is mapped when this method is called; the
+         * range is checked when the cache is built.
+         *
+         * @param file The file.
+         * @return this builder
+         * @throws IOException if an I/O error occurs or the file is not a valid
+         *                     snapshot.
+         */
+        public Builder snapshot(Path file) throws IOException {
+            packed = PackedLargeMeanPoissonSamplerStates.map(file);
+            packedStates = false;
+            return this;
+        }
+
+        /**
+         * Set to true to count the routing of each request (see
+         * {@link PoissonSamplerCache#withStatistics()}).
+         *
+         * @param value Set to true to record the statistics.
+         * @return this builder
+         */
+        public Builder statistics(boolean value) {
+            statistics = value;
+            return this;
+        }
+
+        /**
+         * Store the complete precomputation of the sampler for each distinct
+         * mean (see {@link PoissonSamplerCache#withMeanStates(int, double)}).
+         *
+         * @param maxSize  The maximum number of means.
+         * @param step     The grid step (use zero for the exact mean).
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maxSize} is not strictly
+         *                                  positive or is above {@code 2^29}, or
+         *                                  the grid step is negative or not
+         *                                  finite.
+         */
+        public Builder meanStates(int maxSize, double step) {
+            if (maxSize <= 0 || maxSize > MeanStateStore.MAX_SIZE) {
+                throw new IllegalArgumentException("Max means: " + maxSize);
+            }
+            if (!(step >= 0 && step < Double.POSITIVE_INFINITY)) {
+                throw new IllegalArgumentException("Grid step: " + step);
+            }
+            maxMeans = maxSize;
+            gridStep = step;
+            return this;
+        }
+
+        /**
+         * Set the maximum size of a range that grows on demand (see
+         * {@link PoissonSamplerCache#withGrowableRange(int)}). A growable range
+         * stores the states in arrays; packed states, snapshots and sparse
+         * stores are not used.
+         *
+         * @param maxSize The maximum number of {@code n} in the range (use zero
+         *                for a fixed range).
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maxSize < 0}.
+         */
+        public Builder growableRange(int maxSize) {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("Max size: " + maxSize);
+            }
+            maxRangeSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Create the cache.
+         *
+         * @return the cache
+         * @throws IllegalArgumentException if {@code maxMean < minMean}, the
+         *                                  pivot is not in the range
+         *                                  {@code [1, 500]} ({@code [10, 500]}
+         *                                  for the PTRS and FULL_MEAN
+         *                                  algorithms), the range is too large
+         *                                  for packed states, the snapshot does
+         *                                  not cover the range or the range is
+         *                                  larger than the maximum size of a
+         *                                  growable range.
+         * @throws IllegalStateException if the range can grow and the cache
+         *                               does not store states (the maximum
+         *                               mean is below the algorithm switch
+         *                               point).
+         */
+        public PoissonSamplerCache build() {
+            return new PoissonSamplerCache(this);
+        }
+
+        /**
+         * Check the expected number of distinct {@code n}.
+         *
+         * @param expected The expected number of distinct {@code n}.
+         * @throws IllegalArgumentException if {@code expected < 0}.
+         */
+        private static void checkExpectedDistinctMeans(int expected) {
+            if (expected < 0) {
+                throw new IllegalArgumentException("Expected distinct means: " + expected);
+            }
+        }
+    }
+
+    /**
+     * Create an instance with the settings of the builder.
+     *
+     * @param builder The settings.
+     * @throws IllegalArgumentException if the settings are not valid (see
+     *                                  {@link Builder#build()}).
+     * @throws IllegalStateException if the range can grow and no states are
+     *                               stored.
+     */
+    private PoissonSamplerCache(Builder builder) {
+        WrapperPoissonSampler.checkPivot(builder.pivot, builder.largeMeanAlgorithm);
+        pivot = builder.pivot;
+        smallMeanCache = builder.smallMeanCache;
+        largeMeanAlgorithm = builder.largeMeanAlgorithm;
+        acceptanceWindow = builder.acceptanceWindow;
+        approximationMean = builder.approximationMean;
+        mode = builder.mode;
+        expectedDistinct = builder.expectedDistinct;
+        statistics = builder.statistics ? new PoissonSamplerCacheStatistics() : null;
+        meanStates = builder.maxMeans == 0 ? null : new MeanStateStore(builder.maxMeans, builder.gridStep);
+        maxRangeSize = builder.maxRangeSize;
 
         // Although a mean of 0 is invalid for a Poisson sampler this case
         // is handled to make the cache user friendly. Any low means will
         // be handled by the SmallMeanPoissonSampler and not cached.
-        if (minMean < 0) {
-            minMean = 0;
-        }
+        final double minMean = Math.max(0, builder.minMean);
+        final double maxMean = builder.maxMean;
         // Allow minMean == maxMean so that the cache can be used across
         // concurrent threads to create samplers with distinct RNGs and the
         // same mean.
@@ -69,19 +728,733 @@ public class PoissonSamplerCache {
         }
 
         // The cache can only be used for the LargeMeanPoissonSampler.
-        if (maxMean < WrapperPoissonSampler.PIVOT) {
+        if (maxMean < pivot) {
+            if (maxRangeSize != 0) {
+                throw new IllegalStateException("No states are cached");
+            }
             // The upper limit is too small so no cache will be used.
             // This class will just construct new samplers.
             minN = 0;
             maxN = 0;
+            sparse = false;
             values = null;
+            ptrsValues = null;
+            fullMeanValues = null;
+            packedValues = null;
+            growable = null;
+            return;
+        }
+
+        // Convert the mean into integers.
+        // Note the minimum is clipped to the algorithm switch point.
+        minN = (int) Math.floor(Math.max(minMean, pivot));
+        maxN = (int) Math.floor(maxMean);
+        final long size = (long) maxN - minN + 1;
+        if (maxRangeSize != 0 && maxRangeSize < size) {
+            throw new IllegalArgumentException("Max size: " + maxRangeSize + " < " + size);
+        }
+        // Select the store before any allocation
+        sparse = builder.sparse || isSparse(size, expectedDistinct);
+        final boolean rejection = largeMeanAlgorithm == LargeMeanAlgorithm.REJECTION;
+        PackedLargeMeanPoissonSamplerStates packed = null;
+        // A growable range uses arrays
+        if (rejection && maxRangeSize == 0) {
+            packed = builder.packed;
+            if (packed != null) {
+                if (packed.minN > minN || packed.maxN < maxN) {
+                    throw new IllegalArgumentException("Snapshot range [" + packed.minN + ", " +
+                            packed.maxN + "] does not cover [" + minN + ", " + maxN + "]");
+                }
+            } else if (builder.packedStates) {
+                packed = PackedLargeMeanPoissonSamplerStates.create(minN, maxN);
+            }
+            if (packed != null && packed.hasAcceptanceWindow() != acceptanceWindow) {
+                packed = packed.newInstance(acceptanceWindow);
+            }
+        }
+        packedValues = packed;
+        values = rejection && packed == null ? createStore() : null;
+        ptrsValues = largeMeanAlgorithm == LargeMeanAlgorithm.PTRS ? createStore() : null;
+        fullMeanValues = largeMeanAlgorithm == LargeMeanAlgorithm.FULL_MEAN ? createStore() : null;
+        growable = maxRangeSize == 0
+                ? null
+                : (GrowableStateStore<?>) (values != null ? values : ptrsValues != null ? ptrsValues : fullMeanValues);
+    }
+
+    /**
+     * Create a copy of the cache settings with the specified dense stores. The
+     * range is fixed.
+     *
+     * @param source         The source.
+     * @param minN           The minimum n covered by the stores.
+     * @param maxN           The maximum n covered by the stores.
+     * @param values         The store for the {@link LargeMeanAlgorithm#REJECTION}
+     *                       states (can be null).
+     * @param ptrsValues     The store for the {@link LargeMeanAlgorithm#PTRS}
+     *                       states (can be null).
+     * @param fullMeanValues The store for the
+     *                       {@link LargeMeanAlgorithm#FULL_MEAN} states (can be
+     *                       null).
+     * @param packed         The packed states for the
+     *                       {@link LargeMeanAlgorithm#REJECTION} algorithm (can be
+     *                       null).
+     * @param meanStates     The store for the state of each mean (can be null).
+     */
+    private PoissonSamplerCache(PoissonSamplerCache source, int minN, int maxN,
+            StateStore<LargeMeanPoissonSamplerState> values,
+            StateStore<PtrsPoissonSamplerState> ptrsValues,
+            StateStore<FullMeanPoissonSamplerState> fullMeanValues,
+            PackedLargeMeanPoissonSamplerStates packed, MeanStateStore meanStates) {
+        this.minN = minN;
+        this.maxN = maxN;
+        pivot = source.pivot;
+        smallMeanCache = source.smallMeanCache;
+        largeMeanAlgorithm = source.largeMeanAlgorithm;
+        acceptanceWindow = source.acceptanceWindow;
+        approximationMean = source.approximationMean;
+        mode = source.mode;
+        expectedDistinct = source.expectedDistinct;
+        sparse = false;
+        statistics = source.copyStatistics();
+        this.meanStates = meanStates;
+        this.values = values;
+        this.ptrsValues = ptrsValues;
+        this.fullMeanValues = fullMeanValues;
+        packedValues = packed;
+        maxRangeSize = 0;
+        growable = null;
+    }
+
+    /**
+     * Checks if the cache stores states for the
+     * {@link LargeMeanAlgorithm#REJECTION} algorithm.
+     *
+     * @return true if the states are stored
+     */
+    private boolean isRejection() {
+        return values != null || packedValues != null;
+    }
+
+    /**
+     * Create an empty copy of the packed states (if present).
+     *
+     * @return the packed states (or null)
+     */
+    private PackedLargeMeanPoissonSamplerStates copyPackedValues() {
+        return packedValues == null ? null : packedValues.newInstance();
+    }
+
+    /**
+     * Create new statistics (if present).
+     *
+     * @return the statistics (or null)
+     */
+    private PoissonSamplerCacheStatistics copyStatistics() {
+        return statistics == null ? null : new PoissonSamplerCacheStatistics();
+    }
+
+    /**
+     * Create a new empty store for the state of each mean (if present).
+     *
+     * @return the store (or null)
+     */
+    private MeanStateStore copyMeanStates() {
+        return meanStates == null ? null : meanStates.newInstance();
+    }
+
+    /**
+     * Creates the store for the states.
+     *
+     * @param <T> the type of the state
+     * @return the store
+     */
+    private <T> StateStore<T> createStore() {
+        if (maxRangeSize != 0) {
+            // The range can grow down to the algorithm switch point
+            return new GrowableStateStore<>(minN, maxN, (int) Math.floor(pivot), maxRangeSize);
+        }
+        return sparse
+                ? new SparseStateStore<>(expectedDistinct)
+                : new DenseStateStore<>(minN, maxN);
+    }
+
+    /**
+     * Gets the minimum {@code n} of the current range.
+     *
+     * @return the minimum n
+     */
+    int getCurrentMinN() {
+        return growable == null ? minN : growable.getMinN();
+    }
+
+    /**
+     * Gets the maximum {@code n} of the current range.
+     *
+     * @return the maximum n
+     */
+    int getCurrentMaxN() {
+        return growable == null ? maxN : growable.getMaxN();
+    }
+
+    /**
+     * Ensure the current range contains {@code n} if the range can grow.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return true if the range contains {@code n}
+     */
+    private boolean grow(int n) {
+        return growable != null && growable.grow(n);
+    }
+
+    /**
+     * Checks if a sparse store should be used.
+     *
+     * @param size             the size of the range
+     * @param expectedDistinct the expected number of distinct {@code n} (zero if
+     *                         not known)
+     * @return true if sparse
+     */
+    static boolean isSparse(long size, int expectedDistinct) {
+        return expectedDistinct > 0 && size > (long) SPARSE_RATIO * expectedDistinct;
+    }
+
+    /**
+     * Create a new cache with the same settings that stores an acceptance window
+     * for the final acceptance check of the rejection algorithm in each cached
+     * state. The window covers {@code lambda +/- 6 * sqrt(lambda)} and is
+     * created the first time it is used by any sampler for the same
+     * {@code n = floor(mean)}. Samplers for that {@code n} then share the window.
+     * <p>
+     * The samples are identical to those of a cache without the window. This is
+     * advantageous when a large number of samples are made from means within the
+     * same {@code n}. It only applies to the
+     * {@link LargeMeanAlgorithm#REJECTION} algorithm.
+     *
+     * @return the new cache
+     */
+    public PoissonSamplerCache withAcceptanceWindow() {
+        return toBuilder().acceptanceWindow(true).build();
+    }
+
+    /**
+     * Create a new cache with the same settings that returns a
+     * {@link NormalApproximationPoissonSampler} when the total variation distance
+     * to the Poisson distribution is within the error budget.
+     * <p>
+     * Note: The samplers for means above the threshold will <strong>not</strong>
+     * match the output of the {@link PoissonSampler}.
+     *
+     * @param errorBudget The total variation error budget (use zero for no
+     *                    approximation).
+     * @return the new cache
+     * @throws IllegalArgumentException if the error budget is not in the range
+     *                                  {@code [0, 1]}.
+     * @see NormalApproximationPoissonSampler#getMinimumMean(double)
+     */
+    public PoissonSamplerCache withNormalApproximation(double errorBudget) {
+        return toBuilder().normalApproximation(errorBudget).build();
+    }
+
+    /**
+     * Create a new cache with the same settings that is sized for the expected
+     * number of distinct {@code n = floor(mean)}.
+     * <p>
+     * If the size of the range is much larger than the expected number of
+     * distinct values (above {@link #SPARSE_RATIO} times) then the states are
+     * stored in an open-addressing hash table keyed by {@code n}; otherwise an
+     * array covering the range is used. The table grows if more distinct values
+     * are used. The samples are identical for either store.
+     * <p>
+     * Note: This cache has already allocated its store. Use
+     * {@link #createWithExpectedDistinctMeans(double, double, int)} to select a
+     * sparse store for a wide range without allocating an array for the range.
+     *
+     * @param expected The expected number of distinct {@code n} (use zero if not
+     *                 known).
+     * @return the new cache
+     * @throws IllegalArgumentException if {@code expected < 0}.
+     */
+    public PoissonSamplerCache withExpectedDistinctMeans(int expected) {
+        return toBuilder().expectedDistinctMeans(expected).build();
+    }
+
+    /**
+     * Create a new cache with the same settings that uses a sparse store for the
+     * states irrespective of the size of the range.
+     *
+     * @param expected The expected number of distinct {@code n}.
+     * @return the new cache
+     * @throws IllegalArgumentException if {@code expected < 0}.
+     */
+    PoissonSamplerCache withSparseStore(int expected) {
+        return toBuilder().sparseStore(expected).build();
+    }
+
+    /**
+     * Create a new cache with the same settings that stores the states for the
+     * {@link LargeMeanAlgorithm#REJECTION} algorithm in a single packed array.
+     * Each {@code n} uses a record of 64 bytes computed on first use. The
+     * samplers read the values by index.
+     * <p>
+     * A state object and its reference use approximately 132 bytes. The packed
+     * array is allocated for the entire range when the cache is created so it
+     * uses less memory when more than half of the range is used. The values
+     * for each {@code n} are in one cache line. The samples are
+     * identical to those of the unpacked states. The packed states cover the
+     * entire range; they do not use a sparse store. The acceptance window (see
+     * {@link #withAcceptanceWindow()}) is kept outside the packed array for
+     * each {@code n} that uses it.
+     * Other algorithms are not affected.
+     * <p>
+     * Note: This cache has already allocated its store. Use
+     * {@link #createWithPackedStates(double, double)} to allocate only the
+     * packed array.
+     *
+     * @return the new cache
+     * @throws IllegalArgumentException if the range has more than
+     *                                  {@code 2^28 - 1} values of {@code n}.
+     */
+    public PoissonSamplerCache withPackedStates() {
+        return toBuilder().packedStates(true).build();
+    }
+
+    /**
+     * Create a new cache with the same settings that counts the routing of each
+     * request: in range using an existing state (hit) or computing the state,
+     * below or above the range, below the algorithm switch point, and using the
+     * normal approximation. The counts show if the range of the cache covers
+     * the means that are used.
+     * <p>
+     * The counts use striped counters with a small overhead for each request.
+     * The samples are not affected. Caches created from this cache using the
+     * {@code with} methods have their own statistics.
+     *
+     * @return the new cache
+     * @see #getStatistics()
+     */
+    public PoissonSamplerCache withStatistics() {
+        return toBuilder().statistics(true).build();
+    }
+
+    /**
+     * Gets the statistics of the requests to the cache.
+     *
+     * @return the statistics (or null if not enabled)
+     * @see #withStatistics()
+     */
+    public PoissonSamplerCacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Create a new cache with the same settings that also stores the complete
+     * precomputation of the sampler for each distinct mean. This includes the
+     * state for the lambda fraction and the state for means below the
+     * algorithm switch point. A repeat request for the same mean only binds the
+     * generator to the stored state; there is no floating-point setup.
+     * <p>
+     * The mean is used exactly as the key. This is advantageous when the same
+     * {@code double} means are used repeatedly, for example a fixed set of rates.
+     * The samples are identical to those of the cache without the mean store.
+     * <p>
+     * The states are stored for means covered by the cache using the
+     * {@link LargeMeanAlgorithm#REJECTION} algorithm with unpacked states, and
+     * for small means when there is no cache of tables for small means. Other
+     * means use the settings of the cache. When the maximum number of means is
+     * stored new means are not stored.
+     *
+     * @param maxMeans The maximum number of means.
+     * @return the new cache
+     * @throws IllegalArgumentException if {@code maxMeans} is not strictly
+     *                                  positive or is above {@code 2^29}.
+     * @see #withMeanStates(int, double)
+     */
+    public PoissonSamplerCache withMeanStates(int maxMeans) {
+        return withMeanStates(maxMeans, 0);
+    }
+
+    /**
+     * Create a new cache with the same settings that also stores the complete
+     * precomputation of the sampler for each distinct mean rounded to the
+     * nearest multiple of the grid step (see {@link #withMeanStates(int)}).
+     * <p>
+     * Note: If the grid step is not zero then every mean is rounded to the grid
+     * (unless it would round to zero) and the samplers will <strong>not</strong>
+     * match the output of the {@link PoissonSampler} for the original mean. The
+     * absolute error of the mean is at most half the grid step.
+     *
+     * @param maxMeans The maximum number of means.
+     * @param gridStep The grid step (use zero for the exact mean).
+     * @return the new cache
+     * @throws IllegalArgumentException if {@code maxMeans} is not strictly
+     *                                  positive or is above {@code 2^29}, or the
+     *                                  grid step is negative or not finite.
+     */
+    public PoissonSamplerCache withMeanStates(int maxMeans, double gridStep) {
+        return toBuilder().meanStates(maxMeans, gridStep).build();
+    }
+
+    /**
+     * Create a new cache with the same settings that grows its range on demand.
+     * A request for {@code n = floor(mean)} outside the current range extends
+     * the range towards {@code n}; the size of the range is at least doubled
+     * and the existing states are copied to a new array. The range can extend
+     * down to the algorithm switch point. A cache that is used for a long time
+     * converges on the range of the means that are used.
+     * <p>
+     * Reads of the states are lock-free; growth is synchronized. The size of
+     * the range never exceeds the maximum. A request that would require a
+     * larger range creates a new sampler as for a fixed range. Each {@code n}
+     * in the range uses a reference (4 or 8 bytes) and, when used, a state of
+     * approximately 128 bytes. The old array is garbage collected when
+     * concurrent readers are finished with it.
+     * <p>
+     * The samples are identical to those of the cache with a fixed range. The
+     * new cache starts from the current range of this cache. The states are
+     * stored in arrays; packed states and sparse stores are not used. Caches
+     * created using {@link #withPackedStates()} or {@link #withSnapshot(Path)}
+     * have a fixed range. A request covered by growth is counted in the range
+     * by the statistics.
+     *
+     * @param maxSize The maximum number of {@code n} in the range.
+     * @return the new cache
+     * @throws IllegalStateException if the cache does not store states (the
+     *                               maximum mean is below the algorithm switch
+     *                               point).
+     * @throws IllegalArgumentException if {@code maxSize} is smaller than the
+     *                                  size of the current range.
+     */
+    public PoissonSamplerCache withGrowableRange(int maxSize) {
+        if (!isRejection() && ptrsValues == null && fullMeanValues == null) {
+            throw new IllegalStateException("No states are cached");
+        }
+        final long size = (long) getCurrentMaxN() - getCurrentMinN() + 1;
+        if (maxSize < size) {
+            throw new IllegalArgumentException("Max size: " + maxSize + " < " + size);
+        }
+        return toBuilder().growableRange(maxSize).build();
+    }
+
+    /**
+     * Write a snapshot of the states for the {@link LargeMeanAlgorithm#REJECTION}
+     * algorithm for every {@code n} in the range of the cache. The snapshot is a
+     * compact binary file of packed records (see {@link #withPackedStates()})
+     * with a header containing a version and the range. The states are computed
+     * directly; they are identical to the states created on first use in the
+     * {@link Mode#EXACT} mode. An existing file is replaced.
+     *
+     * @param file The file.
+     * @throws IOException if an I/O error occurs.
+     * @throws IllegalStateException if the cache does not store states for the
+     *                               {@link LargeMeanAlgorithm#REJECTION}
+     *                               algorithm.
+     * @throws IllegalArgumentException if the range has more than
+     *                                  {@code 2^25 - 1} values of {@code n}.
+     * @see #withSnapshot(Path)
+     */
+    public void writeSnapshot(Path file) throws IOException {
+        if (!isRejection()) {
+            throw new IllegalStateException("No states for the rejection algorithm");
+        }
+        PackedLargeMeanPoissonSamplerStates.write(file, getCurrentMinN(), getCurrentMaxN());
+    }
+
+    /**
+     * Create a new cache with the same settings that reads the states for the
+     * {@link LargeMeanAlgorithm#REJECTION} algorithm in place from a snapshot
+     * file. The file is memory-mapped read-only; there is no per-state
+     * construction or deserialisation and the pages are shared by all
+     * processes that map the same file. The snapshot may cover a larger range
+     * than the cache.
+     * <p>
+     * The samples are identical to those of the cache without the snapshot in
+     * the {@link Mode#EXACT} mode. The snapshot states are used as is by the
+     * {@link #prefill()} methods.
+     * <p>
+     * Note: This cache has already allocated its store. Use
+     * {@link #createWithSnapshot(double, double, Path)} to create a cache that
+     * allocates no store.
+     *
+     * @param file The file.
+     * @return the new cache
+     * @throws IOException if an I/O error occurs or the file is not a valid
+     *                     snapshot.
+     * @throws IllegalStateException if the cache does not store states for the
+     *                               {@link LargeMeanAlgorithm#REJECTION}
+     *                               algorithm.
+     * @throws IllegalArgumentException if the snapshot does not cover the range
+     *                                  of the cache.
+     * @see #writeSnapshot(Path)
+     */
+    public PoissonSamplerCache withSnapshot(Path file) throws IOException {
+        if (!isRejection()) {
+            throw new IllegalStateException("No states for the rejection algorithm");
+        }
+        return toBuilder().snapshot(file).build();
+    }
+
+    /**
+     * Create a new cache with the same settings that stores the states in plain
+     * arrays covering the range. The arrays are read and written without memory
+     * barriers; this relies on the states being immutable with {@code final}
+     * fields. A thread may recompute a state written by another thread.
+     * <p>
+     * This is used to measure the cost of the ordered writes and volatile
+     * reads of the default store.
+     *
+     * @return the new cache
+     * @see PlainDenseStateStore
+     */
+    PoissonSamplerCache withPlainStore() {
+        final int minN = getCurrentMinN();
+        final int maxN = getCurrentMaxN();
+        return new PoissonSamplerCache(this, minN, maxN,
+                values == null ? null : new PlainDenseStateStore<>(minN, maxN),
+                ptrsValues == null ? null : new PlainDenseStateStore<>(minN, maxN),
+                fullMeanValues == null ? null : new PlainDenseStateStore<>(minN, maxN),
+                copyPackedValues(), copyMeanStates());
+    }
+
+    /**
+     * Create a read-only copy of this cache. The new cache has a read-only array
+     * with the state for every {@code n} in the current range. States that exist
+     * in this cache are reused; missing states are computed in parallel using
+     * the common fork/join pool directly into the new array. Reads from the
+     * arrays use no memory barriers and the new cache never writes a state.
+     * This is the fastest option for concurrent use when the range is known
+     * and can be computed at start-up.
+     * <p>
+     * This cache is not modified. Packed states are copied into a new plain
+     * array with the missing records computed; a memory-mapped snapshot is
+     * shared. Statistics (if enabled) are
+     * new. The range of the new cache is fixed. The {@code with} methods of the
+     * new cache create a cache with the default stores.
+     *
+     * @return the new cache
+     */
+    public PoissonSamplerCache freeze() {
+        final int minN = getCurrentMinN();
+        final int maxN = getCurrentMaxN();
+        return new PoissonSamplerCache(this, minN, maxN,
+                values == null ? null : new FrozenStateStore<>(values, minN, maxN,
+                        stateFactory),
+                ptrsValues == null ? null : new FrozenStateStore<>(ptrsValues, minN, maxN,
+                        PtrsPoissonSamplerState::create),
+                fullMeanValues == null ? null : new FrozenStateStore<>(fullMeanValues, minN, maxN,
+                        FullMeanPoissonSamplerState::create),
+                packedValues == null ? null : packedValues.freeze(), copyMeanStates());
+    }
+
+    /**
+     * The result of computing the states for the range of the cache.
+     */
+    public static final class PrefillResult {
+        /** The number of states created. */
+        private final long count;
+        /** The wall-clock time in nanoseconds. */
+        private final long timeNanos;
+
+        /**
+         * @param count     the number of states created
+         * @param timeNanos the wall-clock time in nanoseconds
+         */
+        PrefillResult(long count, long timeNanos) {
+            this.count = count;
+            this.timeNanos = timeNanos;
+        }
+
+        /**
+         * Gets the number of states created. States that already existed are
+         * not counted.
+         *
+         * @return the count
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the wall-clock time in nanoseconds.
+         *
+         * @return the time
+         */
+        public long getTimeNanos() {
+            return timeNanos;
+        }
+    }
+
+    /**
+     * Compute the state for every {@code n} in the current range of the cache
+     * using the common fork/join pool. This moves the construction cost of the states
+     * from the first use of each {@code n} to the start-up of the application.
+     *
+     * @return the number of states created and the wall-clock time
+     * @see #prefill(ExecutorService)
+     */
+    public PrefillResult prefill() {
+        return prefill(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compute the state for every {@code n} in the current range of the cache
+     * using the executor. The range is divided into chunks of consecutive {@code n}. If
+     * the executor is a {@link ForkJoinPool} then the chunks are created by
+     * recursive division of the range; otherwise a task is submitted for each
+     * chunk. This method waits for the tasks to complete.
+     * <p>
+     * States that already exist are not recomputed. The states are identical
+     * to those created on first use.
+     * <p>
+     * If the cache uses a sparse store then every {@code n} in the range is
+     * stored. The number of states created is the number of states present
+     * after the computation minus those present before; this is counted by a
+     * pass over the range before and after the computation.
+     *
+     * @param executor The executor.
+     * @return the number of states created and the wall-clock time
+     * @throws IllegalStateException if the thread is interrupted while waiting
+     *                               or a task fails with a checked exception.
+     */
+    public PrefillResult prefill(ExecutorService executor) {
+        final long start = System.nanoTime();
+        final int minN = getCurrentMinN();
+        final int maxN = getCurrentMaxN();
+        long count = 0;
+        if (isRejection() || ptrsValues != null || fullMeanValues != null) {
+            // Count the states that are added. A state that exists may not be
+            // visible to a task (e.g. during growth of a sparse store) so the
+            // count of each task can be too high.
+            final long before = countStates(minN, maxN);
+            if (executor instanceof ForkJoinPool) {
+                ((ForkJoinPool) executor).invoke(new PrefillTask(minN, maxN));
+            } else {
+                final List<Future<?>> futures = new ArrayList<>();
+                for (long from = minN; from <= maxN; from += PREFILL_CHUNK_SIZE) {
+                    final int lo = (int) from;
+                    final int hi = (int) Math.min(maxN, from + PREFILL_CHUNK_SIZE - 1);
+                    futures.add(executor.submit(() -> prefill(lo, hi)));
+                }
+                try {
+                    for (final Future<?> f : futures) {
+                        f.get();
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted during prefill", ex);
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) ex.getCause();
+                    }
+                    throw new IllegalStateException("Prefill failed", ex.getCause());
+                }
+            }
+            count = countStates(minN, maxN) - before;
+        }
+        return new PrefillResult(count, System.nanoTime() - start);
+    }
+
+    /**
+     * Compute the state for every {@code n} in the range {@code [from, to]}.
+     *
+     * @param from the first n
+     * @param to   the last n
+     */
+    private void prefill(int from, int to) {
+        // Do not use the getXxxState methods that record statistics
+        if (ptrsValues != null) {
+            for (int n = from; n <= to; n++) {
+                if (ptrsValues.get(n) == null) {
+                    ptrsValues.put(n, PtrsPoissonSamplerState.create(n));
+                }
+            }
+        } else if (fullMeanValues != null) {
+            for (int n = from; n <= to; n++) {
+                if (fullMeanValues.get(n) == null) {
+                    fullMeanValues.put(n, FullMeanPoissonSamplerState.create(n));
+                }
+            }
+        } else {
+            for (int n = from; n <= to; n++) {
+                if (!hasState(n)) {
+                    setState(n, createState(n));
+                }
+            }
+        }
+    }
+
+    /**
+     * Count the states that exist for {@code n} in the range {@code [from, to]}.
+     *
+     * @param from the first n
+     * @param to   the last n
+     * @return the number of states
+     */
+    private long countStates(int from, int to) {
+        long count = 0;
+        for (int n = from; n <= to; n++) {
+            if (ptrsValues != null ? ptrsValues.get(n) != null :
+                fullMeanValues != null ? fullMeanValues.get(n) != null :
+                hasState(n)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks if the state for the {@link LargeMeanAlgorithm#REJECTION} algorithm
+     * exists for {@code n}.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return true if the state exists
+     */
+    private boolean hasState(int n) {
+        return packedValues != null ? packedValues.isSet(n) : values.get(n) != null;
+    }
+
+    /**
+     * Sets the state for the {@link LargeMeanAlgorithm#REJECTION} algorithm for
+     * {@code n}.
+     *
+     * @param n     the value n ({@code floor(mean)})
+     * @param state the state
+     */
+    private void setState(int n, LargeMeanPoissonSamplerState state) {
+        if (packedValues != null) {
+            packedValues.set(n, state);
         } else {
-            // Convert the mean into integers.
-            // Note the minimum is clipped to the algorithm switch point.
-            this.minN = (int) Math
-                    .floor(Math.max(minMean, WrapperPoissonSampler.PIVOT));
-            this.maxN = (int) Math.floor(maxMean);
-            values = new AtomicReferenceArray<>(maxN - minN + 1);
+            values.put(n, state);
+        }
+    }
+
+    /**
+     * Compute the states using recursive division of the range.
+     */
+    private class PrefillTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        /** The first n. */
+        private final int from;
+        /** The last n. */
+        private final int to;
+
+        /**
+         * @param from the first n
+         * @param to   the last n
+         */
+        PrefillTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < PREFILL_CHUNK_SIZE) {
+                prefill(from, to);
+                return;
+            }
+            final int mid = (int) (((long) from + to) >>> 1);
+            invokeAll(new PrefillTask(from, mid), new PrefillTask(mid + 1, to));
         }
     }
 
@@ -99,42 +1472,364 @@ public class PoissonSamplerCache {
      */
     public DiscreteSampler getPoissonSampler(UniformRandomProvider rng,
             double mean) {
+        if (meanStates != null)
+            return getMeanStatePoissonSampler(rng, mean, null, null);
+        return createPoissonSampler(rng, mean, null, null);
+    }
+
+    /**
+     * Creates a Poisson sampler using the store for the state of each mean. The
+     * mean is quantised. If the state is not stored then the sampler is created
+     * using {@link #createPoissonSampler(UniformRandomProvider, double, ContinuousSampler, ContinuousSampler)}.
+     *
+     * @param rng         Generator of uniformly distributed random numbers.
+     * @param mean        Mean.
+     * @param gaussian    The standard Gaussian sampler (can be null).
+     * @param exponential The standard exponential sampler (can be null).
+     * @return A Poisson sampler
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    private DiscreteSampler getMeanStatePoissonSampler(UniformRandomProvider rng,
+            double mean, ContinuousSampler gaussian, ContinuousSampler exponential) {
+        final double quantised = meanStates.quantise(mean);
+        final MeanState state = getMeanState(quantised);
+        if (state != null)
+            return state.createSampler(rng, mode, gaussian, exponential);
+        return createPoissonSampler(rng, quantised, gaussian, exponential);
+    }
+
+    /**
+     * Creates a Poisson sampler without the store for the state of each mean.
+     * The Gaussian and exponential samplers are used by the samplers for cached
+     * states.
+     *
+     * @param rng         Generator of uniformly distributed random numbers.
+     * @param mean        Mean.
+     * @param gaussian    The standard Gaussian sampler (can be null).
+     * @param exponential The standard exponential sampler (can be null).
+     * @return A Poisson sampler
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    private DiscreteSampler createPoissonSampler(UniformRandomProvider rng,
+            double mean, ContinuousSampler gaussian, ContinuousSampler exponential) {
         // Ensure the same functionality as the PoissonSampler by
         // using a SmallMeanPoissonSampler under the switch point.
-        if (mean < WrapperPoissonSampler.PIVOT)
-            return new SmallMeanPoissonSampler(rng, mean);
+        if (mean < pivot) {
+            if (statistics != null)
+                statistics.recordSmallMean();
+            return createSmallMeanPoissonSampler(rng, mean);
+        }
+        if (mean >= approximationMean) {
+            if (statistics != null)
+                statistics.recordNormalApproximation();
+            return new NormalApproximationPoissonSampler(rng, mean);
+        }
 
         // Convert the mean into an integer.
         final int n = (int) Math.floor(mean);
-        if (n > maxN || n < minN)
+        if ((n > maxN || n < minN) && !grow(n)) {
             // Outside the range of the cache.
-            return new LargeMeanPoissonSampler(rng, mean);
+            if (statistics != null)
+                recordOutOfRange(n);
+            return WrapperPoissonSampler.createLargeMeanPoissonSampler(rng, mean, largeMeanAlgorithm, mode);
+        }
+
+        // Compute the remaining fraction of the mean
+        final double lambdaFractional = mean - n;
+        if (ptrsValues != null)
+            return new PtrsPoissonSampler(rng, getPtrsState(n), lambdaFractional);
+        if (fullMeanValues != null)
+            return new FullMeanPoissonSampler(rng, getFullMeanState(n), mean);
+        if (packedValues != null) {
+            if (statistics != null)
+                statistics.recordInRange(packedValues.isSet(n));
+            return new PackedLargeMeanPoissonSampler(rng, packedValues, n, lambdaFractional, mode,
+                    gaussian, exponential);
+        }
+
+        final LargeMeanPoissonSamplerState state = getState(n);
+        // Use a flyweight sampler that references the shared state
+        return new FlyweightLargeMeanPoissonSampler(rng, state, lambdaFractional, mode,
+                gaussian, exponential);
+    }
+
+    /**
+     * Fill the array with Poisson samples in the range {@code from} (inclusive)
+     * to {@code to} (exclusive). Each sample uses the corresponding mean from the
+     * {@code means} array. The samples will be identical to those created using
+     * a single sample from each sampler returned by
+     * {@link #getPoissonSampler(UniformRandomProvider, double)}.
+     * <p>
+     * Samples for the cached rejection algorithm states are computed directly
+     * from the state without creating a sampler for each mean.
+     * <p>
+     * If the mode is {@link Mode#FAST} then the samples for cached states share
+     * the Gaussian and exponential samplers. The samples are then
+     * <strong>not</strong> identical to those of single-use samplers.
+     * <p>
+     * A value of {@code mean} outside the range of the cache is valid.
+     *
+     * @param rng   Generator of uniformly distributed random numbers.
+     * @param means The means.
+     * @param out   The output array.
+     * @param from  The from index (inclusive).
+     * @param to    The to index (exclusive).
+     * @throws IllegalArgumentException if {@code mean <= 0} for any mean.
+     * @throws ArrayIndexOutOfBoundsException if the range is outside either
+     *                                        array.
+     */
+    public void sample(UniformRandomProvider rng, double[] means, int[] out,
+            int from, int to) {
+        // Hoist the field reads out of the loop
+        final int minN = this.minN;
+        final int maxN = this.maxN;
+        final PoissonSamplerCacheStatistics statistics = this.statistics;
+        final boolean fast = mode == Mode.FAST;
+        // The exponential sampler has no state. The Gaussian sampler caches a
+        // deviate which is discarded for each sample unless in fast mode.
+        final GaussianSampler gaussian = new GaussianSampler(rng);
+        final ContinuousSampler exponential = new ExponentialSampler(rng);
+        if (meanStates != null) {
+            // Keep the store for each mean out of the default loop
+            for (int i = from; i < to; i++) {
+                out[i] = getMeanStatePoissonSampler(rng, means[i],
+                        fast ? gaussian : null, fast ? exponential : null).sample();
+            }
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            final double mean = means[i];
+            if (mean < pivot) {
+                if (statistics != null)
+                    statistics.recordSmallMean();
+                out[i] = createSmallMeanPoissonSampler(rng, mean).sample();
+                continue;
+            }
+            if (mean >= approximationMean) {
+                if (statistics != null)
+                    statistics.recordNormalApproximation();
+                out[i] = new NormalApproximationPoissonSampler(rng, mean).sample();
+                continue;
+            }
+            final int n = (int) Math.floor(mean);
+            if ((n > maxN || n < minN) && !grow(n)) {
+                if (statistics != null)
+                    recordOutOfRange(n);
+                out[i] = WrapperPoissonSampler.createLargeMeanPoissonSampler(rng,
+                        mean, largeMeanAlgorithm, mode).sample();
+                continue;
+            }
+            if (ptrsValues != null) {
+                out[i] = new PtrsPoissonSampler(rng, getPtrsState(n), mean - n)
+                        .sample();
+                continue;
+            }
+            if (fullMeanValues != null) {
+                out[i] = new FullMeanPoissonSampler(rng, getFullMeanState(n), mean)
+                        .sample();
+                continue;
+            }
+            final RejectionParameters parameters;
+            if (packedValues != null) {
+                if (statistics != null)
+                    statistics.recordInRange(packedValues.isSet(n));
+                parameters = packedValues.getRecord(n);
+            } else {
+                parameters = getState(n);
+            }
+            if (!fast)
+                gaussian.reset();
+            // Sample the fraction first to match the LargeMeanPoissonSampler
+            final int y2 = sampleFraction(rng, mean - n, fast);
+            final double y = LargeMeanPoissonSampler.sampleLambda(rng, gaussian, exponential, parameters);
+            out[i] = (int) Math.min(y2 + (long) y, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Sample from the Poisson distribution with mean {@code lambdaFractional}.
+     * The sample is the same as that of the lambda fraction sampler of the
+     * {@link FlyweightLargeMeanPoissonSampler}.
+     *
+     * @param rng              Generator of uniformly distributed random numbers.
+     * @param lambdaFractional the lambda fractional value
+     *                         ({@code 0 <= lambdaFractional < 1})
+     * @param fast             Set to true to use the {@link Mode#FAST} mode.
+     * @return the sample
+     */
+    private static int sampleFraction(UniformRandomProvider rng, double lambdaFractional,
+            boolean fast) {
+        if (lambdaFractional < Double.MIN_VALUE) {
+            return 0;
+        }
+        if (fast) {
+            return FractionalPoissonSampler.sample(lambdaFractional, rng.nextDouble());
+        }
+        // As the SmallMeanPoissonSampler
+        final double p0 = Math.exp(-lambdaFractional);
+        final int limit = (int) Math.ceil(1000 * lambdaFractional);
+        int n = 0;
+        double r = 1;
+        while (n < limit) {
+            r *= rng.nextDouble();
+            if (r >= p0) {
+                n++;
+            } else {
+                break;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Gets the state for the mean from the store of each mean, creating it if
+     * necessary. Returns null if the mean is not stored.
+     *
+     * @param mean Mean.
+     * @return the state (or null)
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    private MeanState getMeanState(double mean) {
+        final boolean small = mean < pivot;
+        if (small) {
+            if (smallMeanCache != null || !(mean > 0))
+                // Use the tables or let the sampler reject the mean
+                return null;
+        } else if (values == null || mean >= approximationMean) {
+            return null;
+        } else {
+            final int n = (int) Math.floor(mean);
+            if ((n > maxN || n < minN) && !grow(n))
+                return null;
+        }
+        MeanState state = meanStates.get(mean);
+        if (state == null) {
+            // Compute and store for reuse. This records the statistics for
+            // the large mean state.
+            state = small
+                    ? MeanState.createSmall(mean)
+                    : MeanState.createLarge(getState((int) Math.floor(mean)), mean, mode);
+            meanStates.put(mean, state);
+            if (small && statistics != null)
+                statistics.recordSmallMean();
+        } else if (statistics != null) {
+            if (small) {
+                statistics.recordSmallMean();
+            } else {
+                statistics.recordInRange(true);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Record a request outside the range of the cache.
+     *
+     * @param n the value n ({@code floor(mean)})
+     */
+    private void recordOutOfRange(int n) {
+        if (n < minN) {
+            statistics.recordBelowRange();
+        } else {
+            statistics.recordAboveRange();
+        }
+    }
+
+    /**
+     * Creates a Poisson sampler for a mean below the algorithm switch point.
+     *
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @return A Poisson sampler
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    private DiscreteSampler createSmallMeanPoissonSampler(UniformRandomProvider rng,
+            double mean) {
+        return smallMeanCache == null
+                ? new SmallMeanPoissonSampler(rng, mean)
+                : smallMeanCache.getPoissonSampler(rng, mean);
+    }
+
+    /**
+     * Gets the state for {@code n} from the cache, creating it if necessary.
+     * <p>
+     * Assumes {@code minN <= n <= maxN}.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return the state
+     */
+    private LargeMeanPoissonSamplerState getState(int n) {
+        return getState(values, n, stateFactory);
+    }
+
+    /**
+     * Creates the state for {@code n}. If the mode is {@link Mode#FAST} then
+     * {@code log(n!)} is computed using the {@link StirlingLogFactorial}.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return the state
+     */
+    private LargeMeanPoissonSamplerState createState(int n) {
+        return LargeMeanPoissonSamplerState.create(n, acceptanceWindow, LargeMeanPoissonSampler.getLogFactorial(mode));
+    }
+
+    /**
+     * Gets the PTRS state for {@code n} from the cache, creating it if necessary.
+     * <p>
+     * Assumes {@code minN <= n <= maxN}.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return the state
+     */
+    private PtrsPoissonSamplerState getPtrsState(int n) {
+        return getState(ptrsValues, n, PtrsPoissonSamplerState::create);
+    }
+
+    /**
+     * Gets the full mean state for {@code n} from the cache, creating it if
+     * necessary.
+     * <p>
+     * Assumes {@code minN <= n <= maxN}.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return the state
+     */
+    private FullMeanPoissonSamplerState getFullMeanState(int n) {
+        return getState(fullMeanValues, n, FullMeanPoissonSamplerState::create);
+    }
 
+    /**
+     * Gets the state for {@code n} from the cache, creating it if necessary.
+     *
+     * @param <T>     the type of the state
+     * @param values  the cache
+     * @param n       the value n ({@code floor(mean)})
+     * @param factory the factory to create the state
+     * @return the state
+     */
+    private <T> T getState(StateStore<T> values, int n,
+            IntFunction<T> factory) {
         // Look in the cache for a state that can be reused.
-        // Note: The cache is offset by minN.
-        final int index = n - minN;
-        // From the java.util.concurrent.atomic Javadoc:
-        // get has the memory effects of reading a volatile variable.
-        LargeMeanPoissonSamplerState state = values.get(index);
+        T state = values.get(n);
+        if (statistics != null)
+            statistics.recordInRange(state != null);
         if (state == null) {
-            // Compute and store for reuse
-            state = LargeMeanPoissonSamplerState.create(n);
-            // Set this but do not worry about strict ordering
-            // as would be imposed for .set(int, Object) since any later
-            // objects that may be written by other threads will be the same.
-            // Allows concurrent threads to set the state without
-            // excess synchronisation over the exact object that is stored.
-            //
-            // From the java.util.concurrent.atomic Javadoc:
-            // lazySet has the memory effects of writing (assigning) a volatile
-            // variable except that it permits reorderings with subsequent (but
-            // not previous) memory actions that do not themselves impose
-            // reordering constraints with ordinary non-volatile writes.
-            values.lazySet(index, state);
-            //values.compareAndSet(index, null, state);
+            // Compute and store for reuse.
+            // Any later objects that may be written by other threads will be
+            // the same so no synchronisation is required.
+            state = factory.apply(n);
+            values.put(n, state);
         }
-        // Compute the remaining fraction of the mean
-        final double lambdaFractional = mean - n;
-        return new LargeMeanPoissonSampler(rng, state, lambdaFractional);
+        return state;
+    }
+
+    /**
+     * Checks if the cache uses a sparse store.
+     *
+     * @return true if sparse
+     */
+    boolean isSparse() {
+        final Object store = values != null ? values : ptrsValues != null ? ptrsValues : fullMeanValues;
+        return store instanceof SparseStateStore;
     }
 }
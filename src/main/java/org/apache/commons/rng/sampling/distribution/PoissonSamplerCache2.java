@@ -2,6 +2,7 @@ package org.apache.commons.rng.sampling.distribution;
 
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.rng.sampling.distribution.LargeMeanPoissonSampler.LargeMeanPoissonSamplerState;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.Mode;
 
 /**
  * Create a sampler for the <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson distribution</a>
@@ -38,6 +39,8 @@ public class PoissonSamplerCache2 {
     private final int maxN;
     /** The cache of states between {@link minN} and {@link maxN}. */
     private final LargeMeanPoissonSamplerState[] values;
+    /** The sampling mode. */
+    private final Mode mode;
 
     /**
      * @param minMean The minimum mean covered by the cache.
@@ -45,6 +48,22 @@ public class PoissonSamplerCache2 {
      * @throws IllegalArgumentException if {@code maxMean < minMean}
      */
     public PoissonSamplerCache2(double minMean, double maxMean) {
+        this(minMean, maxMean, Mode.EXACT);
+    }
+
+    /**
+     * Create an instance with the sampling mode.
+     * <p>
+     * Note: If the mode is {@link Mode#FAST} then the samplers will
+     * <strong>not</strong> match the output of the {@link PoissonSampler}.
+     *
+     * @param minMean The minimum mean covered by the cache.
+     * @param maxMean The maximum mean covered by the cache.
+     * @param mode    The sampling mode.
+     * @throws IllegalArgumentException if {@code maxMean < minMean}
+     */
+    public PoissonSamplerCache2(double minMean, double maxMean, Mode mode) {
+        this.mode = mode;
 
         // Although a mean of 0 is invalid for a Poisson sampler this case
         // is handled to make the cache user friendly. Any low means will
@@ -97,7 +116,7 @@ public class PoissonSamplerCache2 {
         final int n = (int) Math.floor(mean);
         if (n > maxN || n < minN)
             // Outside the range of the cache.
-            return new LargeMeanPoissonSampler(rng, mean);
+            return new LargeMeanPoissonSampler(rng, mean, mode);
 
         // Look in the cache for a state that can be reused.
         // Note: The cache is offset by minN.
@@ -110,6 +129,6 @@ public class PoissonSamplerCache2 {
         }
         // Compute the remaining fraction of the mean
         final double lambdaFractional = mean - n;
-        return new LargeMeanPoissonSampler(rng, state, lambdaFractional);
+        return new LargeMeanPoissonSampler(rng, state, lambdaFractional, mode);
     }
 }
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Executes benchmark to compare the publication strategy of the cached states
+ * when the cache is shared by concurrent threads.
+ * <p>
+ * Each thread creates a single-use sampler for means from the range using a
+ * shared cache and its own generator. The strategies are:
+ *
+ * <ul>
+ * <li>{@code SYNC}: {@link PoissonSamplerCache} (volatile read and ordered write
+ * using an {@link java.util.concurrent.atomic.AtomicReferenceArray})
+ * <li>{@code PLAIN}: {@link PoissonSamplerCache} with a plain array (no memory
+ * barriers; safe for immutable states)
+ * <li>{@code FROZEN}: {@link PoissonSamplerCache#freeze()} (read-only array
+ * computed before use)
+ * <li>{@code PACKED}: {@link PoissonSamplerCache#withPackedStates()}
+ * <li>{@code THREAD_LOCAL}: {@link ThreadLocalPoissonSamplerCache} (a
+ * {@link PoissonSamplerCache2} for each thread)
+ * </ul>
+ *
+ * <p>
+ * The number of threads should be set to the number of cores of the target
+ * host using the JMH {@code -t} option.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = { "-server", "-Xms512M", "-Xmx512M" })
+@Threads(4)
+public class PoissonSamplerCacheConcurrencyPerformance {
+    /** Number of samples per run. */
+    private static final int NUM_SAMPLES = 10000;
+
+    /**
+     * A factory for creating DiscreteSampler objects.
+     */
+    @FunctionalInterface
+    private interface DiscreteSamplerFactoryWithMean {
+        /**
+         * Creates a new DiscreteSampler object.
+         *
+         * @param rng  Generator of uniformly distributed random numbers.
+         * @param mean the mean
+         * @return The discrete sampler
+         */
+        DiscreteSampler createDiscreteSampler(UniformRandomProvider rng, double mean);
+    }
+
+    /**
+     * The shared cache.
+     */
+    @State(Scope.Benchmark)
+    public static class Cache {
+        /**
+         * Test range.
+         */
+        @Param({ "1024", "65536" })
+        private int range;
+
+        /**
+         * The publication strategy.
+         */
+        @Param({ "SYNC", "PLAIN", "FROZEN", "PACKED", "THREAD_LOCAL" })
+        private String strategy;
+
+        /** The factory. */
+        private DiscreteSamplerFactoryWithMean factory;
+
+        /**
+         * Gets the min of the range.
+         *
+         * @return the min
+         */
+        public double getMin() {
+            return WrapperPoissonSampler.PIVOT;
+        }
+
+        /**
+         * Gets the max of the range.
+         *
+         * @return the max
+         */
+        public double getMax() {
+            return getMin() + range;
+        }
+
+        /**
+         * Gets the factory.
+         *
+         * @return the factory
+         */
+        public DiscreteSamplerFactoryWithMean getFactory() {
+            return factory;
+        }
+
+        /** Create the cache. */
+        @Setup
+        public void setup() {
+            final PoissonSamplerCache cache = new PoissonSamplerCache(getMin(), getMax());
+            if ("SYNC".equals(strategy)) {
+                factory = cache::getPoissonSampler;
+            } else if ("PLAIN".equals(strategy)) {
+                factory = cache.withPlainStore()::getPoissonSampler;
+            } else if ("FROZEN".equals(strategy)) {
+                factory = cache.freeze()::getPoissonSampler;
+            } else if ("PACKED".equals(strategy)) {
+                factory = cache.withPackedStates()::getPoissonSampler;
+            } else if ("THREAD_LOCAL".equals(strategy)) {
+                factory = new ThreadLocalPoissonSamplerCache(getMin(), getMax())::getPoissonSampler;
+            } else {
+                throw new IllegalStateException("Unknown strategy: " + strategy);
+            }
+        }
+    }
+
+    /**
+     * The generator and means for each thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadSource {
+        /** RNG. */
+        private UniformRandomProvider generator;
+
+        /** The means. */
+        private double[] means;
+
+        /**
+         * @return the RNG.
+         */
+        public UniformRandomProvider getGenerator() {
+            return generator;
+        }
+
+        /**
+         * Gets the mean.
+         *
+         * @param i the index
+         * @return the mean
+         */
+        public double getMean(int i) {
+            return means[i];
+        }
+
+        /**
+         * Create the generator and the means for the range.
+         *
+         * @param cache the cache
+         */
+        @Setup
+        public void setup(Cache cache) {
+            // Each thread has a different seed
+            generator = RandomSource.create(RandomSource.SPLIT_MIX_64);
+            means = new double[NUM_SAMPLES];
+            final double min = cache.getMin();
+            final double width = cache.getMax() - min;
+            for (int i = 0; i < NUM_SAMPLES; i++)
+                means[i] = min + generator.nextDouble() * width;
+        }
+    }
+
+    /**
+     * @param cache  the cache
+     * @param source the thread source
+     * @param bh     Data sink.
+     */
+    @Benchmark
+    public void runSample(Cache cache, ThreadSource source, Blackhole bh) {
+        final DiscreteSamplerFactoryWithMean factory = cache.getFactory();
+        final UniformRandomProvider rng = source.getGenerator();
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            bh.consume(factory.createDiscreteSampler(rng, source.getMean(i)).sample());
+        }
+    }
+}
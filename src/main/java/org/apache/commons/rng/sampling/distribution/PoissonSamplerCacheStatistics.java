@@ -0,0 +1,272 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectInstance;
+import javax.management.ObjectName;
+
+/**
+ * Counts the routing of each request to a {@link PoissonSamplerCache}. This
+ * shows if the range of the cache covers the means that are used.
+ * <p>
+ * The counts use striped counters ({@link LongAdder}) so concurrent threads
+ * do not contend on the same memory. A count read during concurrent updates
+ * is not an atomic snapshot. The {@link #snapshot()} is a convenience copy of
+ * all the counts; each count is read in turn so the copy is not consistent
+ * under concurrent updates (for example the total may not equal the number of
+ * completed requests).
+ * <p>
+ * The counts can be exposed using JMX (see
+ * {@link #register(MBeanServer, ObjectName)}).
+ * <p>
+ * The statistics are thread safe.
+ */
+public final class PoissonSamplerCacheStatistics implements PoissonSamplerCacheStatisticsMBean {
+    /** The number of requests in range that used an existing state. */
+    private final LongAdder hits = new LongAdder();
+    /** The number of requests in range that computed the state. */
+    private final LongAdder computes = new LongAdder();
+    /** The number of requests below the range. */
+    private final LongAdder belowRange = new LongAdder();
+    /** The number of requests above the range. */
+    private final LongAdder aboveRange = new LongAdder();
+    /** The number of requests below the algorithm switch point. */
+    private final LongAdder smallMean = new LongAdder();
+    /** The number of requests that used the normal approximation. */
+    private final LongAdder normalApproximation = new LongAdder();
+
+    /**
+     * A copy of the counts of the statistics. Each count is read in turn; the
+     * counts are not read atomically together.
+     */
+    public static final class Snapshot {
+        /** The hit count. */
+        private final long hits;
+        /** The compute count. */
+        private final long computes;
+        /** The below range count. */
+        private final long belowRange;
+        /** The above range count. */
+        private final long aboveRange;
+        /** The small mean count. */
+        private final long smallMean;
+        /** The normal approximation count. */
+        private final long normalApproximation;
+
+        /**
+         * @param source the source
+         */
+        Snapshot(PoissonSamplerCacheStatistics source) {
+            hits = source.getHitCount();
+            computes = source.getComputeCount();
+            belowRange = source.getBelowRangeCount();
+            aboveRange = source.getAboveRangeCount();
+            smallMean = source.getSmallMeanCount();
+            normalApproximation = source.getNormalApproximationCount();
+        }
+
+        /**
+         * @return the hit count
+         * @see PoissonSamplerCacheStatistics#getHitCount()
+         */
+        public long getHitCount() {
+            return hits;
+        }
+
+        /**
+         * @return the compute count
+         * @see PoissonSamplerCacheStatistics#getComputeCount()
+         */
+        public long getComputeCount() {
+            return computes;
+        }
+
+        /**
+         * @return the below range count
+         * @see PoissonSamplerCacheStatistics#getBelowRangeCount()
+         */
+        public long getBelowRangeCount() {
+            return belowRange;
+        }
+
+        /**
+         * @return the above range count
+         * @see PoissonSamplerCacheStatistics#getAboveRangeCount()
+         */
+        public long getAboveRangeCount() {
+            return aboveRange;
+        }
+
+        /**
+         * @return the small mean count
+         * @see PoissonSamplerCacheStatistics#getSmallMeanCount()
+         */
+        public long getSmallMeanCount() {
+            return smallMean;
+        }
+
+        /**
+         * @return the normal approximation count
+         * @see PoissonSamplerCacheStatistics#getNormalApproximationCount()
+         */
+        public long getNormalApproximationCount() {
+            return normalApproximation;
+        }
+
+        /**
+         * Gets the total number of requests.
+         *
+         * @return the total count
+         */
+        public long getTotalCount() {
+            return hits + computes + belowRange + aboveRange + smallMean + normalApproximation;
+        }
+
+        /**
+         * @return the hit rate
+         * @see PoissonSamplerCacheStatistics#getHitRate()
+         */
+        public double getHitRate() {
+            return hitRate(hits, computes);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", computes=" + computes + ", belowRange=" + belowRange +
+                    ", aboveRange=" + aboveRange + ", smallMean=" + smallMean +
+                    ", normalApproximation=" + normalApproximation;
+        }
+    }
+
+    /**
+     * Record a request in range.
+     *
+     * @param hit Set to true if an existing state was used.
+     */
+    void recordInRange(boolean hit) {
+        if (hit) {
+            hits.increment();
+        } else {
+            computes.increment();
+        }
+    }
+
+    /**
+     * Record a request below the range.
+     */
+    void recordBelowRange() {
+        belowRange.increment();
+    }
+
+    /**
+     * Record a request above the range.
+     */
+    void recordAboveRange() {
+        aboveRange.increment();
+    }
+
+    /**
+     * Record a request below the algorithm switch point.
+     */
+    void recordSmallMean() {
+        smallMean.increment();
+    }
+
+    /**
+     * Record a request that used the normal approximation.
+     */
+    void recordNormalApproximation() {
+        normalApproximation.increment();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getComputeCount() {
+        return computes.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getBelowRangeCount() {
+        return belowRange.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getAboveRangeCount() {
+        return aboveRange.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getSmallMeanCount() {
+        return smallMean.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getNormalApproximationCount() {
+        return normalApproximation.sum();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getHitRate() {
+        return hitRate(hits.sum(), computes.sum());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void reset() {
+        hits.reset();
+        computes.reset();
+        belowRange.reset();
+        aboveRange.reset();
+        smallMean.reset();
+        normalApproximation.reset();
+    }
+
+    /**
+     * Gets a copy of the current counts. This is not an atomic snapshot under
+     * concurrent updates.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Register the statistics as a standard MBean with the server.
+     *
+     * @param server The server (e.g.
+     *               {@link java.lang.management.ManagementFactory#getPlatformMBeanServer()}).
+     * @param name   The name.
+     * @return the registered instance
+     * @throws JMException if the registration fails
+     */
+    public ObjectInstance register(MBeanServer server, ObjectName name) throws JMException {
+        return server.registerMBean(this, name);
+    }
+
+    /**
+     * Compute the hit rate.
+     *
+     * @param hits     the hits
+     * @param computes the computes
+     * @return the hit rate
+     */
+    private static double hitRate(long hits, long computes) {
+        final long total = hits + computes;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,69 @@
+package org.apache.commons.rng.sampling.distribution;
+
+/**
+ * The management interface for the {@link PoissonSamplerCacheStatistics}.
+ * <p>
+ * The attributes are the current counts of the routing of each request to the
+ * {@link PoissonSamplerCache}.
+ */
+public interface PoissonSamplerCacheStatisticsMBean {
+    /**
+     * Gets the number of requests in the range of the cache that used an
+     * existing state.
+     *
+     * @return the count
+     */
+    long getHitCount();
+
+    /**
+     * Gets the number of requests in the range of the cache that computed the
+     * state.
+     *
+     * @return the count
+     */
+    long getComputeCount();
+
+    /**
+     * Gets the number of requests with a large mean below the range of the
+     * cache.
+     *
+     * @return the count
+     */
+    long getBelowRangeCount();
+
+    /**
+     * Gets the number of requests with a large mean above the range of the
+     * cache.
+     *
+     * @return the count
+     */
+    long getAboveRangeCount();
+
+    /**
+     * Gets the number of requests with a mean below the algorithm switch point.
+     *
+     * @return the count
+     */
+    long getSmallMeanCount();
+
+    /**
+     * Gets the number of requests that used the normal approximation.
+     *
+     * @return the count
+     */
+    long getNormalApproximationCount();
+
+    /**
+     * Gets the hit rate of the requests in the range of the cache. This is
+     * {@code hits / (hits + computes)}; it is zero if there are no requests in
+     * the range.
+     *
+     * @return the hit rate
+     */
+    double getHitRate();
+
+    /**
+     * Reset the counts to zero.
+     */
+    void reset();
+}
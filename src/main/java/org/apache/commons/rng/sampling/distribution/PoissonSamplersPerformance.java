@@ -17,16 +17,23 @@
 
 package org.apache.commons.rng.sampling.distribution;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.rng.RandomProviderState;
 import org.apache.commons.rng.RestorableUniformRandomProvider;
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.rng.sampling.PermutationSampler;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.LargeMeanAlgorithm;
 import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
@@ -34,6 +41,7 @@ import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
@@ -54,6 +62,8 @@ import org.openjdk.jmh.infra.Blackhole;
 public class PoissonSamplersPerformance {
     /** Number of samples per run. */
     private static final int NUM_SAMPLES = 100000;
+    /** Number of samples per bulk array fill. Must be a factor of NUM_SAMPLES. */
+    private static final int BULK_SIZE = 1000;
 
     /**
      * Seed used to ensure the tests are the same. This can be different per
@@ -130,6 +140,9 @@ public class PoissonSamplersPerformance {
      */
     @State(Scope.Benchmark)
     public static class SmallMean {
+        /** The values of the {@link #mean} parameter. */
+        private static final double[] MEANS = { 5.3, 20.1, 35.7 };
+
         /**
          * Test mean. Note the small mean sampler is used when mean is under 40.
          */
@@ -144,6 +157,17 @@ public class PoissonSamplersPerformance {
         public double getMean() {
             return mean;
         }
+
+        /**
+         * Gets the mean from a cycle through all the values of the parameter.
+         * Consecutive means are different.
+         *
+         * @param i the index
+         * @return the mean
+         */
+        public double getMean(int i) {
+            return MEANS[i % MEANS.length];
+        }
     }
 
     /**
@@ -151,6 +175,9 @@ public class PoissonSamplersPerformance {
      */
     @State(Scope.Benchmark)
     public static class LargeMean {
+        /** The values of the {@link #mean} parameter. */
+        private static final double[] MEANS = { 40.3, 60.9, 142.3 };
+
         /**
          * Test mean. Note the PoissonSampler log(n!) cache goes from 40-80 so
          * test the extremes and the middle.
@@ -166,6 +193,38 @@ public class PoissonSamplersPerformance {
         public double getMean() {
             return mean;
         }
+
+        /**
+         * Gets the mean from a cycle through all the values of the parameter.
+         * Consecutive means are different.
+         *
+         * @param i the index
+         * @return the mean
+         */
+        public double getMean(int i) {
+            return MEANS[i % MEANS.length];
+        }
+    }
+
+    /**
+     * The very large mean value for testing the normal approximation.
+     */
+    @State(Scope.Benchmark)
+    public static class HugeMean {
+        /**
+         * Test mean.
+         */
+        @Param({ "10000.3", "1000000.3", "100000000.3" })
+        private double mean;
+
+        /**
+         * Gets the mean.
+         *
+         * @return the mean
+         */
+        public double getMean() {
+            return mean;
+        }
     }
 
     /**
@@ -208,6 +267,149 @@ public class PoissonSamplersPerformance {
         }
     }
 
+    /**
+     * A snapshot of the cache states covering the largest {@link MeanRange}.
+     */
+    @State(Scope.Benchmark)
+    public static class Snapshot {
+        /** The snapshot file. */
+        private Path file;
+
+        /**
+         * Gets the snapshot file.
+         *
+         * @return the file
+         */
+        public Path getFile() {
+            return file;
+        }
+
+        /**
+         * Write the snapshot.
+         *
+         * @throws IOException if an I/O error occurs
+         */
+        @Setup
+        public void setup() throws IOException {
+            file = Files.createTempFile("poisson", ".snapshot");
+            new PoissonSamplerCache(WrapperPoissonSampler.PIVOT, WrapperPoissonSampler.PIVOT + 4096)
+                .writeSnapshot(file);
+        }
+
+        /**
+         * Delete the snapshot.
+         *
+         * @throws IOException if an I/O error occurs
+         */
+        @TearDown
+        public void tearDown() throws IOException {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * A wide range of mean values for testing the bounded cache. The means are
+     * a skewed selection from a set of hot means with a fraction of means from
+     * the entire range.
+     */
+    @State(Scope.Benchmark)
+    public static class WideMeanRange {
+        /**
+         * Test range.
+         */
+        @Param({ "100000", "1000000" })
+        private int range;
+
+        /**
+         * The number of hot means.
+         */
+        @Param({ "256", "4096" })
+        private int hotMeans;
+
+        /** The means. */
+        private double[] means;
+
+        /** The number of distinct {@code n = floor(mean)}. */
+        private int distinct;
+
+        /**
+         * Gets the mean.
+         *
+         * @param i the index
+         * @return the mean
+         */
+        public double getMean(int i) {
+            return means[i];
+        }
+
+        /**
+         * Gets the min of the range.
+         *
+         * @return the min
+         */
+        public double getMin() {
+            return WrapperPoissonSampler.PIVOT;
+        }
+
+        /**
+         * Gets the max of the range.
+         *
+         * @return the max
+         */
+        public double getMax() {
+            return getMin() + range;
+        }
+
+        /**
+         * Gets the number of cache hits for a dense array covering the range.
+         * This only misses on the first use of each {@code n}.
+         *
+         * @return the hits
+         */
+        public long getDenseHits() {
+            return NUM_SAMPLES - distinct;
+        }
+
+        /** Create the means. */
+        @Setup
+        public void setup() {
+            final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, seed[0]);
+            final double[] hot = new double[hotMeans];
+            for (int i = 0; i < hot.length; i++)
+                hot[i] = getMin() + rng.nextDouble() * range;
+            means = new double[NUM_SAMPLES];
+            final BitSet used = new BitSet(range + 1);
+            for (int i = 0; i < NUM_SAMPLES; i++) {
+                // 5% of means are from the entire range
+                final double u = rng.nextDouble();
+                means[i] = u < 0.05 ?
+                        getMin() + rng.nextDouble() * range :
+                        hot[(int) (hot.length * u * u * u)];
+                used.set((int) (means[i] - getMin()));
+            }
+            distinct = used.cardinality();
+        }
+    }
+
+    /**
+     * The cache hit and miss counts reported by the benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CacheCounts {
+        /** The cache hits. */
+        public long hits;
+        /** The cache misses. */
+        public long misses;
+
+        /** Reset the counts. */
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
     /**
      * A factory for creating DiscreteSampler objects.
      */
@@ -275,6 +477,39 @@ public class PoissonSamplersPerformance {
         }
     }
 
+    /**
+     * Exercises a discrete sampler by filling an array using single samples.
+     * This is the comparator for the bulk sampling method.
+     *
+     * @param sampler Sampler.
+     * @param bh      Data sink.
+     */
+    private static void runArraySample(DiscreteSampler sampler, Blackhole bh) {
+        final int[] values = new int[BULK_SIZE];
+        for (int i = 0; i < NUM_SAMPLES; i += BULK_SIZE) {
+            for (int j = 0; j < BULK_SIZE; j++) {
+                values[j] = sampler.sample();
+            }
+            bh.consume(values);
+        }
+    }
+
+    /**
+     * Exercises a discrete sampler by filling an array using the bulk sampling
+     * method.
+     *
+     * @param sampler Sampler.
+     * @param bh      Data sink.
+     */
+    private static void runBulkSample(BulkDiscreteSampler sampler,
+            Blackhole bh) {
+        final int[] values = new int[BULK_SIZE];
+        for (int i = 0; i < NUM_SAMPLES; i += BULK_SIZE) {
+            sampler.sample(values, 0, BULK_SIZE);
+            bh.consume(values);
+        }
+    }
+
     // Benchmarks methods below.
 
     /**
@@ -313,6 +548,43 @@ public class PoissonSamplersPerformance {
         runSample(new SmallMeanPoissonSampler(r, mean.getMean()), bh);
     }
 
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanRepeatUse_KempSmallMeanPoissonSampler(Sources sources,
+            SmallMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(new KempSmallMeanPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanRepeatUse_WrapperPoissonSamplerInversion(Sources sources,
+            SmallMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(new WrapperPoissonSampler(r, mean.getMean(),
+                WrapperPoissonSampler.SmallMeanAlgorithm.INVERSION), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanRepeatUse_MarsagliaTsangWangPoissonSampler(Sources sources,
+            SmallMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(new MarsagliaTsangWangPoissonSampler(r, mean.getMean()), bh);
+    }
+
     /**
      * @param sources Source of randomness.
      * @param mean    the mean
@@ -337,6 +609,18 @@ public class PoissonSamplersPerformance {
         runSample(new WrapperPoissonSampler(r, mean.getMean()), bh);
     }
 
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanRepeatUse_WrapperPoissonSamplerFast(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(new WrapperPoissonSampler(r, mean.getMean(), WrapperPoissonSampler.Mode.FAST), bh);
+    }
+
     /**
      * @param sources Source of randomness.
      * @param mean    the mean
@@ -355,10 +639,10 @@ public class PoissonSamplersPerformance {
      * @param bh      Data sink.
      */
     @Benchmark
-    public void runSmallMeanSingleUse_PoissonSampler(Sources sources,
-            SmallMean mean, Blackhole bh) {
+    public void runLargeMeanRepeatUse_FusedLargeMeanPoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
         final UniformRandomProvider r = sources.getGenerator();
-        runSample(() -> new PoissonSampler(r, mean.getMean()), bh);
+        runSample(new FusedLargeMeanPoissonSampler(r, mean.getMean()), bh);
     }
 
     /**
@@ -367,10 +651,10 @@ public class PoissonSamplersPerformance {
      * @param bh      Data sink.
      */
     @Benchmark
-    public void runSmallMeanSingleUse_WrapperPoissonSampler(Sources sources,
-            SmallMean mean, Blackhole bh) {
+    public void runLargeMeanRepeatUse_PtrsPoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
         final UniformRandomProvider r = sources.getGenerator();
-        runSample(() -> new WrapperPoissonSampler(r, mean.getMean()), bh);
+        runSample(new PtrsPoissonSampler(r, mean.getMean()), bh);
     }
 
     /**
@@ -379,10 +663,10 @@ public class PoissonSamplersPerformance {
      * @param bh      Data sink.
      */
     @Benchmark
-    public void runSmallMeanSingleUse_SmallMeanPoissonSampler(Sources sources,
-            SmallMean mean, Blackhole bh) {
+    public void runLargeMeanRepeatUse_FullMeanPoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
         final UniformRandomProvider r = sources.getGenerator();
-        runSample(() -> new SmallMeanPoissonSampler(r, mean.getMean()), bh);
+        runSample(new FullMeanPoissonSampler(r, mean.getMean()), bh);
     }
 
     /**
@@ -391,10 +675,13 @@ public class PoissonSamplersPerformance {
      * @param bh      Data sink.
      */
     @Benchmark
-    public void runLargeMeanSingleUse_PoissonSampler(Sources sources,
+    public void runLargeMeanRepeatUse_LongPoissonSampler(Sources sources,
             LargeMean mean, Blackhole bh) {
         final UniformRandomProvider r = sources.getGenerator();
-        runSample(() -> new PoissonSampler(r, mean.getMean()), bh);
+        final LongPoissonSampler sampler = new LongPoissonSampler(r, mean.getMean());
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            bh.consume(sampler.sample());
+        }
     }
 
     /**
@@ -403,10 +690,10 @@ public class PoissonSamplersPerformance {
      * @param bh      Data sink.
      */
     @Benchmark
-    public void runLargeMeanSingleUse_WrapperPoissonSampler(Sources sources,
-            LargeMean mean, Blackhole bh) {
+    public void runHugeMeanRepeatUse_LargeMeanPoissonSampler(Sources sources,
+            HugeMean mean, Blackhole bh) {
         final UniformRandomProvider r = sources.getGenerator();
-        runSample(() -> new WrapperPoissonSampler(r, mean.getMean()), bh);
+        runSample(new LargeMeanPoissonSampler(r, mean.getMean()), bh);
     }
 
     /**
@@ -415,50 +702,859 @@ public class PoissonSamplersPerformance {
      * @param bh      Data sink.
      */
     @Benchmark
-    public void runLargeMeanSingleUse_LargeMeanPoissonSampler(Sources sources,
-            LargeMean mean, Blackhole bh) {
+    public void runHugeMeanRepeatUse_PtrsPoissonSampler(Sources sources,
+            HugeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(new PtrsPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runHugeMeanRepeatUse_NormalApproximationPoissonSampler(Sources sources,
+            HugeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(new NormalApproximationPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runHugeMeanSingleUse_LargeMeanPoissonSampler(Sources sources,
+            HugeMean mean, Blackhole bh) {
         final UniformRandomProvider r = sources.getGenerator();
         runSample(() -> new LargeMeanPoissonSampler(r, mean.getMean()), bh);
     }
 
     /**
+     * The error budget of 1e-6 uses the approximation for means above 23400.
+     *
      * @param sources Source of randomness.
-     * @param range   the range
+     * @param mean    the mean
      * @param bh      Data sink.
      */
     @Benchmark
-    public void runPoissonSamplerCache_NoCache(Sources sources, MeanRange range,
-            Blackhole bh) {
+    public void runHugeMeanSingleUse_WrapperPoissonSamplerApproximation(Sources sources,
+            HugeMean mean, Blackhole bh) {
         final UniformRandomProvider r = sources.getGenerator();
-        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 0);
-        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+        runSample(() -> new WrapperPoissonSampler(r, mean.getMean(),
+                LargeMeanAlgorithm.REJECTION, 1e-6), bh);
     }
 
     /**
      * @param sources Source of randomness.
-     * @param range   the range
+     * @param mean    the mean
      * @param bh      Data sink.
      */
     @Benchmark
-    public void runPoissonSamplerCache_SyncCache(Sources sources,
-            MeanRange range, Blackhole bh) {
+    public void runLargeMeanRepeatUse_MarsagliaTsangWangPoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
         final UniformRandomProvider r = sources.getGenerator();
-        final PoissonSamplerCache cache = new PoissonSamplerCache(
-                range.getMin(), range.getMax());
-        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+        runSample(new MarsagliaTsangWangPoissonSampler(r, mean.getMean()), bh);
     }
 
     /**
      * @param sources Source of randomness.
-     * @param range   the range
+     * @param mean    the mean
      * @param bh      Data sink.
      */
     @Benchmark
-    public void runPoissonSamplerCache_Cache(Sources sources, MeanRange range,
-            Blackhole bh) {
+    public void runSmallMeanSingleUse_PoissonSampler(Sources sources,
+            SmallMean mean, Blackhole bh) {
         final UniformRandomProvider r = sources.getGenerator();
-        final PoissonSamplerCache2 cache = new PoissonSamplerCache2(
-                range.getMin(), range.getMax());
-        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+        runSample(() -> new PoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanSingleUse_WrapperPoissonSampler(Sources sources,
+            SmallMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(() -> new WrapperPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanSingleUse_SmallMeanPoissonSampler(Sources sources,
+            SmallMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(() -> new SmallMeanPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanSingleUse_KempSmallMeanPoissonSampler(Sources sources,
+            SmallMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(() -> new KempSmallMeanPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanSingleUse_SmallMeanPoissonTableCache(Sources sources,
+            SmallMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        // The SmallMean parameters are on the grid
+        final SmallMeanPoissonTableCache cache = new SmallMeanPoissonTableCache(0.1);
+        runSample(() -> cache.getPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanSingleUse_PoissonSamplerCacheWithTables(Sources sources,
+            SmallMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 0,
+                new SmallMeanPoissonTableCache(0.1));
+        runSample(() -> cache.getPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanSingleUse_PoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(() -> new PoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanSingleUse_WrapperPoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(() -> new WrapperPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanSingleUse_WrapperPoissonSamplerFast(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(() -> new WrapperPoissonSampler(r, mean.getMean(), WrapperPoissonSampler.Mode.FAST), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanSingleUse_LargeMeanPoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(() -> new LargeMeanPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanSingleUse_PtrsPoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(() -> new PtrsPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanSingleUse_FullMeanPoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runSample(() -> new FullMeanPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * The split approach using a cached state for {@code floor(mean)}.
+     *
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanSingleUse_PoissonSamplerCache(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(mean.getMean(), mean.getMean());
+        runSample(() -> cache.getPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * The split approach using a cached PTRS state for {@code floor(mean)}.
+     *
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanSingleUse_PoissonSamplerCachePtrs(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(mean.getMean(), mean.getMean(),
+                LargeMeanAlgorithm.PTRS);
+        runSample(() -> cache.getPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * The full mean approach using a cached state for {@code floor(mean)}.
+     *
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanSingleUse_PoissonSamplerCacheFullMean(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(mean.getMean(), mean.getMean(),
+                LargeMeanAlgorithm.FULL_MEAN);
+        runSample(() -> cache.getPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_NoCache(Sources sources, MeanRange range,
+            Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 0);
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_SyncCache(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax());
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * The cache counts the routing of each request. Compare to the cache
+     * without the counts to measure the overhead.
+     *
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_SyncCacheStatistics(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax()).withStatistics();
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+        bh.consume(cache.getStatistics().snapshot());
+    }
+
+    /**
+     * The cache stores the state of each mean. The range sample has 10000
+     * distinct means so each mean is used 10 times.
+     *
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_SyncCacheMeanStates(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax()).withMeanStates(rangeSample.length);
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * The cache starts with a range covering only the minimum and grows its
+     * range on demand to cover the range sample.
+     *
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_SyncCacheGrowableRange(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMin()).withGrowableRange((int) range.getMax() + 1);
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * The cache states are packed into a single array.
+     *
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_SyncCachePacked(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax()).withPackedStates();
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * The cache states are read in place from a memory-mapped snapshot. The
+     * snapshot is mapped for each invocation as if by a new process.
+     *
+     * @param sources  Source of randomness.
+     * @param range    the range
+     * @param snapshot the snapshot
+     * @param bh       Data sink.
+     * @throws IOException if an I/O error occurs
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_SyncCacheSnapshot(Sources sources,
+            MeanRange range, Snapshot snapshot, Blackhole bh) throws IOException {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax()).withSnapshot(snapshot.getFile());
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * The cache states are computed for the entire range before sampling.
+     *
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_SyncCachePrefill(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax());
+        bh.consume(cache.prefill());
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * The cache states are stored in an open-addressing hash table.
+     *
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_SyncCacheSparse(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        // Size the table for the range to avoid growth
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax()).withSparseStore((int) range.getMax() - (int) range.getMin() + 1);
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * The cache states are stored in an open-addressing hash table that grows
+     * from the minimum size.
+     *
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_SyncCacheSparseGrow(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax()).withSparseStore(0);
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_Cache(Sources sources, MeanRange range,
+            Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache2 cache = new PoissonSamplerCache2(
+                range.getMin(), range.getMax());
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * The cached states use an acceptance window for the final acceptance check.
+     *
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_SyncCacheWindow(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax()).withAcceptanceWindow();
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_SyncCacheFast(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax(), WrapperPoissonSampler.Mode.FAST);
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_CacheFast(Sources sources, MeanRange range,
+            Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache2 cache = new PoissonSamplerCache2(
+                range.getMin(), range.getMax(), WrapperPoissonSampler.Mode.FAST);
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_NoCachePtrs(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 0,
+                LargeMeanAlgorithm.PTRS);
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_SyncCachePtrs(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax(), LargeMeanAlgorithm.PTRS);
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_NoCacheFullMean(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 0,
+                LargeMeanAlgorithm.FULL_MEAN);
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_SyncCacheFullMean(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax(), LargeMeanAlgorithm.FULL_MEAN);
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+    }
+
+    /**
+     * Exercises a discrete sampler created for a single use.
+     *
+     * @param factory The factory.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    private static void runSample(DiscreteSamplerFactoryWithMean factory,
+            WideMeanRange range, Blackhole bh) {
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            bh.consume(
+                    factory.createDiscreteSampler(range.getMean(i)).sample());
+        }
+    }
+
+    /**
+     * The dense array covering the entire range. The hit count is computed
+     * from the distinct means.
+     *
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param counts  the cache counts
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runWideMeanRange_SyncCache(Sources sources,
+            WideMeanRange range, CacheCounts counts, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax());
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+        counts.hits += range.getDenseHits();
+        counts.misses += NUM_SAMPLES - range.getDenseHits();
+    }
+
+    /**
+     * The bounded cache with 1024 entries.
+     *
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param counts  the cache counts
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runWideMeanRange_BoundedCache(Sources sources,
+            WideMeanRange range, CacheCounts counts, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final BoundedPoissonSamplerCache cache = new BoundedPoissonSamplerCache(1024);
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+        counts.hits += cache.getHitCount();
+        counts.misses += cache.getMissCount();
+    }
+
+    /**
+     * The bounded cache with 16384 entries.
+     *
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param counts  the cache counts
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runWideMeanRange_BoundedCacheLarge(Sources sources,
+            WideMeanRange range, CacheCounts counts, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final BoundedPoissonSamplerCache cache = new BoundedPoissonSamplerCache(16384);
+        runSample((m) -> cache.getPoissonSampler(r, m), range, bh);
+        counts.hits += cache.getHitCount();
+        counts.misses += cache.getMissCount();
+    }
+
+    /**
+     * Re-parameterise a single sampler for each mean. This does not allocate
+     * per sample; run with {@code -prof gc} to verify the allocation rate.
+     *
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCache_ReusablePoissonSampler(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final ReusablePoissonSampler sampler = new ReusablePoissonSampler(r,
+                range.getMin());
+        runSample((m) -> {
+            sampler.setMean(m);
+            return sampler;
+        }, range, bh);
+    }
+
+    /**
+     * Re-parameterise a single sampler for each sample. The mean cycles through
+     * all the values of the mean parameter so each sample changes the mean;
+     * the result is independent of the parameter. Compare with the average of
+     * the single use benchmarks over the parameter. This does not allocate
+     * per sample; run with {@code -prof gc} to verify the allocation rate.
+     *
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanSingleUse_ReusablePoissonSampler(Sources sources,
+            SmallMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final ReusablePoissonSampler sampler = new ReusablePoissonSampler(r,
+                mean.getMean(0));
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            bh.consume(sampler.sample(mean.getMean(i + 1)));
+        }
+    }
+
+    /**
+     * Re-parameterise a single sampler for each sample. The mean cycles through
+     * all the values of the mean parameter so each sample changes the mean;
+     * the result is independent of the parameter. Compare with the average of
+     * the single use benchmarks over the parameter. This does not allocate
+     * per sample; run with {@code -prof gc} to verify the allocation rate.
+     *
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanSingleUse_ReusablePoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final ReusablePoissonSampler sampler = new ReusablePoissonSampler(r,
+                mean.getMean(0));
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            bh.consume(sampler.sample(mean.getMean(i + 1)));
+        }
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanArrayFill_SmallMeanPoissonSampler(Sources sources,
+            SmallMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runArraySample(new SmallMeanPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanBulkFill_SmallMeanPoissonSampler(Sources sources,
+            SmallMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runBulkSample(new SmallMeanPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanArrayFill_WrapperPoissonSampler(Sources sources,
+            SmallMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runArraySample(new WrapperPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runSmallMeanBulkFill_WrapperPoissonSampler(Sources sources,
+            SmallMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runBulkSample(new WrapperPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanArrayFill_LargeMeanPoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runArraySample(new LargeMeanPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanBulkFill_LargeMeanPoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runBulkSample(new LargeMeanPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanArrayFill_WrapperPoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runArraySample(new WrapperPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param mean    the mean
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runLargeMeanBulkFill_WrapperPoissonSampler(Sources sources,
+            LargeMean mean, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        runBulkSample(new WrapperPoissonSampler(r, mean.getMean()), bh);
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCacheArrayFill_SyncCache(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax());
+        final double[] means = new double[BULK_SIZE];
+        final int[] values = new int[BULK_SIZE];
+        for (int i = 0; i < NUM_SAMPLES; i += BULK_SIZE) {
+            for (int j = 0; j < BULK_SIZE; j++) {
+                means[j] = range.getMean(i + j);
+            }
+            for (int j = 0; j < BULK_SIZE; j++) {
+                values[j] = cache.getPoissonSampler(r, means[j]).sample();
+            }
+            bh.consume(values);
+        }
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCacheBulkFill_SyncCache(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax());
+        final double[] means = new double[BULK_SIZE];
+        final int[] values = new int[BULK_SIZE];
+        for (int i = 0; i < NUM_SAMPLES; i += BULK_SIZE) {
+            for (int j = 0; j < BULK_SIZE; j++) {
+                means[j] = range.getMean(i + j);
+            }
+            cache.sample(r, means, values, 0, BULK_SIZE);
+            bh.consume(values);
+        }
+    }
+
+    /**
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCacheBulkFill_SyncCacheFast(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax(), WrapperPoissonSampler.Mode.FAST);
+        final double[] means = new double[BULK_SIZE];
+        final int[] values = new int[BULK_SIZE];
+        for (int i = 0; i < NUM_SAMPLES; i += BULK_SIZE) {
+            for (int j = 0; j < BULK_SIZE; j++) {
+                means[j] = range.getMean(i + j);
+            }
+            cache.sample(r, means, values, 0, BULK_SIZE);
+            bh.consume(values);
+        }
+    }
+
+    /**
+     * The cache counts the routing of each request. Compare to the cache
+     * without the counts to measure the overhead.
+     *
+     * @param sources Source of randomness.
+     * @param range   the range
+     * @param bh      Data sink.
+     */
+    @Benchmark
+    public void runPoissonSamplerCacheBulkFill_SyncCacheStatistics(Sources sources,
+            MeanRange range, Blackhole bh) {
+        final UniformRandomProvider r = sources.getGenerator();
+        final PoissonSamplerCache cache = new PoissonSamplerCache(
+                range.getMin(), range.getMax()).withStatistics();
+        final double[] means = new double[BULK_SIZE];
+        final int[] values = new int[BULK_SIZE];
+        for (int i = 0; i < NUM_SAMPLES; i += BULK_SIZE) {
+            for (int j = 0; j < BULK_SIZE; j++) {
+                means[j] = range.getMean(i + j);
+            }
+            cache.sample(r, means, values, 0, BULK_SIZE);
+            bh.consume(values);
+        }
+        bh.consume(cache.getStatistics().snapshot());
     }
 }
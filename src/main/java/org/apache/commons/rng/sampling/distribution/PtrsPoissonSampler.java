@@ -0,0 +1,204 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.InternalUtils.FactorialLog;
+
+/**
+ * Sampler for the
+ * <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson
+ * distribution</a>.
+ *
+ * <ul>
+ * <li>For large means, we use the transformed rejection with squeeze (PTRS)
+ * algorithm described in <blockquote> H&ouml;rmann, Wolfgang. (1993).<i>The
+ * transformed rejection method for generating Poisson random variables</i><br>
+ * <strong>Insurance: Mathematics and Economics</strong> vol. 12 pp. 39-45.
+ * </blockquote></li>
+ * </ul>
+ *
+ * The algorithm requires two uniform deviates per attempt and the acceptance
+ * rate is high. The squeeze accepts most samples without the computation of
+ * {@code log(n!)}.
+ * <p>
+ * The PTRS algorithm is used to sample from the Poisson distribution with mean
+ * {@code floor(mean)}. The remaining fraction of the mean is sampled using the
+ * {@link SmallMeanPoissonSampler}. This allows the state to be cached for each
+ * integer {@code n}.
+ * <p>
+ * This sampler is suitable for {@code mean>=10}.
+ */
+public class PtrsPoissonSampler extends SamplerBase implements BulkDiscreteSampler {
+
+    /** The minimum mean supported by the algorithm. */
+    static final double MIN_MEAN = 10;
+
+    /** Class to compute {@code log(n!)}. This has no cached values. */
+    private static final FactorialLog NO_CACHE_FACTORIAL_LOG = FactorialLog.create();
+
+    // Working values
+    private final double lambda;
+    private final double logLambda;
+    private final double a;
+    private final double b;
+    private final double logInvAlpha;
+    private final double vr;
+
+    /** The internal Poisson sampler for the lambda fraction. */
+    private final DiscreteSampler smallMeanPoissonSampler;
+
+    /**
+     * Encapsulate the state of the sampler. The state is valid for construction of
+     * a sampler in the range {@code lambda <= mean < lambda+1}.
+     */
+    static class PtrsPoissonSamplerState {
+        private final double lambda;
+        private final double logLambda;
+        private final double a;
+        private final double b;
+        private final double logInvAlpha;
+        private final double vr;
+
+        private PtrsPoissonSamplerState(double lambda, double logLambda, double a, double b, double logInvAlpha,
+                double vr) {
+            this.lambda = lambda;
+            this.logLambda = logLambda;
+            this.a = a;
+            this.b = b;
+            this.logInvAlpha = logInvAlpha;
+            this.vr = vr;
+        }
+
+        /**
+         * Creates the state. The state is valid for construction of a sampler in the
+         * range {@code n <= mean < n+1}.
+         *
+         * @param n the value n ({@code floor(mean)})
+         * @return the state
+         * @throws IllegalArgumentException if {@code n < 10}.
+         */
+        static PtrsPoissonSamplerState create(int n) {
+            if (n < MIN_MEAN) {
+                throw new IllegalArgumentException(n + " < " + MIN_MEAN);
+            }
+            final double lambda = n;
+            final double smu = Math.sqrt(lambda);
+            final double b = 0.931 + 2.53 * smu;
+            final double a = -0.059 + 0.02483 * b;
+            final double invAlpha = 1.1239 + 1.1328 / (b - 3.4);
+            final double vr = 0.9277 - 3.6224 / (b - 2);
+            return new PtrsPoissonSamplerState(lambda, Math.log(lambda), a, b, Math.log(invAlpha), vr);
+        }
+    }
+
+    /**
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @throws IllegalArgumentException if {@code mean < 10}.
+     */
+    PtrsPoissonSampler(UniformRandomProvider rng, double mean) {
+        this(rng, createState(mean), mean - Math.floor(mean));
+    }
+
+    /**
+     * Instantiates a sampler using a precomputed state.
+     *
+     * @param rng              Generator of uniformly distributed random numbers.
+     * @param state            the state
+     * @param lambdaFractional the lambda fractional value
+     *                         ({@code 0 <= lambdaFractional < 1})
+     * @throws IllegalArgumentException if
+     *                                  {@code lambdaFractional < 0 || lambdaFractional >= 1}.
+     */
+    PtrsPoissonSampler(UniformRandomProvider rng, PtrsPoissonSamplerState state, double lambdaFractional) {
+        super(rng);
+        if (lambdaFractional < 0 || lambdaFractional >= 1) {
+            throw new IllegalArgumentException(
+                    "lambdaFractional must be in the range 0 (inclusive) to 1 (exclusive): " + lambdaFractional);
+        }
+
+        // Use the state to initialise the algorithm
+        this.lambda = state.lambda;
+        this.logLambda = state.logLambda;
+        this.a = state.a;
+        this.b = state.b;
+        this.logInvAlpha = state.logInvAlpha;
+        this.vr = state.vr;
+
+        // The algorithm requires a Poisson sample from the lambda fraction
+        smallMeanPoissonSampler = (lambdaFractional < Double.MIN_VALUE) ? null
+                : new SmallMeanPoissonSampler(rng, lambdaFractional);
+    }
+
+    /**
+     * Creates the state for the mean.
+     *
+     * @param mean Mean.
+     * @return the state
+     * @throws IllegalArgumentException if {@code mean < 10}.
+     */
+    private static PtrsPoissonSamplerState createState(double mean) {
+        if (!(mean >= MIN_MEAN)) {
+            throw new IllegalArgumentException(mean + " < " + MIN_MEAN);
+        }
+        return PtrsPoissonSamplerState.create((int) Math.floor(mean));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int sample() {
+        final long k = sampleLambda();
+        final int y2 = (smallMeanPoissonSampler == null) ? 0 : smallMeanPoissonSampler.sample();
+        return (int) Math.min(y2 + k, Integer.MAX_VALUE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        // Perform the check for the lambda fraction once
+        final DiscreteSampler fractionSampler = smallMeanPoissonSampler;
+        if (fractionSampler == null) {
+            for (int i = from; i < to; i++) {
+                out[i] = (int) Math.min(sampleLambda(), Integer.MAX_VALUE);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                final long k = sampleLambda();
+                out[i] = (int) Math.min(fractionSampler.sample() + k, Integer.MAX_VALUE);
+            }
+        }
+    }
+
+    /**
+     * Sample from the Poisson distribution with mean {@code lambda} using the
+     * transformed rejection with squeeze.
+     *
+     * @return the sample
+     */
+    private long sampleLambda() {
+        while (true) {
+            final double u = nextDouble() - 0.5;
+            final double v = nextDouble();
+            final double us = 0.5 - Math.abs(u);
+            final long k = (long) Math.floor((2 * a / us + b) * u + lambda + 0.43);
+            // Squeeze acceptance
+            if (us >= 0.07 && v <= vr) {
+                return k;
+            }
+            // Rejection of the tails.
+            // Note: Values above Integer.MAX_VALUE have a negligible probability.
+            if (k < 0 || k > Integer.MAX_VALUE || (us < 0.013 && v > us)) {
+                continue;
+            }
+            if (Math.log(v) + logInvAlpha - Math.log(a / (us * us) + b) <=
+                    -lambda + k * logLambda - NO_CACHE_FACTORIAL_LOG.value((int) k)) {
+                return k;
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "PTRS Poisson deviate [" + super.toString() + "]";
+    }
+}
@@ -0,0 +1,313 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.LargeMeanPoissonSampler.RejectionParameters;
+
+/**
+ * Sampler for the <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson distribution</a>
+ * that can be re-parameterised with a new mean.
+ *
+ * <ul>
+ *  <li>
+ *   For small means, a Poisson process is simulated using uniform deviates, as
+ *   described <a href="http://mathaa.epfl.ch/cours/PMMI2001/interactive/rng7.htm">here</a>.
+ *   The Poisson process (and hence, the returned value) is bounded by 1000 * mean.
+ *  </li>
+ *  <li>
+ *   For large means, we use the rejection algorithm described in
+ *   <blockquote>
+ *    Devroye, Luc. (1981).<i>The Computer Generation of Poisson Random Variables</i><br>
+ *    <strong>Computing</strong> vol. 26 pp. 197-207.
+ *   </blockquote>
+ *  </li>
+ * </ul>
+ *
+ * The sampler keeps the internal Gaussian and exponential samplers when the mean is
+ * changed. The state of the large mean algorithm is only recomputed when
+ * {@code floor(mean)} changes. Changing the mean does not allocate memory.
+ *
+ * <p>The samples will match the {@link WrapperPoissonSampler} for the same mean
+ * if the mean is set before any samples are generated. After samples have been
+ * generated the internal Gaussian sampler may have a cached value and the samples
+ * will differ from a new sampler.
+ *
+ * <p>This sampler is <strong>not</strong> thread safe.
+ */
+public class ReusablePoissonSampler
+    extends SamplerBase
+    implements BulkDiscreteSampler {
+
+    /** Generator of uniformly distributed random numbers. */
+    private final UniformRandomProvider rng;
+    /** Exponential. */
+    private final ContinuousSampler exponential;
+    /** Gaussian. */
+    private final ContinuousSampler gaussian;
+    /** Value for switching sampling algorithm. */
+    private final double pivot;
+
+    /** Mean of the distribution. */
+    private double mean;
+    /** Set to true if the large mean algorithm is used. */
+    private boolean largeMean;
+
+    // Small mean algorithm: used for the mean or the lambda fraction
+
+    /** {@code Math.exp(-mean)} for the small mean algorithm. */
+    private double p0;
+    /** {@code 1000 * mean} as the upper limit of the small mean sample. */
+    private int limit;
+
+    // Large mean algorithm
+
+    /** The values of the rejection algorithm. These are updated in place. */
+    private final LargeMeanParameters parameters = new LargeMeanParameters();
+    private double lambdaFractional;
+
+    /**
+     * The values of the rejection algorithm for {@code lambda = floor(mean)}.
+     * The values are mutable so the mean can be changed without allocation.
+     */
+    private static final class LargeMeanParameters implements RejectionParameters {
+        /** The lambda value. Initially NaN so the values are computed on first use. */
+        private double lambda = Double.NaN;
+        private double logLambda;
+        private double logLambdaFactorial;
+        private double delta;
+        private double twolpd;
+        private double p1;
+        private double p1PlusP2;
+        private double c1;
+        private double twoLambda;
+        private double sqrtLambdaPlusHalfDelta;
+        private double twolpdOverDelta;
+
+        /**
+         * Sets the values for the lambda value.
+         *
+         * @param n the value n ({@code floor(mean)})
+         */
+        void set(double n) {
+            lambda = n;
+            logLambda = Math.log(lambda);
+            logLambdaFactorial = LargeMeanPoissonSampler.DEFAULT_LOG_FACTORIAL.value((int) lambda);
+            delta = Math.sqrt(lambda * Math.log(32 * lambda / Math.PI + 1));
+            final double halfDelta = delta / 2;
+            twolpd = 2 * lambda + delta;
+            c1 = 1 / (8 * lambda);
+            final double a1 = Math.sqrt(Math.PI * twolpd) * Math.exp(c1);
+            final double a2 = (twolpd / delta) * Math.exp(-delta * (1 + delta) / twolpd);
+            final double aSum = a1 + a2 + 1;
+            p1 = a1 / aSum;
+            final double p2 = a2 / aSum;
+            p1PlusP2 = p1 + p2;
+            twoLambda = 2 * lambda;
+            sqrtLambdaPlusHalfDelta = Math.sqrt(lambda + halfDelta);
+            twolpdOverDelta = twolpd / delta;
+        }
+
+        @Override
+        public double getLambda() {
+            return lambda;
+        }
+
+        @Override
+        public double getDelta() {
+            return delta;
+        }
+
+        @Override
+        public double getTwolpd() {
+            return twolpd;
+        }
+
+        @Override
+        public double getP1() {
+            return p1;
+        }
+
+        @Override
+        public double getP1PlusP2() {
+            return p1PlusP2;
+        }
+
+        @Override
+        public double getC1() {
+            return c1;
+        }
+
+        @Override
+        public double getTwoLambda() {
+            return twoLambda;
+        }
+
+        @Override
+        public double getSqrtLambdaPlusHalfDelta() {
+            return sqrtLambdaPlusHalfDelta;
+        }
+
+        @Override
+        public double getTwolpdOverDelta() {
+            return twolpdOverDelta;
+        }
+
+        @Override
+        public double getAcceptanceBound(double y) {
+            return y * logLambda - LargeMeanPoissonSampler.DEFAULT_LOG_FACTORIAL.value((int) (y + lambda)) +
+                    logLambdaFactorial;
+        }
+    }
+
+    /**
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    public ReusablePoissonSampler(UniformRandomProvider rng, double mean) {
+        this(rng, mean, WrapperPoissonSampler.PIVOT);
+    }
+
+    /**
+     * @param rng   Generator of uniformly distributed random numbers.
+     * @param mean  Mean.
+     * @param pivot Value for switching sampling algorithm.
+     * @throws IllegalArgumentException if {@code mean <= 0} or the pivot is
+     *                                  not in the range {@code [1, 500]}.
+     */
+    public ReusablePoissonSampler(UniformRandomProvider rng, double mean, double pivot) {
+        super(rng);
+        WrapperPoissonSampler.checkPivot(pivot);
+        this.pivot = pivot;
+        this.rng = rng;
+        gaussian = new BoxMullerGaussianSampler(rng, 0, 1);
+        exponential = new AhrensDieterExponentialSampler(rng, 1);
+        setMean(mean);
+    }
+
+    /**
+     * Gets the mean.
+     *
+     * @return the mean
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Sets the mean. The state of the sampler is only recomputed for the parts
+     * that have changed.
+     *
+     * @param mean Mean.
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    public void setMean(double mean) {
+        if (mean <= 0) {
+            throw new IllegalArgumentException(mean + " <= " + 0);
+        }
+        if (mean == this.mean) {
+            return;
+        }
+        this.mean = mean;
+
+        if (mean < pivot) {
+            largeMean = false;
+            setSmallMean(mean);
+            return;
+        }
+
+        largeMean = true;
+        final double n = Math.floor(mean);
+        if (n != parameters.lambda) {
+            parameters.set(n);
+        }
+        lambdaFractional = mean - n;
+        if (lambdaFractional < Double.MIN_VALUE) {
+            // No sample for the fraction
+            limit = 0;
+        } else {
+            setSmallMean(lambdaFractional);
+        }
+    }
+
+    /**
+     * Sets the state for the small mean algorithm.
+     *
+     * @param mean Mean.
+     */
+    private void setSmallMean(double mean) {
+        p0 = Math.exp(-mean);
+        // The returned sample is bounded by 1000 * mean or Integer.MAX_VALUE
+        limit = (int) Math.ceil(Math.min(1000 * mean, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Sets the mean and creates a sample.
+     *
+     * @param mean Mean.
+     * @return the sample
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    public int sample(double mean) {
+        setMean(mean);
+        return sample();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int sample() {
+        if (!largeMean) {
+            return sampleSmallMean();
+        }
+        // Sample the fraction first to match the LargeMeanPoissonSampler
+        final int y2 = sampleSmallMean();
+        final double y = sampleLambda();
+        return (int) Math.min(y2 + (long) y, Integer.MAX_VALUE);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = sample();
+        }
+    }
+
+    /**
+     * Sample from the Poisson distribution using the small mean algorithm.
+     * Returns zero if the limit is zero.
+     *
+     * @return the sample
+     */
+    private int sampleSmallMean() {
+        final double p0 = this.p0;
+        final int limit = this.limit;
+        int n = 0;
+        double r = 1;
+
+        while (n < limit) {
+            r *= nextDouble();
+            if (r >= p0) {
+                n++;
+            } else {
+                break;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Sample from the Poisson distribution with mean {@code lambda} using the
+     * rejection algorithm.
+     *
+     * @return the sample
+     */
+    private double sampleLambda() {
+        return LargeMeanPoissonSampler.sampleLambda(rng, gaussian, exponential, parameters);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "Reusable Poisson deviate [" + super.toString() + "]";
+    }
+}
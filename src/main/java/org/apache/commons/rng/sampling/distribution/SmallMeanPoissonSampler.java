@@ -17,7 +17,7 @@ import org.apache.commons.rng.UniformRandomProvider;
  */
 public class SmallMeanPoissonSampler
     extends SamplerBase
-    implements DiscreteSampler {
+    implements BulkDiscreteSampler {
 
     /** Mean of the distribution. */
     final double mean;
@@ -29,6 +29,42 @@ public class SmallMeanPoissonSampler
     /** Pre-compute {@code 1000 * mean} as the upper limit of the sample. */
     final int limit;
 
+    /**
+     * Encapsulate the state of the sampler. The state is valid for construction
+     * of a sampler with the same mean.
+     */
+    static final class SmallMeanPoissonSamplerState {
+        /** Mean of the distribution. */
+        final double mean;
+        /** {@code Math.exp(-mean)}. */
+        final double p0;
+        /** The upper limit of the sample. */
+        final int limit;
+
+        /**
+         * @param mean Mean.
+         */
+        private SmallMeanPoissonSamplerState(double mean) {
+            this.mean = mean;
+            p0 = Math.exp(-mean);
+            limit = (int) Math.ceil(Math.min(1000 * mean, Integer.MAX_VALUE));
+        }
+
+        /**
+         * Creates the state.
+         *
+         * @param mean Mean.
+         * @return the state
+         * @throws IllegalArgumentException if {@code mean <= 0}.
+         */
+        static SmallMeanPoissonSamplerState create(double mean) {
+            if (mean <= 0) {
+                throw new IllegalArgumentException(mean + " <= " + 0);
+            }
+            return new SmallMeanPoissonSamplerState(mean);
+        }
+    }
+
     /**
      * @param rng  Generator of uniformly distributed random numbers.
      * @param mean Mean.
@@ -47,6 +83,20 @@ public class SmallMeanPoissonSampler
         limit = (int) Math.ceil(Math.min(1000 * mean, Integer.MAX_VALUE));
     }
 
+    /**
+     * Instantiates a sampler using a precomputed state.
+     *
+     * @param rng   Generator of uniformly distributed random numbers.
+     * @param state The state.
+     */
+    SmallMeanPoissonSampler(UniformRandomProvider rng,
+                            SmallMeanPoissonSamplerState state) {
+        super(rng);
+        mean = state.mean;
+        p0 = state.p0;
+        limit = state.limit;
+    }
+
     /** {@inheritDoc} */
     @Override
     public int sample() {
@@ -63,7 +113,29 @@ public class SmallMeanPoissonSampler
         }
         return n;
     }
-    
+
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        // Hoist the field reads out of the loop
+        final double p0 = this.p0;
+        final int limit = this.limit;
+        for (int i = from; i < to; i++) {
+            int n = 0;
+            double r = 1;
+
+            while (n < limit) {
+                r *= nextDouble();
+                if (r >= p0) {
+                    n++;
+                } else {
+                    break;
+                }
+            }
+            out[i] = n;
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
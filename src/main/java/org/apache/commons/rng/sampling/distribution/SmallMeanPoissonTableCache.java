@@ -0,0 +1,147 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.TableSmallMeanPoissonSampler.SmallMeanPoissonTable;
+
+/**
+ * Create a sampler for the
+ * <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson
+ * distribution</a> with a small mean using a cache of cumulative probability
+ * tables to minimise construction cost.
+ * <p>
+ * The cache is keyed by a quantisation of the mean using a grid
+ * {@code mean = i * step}. A mean on the grid uses a cached table. A mean off the
+ * grid is sampled exactly using a {@link KempSmallMeanPoissonSampler}. Both
+ * samplers use inversion of the cumulative probability with a search from the
+ * mode. The maximum supported mean is 700.
+ * <p>
+ * The cache is advantageous under the following conditions:
+ * <ul>
+ * <li>The mean of the Poisson distribution is small.</li>
+ * <li>The mean of the Poisson distribution is from a fixed grid.</li>
+ * <li>The sample size to be made with the <strong>same</strong> sampler is
+ * small.</li>
+ * </ul>
+ * <p>
+ * The cache is thread safe.
+ */
+public class SmallMeanPoissonTableCache {
+
+    /** The maximum number of grid points. */
+    private static final int MAX_SIZE = 1 << 20;
+
+    /** The maximum mean covered by the cache. */
+    private final double maxMean;
+    /** The grid step. */
+    private final double step;
+    /** The cache of tables for the grid means {@code i * step}. */
+    private final AtomicReferenceArray<SmallMeanPoissonTable> values;
+
+    /**
+     * Create a cache for the means below the {@link WrapperPoissonSampler#PIVOT}.
+     *
+     * @param step The grid step.
+     * @throws IllegalArgumentException if {@code step <= 0} or the grid has
+     *                                  too many points.
+     */
+    public SmallMeanPoissonTableCache(double step) {
+        this(WrapperPoissonSampler.PIVOT, step);
+    }
+
+    /**
+     * @param maxMean The maximum mean covered by the cache.
+     * @param step    The grid step.
+     * @throws IllegalArgumentException if {@code step <= 0}, {@code maxMean < step},
+     *                                  {@code maxMean > 700}, or the grid has too
+     *                                  many points.
+     */
+    public SmallMeanPoissonTableCache(double maxMean, double step) {
+        if (!(step > 0)) {
+            throw new IllegalArgumentException("Step: " + step + " <= " + 0);
+        }
+        if (!(maxMean >= step)) {
+            throw new IllegalArgumentException("Max mean: " + maxMean + " < " + step);
+        }
+        if (maxMean > KempSmallMeanPoissonSampler.MAX_MEAN) {
+            throw new IllegalArgumentException("Max mean: " + maxMean + " > " +
+                    KempSmallMeanPoissonSampler.MAX_MEAN);
+        }
+        final double size = Math.floor(maxMean / step) + 1;
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Too many grid points: " + size);
+        }
+        this.maxMean = maxMean;
+        this.step = step;
+        values = new AtomicReferenceArray<>((int) size);
+    }
+
+    /**
+     * Gets the maximum mean covered by the cache.
+     *
+     * @return the max mean
+     */
+    public double getMaxMean() {
+        return maxMean;
+    }
+
+    /**
+     * Gets the grid step.
+     *
+     * @return the step
+     */
+    public double getStep() {
+        return step;
+    }
+
+    /**
+     * Creates a Poisson sampler.
+     * <p>
+     * A value of {@code mean} off the grid or above the maximum mean of the cache
+     * is valid but will not use the cache.
+     *
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @return A Poisson sampler
+     * @throws IllegalArgumentException if {@code mean <= 0} or
+     *                                  {@code mean > 700}.
+     */
+    public BulkDiscreteSampler getPoissonSampler(UniformRandomProvider rng,
+            double mean) {
+        final SmallMeanPoissonTable table = getTable(mean);
+        if (table == null) {
+            // Exact fallback
+            return new KempSmallMeanPoissonSampler(rng, mean);
+        }
+        return new TableSmallMeanPoissonSampler(rng, table);
+    }
+
+    /**
+     * Gets the table for the mean from the cache, creating it if necessary.
+     *
+     * @param mean Mean.
+     * @return the table (or null if the mean is not on the grid)
+     */
+    SmallMeanPoissonTable getTable(double mean) {
+        if (mean <= 0 || mean > maxMean) {
+            return null;
+        }
+        final int index = (int) Math.rint(mean / step);
+        // Allow the grid mean to be computed with rounding error,
+        // e.g. 3 * 0.1 = 0.30000000000000004 and not 0.3.
+        if (Math.abs(mean - index * step) > 2 * Math.ulp(mean)) {
+            return null;
+        }
+        // From the java.util.concurrent.atomic Javadoc:
+        // get has the memory effects of reading a volatile variable.
+        SmallMeanPoissonTable table = values.get(index);
+        if (table == null) {
+            // Compute and store for reuse. All tables are created using the
+            // exact grid mean so concurrent threads store the same table.
+            table = SmallMeanPoissonTable.create(index * step);
+            values.lazySet(index, table);
+        }
+        return table;
+    }
+}
@@ -0,0 +1,291 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Store the state of a sampler for each {@code n} using an open-addressing hash
+ * table with linear probing. The keys are primitive {@code int} values.
+ * <p>
+ * This uses less memory than the {@link DenseStateStore} when only a small
+ * number of distinct {@code n} are used from a wide range.
+ * <p>
+ * Reads are lock-free. A new key is claimed using a compare-and-set. The table
+ * grows when it is 3/4 full; the copy is made under a lock. Each slot of the
+ * old table is marked as moved when it is copied so a concurrent write to the
+ * old table is not lost: the writer waits for the new table and stores the
+ * state again.
+ * <p>
+ * A search visits at most {@link #MAX_PROBES} slots. If a state cannot be
+ * stored within this limit the table grows. At the maximum capacity the state
+ * is dropped and counted (see {@link #getDropped()}); it is recomputed when
+ * next used.
+ * <p>
+ * The value {@code n = 0} is not supported.
+ *
+ * @param <T> the type of the state
+ */
+final class SparseStateStore<T> implements StateStore<T> {
+    /**
+     * The maximum number of slots visited by a search. With a load factor of at
+     * most 3/4 the expected length of an unsuccessful search using linear
+     * probing is 8.5 slots.
+     */
+    static final int MAX_PROBES = 64;
+    /** The key for an empty slot. */
+    private static final int EMPTY = 0;
+    /** The minimum capacity. */
+    private static final int MIN_CAPACITY = 16;
+    /** The maximum capacity. */
+    private static final int MAX_CAPACITY = 1 << 30;
+    /** The marker for a slot of a table that has been copied to a new table. */
+    private static final Object MOVED = new Object();
+
+    /** The maximum capacity of this store. */
+    private final int maxCapacity;
+    /** The number of states that could not be stored. */
+    private final AtomicLong dropped = new AtomicLong();
+    /** The table. */
+    private volatile Table table;
+
+    /**
+     * The hash table. The states are stored as {@code Object} to allow the
+     * {@link #MOVED} marker.
+     */
+    private static final class Table {
+        /** The keys. */
+        final AtomicIntegerArray keys;
+        /** The states. */
+        final AtomicReferenceArray<Object> states;
+        /** The mask to convert the hash to an index. */
+        final int mask;
+        /** The number of keys to trigger growth. */
+        final int threshold;
+        /** The number of claimed keys. */
+        final AtomicInteger size = new AtomicInteger();
+
+        /**
+         * @param capacity    the capacity (must be a power of 2)
+         * @param maxCapacity the maximum capacity
+         */
+        Table(int capacity, int maxCapacity) {
+            keys = new AtomicIntegerArray(capacity);
+            states = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+            threshold = capacity == maxCapacity ? Integer.MAX_VALUE : capacity - (capacity >>> 2);
+        }
+
+        /**
+         * Gets the number of slots visited by a search.
+         *
+         * @return the number of probes
+         */
+        int probes() {
+            return Math.min(MAX_PROBES, mask + 1);
+        }
+    }
+
+    /**
+     * @param expectedSize the expected number of keys
+     */
+    SparseStateStore(int expectedSize) {
+        this(expectedSize, MAX_CAPACITY);
+    }
+
+    /**
+     * Create an instance with a maximum capacity. This is used for testing.
+     *
+     * @param expectedSize the expected number of keys
+     * @param maxCapacity  the maximum capacity (must be a power of 2)
+     */
+    SparseStateStore(int expectedSize, int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+        table = new Table(Math.min(maxCapacity, getCapacity(expectedSize)), maxCapacity);
+    }
+
+    /**
+     * Gets the capacity to hold the expected number of keys without growth.
+     *
+     * @param expectedSize the expected number of keys
+     * @return the capacity
+     */
+    static int getCapacity(int expectedSize) {
+        // Load factor 1/2
+        final long size = Math.max(MIN_CAPACITY, 2L * expectedSize);
+        return (int) Math.min(MAX_CAPACITY, Long.highestOneBit(size - 1) << 1);
+    }
+
+    /**
+     * Gets the capacity of the table.
+     *
+     * @return the capacity
+     */
+    int getCapacity() {
+        return table.keys.length();
+    }
+
+    /**
+     * Gets the number of states that could not be stored.
+     *
+     * @return the number of dropped states
+     */
+    long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the index in the table for the key.
+     *
+     * @param n    the key
+     * @param mask the mask
+     * @return the index
+     */
+    private static int index(int n, int mask) {
+        // Mix the bits so consecutive n are spread over the table
+        final int hash = n * 0x9e3779b9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns null if the table is being copied and the state has been moved.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int n) {
+        final Table t = table;
+        final int mask = t.mask;
+        int i = index(n, mask);
+        for (int probe = t.probes(); probe > 0; probe--) {
+            final int key = t.keys.get(i);
+            if (key == n) {
+                // Note: This may be null if the key was claimed but the
+                // state is not yet written
+                final Object state = t.states.get(i);
+                return state == MOVED ? null : (T) state;
+            }
+            if (key == EMPTY) {
+                return null;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void put(int n, T state) {
+        Table t = table;
+        while (!put(t, n, state)) {
+            // The slot was moved or the table is full. Wait for any copy to finish
+            // and use the new table.
+            synchronized (this) {
+                t = table;
+            }
+        }
+    }
+
+    /**
+     * Stores the state in the table.
+     *
+     * @param t     the table
+     * @param n     the key
+     * @param state the state
+     * @return false if the state must be stored in a new table
+     */
+    private boolean put(Table t, int n, T state) {
+        final int mask = t.mask;
+        int i = index(n, mask);
+        for (int probe = t.probes(); probe > 0;) {
+            final int key = t.keys.get(i);
+            if (key == n) {
+                // Any state written by other threads will be the same
+                return setState(t, i, state);
+            }
+            if (key == EMPTY) {
+                if (t.keys.compareAndSet(i, EMPTY, n)) {
+                    if (!setState(t, i, state)) {
+                        return false;
+                    }
+                    if (t.size.incrementAndGet() >= t.threshold) {
+                        grow(t);
+                    }
+                    return true;
+                }
+                // Lost the race for the slot; check the new key
+                continue;
+            }
+            i = (i + 1) & mask;
+            probe--;
+        }
+        // No slot within the search limit
+        if (t.keys.length() < maxCapacity) {
+            // Ensure a new table and store again
+            grow(t);
+            return false;
+        }
+        dropped.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Sets the state in the slot unless the slot has been moved.
+     *
+     * @param t     the table
+     * @param i     the index of the slot
+     * @param state the state
+     * @return false if the slot has been moved to a new table
+     */
+    private static boolean setState(Table t, int i, Object state) {
+        for (;;) {
+            final Object current = t.states.get(i);
+            if (current == MOVED) {
+                return false;
+            }
+            if (t.states.compareAndSet(i, current, state)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Replace the table with a larger table.
+     *
+     * @param old the table to replace
+     */
+    private synchronized void grow(Table old) {
+        if (table != old || old.keys.length() == maxCapacity) {
+            // Already replaced or cannot grow
+            return;
+        }
+        final Table t = new Table(old.keys.length() << 1, maxCapacity);
+        final int mask = t.mask;
+        int size = 0;
+        for (int j = 0; j <= old.mask; j++) {
+            // Take the state and prevent further writes to the old slot
+            final Object state = old.states.getAndSet(j, MOVED);
+            final int n = old.keys.get(j);
+            if (n != EMPTY && state != null) {
+                int i = index(n, mask);
+                int probe = t.probes();
+                while (t.keys.get(i) != EMPTY && --probe > 0) {
+                    i = (i + 1) & mask;
+                }
+                if (probe == 0) {
+                    dropped.incrementAndGet();
+                    continue;
+                }
+                // No other thread can see the table until it is published
+                t.keys.lazySet(i, n);
+                t.states.lazySet(i, state);
+                size++;
+            }
+        }
+        t.size.set(size);
+        // Publish with a volatile write
+        table = t;
+    }
+}
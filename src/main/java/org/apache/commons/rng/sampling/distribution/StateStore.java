@@ -0,0 +1,30 @@
+package org.apache.commons.rng.sampling.distribution;
+
+/**
+ * Store the state of a sampler for each {@code n = floor(mean)}.
+ * <p>
+ * Implementations must be thread safe. A state that is stored may not be
+ * returned by a later call to {@link #get(int)}; a missing state is recomputed
+ * by the caller so this is not an error.
+ *
+ * @param <T> the type of the state
+ * @see DenseStateStore
+ * @see SparseStateStore
+ */
+interface StateStore<T> {
+    /**
+     * Gets the state for {@code n}.
+     *
+     * @param n the value n ({@code floor(mean)})
+     * @return the state (or null)
+     */
+    T get(int n);
+
+    /**
+     * Stores the state for {@code n}.
+     *
+     * @param n     the value n ({@code floor(mean)})
+     * @param state the state
+     */
+    void put(int n, T state);
+}
@@ -0,0 +1,174 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.Arrays;
+
+import org.apache.commons.rng.UniformRandomProvider;
+
+/**
+ * Sampler for the <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson distribution</a>.
+ *
+ * <ul>
+ *  <li>
+ *   For small means, a Poisson variate is computed by inversion of a precomputed table of
+ *   the cumulative probability using a sequential search that starts from the mode.
+ *  </li>
+ * </ul>
+ *
+ * The table can be precomputed and shared across threads to create samplers that
+ * use a different {@link UniformRandomProvider}.
+ *
+ * This sampler is suitable for {@code mean<40}.
+ *
+ * @see SmallMeanPoissonTableCache
+ */
+public class TableSmallMeanPoissonSampler
+    extends SamplerBase
+    implements BulkDiscreteSampler {
+
+    /** The cumulative probability table. */
+    private final SmallMeanPoissonTable table;
+
+    /**
+     * Encapsulate the cumulative probability table of the sampler.
+     */
+    static class SmallMeanPoissonTable {
+        /** Mean of the distribution. */
+        private final double mean;
+        /** The mode of the distribution: {@code floor(mean)}. */
+        private final int mode;
+        /**
+         * The cumulative probability {@code P(n<=k)}. The final value is set to 1
+         * to terminate the search.
+         */
+        private final double[] cdf;
+
+        /**
+         * @param mean Mean.
+         * @param mode Mode.
+         * @param cdf  The cumulative probability.
+         */
+        private SmallMeanPoissonTable(double mean, int mode, double[] cdf) {
+            this.mean = mean;
+            this.mode = mode;
+            this.cdf = cdf;
+        }
+
+        /**
+         * Creates the table.
+         *
+         * @param mean Mean.
+         * @return the table
+         * @throws IllegalArgumentException if {@code mean <= 0} or
+         *                                  {@code mean > 700}.
+         */
+        static SmallMeanPoissonTable create(double mean) {
+            if (mean <= 0) {
+                throw new IllegalArgumentException(mean + " <= " + 0);
+            }
+            if (mean > KempSmallMeanPoissonSampler.MAX_MEAN) {
+                throw new IllegalArgumentException(mean + " > " + KempSmallMeanPoissonSampler.MAX_MEAN);
+            }
+            final int mode = (int) Math.floor(mean);
+
+            // Sum the probabilities using the recurrence:
+            // P(n=k) = P(n=k-1) * mean / k
+            // Stop when the cumulative probability does not change above the mode.
+            double[] cdf = new double[mode + 16];
+            double p = Math.exp(-mean);
+            cdf[0] = p;
+            int k = 0;
+            while (true) {
+                k++;
+                p *= mean / k;
+                final double next = cdf[k - 1] + p;
+                if (k > mode && next == cdf[k - 1]) {
+                    break;
+                }
+                if (k == cdf.length) {
+                    cdf = Arrays.copyOf(cdf, k * 2);
+                }
+                cdf[k] = next;
+            }
+            // Truncate and ensure the search terminates.
+            cdf = Arrays.copyOf(cdf, k);
+            cdf[k - 1] = 1;
+            return new SmallMeanPoissonTable(mean, mode, cdf);
+        }
+
+        /**
+         * Gets the mean.
+         *
+         * @return the mean
+         */
+        double getMean() {
+            return mean;
+        }
+
+        /**
+         * Find the smallest {@code x} such that {@code u < P(n<=x)} using a
+         * sequential search starting from the mode.
+         *
+         * @param u the uniform deviate in {@code [0, 1)}
+         * @return the sample
+         */
+        int sample(double u) {
+            final double[] cdf = this.cdf;
+            int x = mode;
+            if (u < cdf[x]) {
+                while (x > 0 && u < cdf[x - 1]) {
+                    x--;
+                }
+            } else {
+                // The final cdf value is 1 so this terminates
+                do {
+                    x++;
+                } while (u >= cdf[x]);
+            }
+            return x;
+        }
+    }
+
+    /**
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @throws IllegalArgumentException if {@code mean <= 0} or
+     *                                  {@code mean > 700}.
+     */
+    TableSmallMeanPoissonSampler(UniformRandomProvider rng,
+                                 double mean) {
+        this(rng, SmallMeanPoissonTable.create(mean));
+    }
+
+    /**
+     * Instantiates a sampler using a precomputed table.
+     *
+     * @param rng   Generator of uniformly distributed random numbers.
+     * @param table the table
+     */
+    TableSmallMeanPoissonSampler(UniformRandomProvider rng,
+                                 SmallMeanPoissonTable table) {
+        super(rng);
+        this.table = table;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int sample() {
+        return table.sample(nextDouble());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        final SmallMeanPoissonTable table = this.table;
+        for (int i = from; i < to; i++) {
+            out[i] = table.sample(nextDouble());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "Table Small Mean Poisson deviate [" + super.toString() + "]";
+    }
+}
@@ -0,0 +1,71 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.Mode;
+
+/**
+ * Create a sampler for the
+ * <a href="http://mathworld.wolfram.com/PoissonDistribution.html">Poisson
+ * distribution</a> using a cache for each thread to minimise construction
+ * cost.
+ * <p>
+ * The cache will return a sampler equivalent to
+ * {@link org.apache.commons.rng.sampling.distribution#PoissonSampler(UniformRandomProvider, double)}.
+ * <p>
+ * Each thread uses its own {@link PoissonSamplerCache2} which is created on
+ * first use. The caches are not shared so there is no memory ordering when
+ * reading or writing a state. Each thread computes its own states and the
+ * memory used is proportional to the number of threads.
+ * <p>
+ * The cache is thread safe.
+ */
+public class ThreadLocalPoissonSamplerCache {
+    /** The cache for each thread. */
+    private final ThreadLocal<PoissonSamplerCache2> cache;
+
+    /**
+     * @param minMean The minimum mean covered by the cache.
+     * @param maxMean The maximum mean covered by the cache.
+     * @throws IllegalArgumentException if {@code maxMean < minMean}
+     */
+    public ThreadLocalPoissonSamplerCache(double minMean, double maxMean) {
+        this(minMean, maxMean, Mode.EXACT);
+    }
+
+    /**
+     * Create an instance with the sampling mode.
+     * <p>
+     * Note: If the mode is {@link Mode#FAST} then the samplers will
+     * <strong>not</strong> match the output of the {@link PoissonSampler}.
+     *
+     * @param minMean The minimum mean covered by the cache.
+     * @param maxMean The maximum mean covered by the cache.
+     * @param mode    The sampling mode.
+     * @throws IllegalArgumentException if {@code maxMean < minMean}
+     */
+    public ThreadLocalPoissonSamplerCache(double minMean, double maxMean, Mode mode) {
+        // Validate the arguments now rather than on first use in each thread.
+        // The minimum is clipped to zero as per the PoissonSamplerCache2.
+        final double min = Math.max(0, minMean);
+        if (maxMean < min) {
+            throw new IllegalArgumentException("Max mean: " + maxMean + " < " + min);
+        }
+        cache = ThreadLocal.withInitial(() -> new PoissonSamplerCache2(minMean, maxMean, mode));
+    }
+
+    /**
+     * Creates a Poisson sampler. The returned sampler will function exactly the
+     * same as
+     * {@link org.apache.commons.rng.sampling.distribution#PoissonSampler(UniformRandomProvider, double)}.
+     * <p>
+     * A value of {@code mean} outside the range of the cache is valid.
+     *
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @return A Poisson sampler
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    public DiscreteSampler getPoissonSampler(UniformRandomProvider rng, double mean) {
+        return cache.get().getPoissonSampler(rng, mean);
+    }
+}
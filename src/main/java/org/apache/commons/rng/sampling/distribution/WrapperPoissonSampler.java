@@ -21,15 +21,101 @@ import org.apache.commons.rng.UniformRandomProvider;
  * </ul>
  * 
  * This class wraps the {@link SmallMeanPoissonSampler} and {@link LargeMeanPoissonSampler},
- * choosing the appropriate sampler based on the {@code mean}.
+ * choosing the appropriate sampler based on the {@code mean}. The small mean sampler
+ * can optionally be replaced with the {@link KempSmallMeanPoissonSampler}. The large
+ * mean sampler can optionally be replaced with the {@link PtrsPoissonSampler} or
+ * the {@link FullMeanPoissonSampler}.
+ * <p>
+ * Optionally the {@link NormalApproximationPoissonSampler} can be used for very
+ * large means. The switch point is derived from a total variation error budget.
+ * The samples are then <strong>not</strong> exact.
  */
 public class WrapperPoissonSampler 
-    implements DiscreteSampler {
+    implements BulkDiscreteSampler {
 
     /** Value for switching sampling algorithm. */
     static final double PIVOT = 40;
+    /**
+     * The minimum value for switching sampling algorithm. The large mean sampler
+     * requires {@code floor(mean) >= 1}.
+     */
+    static final double MIN_PIVOT = 1;
+    /**
+     * The maximum value for switching sampling algorithm. The small mean sampler
+     * requires {@code exp(-mean)} to be representable.
+     */
+    static final double MAX_PIVOT = 500;
     /** The internal Poisson sampler. */
-    private final DiscreteSampler poissonSampler;
+    private final BulkDiscreteSampler poissonSampler;
+
+    /**
+     * The algorithm used for small means.
+     */
+    public enum SmallMeanAlgorithm {
+        /**
+         * Simulate a Poisson process by multiplying uniform deviates. This
+         * matches the output of the {@link PoissonSampler}.
+         *
+         * @see SmallMeanPoissonSampler
+         */
+        PRODUCT,
+        /**
+         * Inversion of the cumulative probability using a search from the mode.
+         *
+         * @see KempSmallMeanPoissonSampler
+         */
+        INVERSION;
+    }
+
+    /**
+     * The algorithm used for large means.
+     */
+    public enum LargeMeanAlgorithm {
+        /**
+         * The rejection algorithm of Devroye. This matches the output of the
+         * {@link PoissonSampler}.
+         *
+         * @see LargeMeanPoissonSampler
+         */
+        REJECTION,
+        /**
+         * The transformed rejection with squeeze algorithm of H&ouml;rmann. This
+         * requires the pivot to be at least 10.
+         *
+         * @see PtrsPoissonSampler
+         */
+        PTRS,
+        /**
+         * The transformed rejection with squeeze algorithm of H&ouml;rmann
+         * applied to the full mean without a separate sample for the fraction of
+         * the mean. This requires the pivot to be at least 10.
+         *
+         * @see FullMeanPoissonSampler
+         */
+        FULL_MEAN;
+    }
+
+    /**
+     * The sampling mode.
+     */
+    public enum Mode {
+        /**
+         * Reproduce the output stream of the {@link PoissonSampler} for the
+         * same generator.
+         */
+        EXACT,
+        /**
+         * Allow the samplers to reorder, skip or substitute the use of random
+         * deviates and algorithms. The samples are from the same distribution
+         * but will <strong>not</strong> match the output of the
+         * {@link PoissonSampler}.
+         * <p>
+         * For the {@link LargeMeanAlgorithm#REJECTION} algorithm this uses the
+         * {@link FractionalPoissonSampler} for the fraction of the mean and the
+         * {@link StirlingLogFactorial}.
+         */
+        FAST;
+    }
 
     /**
      * @param rng  Generator of uniformly distributed random numbers.
@@ -37,11 +123,247 @@ public class WrapperPoissonSampler
      * @throws IllegalArgumentException if {@code mean <= 0}.
      */
     public WrapperPoissonSampler(UniformRandomProvider rng, double mean) {
+        this(rng, mean, SmallMeanAlgorithm.PRODUCT);
+    }
+
+    /**
+     * @param rng                Generator of uniformly distributed random numbers.
+     * @param mean               Mean.
+     * @param smallMeanAlgorithm The algorithm used for small means.
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    public WrapperPoissonSampler(UniformRandomProvider rng, double mean,
+            SmallMeanAlgorithm smallMeanAlgorithm) {
+        this(rng, mean, PIVOT, smallMeanAlgorithm);
+    }
+
+    /**
+     * @param rng                Generator of uniformly distributed random numbers.
+     * @param mean               Mean.
+     * @param largeMeanAlgorithm The algorithm used for large means.
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    public WrapperPoissonSampler(UniformRandomProvider rng, double mean,
+            LargeMeanAlgorithm largeMeanAlgorithm) {
+        this(rng, mean, PIVOT, SmallMeanAlgorithm.PRODUCT, largeMeanAlgorithm);
+    }
+
+    /**
+     * @param rng  Generator of uniformly distributed random numbers.
+     * @param mean Mean.
+     * @param mode The sampling mode.
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    public WrapperPoissonSampler(UniformRandomProvider rng, double mean, Mode mode) {
+        this(rng, mean, PIVOT, SmallMeanAlgorithm.PRODUCT, LargeMeanAlgorithm.REJECTION, 0, mode);
+    }
+
+    /**
+     * @param rng   Generator of uniformly distributed random numbers.
+     * @param mean  Mean.
+     * @param pivot Value for switching sampling algorithm.
+     * @throws IllegalArgumentException if {@code mean <= 0} or the pivot is
+     *                                  not in the range {@code [1, 500]}.
+     * @see PoissonPivotCalibration
+     */
+    public WrapperPoissonSampler(UniformRandomProvider rng, double mean, double pivot) {
+        this(rng, mean, pivot, SmallMeanAlgorithm.PRODUCT);
+    }
+
+    /**
+     * @param rng                Generator of uniformly distributed random numbers.
+     * @param mean               Mean.
+     * @param pivot              Value for switching sampling algorithm.
+     * @param smallMeanAlgorithm The algorithm used for small means.
+     * @throws IllegalArgumentException if {@code mean <= 0} or the pivot is
+     *                                  not in the range {@code [1, 500]}.
+     * @see PoissonPivotCalibration
+     */
+    public WrapperPoissonSampler(UniformRandomProvider rng, double mean, double pivot,
+            SmallMeanAlgorithm smallMeanAlgorithm) {
+        this(rng, mean, pivot, smallMeanAlgorithm, LargeMeanAlgorithm.REJECTION);
+    }
+
+    /**
+     * @param rng                Generator of uniformly distributed random numbers.
+     * @param mean               Mean.
+     * @param pivot              Value for switching sampling algorithm.
+     * @param smallMeanAlgorithm The algorithm used for small means.
+     * @param largeMeanAlgorithm The algorithm used for large means.
+     * @throws IllegalArgumentException if {@code mean <= 0} or the pivot is
+     *                                  not in the range {@code [1, 500]}
+     *                                  ({@code [10, 500]} for the PTRS and
+     *                                  FULL_MEAN algorithms).
+     * @see PoissonPivotCalibration
+     */
+    public WrapperPoissonSampler(UniformRandomProvider rng, double mean, double pivot,
+            SmallMeanAlgorithm smallMeanAlgorithm, LargeMeanAlgorithm largeMeanAlgorithm) {
+        this(rng, mean, pivot, smallMeanAlgorithm, largeMeanAlgorithm, 0);
+    }
+
+    /**
+     * Create an instance that uses a normal approximation when the total
+     * variation distance to the Poisson distribution is within the error budget.
+     *
+     * @param rng                Generator of uniformly distributed random numbers.
+     * @param mean               Mean.
+     * @param largeMeanAlgorithm The algorithm used for large means.
+     * @param errorBudget        The total variation error budget (use zero for
+     *                           no approximation).
+     * @throws IllegalArgumentException if {@code mean <= 0} or the error budget
+     *                                  is not in the range {@code [0, 1]}.
+     * @see NormalApproximationPoissonSampler#getMinimumMean(double)
+     */
+    public WrapperPoissonSampler(UniformRandomProvider rng, double mean,
+            LargeMeanAlgorithm largeMeanAlgorithm, double errorBudget) {
+        this(rng, mean, PIVOT, SmallMeanAlgorithm.PRODUCT, largeMeanAlgorithm, errorBudget);
+    }
+
+    /**
+     * Create an instance that uses a normal approximation when the total
+     * variation distance to the Poisson distribution is within the error budget.
+     *
+     * @param rng                Generator of uniformly distributed random numbers.
+     * @param mean               Mean.
+     * @param pivot              Value for switching sampling algorithm.
+     * @param smallMeanAlgorithm The algorithm used for small means.
+     * @param largeMeanAlgorithm The algorithm used for large means.
+     * @param errorBudget        The total variation error budget (use zero for
+     *                           no approximation).
+     * @throws IllegalArgumentException if {@code mean <= 0}, the pivot is not in
+     *                                  the range {@code [1, 500]}
+     *                                  ({@code [10, 500]} for the PTRS and FULL_MEAN
+     *                                  algorithms),
+     *                                  or the error budget is not in the range
+     *                                  {@code [0, 1]}.
+     * @see PoissonPivotCalibration
+     * @see NormalApproximationPoissonSampler#getMinimumMean(double)
+     */
+    public WrapperPoissonSampler(UniformRandomProvider rng, double mean, double pivot,
+            SmallMeanAlgorithm smallMeanAlgorithm, LargeMeanAlgorithm largeMeanAlgorithm,
+            double errorBudget) {
+        this(rng, mean, pivot, smallMeanAlgorithm, largeMeanAlgorithm, errorBudget, Mode.EXACT);
+    }
+
+    /**
+     * Create an instance using the sampling mode.
+     *
+     * @param rng                Generator of uniformly distributed random numbers.
+     * @param mean               Mean.
+     * @param pivot              Value for switching sampling algorithm.
+     * @param smallMeanAlgorithm The algorithm used for small means.
+     * @param largeMeanAlgorithm The algorithm used for large means.
+     * @param errorBudget        The total variation error budget (use zero for
+     *                           no approximation).
+     * @param mode               The sampling mode.
+     * @throws IllegalArgumentException if {@code mean <= 0}, the pivot is not in
+     *                                  the range {@code [1, 500]}
+     *                                  ({@code [10, 500]} for the PTRS and FULL_MEAN
+     *                                  algorithms),
+     *                                  or the error budget is not in the range
+     *                                  {@code [0, 1]}.
+     * @see PoissonPivotCalibration
+     * @see NormalApproximationPoissonSampler#getMinimumMean(double)
+     */
+    public WrapperPoissonSampler(UniformRandomProvider rng, double mean, double pivot,
+            SmallMeanAlgorithm smallMeanAlgorithm, LargeMeanAlgorithm largeMeanAlgorithm,
+            double errorBudget, Mode mode) {
+        checkPivot(pivot, largeMeanAlgorithm);
+        final double approximationMean = NormalApproximationPoissonSampler.getMinimumMean(errorBudget);
         // Delegate all work to specialised samplers. 
         // These should check the input arguments.
-        poissonSampler = mean < PIVOT 
-                ? new SmallMeanPoissonSampler(rng, mean) 
-                : new LargeMeanPoissonSampler(rng, mean);
+        if (mean < pivot) {
+            poissonSampler = createSmallMeanPoissonSampler(rng, mean, smallMeanAlgorithm);
+        } else if (mean < approximationMean) {
+            poissonSampler = createLargeMeanPoissonSampler(rng, mean, largeMeanAlgorithm, mode);
+        } else {
+            poissonSampler = new NormalApproximationPoissonSampler(rng, mean);
+        }
+    }
+
+    /**
+     * Check the value for switching sampling algorithm is valid.
+     *
+     * @param pivot Value for switching sampling algorithm.
+     * @throws IllegalArgumentException if the pivot is not in the range
+     *                                  {@code [1, 500]}.
+     */
+    static void checkPivot(double pivot) {
+        if (!(pivot >= MIN_PIVOT && pivot <= MAX_PIVOT)) {
+            throw new IllegalArgumentException("Pivot " + pivot +
+                    " is not in the range: " + MIN_PIVOT + " <= pivot <= " + MAX_PIVOT);
+        }
+    }
+
+    /**
+     * Check the value for switching sampling algorithm is valid for the large
+     * mean algorithm.
+     *
+     * @param pivot              Value for switching sampling algorithm.
+     * @param largeMeanAlgorithm The algorithm used for large means.
+     * @throws IllegalArgumentException if the pivot is not in the range
+     *                                  {@code [1, 500]} ({@code [10, 500]} for
+     *                                  the PTRS and FULL_MEAN algorithms).
+     */
+    static void checkPivot(double pivot, LargeMeanAlgorithm largeMeanAlgorithm) {
+        checkPivot(pivot);
+        if (largeMeanAlgorithm != LargeMeanAlgorithm.REJECTION && pivot < PtrsPoissonSampler.MIN_MEAN) {
+            throw new IllegalArgumentException("Pivot " + pivot +
+                    " is below the minimum for the " + largeMeanAlgorithm + " algorithm: " +
+                    PtrsPoissonSampler.MIN_MEAN);
+        }
+    }
+
+    /**
+     * Creates the sampler for small means.
+     *
+     * @param rng                Generator of uniformly distributed random numbers.
+     * @param mean               Mean.
+     * @param smallMeanAlgorithm The algorithm used for small means.
+     * @return the sampler
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    static BulkDiscreteSampler createSmallMeanPoissonSampler(UniformRandomProvider rng, double mean,
+            SmallMeanAlgorithm smallMeanAlgorithm) {
+        return smallMeanAlgorithm == SmallMeanAlgorithm.INVERSION
+                ? new KempSmallMeanPoissonSampler(rng, mean)
+                : new SmallMeanPoissonSampler(rng, mean);
+    }
+
+    /**
+     * Creates the sampler for large means.
+     *
+     * @param rng                Generator of uniformly distributed random numbers.
+     * @param mean               Mean.
+     * @param largeMeanAlgorithm The algorithm used for large means.
+     * @return the sampler
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    static BulkDiscreteSampler createLargeMeanPoissonSampler(UniformRandomProvider rng, double mean,
+            LargeMeanAlgorithm largeMeanAlgorithm) {
+        return createLargeMeanPoissonSampler(rng, mean, largeMeanAlgorithm, Mode.EXACT);
+    }
+
+    /**
+     * Creates the sampler for large means.
+     *
+     * @param rng                Generator of uniformly distributed random numbers.
+     * @param mean               Mean.
+     * @param largeMeanAlgorithm The algorithm used for large means.
+     * @param mode               The sampling mode.
+     * @return the sampler
+     * @throws IllegalArgumentException if {@code mean <= 0}.
+     */
+    static BulkDiscreteSampler createLargeMeanPoissonSampler(UniformRandomProvider rng, double mean,
+            LargeMeanAlgorithm largeMeanAlgorithm, Mode mode) {
+        switch (largeMeanAlgorithm) {
+        case PTRS:
+            return new PtrsPoissonSampler(rng, mean);
+        case FULL_MEAN:
+            return new FullMeanPoissonSampler(rng, mean);
+        default:
+            return new LargeMeanPoissonSampler(rng, mean, mode);
+        }
     }
 
     /** {@inheritDoc} */
@@ -50,6 +372,12 @@ public class WrapperPoissonSampler
         return poissonSampler.sample();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void sample(int[] out, int from, int to) {
+        poissonSampler.sample(out, from, to);
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
@@ -0,0 +1,160 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.BitSet;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link BoundedPoissonSamplerCache} functions exactly like
+ * the constructor of the {@link PoissonSampler} and has a hit rate close to the
+ * dense array of the {@link PoissonSamplerCache}.
+ */
+public class BoundedPoissonSamplerCacheTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithZeroEntries() {
+        new BoundedPoissonSamplerCache(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithLessThanOneSet() {
+        new BoundedPoissonSamplerCache(3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromByteBudgetThrowsWithSmallBudget() {
+        BoundedPoissonSamplerCache.fromByteBudget(BoundedPoissonSamplerCache.ENTRY_BYTES);
+    }
+
+    @Test
+    public void testMaxEntries() {
+        // Rounded down to a multiple of the set size so the maximum is not exceeded
+        Assert.assertEquals(4, new BoundedPoissonSamplerCache(4).getMaxEntries());
+        Assert.assertEquals(4, new BoundedPoissonSamplerCache(7).getMaxEntries());
+        Assert.assertEquals(8, new BoundedPoissonSamplerCache(8).getMaxEntries());
+        Assert.assertEquals(12, new BoundedPoissonSamplerCache(12).getMaxEntries());
+        Assert.assertEquals(1000, new BoundedPoissonSamplerCache(1000).getMaxEntries());
+        Assert.assertEquals(1000, new BoundedPoissonSamplerCache(1003).getMaxEntries());
+        Assert.assertEquals(1024, new BoundedPoissonSamplerCache(1024).getMaxEntries());
+        Assert.assertEquals(1024, new BoundedPoissonSamplerCache(1025).getMaxEntries());
+        for (final long budget : new long[] { 4 * BoundedPoissonSamplerCache.ENTRY_BYTES, 1 << 20, 12345678 }) {
+            final int size = BoundedPoissonSamplerCache.fromByteBudget(budget).getMaxEntries();
+            Assert.assertTrue("Budget=" + budget, (long) size * BoundedPoissonSamplerCache.ENTRY_BYTES <= budget);
+            Assert.assertTrue("Budget=" + budget, (long) (size + 4) * BoundedPoissonSamplerCache.ENTRY_BYTES > budget);
+        }
+    }
+
+    /**
+     * Test the cache returns the same samples as the PoissonSampler when the
+     * means are evicted from the cache.
+     */
+    @Test
+    public void canComputeSameSamplesAsPoissonSampler() {
+        // Smallest cache to force eviction
+        final BoundedPoissonSamplerCache cache = new BoundedPoissonSamplerCache(4);
+        for (int repeat = 0; repeat < 2; repeat++)
+            for (final double mean : new double[] { 5.3, 39.9, 40, 40.5, 41.2, 43.7, 45.1, 1e4 + 0.3, 1e7 + 0.7 })
+                PoissonSamplerTestUtils.assertSameSamples(10, (rng) -> new PoissonSampler(rng, mean),
+                        (rng) -> cache.getPoissonSampler(rng, mean));
+        Assert.assertTrue(cache.getMissCount() > 7);
+    }
+
+    /**
+     * Test all the sets of a cache with a number of sets that is not a power of 2
+     * are used.
+     */
+    @Test
+    public void testAllSetsAreUsed() {
+        for (final int sets : new int[] { 1, 3, 5, 250, 1000 }) {
+            final BitSet used = new BitSet(sets);
+            for (int n = 40; n < 40 + 100 * sets; n++) {
+                final int set = BoundedPoissonSamplerCache.getSet(n, sets);
+                Assert.assertTrue(set >= 0 && set < sets);
+                used.set(set);
+            }
+            Assert.assertEquals(sets, used.cardinality());
+        }
+    }
+
+    /**
+     * Test a working set that fills every set of the cache is not evicted.
+     */
+    @Test
+    public void testWorkingSetOfMaxEntriesIsRetained() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        final BoundedPoissonSamplerCache cache = new BoundedPoissonSamplerCache(12);
+        // Choose 4 values for each of the 3 sets
+        final int[] count = new int[3];
+        final int[] working = new int[12];
+        int size = 0;
+        for (int n = 40; size < working.length; n++) {
+            final int set = BoundedPoissonSamplerCache.getSet(n, 3);
+            if (count[set] < 4) {
+                count[set]++;
+                working[size++] = n;
+            }
+        }
+        for (int repeat = 0; repeat < 3; repeat++)
+            for (final int n : working)
+                cache.getPoissonSampler(rng, n + 0.5);
+        Assert.assertEquals(12, cache.getMissCount());
+        Assert.assertEquals(24, cache.getHitCount());
+    }
+
+    @Test
+    public void testHitCount() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        final BoundedPoissonSamplerCache cache = new BoundedPoissonSamplerCache(16);
+        Assert.assertEquals(0, cache.getHitRate(), 0);
+        // Not cached
+        cache.getPoissonSampler(rng, 5.3);
+        Assert.assertEquals(0, cache.getHitCount() + cache.getMissCount());
+        cache.getPoissonSampler(rng, 50.3);
+        cache.getPoissonSampler(rng, 50.7);
+        cache.getPoissonSampler(rng, 51.7);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(1.0 / 3, cache.getHitRate(), 0);
+    }
+
+    /**
+     * Test the hit rate on a skewed workload over a wide range of means is
+     * close to the hit rate of a dense array covering the entire range. The
+     * dense array only misses on the first use of each {@code n}.
+     */
+    @Test
+    public void testHitRateIsCloseToDenseArray() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final int maxMean = 10000000;
+        // Hot means with a skewed frequency
+        final double[] hot = new double[1000];
+        for (int i = 0; i < hot.length; i++)
+            hot[i] = 40 + rng.nextDouble() * maxMean;
+
+        final BoundedPoissonSamplerCache cache = new BoundedPoissonSamplerCache(4096);
+        final BitSet dense = new BitSet(maxMean + 41);
+        final int size = 100000;
+        int denseMisses = 0;
+        for (int i = 0; i < size; i++) {
+            // 5% of means are from the entire range
+            final double u = rng.nextDouble();
+            final double mean = u < 0.05 ?
+                    40 + rng.nextDouble() * maxMean :
+                    hot[(int) (hot.length * u * u * u)];
+            cache.getPoissonSampler(rng, mean);
+            final int n = (int) mean;
+            if (!dense.get(n)) {
+                dense.set(n);
+                denseMisses++;
+            }
+        }
+        Assert.assertEquals(size, cache.getHitCount() + cache.getMissCount());
+        final double denseHitRate = (double) (size - denseMisses) / size;
+        final double hitRate = cache.getHitRate();
+        Assert.assertTrue("Hit rate=" + hitRate + ", dense=" + denseHitRate, hitRate > 0.99 * denseHitRate);
+        Assert.assertTrue("Hit rate=" + hitRate + ", dense=" + denseHitRate, hitRate <= denseHitRate);
+    }
+}
@@ -0,0 +1,116 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link BulkDiscreteSampler} implementations compute the
+ * same samples as repeat calls to the single sample method.
+ */
+public class BulkDiscreteSamplerTest {
+
+    /** The size of the sample. */
+    private static final int SIZE = 100;
+
+    @Test
+    public void canComputeSameSamplesWithSmallMeanPoissonSampler() {
+        for (final double mean : new double[] { 0.25, 5.3, 35.7 })
+            canComputeSameSamples((rng) -> new SmallMeanPoissonSampler(rng, mean));
+    }
+
+    @Test
+    public void canComputeSameSamplesWithKempSmallMeanPoissonSampler() {
+        for (final double mean : new double[] { 0.25, 5.3, 35.7 })
+            canComputeSameSamples((rng) -> new KempSmallMeanPoissonSampler(rng, mean));
+    }
+
+    @Test
+    public void canComputeSameSamplesWithMarsagliaTsangWangPoissonSampler() {
+        for (final double mean : new double[] { 5.3, 142.3 })
+            canComputeSameSamples((rng) -> new MarsagliaTsangWangPoissonSampler(rng, mean));
+    }
+
+    @Test
+    public void canComputeSameSamplesWithTableSmallMeanPoissonSampler() {
+        for (final double mean : new double[] { 0.25, 5.3, 35.7 })
+            canComputeSameSamples((rng) -> new TableSmallMeanPoissonSampler(rng, mean));
+    }
+
+    @Test
+    public void canComputeSameSamplesWithLargeMeanPoissonSampler() {
+        // Test with and without a fractional part
+        for (final double mean : new double[] { 40, 60.9, 142.3 })
+            canComputeSameSamples((rng) -> new LargeMeanPoissonSampler(rng, mean));
+    }
+
+    @Test
+    public void canComputeSameSamplesWithFlyweightLargeMeanPoissonSampler() {
+        for (final double mean : new double[] { 40, 60.9, 142.3 }) {
+            final int n = (int) Math.floor(mean);
+            final LargeMeanPoissonSampler.LargeMeanPoissonSamplerState state =
+                    LargeMeanPoissonSampler.LargeMeanPoissonSamplerState.create(n);
+            canComputeSameSamples((rng) -> new FlyweightLargeMeanPoissonSampler(rng, state, mean - n));
+        }
+    }
+
+    @Test
+    public void canComputeSameSamplesWithFusedLargeMeanPoissonSampler() {
+        for (final double mean : new double[] { 40, 60.9, 142.3 })
+            canComputeSameSamples((rng) -> new FusedLargeMeanPoissonSampler(rng, mean));
+    }
+
+    @Test
+    public void canComputeSameSamplesWithPtrsPoissonSampler() {
+        for (final double mean : new double[] { 40, 60.9, 142.3 })
+            canComputeSameSamples((rng) -> new PtrsPoissonSampler(rng, mean));
+    }
+
+    @Test
+    public void canComputeSameSamplesWithWrapperPoissonSampler() {
+        for (final double mean : new double[] { 5.3, 60.9 })
+            canComputeSameSamples((rng) -> new WrapperPoissonSampler(rng, mean));
+    }
+
+    @Test
+    public void canComputeSameSamplesWithPoissonSamplerCache() {
+        final UniformRandomProvider[] rngs = PoissonSamplerTestUtils.createGenerators(2);
+
+        // Means below, inside and above the cache range
+        final PoissonSamplerCache cache = new PoissonSamplerCache(45, 55);
+        final double[] means = new double[SIZE];
+        for (int i = 0; i < SIZE; i++)
+            means[i] = 30 + 0.37 * i;
+
+        final int[] expected = new int[SIZE];
+        for (int i = 0; i < SIZE; i++)
+            expected[i] = cache.getPoissonSampler(rngs[0], means[i]).sample();
+        final int[] observed = new int[SIZE];
+        cache.sample(rngs[1], means, observed, 0, SIZE);
+        Assert.assertArrayEquals(expected, observed);
+    }
+
+    /**
+     * A factory for creating BulkDiscreteSampler objects.
+     */
+    private interface BulkDiscreteSamplerFactory {
+        BulkDiscreteSampler create(UniformRandomProvider rng);
+    }
+
+    private static void canComputeSameSamples(BulkDiscreteSamplerFactory factory) {
+        final UniformRandomProvider[] rngs = PoissonSamplerTestUtils.createGenerators(2);
+        final BulkDiscreteSampler s1 = factory.create(rngs[0]);
+        final BulkDiscreteSampler s2 = factory.create(rngs[1]);
+        final int[] expected = new int[SIZE];
+        for (int i = 0; i < SIZE; i++)
+            expected[i] = s1.sample();
+        // Fill in two parts with an unfilled border
+        final int[] observed = new int[SIZE + 2];
+        s2.sample(observed, 1, 1 + SIZE / 2);
+        s2.sample(observed, 1 + SIZE / 2, 1 + SIZE);
+        Assert.assertEquals(0, observed[0]);
+        Assert.assertEquals(0, observed[SIZE + 1]);
+        for (int i = 0; i < SIZE; i++)
+            Assert.assertEquals(expected[i], observed[i + 1]);
+    }
+}
@@ -0,0 +1,76 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.math3.distribution.PoissonDistribution;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.Mode;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link FractionalPoissonSampler} samples from the Poisson
+ * distribution and can be used by the {@link PoissonSamplerCache}.
+ */
+public class FractionalPoissonSamplerTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithNegativeMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new FractionalPoissonSampler(rng, -0.1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithMeanOfOne() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new FractionalPoissonSampler(rng, 1);
+    }
+
+    @Test
+    public void testZeroMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        final FractionalPoissonSampler sampler = new FractionalPoissonSampler(rng, 0);
+        Assert.assertEquals(0, sampler.sample(0));
+        Assert.assertEquals(0, sampler.sample(Math.nextDown(1.0)));
+    }
+
+    @Test
+    public void testSampleIsInverseCumulativeProbability() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        for (final double mean : new double[] { 0.01, 0.3, 0.5, 0.75, 0.99 }) {
+            final FractionalPoissonSampler sampler = new FractionalPoissonSampler(rng, mean);
+            final PoissonDistribution pd = new PoissonDistribution(null, mean,
+                    PoissonDistribution.DEFAULT_EPSILON, PoissonDistribution.DEFAULT_MAX_ITERATIONS);
+            for (int i = 0; i < 1000; i++) {
+                final double u = (i + 0.5) / 1000;
+                int expected = 0;
+                while (u >= pd.cumulativeProbability(expected))
+                    expected++;
+                Assert.assertEquals("mean=" + mean + ", u=" + u, expected, sampler.sample(u));
+            }
+        }
+    }
+
+    @Test
+    public void testSampleLimitWithUniformCloseToOne() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        final FractionalPoissonSampler sampler = new FractionalPoissonSampler(rng, 0.99);
+        // Must terminate
+        final int n = sampler.sample(Math.nextDown(1.0));
+        Assert.assertTrue(n > 1);
+    }
+
+    @Test
+    public void canSamplePoissonDistribution() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        for (final double mean : new double[] { 0.1, 0.5, 0.99 })
+            PoissonSamplerTestUtils.assertPoisson(new FractionalPoissonSampler(rng, mean), mean, 100000, 0.001);
+    }
+
+    @Test
+    public void canSamplePoissonDistributionWithPoissonSamplerCache() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 200, Mode.FAST);
+        for (final double mean : new double[] { 5.3, 40.3, 60.9, 142.5 })
+            PoissonSamplerTestUtils.assertPoisson(cache.getPoissonSampler(rng, mean), mean, 100000, 0.001);
+    }
+}
@@ -0,0 +1,104 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.FullMeanPoissonSampler.FullMeanPoissonSamplerState;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.LargeMeanAlgorithm;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.SmallMeanAlgorithm;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link FullMeanPoissonSampler} samples from the Poisson
+ * distribution and can be used by the {@link WrapperPoissonSampler} and
+ * {@link PoissonSamplerCache}.
+ */
+public class FullMeanPoissonSamplerTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithSmallMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new FullMeanPoissonSampler(rng, 9.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStateThrowsWithSmallMean() {
+        FullMeanPoissonSamplerState.create(9);
+    }
+
+    @Test
+    public void testConstructorThrowsWithMeanOutsideState() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        final FullMeanPoissonSamplerState state = FullMeanPoissonSamplerState.create(42);
+        for (final double mean : new double[] { 41.9, 43, Double.NaN }) {
+            try {
+                new FullMeanPoissonSampler(rng, state, mean);
+                Assert.fail("Mean: " + mean);
+            } catch (IllegalArgumentException ex) {
+                // Expected
+            }
+        }
+    }
+
+    /**
+     * Test the cached values are conservative for any mean above n: {@code vr}
+     * is non-decreasing, {@code 1/alpha} is non-increasing and the ratio
+     * {@code vr / alpha} is non-decreasing over the supported range.
+     */
+    @Test
+    public void testStateIsMonotonic() {
+        FullMeanPoissonSamplerState previous = FullMeanPoissonSamplerState.create(10);
+        for (long n = 11; n < Integer.MAX_VALUE; n = n < 100000 ? n + 1 : n + n / 1000) {
+            final FullMeanPoissonSamplerState state = FullMeanPoissonSamplerState.create((int) n);
+            Assert.assertTrue("vr n=" + n, state.getVr() >= previous.getVr());
+            Assert.assertTrue("1/alpha n=" + n, state.getLogInvAlpha() <= previous.getLogInvAlpha());
+            Assert.assertTrue("vr / alpha n=" + n, state.getVr() * Math.exp(state.getLogInvAlpha()) >=
+                    previous.getVr() * Math.exp(previous.getLogInvAlpha()));
+            previous = state;
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrapperPoissonSamplerThrowsWithSmallPivot() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new WrapperPoissonSampler(rng, 20, 5, SmallMeanAlgorithm.PRODUCT, LargeMeanAlgorithm.FULL_MEAN);
+    }
+
+    @Test
+    public void canSamplePoissonDistribution() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        for (final double mean : new double[] { 10, 10.5, 40.3, 142.3, 1024.7, 65432.1 })
+            PoissonSamplerTestUtils.assertPoisson(new FullMeanPoissonSampler(rng, mean), mean, 100000, 0.001);
+    }
+
+    /**
+     * Test the sampler using a cached state samples from the Poisson distribution.
+     * The largest difference between the cached bounds and the bounds for the
+     * mean is at the end of the range for the lowest n.
+     */
+    @Test
+    public void canSamplePoissonDistributionUsingState() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        for (final double mean : new double[] { 10, 10.5, 10.999, 40.3, 142.3, 1024.7 }) {
+            final FullMeanPoissonSamplerState state = FullMeanPoissonSamplerState.create((int) mean);
+            PoissonSamplerTestUtils.assertPoisson(new FullMeanPoissonSampler(rng, state, mean), mean,
+                    100000, 0.001);
+        }
+    }
+
+    @Test
+    public void canComputeSameSamplesWithWrapperPoissonSampler() {
+        for (final double mean : new double[] { 40.3, 142.3 })
+            PoissonSamplerTestUtils.assertSameSamples(10, (rng) -> new FullMeanPoissonSampler(rng, mean),
+                    (rng) -> new WrapperPoissonSampler(rng, mean, LargeMeanAlgorithm.FULL_MEAN));
+    }
+
+    @Test
+    public void canSamplePoissonDistributionWithPoissonSamplerCache() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 100, LargeMeanAlgorithm.FULL_MEAN);
+        // Below the pivot, in the cache and above the cache
+        for (final double mean : new double[] { 5.3, 60.9, 142.3 })
+            PoissonSamplerTestUtils.assertPoisson(cache.getPoissonSampler(rng, mean), mean, 100000, 0.001);
+    }
+}
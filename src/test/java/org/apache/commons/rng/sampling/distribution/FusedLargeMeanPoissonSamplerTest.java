@@ -0,0 +1,40 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.LargeMeanPoissonSampler.LargeMeanPoissonSamplerState;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link FusedLargeMeanPoissonSampler} computes the same
+ * samples as the {@link LargeMeanPoissonSampler}.
+ */
+public class FusedLargeMeanPoissonSamplerTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithZeroMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new FusedLargeMeanPoissonSampler(rng, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithInvalidLambdaFractional() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new FusedLargeMeanPoissonSampler(rng, LargeMeanPoissonSamplerState.create(40), 1);
+    }
+
+    @Test
+    public void canComputeSameSamplesAsLargeMeanPoissonSampler() {
+        // Test with and without a fractional part
+        for (final double mean : new double[] { 40, 60.9, 142.3, 1024.5, 65432.1 })
+            canComputeSameSamples(mean);
+    }
+
+    private static void canComputeSameSamples(double mean) {
+        final int n = (int) Math.floor(mean);
+        // Use enough samples to exercise all the branches of the algorithm
+        PoissonSamplerTestUtils.assertSameSamples(10000, (rng) -> new LargeMeanPoissonSampler(rng, mean),
+                (rng) -> new FusedLargeMeanPoissonSampler(rng, mean),
+                (rng) -> new FusedLargeMeanPoissonSampler(rng, LargeMeanPoissonSamplerState.create(n), mean - n));
+    }
+}
@@ -0,0 +1,73 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.math3.distribution.PoissonDistribution;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link KempSmallMeanPoissonSampler} samples from a Poisson
+ * distribution.
+ */
+public class KempSmallMeanPoissonSamplerTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithZeroMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 0L);
+        @SuppressWarnings("unused")
+        final KempSmallMeanPoissonSampler s = new KempSmallMeanPoissonSampler(rng, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithMeanAboveMax() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 0L);
+        @SuppressWarnings("unused")
+        final KempSmallMeanPoissonSampler s = new KempSmallMeanPoissonSampler(rng,
+                Math.nextUp(KempSmallMeanPoissonSampler.MAX_MEAN));
+    }
+
+    /**
+     * Test the maximum mean does not underflow {@code exp(-mean)}. The mean of
+     * the samples is close to the distribution mean.
+     */
+    @Test
+    public void canSampleWithMaxMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final double mean = KempSmallMeanPoissonSampler.MAX_MEAN;
+        final KempSmallMeanPoissonSampler s = new KempSmallMeanPoissonSampler(rng, mean);
+        Assert.assertTrue(s.pMode > 0);
+        long sum = 0;
+        final int size = 10000;
+        for (int i = 0; i < size; i++)
+            sum += s.sample();
+        // Standard error of the mean is sqrt(mean / size) = 0.26
+        Assert.assertEquals(mean, (double) sum / size, 2);
+    }
+
+    @Test
+    public void canComputeCumulativeProbabilityOfTheMode() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 0L);
+        final PoissonDistribution pd = new PoissonDistribution(35.7);
+        final KempSmallMeanPoissonSampler s = new KempSmallMeanPoissonSampler(rng, 35.7);
+        Assert.assertEquals(35, s.mode);
+        Assert.assertEquals(pd.probability(35), s.pMode, 1e-12);
+        Assert.assertEquals(pd.cumulativeProbability(35), s.cdfMode, 1e-12);
+    }
+
+    @Test
+    public void canSamplePoissonDistribution() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        for (final double mean : new double[] { 0.25, 1, 5.3, 20.1, 35.7, 39.9 })
+            PoissonSamplerTestUtils.assertPoisson(new KempSmallMeanPoissonSampler(rng, mean), mean,
+                    100000, 0.001);
+    }
+
+    @Test
+    public void canSamplePoissonDistributionWithWrapperPoissonSampler() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final double mean = 12.3;
+        PoissonSamplerTestUtils.assertPoisson(new WrapperPoissonSampler(rng, mean,
+                WrapperPoissonSampler.SmallMeanAlgorithm.INVERSION), mean, 100000, 0.001);
+    }
+}
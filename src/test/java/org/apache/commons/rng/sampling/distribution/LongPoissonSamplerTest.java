@@ -0,0 +1,102 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.math3.distribution.PoissonDistribution;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link LongPoissonSampler} samples from the Poisson
+ * distribution with large means.
+ */
+public class LongPoissonSamplerTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithZeroMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new LongPoissonSampler(rng, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithMeanAboveMax() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new LongPoissonSampler(rng, Math.nextUp(LongPoissonSampler.MAX_MEAN));
+    }
+
+    @Test
+    public void canComputeLogProbability() {
+        for (final double mean : new double[] { 40.3, 142.3, 1024.7, 1e5 }) {
+            final PoissonDistribution pd = new PoissonDistribution(null, mean,
+                    PoissonDistribution.DEFAULT_EPSILON, PoissonDistribution.DEFAULT_MAX_ITERATIONS);
+            final int sd = (int) Math.ceil(Math.sqrt(mean));
+            for (int k = Math.max(0, (int) mean - 10 * sd); k <= mean + 10 * sd; k++) {
+                final double expected = pd.logProbability(k);
+                Assert.assertEquals(expected, LongPoissonSampler.logProbability(k, mean),
+                        Math.abs(expected) * 1e-10);
+            }
+        }
+    }
+
+    @Test
+    public void canComputeNormalisedLogProbabilityWithHugeMean() {
+        // The direct computation would have a large cancellation error
+        final double mean = 1e10 + 0.5;
+        final double sd = Math.sqrt(mean);
+        double sum = 0;
+        for (double k = Math.floor(mean - 8 * sd); k <= mean + 8 * sd; k++)
+            sum += Math.exp(LongPoissonSampler.logProbability(k, mean));
+        Assert.assertEquals(1, sum, 1e-8);
+    }
+
+    @Test
+    public void canSamplePoissonDistribution() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        for (final double mean : new double[] { 5.3, 40.3, 142.3, 1024.7 }) {
+            final LongPoissonSampler sampler = new LongPoissonSampler(rng, mean);
+            final IntegerHistogram h = new IntegerHistogram(4096);
+            for (int i = 0; i < 100000; i++)
+                h.add((int) sampler.sample());
+            final double p = PoissonSamplerTestUtils.chiSquareTest(h, mean);
+            Assert.assertTrue("Not Poisson: mean=" + mean + ", p=" + p, p > 0.001);
+        }
+    }
+
+    @Test
+    public void canSampleWithHugeMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        for (final double mean : new double[] { 1e9, 1e12, LongPoissonSampler.MAX_MEAN }) {
+            final LongPoissonSampler sampler = new LongPoissonSampler(rng, mean);
+            final int n = 100000;
+            double sum = 0;
+            double sumSq = 0;
+            for (int i = 0; i < n; i++) {
+                // Use the offset from the mean to avoid loss of precision
+                final double x = sampler.sample() - mean;
+                sum += x;
+                sumSq += x * x;
+            }
+            final double m = sum / n;
+            final double variance = (sumSq - sum * m) / (n - 1);
+            // The mean has standard error sqrt(mean / n)
+            Assert.assertEquals("mean", 0, m, 5 * Math.sqrt(mean / n));
+            // The variance of the sample variance is approximately 2 * mean^2 / n
+            Assert.assertEquals("variance", mean, variance, 5 * mean * Math.sqrt(2.0 / n));
+        }
+    }
+
+    @Test
+    public void canComputeSameSamplesWithBulkSample() {
+        for (final double mean : new double[] { 5.3, 1e12 }) {
+            final UniformRandomProvider[] rngs = PoissonSamplerTestUtils.createGenerators(2);
+            final LongPoissonSampler s1 = new LongPoissonSampler(rngs[0], mean);
+            final LongPoissonSampler s2 = new LongPoissonSampler(rngs[1], mean);
+            final long[] out = new long[100];
+            s2.sample(out, 10, 90);
+            for (int i = 10; i < 90; i++)
+                Assert.assertEquals(s1.sample(), out[i]);
+            Assert.assertEquals(0, out[0]);
+            Assert.assertEquals(0, out[99]);
+        }
+    }
+}
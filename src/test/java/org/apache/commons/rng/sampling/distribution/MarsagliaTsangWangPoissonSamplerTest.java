@@ -0,0 +1,61 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.MarsagliaTsangWangPoissonSampler.MarsagliaTsangWangPoissonTable;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link MarsagliaTsangWangPoissonSampler} samples from a
+ * Poisson distribution.
+ */
+public class MarsagliaTsangWangPoissonSamplerTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateThrowsWithZeroMean() {
+        MarsagliaTsangWangPoissonTable.create(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateThrowsWithMeanAboveMaximum() {
+        MarsagliaTsangWangPoissonTable.create(Math.nextUp(MarsagliaTsangWangPoissonTable.MAX_MEAN));
+    }
+
+    @Test
+    public void canSampleWithTinyMean() {
+        // All the probability is at zero
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 0L);
+        final MarsagliaTsangWangPoissonSampler s = new MarsagliaTsangWangPoissonSampler(rng, 1e-20);
+        for (int i = 0; i < 100; i++)
+            Assert.assertEquals(0, s.sample());
+    }
+
+    @Test
+    public void canSampleWithMaximumMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 0L);
+        final MarsagliaTsangWangPoissonTable table = MarsagliaTsangWangPoissonTable.create(
+                MarsagliaTsangWangPoissonTable.MAX_MEAN);
+        // Extreme values of the 30-bit integer must be within the table
+        Assert.assertTrue(table.sample(0) >= 0);
+        Assert.assertTrue(table.sample((1 << 30) - 1) >= 0);
+        PoissonSamplerTestUtils.assertPoisson(table.createSampler(rng), table.getMean(), 100000, 0.001);
+    }
+
+    @Test
+    public void canSamplePoissonDistribution() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        // Test below and above the pivot of the WrapperPoissonSampler
+        for (final double mean : new double[] { 0.25, 1, 5.3, 35.7, 40.3, 60.9, 142.3 })
+            PoissonSamplerTestUtils.assertPoisson(new MarsagliaTsangWangPoissonSampler(rng, mean), mean,
+                    100000, 0.001);
+    }
+
+    @Test
+    public void canShareTable() {
+        final double mean = 60.9;
+        final MarsagliaTsangWangPoissonTable table = MarsagliaTsangWangPoissonTable.create(mean);
+        PoissonSamplerTestUtils.assertSameSamples(100, (rng) -> new MarsagliaTsangWangPoissonSampler(rng, mean),
+                table::createSampler);
+    }
+}
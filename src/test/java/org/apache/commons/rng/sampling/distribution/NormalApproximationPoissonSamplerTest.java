@@ -0,0 +1,134 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.LargeMeanAlgorithm;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link NormalApproximationPoissonSampler} is within the
+ * total variation error bound of the Poisson distribution and is used by the
+ * {@link WrapperPoissonSampler} and {@link PoissonSamplerCache} above the
+ * threshold for the error budget.
+ */
+public class NormalApproximationPoissonSamplerTest {
+
+    /** The sample size for the histogram. */
+    private static final int SAMPLE_SIZE = 1000000;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithSmallMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new NormalApproximationPoissonSampler(rng, 39.5);
+    }
+
+    @Test
+    public void testGetMinimumMeanThrowsWithBadErrorBudget() {
+        for (final double budget : new double[] { -1, 1.5, Double.NaN }) {
+            try {
+                NormalApproximationPoissonSampler.getMinimumMean(budget);
+                Assert.fail("Error budget: " + budget);
+            } catch (IllegalArgumentException ex) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testGetMinimumMean() {
+        Assert.assertEquals(Double.POSITIVE_INFINITY, NormalApproximationPoissonSampler.getMinimumMean(0), 0);
+        Assert.assertEquals(NormalApproximationPoissonSampler.MIN_MEAN,
+                NormalApproximationPoissonSampler.getMinimumMean(1), 0);
+        for (final double budget : new double[] { 1e-4, 1e-5, 1e-6 }) {
+            final double mean = NormalApproximationPoissonSampler.getMinimumMean(budget);
+            Assert.assertEquals(budget, NormalApproximationPoissonSampler.getErrorBound(mean), budget * 1e-10);
+        }
+    }
+
+    /**
+     * Test the empirical total variation distance of the approximation is within
+     * the error bound. The empirical distance includes sampling noise so this is
+     * measured using an exact sampler with the same sample size.
+     */
+    @Test
+    public void testTotalVariationDistanceIsWithinErrorBound() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.WELL_19937_C, 12345L);
+        for (final double mean : new double[] { 40.3, 142.3, 1024.7 }) {
+            final double noise = totalVariationDistance(new LargeMeanPoissonSampler(rng, mean), mean);
+            final double tv = totalVariationDistance(new NormalApproximationPoissonSampler(rng, mean), mean);
+            final double bound = NormalApproximationPoissonSampler.getErrorBound(mean);
+            Assert.assertTrue("Mean=" + mean + ", tv=" + tv + ", noise=" + noise + ", bound=" + bound,
+                    tv < 1.2 * noise + bound);
+        }
+    }
+
+    /**
+     * Test the empirical total variation distance can detect an error. The
+     * approximation for {@code mean + 1} is compared to the Poisson distribution
+     * with {@code mean}.
+     */
+    @Test
+    public void testTotalVariationDistanceCanDetectError() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.WELL_19937_C, 12345L);
+        final double mean = 142.3;
+        final double noise = totalVariationDistance(new LargeMeanPoissonSampler(rng, mean), mean);
+        final double tv = totalVariationDistance(new NormalApproximationPoissonSampler(rng, mean + 1), mean);
+        Assert.assertTrue("tv=" + tv + ", noise=" + noise, tv > 2 * noise);
+    }
+
+    @Test
+    public void canSamplePoissonDistribution() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        // A chi-square test has no power to detect the approximation error
+        for (final double mean : new double[] { 1024.7, 65432.1 })
+            PoissonSamplerTestUtils.assertPoisson(new NormalApproximationPoissonSampler(rng, mean), mean,
+                    100000, 0.001);
+    }
+
+    @Test
+    public void canComputeSameSamplesWithWrapperPoissonSampler() {
+        final double errorBudget = 1e-4;
+        // Threshold is 234
+        for (final double mean : new double[] { 5.3, 60.9, 233.1 })
+            PoissonSamplerTestUtils.assertSameSamples(10, (rng) -> new WrapperPoissonSampler(rng, mean),
+                    (rng) -> new WrapperPoissonSampler(rng, mean, LargeMeanAlgorithm.REJECTION, errorBudget));
+        for (final double mean : new double[] { 235.2, 1024.7 })
+            PoissonSamplerTestUtils.assertSameSamples(10, (rng) -> new NormalApproximationPoissonSampler(rng, mean),
+                    (rng) -> new WrapperPoissonSampler(rng, mean, LargeMeanAlgorithm.REJECTION, errorBudget));
+    }
+
+    @Test
+    public void canComputeSameSamplesWithPoissonSamplerCache() {
+        final double errorBudget = 1e-4;
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 500).withNormalApproximation(errorBudget);
+        // Below the pivot, in the cache, above the threshold and above the cache
+        for (final double mean : new double[] { 5.3, 60.9, 233.1, 235.2, 342.1, 1024.7 })
+            PoissonSamplerTestUtils.assertSameSamples(10,
+                    (rng) -> new WrapperPoissonSampler(rng, mean, LargeMeanAlgorithm.REJECTION, errorBudget),
+                    (rng) -> cache.getPoissonSampler(rng, mean));
+    }
+
+    @Test
+    public void testPoissonSamplerCacheWithoutApproximation() {
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 500).withNormalApproximation(0);
+        for (final double mean : new double[] { 5.3, 342.1, 1024.7 })
+            PoissonSamplerTestUtils.assertSameSamples(10, (rng) -> new PoissonSampler(rng, mean),
+                    (rng) -> cache.getPoissonSampler(rng, mean));
+    }
+
+    /**
+     * Compute the empirical total variation distance of the sampler to the
+     * Poisson distribution.
+     *
+     * @param sampler the sampler
+     * @param mean    the mean
+     * @return the total variation distance
+     */
+    private static double totalVariationDistance(DiscreteSampler sampler, double mean) {
+        final IntegerHistogram h = new IntegerHistogram(4096);
+        for (int i = 0; i < SAMPLE_SIZE; i++)
+            h.add(sampler.sample());
+        return PoissonSamplerTestUtils.totalVariationDistance(h, mean);
+    }
+}
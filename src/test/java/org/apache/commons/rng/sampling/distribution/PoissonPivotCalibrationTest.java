@@ -0,0 +1,58 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link PoissonPivotCalibration} and the use of the pivot
+ * in the {@link WrapperPoissonSampler} and {@link PoissonSamplerCache}.
+ */
+public class PoissonPivotCalibrationTest {
+
+    @Test
+    public void canFindCrossover() {
+        final double[] small = { 1, 2, 3, 4, 5 };
+        Assert.assertEquals(0, PoissonPivotCalibration.findCrossover(small, new double[] { 0, 0, 0, 0, 0 }));
+        Assert.assertEquals(5, PoissonPivotCalibration.findCrossover(small, new double[] { 9, 9, 9, 9, 9 }));
+        Assert.assertEquals(3, PoissonPivotCalibration.findCrossover(small, new double[] { 3.5, 3.5, 3.5, 3.5, 3.5 }));
+        // Robust to noise around the crossover
+        Assert.assertEquals(3, PoissonPivotCalibration.findCrossover(small, new double[] { 3.5, 1.9, 3.5, 3.5, 3.5 }));
+    }
+
+    @Test
+    public void canCalibrate() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        final double pivot = PoissonPivotCalibration.calibrate(rng, 10, 100, 4, 1000);
+        Assert.assertTrue(pivot >= 10);
+        Assert.assertTrue(pivot <= Math.nextUp(100.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCalibrateThrowsWithInvalidRange() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        PoissonPivotCalibration.calibrate(rng, 0.5, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrapperPoissonSamplerThrowsWithInvalidPivot() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new WrapperPoissonSampler(rng, 10, WrapperPoissonSampler.MAX_PIVOT + 1);
+    }
+
+    @Test
+    public void canUsePivotWithWrapperPoissonSampler() {
+        // Below the pivot
+        canComputeSameSamples(50, 60, true);
+        // Above the pivot
+        canComputeSameSamples(25, 20, false);
+    }
+
+    private static void canComputeSameSamples(double mean, double pivot, boolean small) {
+        PoissonSamplerTestUtils.assertSameSamples(10,
+                (rng) -> small ? new SmallMeanPoissonSampler(rng, mean) : new LargeMeanPoissonSampler(rng, mean),
+                (rng) -> new WrapperPoissonSampler(rng, mean, pivot),
+                (rng) -> new PoissonSamplerCache(0, 100, pivot).getPoissonSampler(rng, mean));
+    }
+}
@@ -0,0 +1,130 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.LargeMeanAlgorithm;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link PoissonSamplerCacheStatistics} counts the routing
+ * of requests to the {@link PoissonSamplerCache}.
+ */
+public class PoissonSamplerCacheStatisticsTest {
+
+    /** The means: small, below range, in range (x3 for n=50), above range, approximation. */
+    private static final double[] MEANS = { 5.3, 42.5, 50.1, 50.9, 50.5, 70.3, 99.5, 2e6 };
+
+    @Test
+    public void testStatisticsAreNullByDefault() {
+        Assert.assertNull(new PoissonSamplerCache(40, 100).getStatistics());
+        Assert.assertNull(new PoissonSamplerCache(40, 100).withPackedStates().getStatistics());
+    }
+
+    @Test
+    public void canCountRequests() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 123L);
+        final PoissonSamplerCache base = new PoissonSamplerCache(45, 80).withStatistics();
+        for (final PoissonSamplerCache cache : new PoissonSamplerCache[] {
+            base.withNormalApproximation(1e-6),
+            base.withNormalApproximation(1e-6).withPackedStates(),
+            base.withNormalApproximation(1e-6).withExpectedDistinctMeans(4),
+            new PoissonSamplerCache(45, 80, LargeMeanAlgorithm.PTRS).withStatistics()
+                .withNormalApproximation(1e-6),
+            new PoissonSamplerCache(45, 80, LargeMeanAlgorithm.FULL_MEAN).withStatistics()
+                .withNormalApproximation(1e-6),
+        }) {
+            final PoissonSamplerCacheStatistics stats = cache.getStatistics();
+            Assert.assertNotNull(stats);
+            for (final double mean : MEANS)
+                cache.getPoissonSampler(rng, mean).sample();
+            assertCounts(stats.snapshot());
+            Assert.assertEquals(0.5, stats.getHitRate(), 0.0);
+
+            // Bulk sampling
+            stats.reset();
+            Assert.assertEquals(0, stats.snapshot().getTotalCount());
+            Assert.assertEquals(0, stats.getHitRate(), 0.0);
+            final int[] out = new int[MEANS.length];
+            cache.sample(rng, MEANS, out, 0, out.length);
+            final PoissonSamplerCacheStatistics.Snapshot snapshot = stats.snapshot();
+            Assert.assertEquals(4, snapshot.getHitCount());
+            Assert.assertEquals(0, snapshot.getComputeCount());
+            Assert.assertEquals(1.0, snapshot.getHitRate(), 0.0);
+            Assert.assertEquals(MEANS.length, snapshot.getTotalCount());
+        }
+    }
+
+    @Test
+    public void testPrefillIsNotCounted() {
+        for (final PoissonSamplerCache cache : new PoissonSamplerCache[] {
+            new PoissonSamplerCache(45, 80).withStatistics(),
+            new PoissonSamplerCache(45, 80).withStatistics().withPackedStates(),
+            new PoissonSamplerCache(45, 80, LargeMeanAlgorithm.PTRS).withStatistics(),
+            new PoissonSamplerCache(45, 80, LargeMeanAlgorithm.FULL_MEAN).withStatistics(),
+        }) {
+            cache.prefill();
+            Assert.assertEquals(0, cache.getStatistics().snapshot().getTotalCount());
+            cache.getPoissonSampler(RandomSource.create(RandomSource.SPLIT_MIX_64), 50.5);
+            Assert.assertEquals(1, cache.getStatistics().getHitCount());
+        }
+    }
+
+    @Test
+    public void testDerivedCacheHasNewStatistics() {
+        final PoissonSamplerCache cache = new PoissonSamplerCache(45, 80).withStatistics();
+        final PoissonSamplerCache cache2 = cache.withAcceptanceWindow();
+        Assert.assertNotNull(cache2.getStatistics());
+        Assert.assertNotSame(cache.getStatistics(), cache2.getStatistics());
+    }
+
+    @Test
+    public void testSamplesAreNotAffected() {
+        final double[] means = { 5.3, 42.5, 50.5, 99.5 };
+        final int[] out1 = new int[means.length];
+        final int[] out2 = new int[means.length];
+        final PoissonSamplerCache cache = new PoissonSamplerCache(45, 80);
+        cache.sample(RandomSource.create(RandomSource.SPLIT_MIX_64, 42L), means, out1, 0, out1.length);
+        cache.withStatistics().sample(RandomSource.create(RandomSource.SPLIT_MIX_64, 42L), means, out2, 0,
+                out2.length);
+        Assert.assertArrayEquals(out1, out2);
+    }
+
+    @Test
+    public void canRegisterMBean() throws JMException {
+        final PoissonSamplerCache cache = new PoissonSamplerCache(45, 80).withStatistics();
+        cache.getPoissonSampler(RandomSource.create(RandomSource.SPLIT_MIX_64), 50.5);
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName("org.apache.commons.rng:type=PoissonSamplerCacheStatistics");
+        cache.getStatistics().register(server, name);
+        try {
+            Assert.assertEquals(1L, server.getAttribute(name, "ComputeCount"));
+            Assert.assertEquals(0L, server.getAttribute(name, "HitCount"));
+            server.invoke(name, "reset", null, null);
+            Assert.assertEquals(0L, cache.getStatistics().getComputeCount());
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    /**
+     * Assert the counts after the first use of {@link #MEANS}.
+     *
+     * @param snapshot the snapshot
+     */
+    private static void assertCounts(PoissonSamplerCacheStatistics.Snapshot snapshot) {
+        Assert.assertEquals(1, snapshot.getSmallMeanCount());
+        Assert.assertEquals(1, snapshot.getBelowRangeCount());
+        Assert.assertEquals(2, snapshot.getHitCount());
+        Assert.assertEquals(2, snapshot.getComputeCount());
+        Assert.assertEquals(1, snapshot.getAboveRangeCount());
+        Assert.assertEquals(1, snapshot.getNormalApproximationCount());
+        Assert.assertEquals(MEANS.length, snapshot.getTotalCount());
+    }
+}
@@ -1,14 +1,30 @@
 package org.apache.commons.rng.sampling.distribution;
 
-import org.apache.commons.rng.RandomProviderState;
-import org.apache.commons.rng.RestorableUniformRandomProvider;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.LargeMeanPoissonSampler.LargeMeanPoissonSamplerState;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.LargeMeanAlgorithm;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.Mode;
 import org.apache.commons.rng.simple.RandomSource;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
 /**
  * This test checks the {@link PoissonSamplerCache} functions exactly like the
- * constructor of the {@link PoissonSampler}.
+ * constructor of the {@link PoissonSampler} in the {@link Mode#EXACT} mode, and
+ * samples from the Poisson distribution in the {@link Mode#FAST} mode.
  */
 public class PoissonSamplerCacheTest {
     
@@ -67,25 +83,923 @@ public class PoissonSamplerCacheTest {
     }
 
     private void canComputeSameSamplesAsPoissonSampler(int minMean, int maxMean) {
-        // Two identical RNGs
-        final RestorableUniformRandomProvider rng1 = RandomSource.create(RandomSource.WELL_19937_C);
-        final RandomProviderState state = rng1.saveState();
-        final RestorableUniformRandomProvider rng2 = RandomSource.create(RandomSource.WELL_19937_C);
-        rng2.restoreState(state);
-
         // Create the cache with the given range
         final PoissonSamplerCache cache = new PoissonSamplerCache(minMean, maxMean);
+        final PoissonSamplerCache2 cache2 = new PoissonSamplerCache2(minMean, maxMean);
+        for (int i = minRange; i <= maxRange; i++) {
+            testPoissonSamples(cache, i);
+            testPoissonSamples(cache, i + 0.5);
+            testPoissonSamples(cache2, i + 0.5);
+            testWrapperPoissonSamples(i + 0.5);
+        }
+    }
+
+    /**
+     * Test the cache returns the same samples as the PoissonSampler when the
+     * {@link Mode#EXACT} mode is specified.
+     */
+    @Test
+    public void canComputeSameSamplesAsPoissonSamplerWithExactMode() {
+        final PoissonSamplerCache cache = new PoissonSamplerCache(minRange, midRange, Mode.EXACT);
+        final PoissonSamplerCache2 cache2 = new PoissonSamplerCache2(minRange, midRange, Mode.EXACT);
         for (int i = minRange; i <= maxRange; i++) {
-            testPoissonSamples(rng1, rng2, cache, i);
-            testPoissonSamples(rng1, rng2, cache, i + 0.5);
+            testPoissonSamples(cache, i + 0.5);
+            testPoissonSamples(cache2, i + 0.5);
+        }
+    }
+
+    /**
+     * Test the cache samples from the Poisson distribution in the fast mode.
+     */
+    @Test
+    public void canSamplePoissonDistributionWithFastMode() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final PoissonSamplerCache cache = new PoissonSamplerCache(minRange, maxRange, Mode.FAST);
+        final PoissonSamplerCache2 cache2 = new PoissonSamplerCache2(minRange, maxRange, Mode.FAST);
+        // Below the pivot, in the cache and above the cache
+        for (final double mean : new double[] { 5.3, 40.3, 45.5, 142.3 }) {
+            PoissonSamplerTestUtils.assertPoisson(cache.getPoissonSampler(rng, mean), mean, 100000, 0.001);
+            PoissonSamplerTestUtils.assertPoisson(cache2.getPoissonSampler(rng, mean), mean, 100000, 0.001);
+            PoissonSamplerTestUtils.assertPoisson(new WrapperPoissonSampler(rng, mean, Mode.FAST), mean,
+                    100000, 0.001);
+        }
+    }
+
+    /**
+     * Test the cache samples from the Poisson distribution in the fast mode
+     * using single-use samplers. The fast mode shares the Gaussian and exponential
+     * samplers across the samples.
+     */
+    @Test
+    public void canSamplePoissonDistributionWithFastModeBulkSample() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final PoissonSamplerCache cache = new PoissonSamplerCache(minRange, maxRange, Mode.FAST);
+        final double[] means = new double[100000];
+        final int[] out = new int[means.length];
+        for (final double mean : new double[] { 40.3, 45.5 }) {
+            Arrays.fill(means, mean);
+            cache.sample(rng, means, out, 0, out.length);
+            final IntegerHistogram h = new IntegerHistogram(4096);
+            for (final int k : out)
+                h.add(k);
+            final double p = PoissonSamplerTestUtils.chiSquareTest(h, mean);
+            Assert.assertTrue("Not Poisson: mean=" + mean + ", p=" + p, p > 0.001);
+        }
+    }
+
+    /**
+     * Test the bulk samples in the fast mode are the same as flyweight samplers
+     * that share the Gaussian and exponential samplers.
+     */
+    @Test
+    public void canComputeSameBulkSamplesWithFastModeAsSharedSamplers() {
+        final UniformRandomProvider[] rngs = PoissonSamplerTestUtils.createGenerators(2);
+
+        final PoissonSamplerCache cache = new PoissonSamplerCache(40, 60, Mode.FAST);
+        final double[] means = new double[100];
+        for (int i = 0; i < means.length; i++)
+            means[i] = 40 + 0.19 * i;
+
+        final ContinuousSampler gaussian = new BoxMullerGaussianSampler(rngs[0], 0, 1);
+        final ContinuousSampler exponential = new AhrensDieterExponentialSampler(rngs[0], 1);
+        final int[] expected = new int[means.length];
+        for (int i = 0; i < means.length; i++) {
+            final int n = (int) Math.floor(means[i]);
+            final LargeMeanPoissonSamplerState s = LargeMeanPoissonSamplerState.create(n, false,
+                    LargeMeanPoissonSampler.getLogFactorial(Mode.FAST));
+            expected[i] = new FlyweightLargeMeanPoissonSampler(rngs[0], s, means[i] - n, Mode.FAST,
+                    gaussian, exponential).sample();
+        }
+        final int[] observed = new int[means.length];
+        cache.sample(rngs[1], means, observed, 0, observed.length);
+        Assert.assertArrayEquals(expected, observed);
+    }
+
+    /**
+     * Test the fast mode is ignored by the cache for the PTRS algorithm.
+     */
+    @Test
+    public void canComputeSameSamplesWithFastModeAndPtrs() {
+        final PoissonSamplerCache cache1 = new PoissonSamplerCache(0, 100, LargeMeanAlgorithm.PTRS);
+        final PoissonSamplerCache cache2 = new PoissonSamplerCache(0, 100, WrapperPoissonSampler.PIVOT, null,
+                LargeMeanAlgorithm.PTRS, Mode.FAST);
+        for (final double mean : new double[] { 60.9, 142.3 }) {
+            PoissonSamplerTestUtils.assertSameSamples(10, (rng) -> cache1.getPoissonSampler(rng, mean),
+                    (rng) -> cache2.getPoissonSampler(rng, mean));
+        }
+    }
+
+    /**
+     * Test the cache with an acceptance window returns the same samples as the
+     * PoissonSampler.
+     */
+    @Test
+    public void canComputeSameSamplesAsPoissonSamplerWithAcceptanceWindow() {
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 1000).withAcceptanceWindow();
+        for (final double mean : new double[] { 40.3, 60.9, 142.3, 999 }) {
+            // Use enough samples to require the final acceptance check
+            PoissonSamplerTestUtils.assertSameSamples(10000, (rng) -> new PoissonSampler(rng, mean),
+                    (rng) -> cache.getPoissonSampler(rng, mean));
+        }
+    }
+
+    @Test
+    public void canComputeAcceptanceBoundWithAcceptanceWindow() {
+        for (final int n : new int[] { 1, 40, 142, 1000 }) {
+            final LargeMeanPoissonSamplerState s1 = LargeMeanPoissonSamplerState.create(n);
+            final LargeMeanPoissonSamplerState s2 = LargeMeanPoissonSamplerState.create(n, true);
+            Assert.assertFalse(s1.hasAcceptanceWindow());
+            Assert.assertTrue(s2.hasAcceptanceWindow());
+            // Within and outside the window
+            for (int y = -n; y <= 10 * n; y++)
+                Assert.assertEquals(s1.getAcceptanceBound(y), s2.getAcceptanceBound(y), 0);
+        }
+    }
+
+    /**
+     * Test the cache with a sparse store returns the same samples as the
+     * PoissonSampler.
+     */
+    @Test
+    public void canComputeSameSamplesAsPoissonSamplerWithSparseStore() {
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 1000000).withExpectedDistinctMeans(4);
+        Assert.assertTrue(cache.isSparse());
+        // Use more than the expected distinct means to grow the store
+        for (int repeat = 0; repeat < 2; repeat++)
+            for (final double mean : new double[] { 5.3, 40.3, 60.9, 142.3, 999.5, 12345.6, 999999.9 })
+                for (int i = 0; i < 10; i++)
+                    testPoissonSamples(cache, mean + i);
+    }
+
+    /**
+     * Test the cache with packed states returns the same samples as the
+     * PoissonSampler.
+     */
+    @Test
+    public void canComputeSameSamplesAsPoissonSamplerWithPackedStates() {
+        final PoissonSamplerCache packed = new PoissonSamplerCache(0, 10000).withPackedStates();
+        for (final PoissonSamplerCache cache : new PoissonSamplerCache[] { packed, packed.withAcceptanceWindow() }) {
+            for (int repeat = 0; repeat < 2; repeat++)
+                for (final double mean : new double[] { 5.3, 40, 40.3, 60.9, 142.3, 999.5, 10000.9, 12345.6 })
+                    testPoissonSamples(cache, mean);
+            // Use enough samples to require the final acceptance check
+            PoissonSamplerTestUtils.assertSameSamples(10000, (rng) -> new PoissonSampler(rng, 142.3),
+                    (rng) -> cache.getPoissonSampler(rng, 142.3));
+        }
+    }
+
+    /**
+     * Test the bulk samples with packed states are the same as single use
+     * samplers.
+     */
+    @Test
+    public void canComputeSameBulkSamplesWithPackedStates() {
+        final UniformRandomProvider[] rngs = PoissonSamplerTestUtils.createGenerators(2);
+
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 1000).withPackedStates()
+                .withAcceptanceWindow();
+        final double[] means = { 5.3, 40.3, 60.9, 142.3, 999.5, 1234.5 };
+        final int[] out = new int[means.length];
+        cache.sample(rngs[1], means, out, 0, out.length);
+        for (int i = 0; i < means.length; i++)
+            Assert.assertEquals(new PoissonSampler(rngs[0], means[i]).sample(), out[i]);
+    }
+
+    /**
+     * Test the cache with packed states samples from the Poisson distribution
+     * in the fast mode.
+     */
+    @Test
+    public void canSamplePoissonDistributionWithPackedStatesAndFastMode() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final PoissonSamplerCache cache = new PoissonSamplerCache(minRange, maxRange, Mode.FAST)
+                .withPackedStates();
+        for (final double mean : new double[] { 40.3, 45.5 })
+            PoissonSamplerTestUtils.assertPoisson(cache.getPoissonSampler(rng, mean), mean, 100000, 0.001);
+    }
+
+    /**
+     * Test the record of the packed states computes the same acceptance bound
+     * as the state with and without the acceptance window.
+     */
+    @Test
+    public void canComputeAcceptanceBoundWithPackedStates() {
+        final PackedLargeMeanPoissonSamplerStates states = PackedLargeMeanPoissonSamplerStates.create(40, 1000);
+        final PackedLargeMeanPoissonSamplerStates windowStates = states.newInstance(true);
+        Assert.assertFalse(states.hasAcceptanceWindow());
+        Assert.assertTrue(windowStates.hasAcceptanceWindow());
+        for (final int n : new int[] { 40, 142, 1000 }) {
+            final LargeMeanPoissonSamplerState state = LargeMeanPoissonSamplerState.create(n);
+            final PackedLargeMeanPoissonSamplerStates.Record r1 = states.getRecord(n);
+            final PackedLargeMeanPoissonSamplerStates.Record r2 = windowStates.getRecord(n);
+            Assert.assertEquals(state.getSqrtLambdaPlusHalfDelta(), r1.getSqrtLambdaPlusHalfDelta(), 0.0);
+            Assert.assertEquals(state.getP1PlusP2(), r1.getP1PlusP2(), 0.0);
+            Assert.assertEquals(state.getTwolpdOverDelta(), r1.getTwolpdOverDelta(), 0.0);
+            for (int y = -n; y < 10 * n; y += 3) {
+                Assert.assertEquals(state.getAcceptanceBound(y), r1.getAcceptanceBound(y), 0.0);
+                Assert.assertEquals(state.getAcceptanceBound(y), r2.getAcceptanceBound(y), 0.0);
+            }
+        }
+    }
+
+    /**
+     * Test the frozen copy of the packed states has every record and does not
+     * modify the source.
+     */
+    @Test
+    public void canFreezePackedStates() {
+        final PackedLargeMeanPoissonSamplerStates states = PackedLargeMeanPoissonSamplerStates.create(40, 1000);
+        states.getOffset(142);
+        final PackedLargeMeanPoissonSamplerStates frozen = states.freeze();
+        Assert.assertNotSame(states, frozen);
+        Assert.assertSame(frozen, frozen.freeze());
+        Assert.assertSame(frozen, frozen.newInstance());
+        Assert.assertFalse(states.isSet(40));
+        for (int n = 40; n <= 1000; n++) {
+            Assert.assertTrue(frozen.isSet(n));
+            final int offset = frozen.getOffset(n);
+            final LargeMeanPoissonSamplerState state = LargeMeanPoissonSamplerState.create(n);
+            Assert.assertEquals(state.getTwolpd(), frozen.getTwolpd(offset), 0.0);
+            Assert.assertEquals(state.getLogLambda(), frozen.getLogLambda(offset), 0.0);
+            Assert.assertEquals(state.getLogLambdaFactorial(), frozen.getLogLambdaFactorial(offset), 0.0);
+            Assert.assertEquals(state.getDelta(), frozen.getDelta(offset), 0.0);
+            Assert.assertEquals(state.getSqrtLambdaPlusHalfDelta(), frozen.getSqrtLambdaPlusHalfDelta(offset), 0.0);
+            Assert.assertEquals(state.getP1(), frozen.getP1(offset), 0.0);
+            Assert.assertEquals(state.getP2(), frozen.getP2(offset), 0.0);
+            Assert.assertEquals(state.getC1(), frozen.getC1(offset), 0.0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPackedStatesThrowsWithLargeRange() {
+        PackedLargeMeanPoissonSamplerStates.create(40, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Test the states read from a snapshot match freshly computed states.
+     */
+    @Test
+    public void canWriteAndMapSnapshot() throws IOException {
+        final Path file = Files.createTempFile("poisson", ".snapshot");
+        try {
+            new PoissonSamplerCache(0, 3000).writeSnapshot(file);
+            Assert.assertEquals(PackedLargeMeanPoissonSamplerStates.HEADER_SIZE +
+                    (3000 - 40 + 1) * PackedLargeMeanPoissonSamplerStates.RECORD_SIZE * 8, Files.size(file));
+            final PackedLargeMeanPoissonSamplerStates states = PackedLargeMeanPoissonSamplerStates.map(file);
+            Assert.assertEquals(40, states.minN);
+            Assert.assertEquals(3000, states.maxN);
+            Assert.assertEquals(3000 - 40 + 1, states.size());
+            Assert.assertSame(states, states.newInstance());
+            Assert.assertTrue(states.newInstance(true).hasAcceptanceWindow());
+            for (int n = 40; n <= 3000; n++) {
+                Assert.assertTrue(states.isSet(n));
+                final int offset = states.getOffset(n);
+                final LargeMeanPoissonSamplerState state = LargeMeanPoissonSamplerState.create(n);
+                Assert.assertEquals(state.getTwolpd(), states.getTwolpd(offset), 0.0);
+                Assert.assertEquals(state.getLogLambda(), states.getLogLambda(offset), 0.0);
+                Assert.assertEquals(state.getLogLambdaFactorial(), states.getLogLambdaFactorial(offset), 0.0);
+                Assert.assertEquals(state.getDelta(), states.getDelta(offset), 0.0);
+                Assert.assertEquals(state.getSqrtLambdaPlusHalfDelta(),
+                        states.getSqrtLambdaPlusHalfDelta(offset), 0.0);
+                Assert.assertEquals(state.getP1(), states.getP1(offset), 0.0);
+                Assert.assertEquals(state.getP2(), states.getP2(offset), 0.0);
+                Assert.assertEquals(state.getC1(), states.getC1(offset), 0.0);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test the cache with the state for each mean returns the same samples as
+     * the PoissonSampler.
+     */
+    @Test
+    public void canComputeSameSamplesAsPoissonSamplerWithMeanStates() {
+        final double[] means = { 0.25, 5.3, 39.99, 40, 40.3, 50, 142.3, 999.5, 1000.5, 2e6 };
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 1000);
+        for (final PoissonSamplerCache c : new PoissonSamplerCache[] {
+            cache.withMeanStates(100), cache.withAcceptanceWindow().withMeanStates(100),
+            cache.withMeanStates(100).withStatistics(), cache.withMeanStates(2),
+        }) {
+            for (int repeat = 0; repeat < 3; repeat++)
+                for (final double mean : means)
+                    testPoissonSamples(c, mean);
+            // Bulk samples
+            final UniformRandomProvider[] rngs = PoissonSamplerTestUtils.createGenerators(2);
+            final int[] out = new int[means.length];
+            c.sample(rngs[1], means, out, 0, out.length);
+            for (int i = 0; i < means.length; i++)
+                Assert.assertEquals(new PoissonSampler(rngs[0], means[i]).sample(), out[i]);
+        }
+    }
+
+    /**
+     * Test the cache with the state for each mean rounds the mean to the grid.
+     */
+    @Test
+    public void canComputeSameSamplesAsPoissonSamplerWithMeanStatesOnGrid() {
+        final double step = 0.1;
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 1000).withMeanStates(100, step);
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (final double mean : new double[] { 5.26, 40.31, 142.349, 999.96 })
+                PoissonSamplerTestUtils.assertSameSamples(10,
+                        (rng) -> new PoissonSampler(rng, Math.round(mean / step) * step),
+                        (rng) -> cache.getPoissonSampler(rng, mean));
+        }
+        // A mean that rounds to zero is not rounded
+        testPoissonSamples(cache, 0.01);
+    }
+
+    /**
+     * Test the cache with the state for each mean samples from the Poisson
+     * distribution in the fast mode.
+     */
+    @Test
+    public void canSamplePoissonDistributionWithMeanStatesAndFastMode() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final PoissonSamplerCache cache = new PoissonSamplerCache(minRange, maxRange, Mode.FAST)
+                .withMeanStates(10);
+        for (final double mean : new double[] { 40.3, 45.5 }) {
+            // Store the state
+            cache.getPoissonSampler(rng, mean);
+            PoissonSamplerTestUtils.assertPoisson(cache.getPoissonSampler(rng, mean), mean, 100000, 0.001);
+        }
+    }
+
+    @Test
+    public void testMeanStatesCountStatistics() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        final PoissonSamplerCache cache = new PoissonSamplerCache(40, 100).withMeanStates(10).withStatistics();
+        for (int repeat = 0; repeat < 3; repeat++)
+            for (final double mean : new double[] { 5.3, 50.1, 50.6, 150.5 })
+                cache.getPoissonSampler(rng, mean);
+        final PoissonSamplerCacheStatistics.Snapshot snapshot = cache.getStatistics().snapshot();
+        Assert.assertEquals(3, snapshot.getSmallMeanCount());
+        Assert.assertEquals(1, snapshot.getComputeCount());
+        Assert.assertEquals(5, snapshot.getHitCount());
+        Assert.assertEquals(3, snapshot.getAboveRangeCount());
+    }
+
+    @Test
+    public void testMeanStateStoreIsBounded() {
+        final MeanStateStore store = new MeanStateStore(2, 0);
+        for (final double mean : new double[] { 1.5, 2.5, 3.5 })
+            store.put(mean, MeanStateStore.MeanState.createSmall(mean));
+        Assert.assertEquals(2, store.size());
+        Assert.assertNotNull(store.get(1.5));
+        Assert.assertNotNull(store.get(2.5));
+        Assert.assertNull(store.get(3.5));
+        Assert.assertNull(store.get(4.5));
+        // Existing means are replaced
+        store.put(1.5, MeanStateStore.MeanState.createSmall(1.5));
+        Assert.assertEquals(2, store.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMeanStatesThrowsWithZeroMaxMeans() {
+        new PoissonSamplerCache(40, 100).withMeanStates(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMeanStatesThrowsWithNegativeGridStep() {
+        new PoissonSamplerCache(40, 100).withMeanStates(10, -0.1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMeanStatesThrowsWithInfiniteGridStep() {
+        new PoissonSamplerCache(40, 100).withMeanStates(10, Double.POSITIVE_INFINITY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMeanStatesThrowsWithZeroMean() {
+        new PoissonSamplerCache(40, 100).withMeanStates(10).getPoissonSampler(
+                RandomSource.create(RandomSource.SPLIT_MIX_64), 0);
+    }
+
+    /**
+     * Test the frozen cache and the cache with a plain store return the same
+     * samples as the PoissonSampler.
+     */
+    @Test
+    public void canComputeSameSamplesAsPoissonSamplerWithFrozenAndPlainStores() {
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 3000);
+        for (final PoissonSamplerCache c : new PoissonSamplerCache[] {
+            cache.freeze(), cache.withAcceptanceWindow().freeze(), cache.withPackedStates().freeze(),
+            cache.withExpectedDistinctMeans(10).freeze(), cache.withPlainStore(),
+        }) {
+            for (int repeat = 0; repeat < 2; repeat++)
+                for (final double mean : new double[] { 5.3, 40.3, 1023.5, 2999.9, 3000.5 })
+                    testPoissonSamples(c, mean);
+        }
+    }
+
+    /**
+     * Test the frozen cache returns the same samples as the cache for the
+     * alternative large mean algorithms.
+     */
+    @Test
+    public void canComputeSameSamplesWithFrozenStoreForAlgorithms() {
+        for (final LargeMeanAlgorithm algorithm : new LargeMeanAlgorithm[] {
+            LargeMeanAlgorithm.PTRS, LargeMeanAlgorithm.FULL_MEAN
+        }) {
+            final PoissonSamplerCache cache = new PoissonSamplerCache(0, 1000, algorithm);
+            final double[] means = { 5.3, 40.3, 500.5, 999.9, 1200.5 };
+            final int[] out1 = new int[means.length];
+            final int[] out2 = new int[means.length];
+            cache.sample(RandomSource.create(RandomSource.SPLIT_MIX_64, 42L), means, out1, 0, out1.length);
+            cache.freeze().sample(RandomSource.create(RandomSource.SPLIT_MIX_64, 42L), means, out2, 0,
+                    out2.length);
+            Assert.assertArrayEquals(out1, out2);
+        }
+    }
+
+    /**
+     * Test freezing the cache does not compute states in the source cache.
+     */
+    @Test
+    public void testFreezeDoesNotModifySource() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        for (final PoissonSamplerCache cache : new PoissonSamplerCache[] {
+            new PoissonSamplerCache(0, 1000).withStatistics(),
+            new PoissonSamplerCache(0, 1000).withPackedStates().withStatistics(),
+            new PoissonSamplerCache(0, 1000, LargeMeanAlgorithm.PTRS).withStatistics(),
+        }) {
+            // An existing state is reused
+            cache.getPoissonSampler(rng, 100.5).sample();
+            final PoissonSamplerCache frozen = cache.freeze();
+            Assert.assertNotNull(frozen);
+            cache.getStatistics().reset();
+            for (int n = 40; n <= 1000; n++)
+                cache.getPoissonSampler(rng, n + 0.5).sample();
+            Assert.assertEquals(1, cache.getStatistics().getHitCount());
+            Assert.assertEquals(960, cache.getStatistics().getComputeCount());
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testFrozenStoreThrowsOnPut() {
+        final FrozenStateStore<LargeMeanPoissonSamplerState> store = new FrozenStateStore<>(
+                new DenseStateStore<>(40, 50), 40, 50, LargeMeanPoissonSamplerState::create);
+        Assert.assertEquals(45, store.get(45).getLambda(), 0.0);
+        store.put(45, LargeMeanPoissonSamplerState.create(45));
+    }
+
+    /**
+     * Test the cache returns the same samples as the PoissonSampler using the
+     * states read from a snapshot. The snapshot may cover a larger range.
+     */
+    @Test
+    public void canComputeSameSamplesAsPoissonSamplerWithSnapshot() throws IOException {
+        final Path file = Files.createTempFile("poisson", ".snapshot");
+        try {
+            new PoissonSamplerCache(0, 10000).writeSnapshot(file);
+            final PoissonSamplerCache cache = new PoissonSamplerCache(100, 5000).withSnapshot(file);
+            // The snapshot is shared
+            final PoissonSamplerCache cache2 = cache.withAcceptanceWindow();
+            cache2.prefill();
+            for (final PoissonSamplerCache c : new PoissonSamplerCache[] { cache, cache2 })
+                for (final double mean : new double[] { 5.3, 40.3, 100.5, 142.3, 999.5, 4999.9, 12345.6 })
+                    testPoissonSamples(c, mean);
+            final UniformRandomProvider[] rngs = PoissonSamplerTestUtils.createGenerators(2);
+            final int[] out = new int[3];
+            cache.sample(rngs[1], new double[] { 50.5, 500.5, 5000.5 }, out, 0, out.length);
+            Assert.assertArrayEquals(new int[] {
+                new PoissonSampler(rngs[0], 50.5).sample(),
+                new PoissonSampler(rngs[0], 500.5).sample(),
+                new PoissonSampler(rngs[0], 5000.5).sample(),
+            }, out);
+            // Prefill does not write to the snapshot
+            new PoissonSamplerCache(100, 5000, Mode.FAST).withSnapshot(file).prefill();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test the caches created with the packed states or a snapshot return the
+     * same samples as the PoissonSampler and do not allocate a store for the
+     * range in addition to the packed states.
+     */
+    @Test
+    public void canCreateWithPackedStatesAndSnapshot() throws IOException {
+        final int size = 1 << 16;
+        long before = getAllocatedBytes();
+        final PoissonSamplerCache packed = PoissonSamplerCache.createWithPackedStates(40, 40 + size - 1);
+        long allocated = getAllocatedBytes() - before;
+        // The packed array uses 64 bytes per n. A dense store would add a
+        // reference per n.
+        Assert.assertTrue("Allocated " + allocated, allocated < 64L * size + (size >> 1));
+
+        final Path file = Files.createTempFile("poisson", ".snapshot");
+        try {
+            new PoissonSamplerCache(0, 10000).writeSnapshot(file);
+            before = getAllocatedBytes();
+            final PoissonSamplerCache mapped = PoissonSamplerCache.createWithSnapshot(100, 5000, file);
+            allocated = getAllocatedBytes() - before;
+            Assert.assertTrue("Allocated " + allocated, allocated < size);
+            for (final PoissonSamplerCache c : new PoissonSamplerCache[] { packed, mapped })
+                for (final double mean : new double[] { 5.3, 40.3, 100.5, 142.3, 999.5, 4999.9, 12345.6 })
+                    testPoissonSamples(c, mean);
+            try {
+                PoissonSamplerCache.createWithSnapshot(0, 20000, file);
+                Assert.fail();
+            } catch (IllegalArgumentException ex) {
+                // Expected
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test an invalid snapshot is rejected when mapped.
+     */
+    @Test
+    public void testMapSnapshotThrowsWithInvalidFile() throws IOException {
+        final Path file = Files.createTempFile("poisson", ".snapshot");
+        try {
+            PackedLargeMeanPoissonSamplerStates.write(file, 40, 100);
+            final byte[] bytes = Files.readAllBytes(file);
+            // Bad magic; bad version; bad record size; bad range; truncated; too small
+            assertMapThrows(file, modify(bytes, 0, 42));
+            assertMapThrows(file, modify(bytes, 4, 2));
+            assertMapThrows(file, modify(bytes, 8, 7));
+            assertMapThrows(file, modify(bytes, 20, 101));
+            assertMapThrows(file, Arrays.copyOf(bytes, bytes.length - 8));
+            assertMapThrows(file, Arrays.copyOf(bytes, 16));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Set the little-endian int value at the position in a copy of the bytes.
+     *
+     * @param bytes    the bytes
+     * @param position the position
+     * @param value    the value
+     * @return the modified bytes
+     */
+    private static byte[] modify(byte[] bytes, int position, int value) {
+        final byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putInt(position, value);
+        return copy;
+    }
+
+    /**
+     * Assert mapping the bytes as a snapshot throws an IOException.
+     *
+     * @param file  the file
+     * @param bytes the bytes
+     */
+    private static void assertMapThrows(Path file, byte[] bytes) throws IOException {
+        Files.write(file, bytes);
+        try {
+            PackedLargeMeanPoissonSamplerStates.map(file);
+            Assert.fail("Expected IOException");
+        } catch (IOException ex) {
+            // Expected
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithSnapshotThrowsWhenRangeIsNotCovered() throws IOException {
+        final Path file = Files.createTempFile("poisson", ".snapshot");
+        try {
+            new PoissonSamplerCache(0, 1000).writeSnapshot(file);
+            new PoissonSamplerCache(0, 1001).withSnapshot(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWriteSnapshotThrowsWithoutRejectionStates() throws IOException {
+        final Path file = Files.createTempFile("poisson", ".snapshot");
+        try {
+            new PoissonSamplerCache(0, 1000, LargeMeanAlgorithm.PTRS).writeSnapshot(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test the cache returns the same samples as the PoissonSampler when the
+     * range grows. Means that require a range above the maximum size are not
+     * cached.
+     */
+    @Test
+    public void canComputeSameSamplesAsPoissonSamplerWithGrowableRange() {
+        final PoissonSamplerCache cache = new PoissonSamplerCache(100, 200).withStatistics()
+                .withGrowableRange(10000);
+        for (int repeat = 0; repeat < 2; repeat++)
+            for (final double mean : new double[] { 5.3, 40.3, 150.5, 999.9, 3000.5, 50000.5 })
+                testPoissonSamples(cache, mean);
+        // Extended down to the pivot then up by at least a factor of 2
+        Assert.assertEquals(40, cache.getCurrentMinN());
+        Assert.assertEquals(3000, cache.getCurrentMaxN());
+        Assert.assertEquals(2, cache.getStatistics().getAboveRangeCount());
+        Assert.assertEquals(0, cache.getStatistics().getBelowRangeCount());
+
+        // New caches start from the current range
+        final PoissonSamplerCache frozen = cache.freeze();
+        Assert.assertEquals(40, frozen.getCurrentMinN());
+        Assert.assertEquals(3000, frozen.getCurrentMaxN());
+        for (final double mean : new double[] { 40.3, 150.5, 2999.9, 3001.5 })
+            testPoissonSamples(frozen, mean);
+        Assert.assertEquals(3000, cache.withAcceptanceWindow().getCurrentMaxN());
+    }
+
+    @Test
+    public void canComputeSameSamplesWithGrowableRangeForAlgorithms() {
+        for (final LargeMeanAlgorithm algorithm : new LargeMeanAlgorithm[] {
+            LargeMeanAlgorithm.PTRS, LargeMeanAlgorithm.FULL_MEAN
+        }) {
+            final PoissonSamplerCache cache = new PoissonSamplerCache(100, 200, algorithm);
+            final double[] means = { 5.3, 40.3, 500.5, 999.9, 1200.5 };
+            final int[] out1 = new int[means.length];
+            final int[] out2 = new int[means.length];
+            cache.sample(RandomSource.create(RandomSource.SPLIT_MIX_64, 42L), means, out1, 0, out1.length);
+            final PoissonSamplerCache growable = cache.withGrowableRange(2000);
+            growable.sample(RandomSource.create(RandomSource.SPLIT_MIX_64, 42L), means, out2, 0,
+                    out2.length);
+            Assert.assertArrayEquals(out1, out2);
+            Assert.assertTrue(growable.getCurrentMaxN() >= 1200);
+        }
+    }
+
+    @Test
+    public void testGrowableStateStore() {
+        final GrowableStateStore<LargeMeanPoissonSamplerState> store =
+                new GrowableStateStore<>(100, 199, 40, 1000);
+        final LargeMeanPoissonSamplerState state = LargeMeanPoissonSamplerState.create(150);
+        store.put(150, state);
+        Assert.assertNull(store.get(200));
+        // Geometric growth towards n
+        Assert.assertTrue(store.grow(200));
+        Assert.assertEquals(100, store.getMinN());
+        Assert.assertEquals(299, store.getMaxN());
+        Assert.assertSame(state, store.get(150));
+        Assert.assertTrue(store.grow(300));
+        Assert.assertEquals(499, store.getMaxN());
+        // Growth to the size required for n
+        Assert.assertTrue(store.grow(1099));
+        Assert.assertEquals(1099, store.getMaxN());
+        Assert.assertSame(state, store.get(150));
+        // Limited by the maximum size and the lower bound
+        Assert.assertFalse(store.grow(1100));
+        Assert.assertFalse(store.grow(99));
+        Assert.assertFalse(store.grow(39));
+        Assert.assertEquals(100, store.getMinN());
+        // Growth down is clipped at the lower bound and the remainder used above
+        final GrowableStateStore<LargeMeanPoissonSamplerState> store2 =
+                new GrowableStateStore<>(100, 199, 40, 1000);
+        Assert.assertTrue(store2.grow(50));
+        Assert.assertEquals(40, store2.getMinN());
+        Assert.assertEquals(239, store2.getMaxN());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGrowableRangeThrowsWithMaxSizeBelowRange() {
+        new PoissonSamplerCache(100, 200).withGrowableRange(100);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testGrowableRangeThrowsWithoutStates() {
+        new PoissonSamplerCache(0, 10).withGrowableRange(1000);
+    }
+
+    /**
+     * Test the cache returns the same samples as the PoissonSampler after the
+     * states are computed in parallel.
+     */
+    @Test
+    public void canComputeSameSamplesAsPoissonSamplerAfterPrefill() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final PoissonSamplerCache cache = new PoissonSamplerCache(0, 5000);
+            for (final PoissonSamplerCache c : new PoissonSamplerCache[] {
+                cache, cache.withPackedStates(), cache.withAcceptanceWindow(), cache.withExpectedDistinctMeans(10),
+                new PoissonSamplerCache(0, 5000, LargeMeanAlgorithm.PTRS),
+                new PoissonSamplerCache(0, 5000, LargeMeanAlgorithm.FULL_MEAN),
+                new PoissonSamplerCache(0, 5000, Mode.FAST),
+            }) {
+                // Each prefill method must create every state in the range
+                assertPrefill(c.withStatistics(), x -> x.prefill(executor));
+                assertPrefill(c.withStatistics(), PoissonSamplerCache::prefill);
+            }
+            // Exact mode samples
+            for (final PoissonSamplerCache c : new PoissonSamplerCache[] {
+                cache, cache.withPackedStates(), cache.withAcceptanceWindow(), cache.withExpectedDistinctMeans(10),
+            }) {
+                c.prefill(executor);
+                for (final double mean : new double[] { 5.3, 40.3, 1023.5, 1024.5, 4999.9 })
+                    testPoissonSamples(c, mean);
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        // No cache
+        final PoissonSamplerCache.PrefillResult result = new PoissonSamplerCache(0, 10).prefill();
+        Assert.assertEquals(0, result.getCount());
+        Assert.assertTrue(result.getTimeNanos() >= 0);
+    }
+
+    /**
+     * Assert the prefill creates a state for every n in the range [40, 5000].
+     * All subsequent requests in the range are a hit.
+     *
+     * @param cache   the cache (with statistics)
+     * @param prefill the prefill method
+     */
+    private static void assertPrefill(PoissonSamplerCache cache,
+            Function<PoissonSamplerCache, PoissonSamplerCache.PrefillResult> prefill) {
+        final int minN = 40;
+        final int maxN = 5000;
+        final int size = maxN - minN + 1;
+        // Create a state before the prefill (packed states are created when sampled)
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        cache.getPoissonSampler(rng, 100.5).sample();
+        PoissonSamplerCache.PrefillResult result = prefill.apply(cache);
+        Assert.assertEquals(size - 1, result.getCount());
+        Assert.assertTrue(result.getTimeNanos() >= 0);
+        // Nothing to create
+        Assert.assertEquals(0, prefill.apply(cache).getCount());
+        cache.getStatistics().reset();
+        for (int n = minN; n <= maxN; n++)
+            cache.getPoissonSampler(rng, n + 0.5);
+        Assert.assertEquals(0, cache.getStatistics().getComputeCount());
+        Assert.assertEquals(size, cache.getStatistics().getHitCount());
+    }
+
+    /**
+     * Test the cache samples from the Poisson distribution in the fast mode
+     * after the states are computed in parallel.
+     */
+    @Test
+    public void canSamplePoissonDistributionAfterPrefillWithFastMode() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 5000, Mode.FAST);
+        cache.prefill();
+        for (final double mean : new double[] { 40.3, 1999.5 })
+            PoissonSamplerTestUtils.assertPoisson(cache.getPoissonSampler(rng, mean), mean, 100000, 0.001);
+    }
+
+    /**
+     * Test the cache in the fast mode uses the {@link StirlingLogFactorial} for
+     * the state and returns the same samples as the LargeMeanPoissonSampler in
+     * the fast mode.
+     */
+    @Test
+    public void canComputeSameSamplesAsLargeMeanPoissonSamplerWithFastMode() {
+        final LogFactorial function = StirlingLogFactorial.getInstance();
+        final LargeMeanPoissonSamplerState state = LargeMeanPoissonSamplerState.create(1000, true, function);
+        Assert.assertSame(function, state.getLogFactorial());
+        Assert.assertEquals(function.value(1000), state.getLogLambdaFactorial(), 0.0);
+
+        final PoissonSamplerCache cache = new PoissonSamplerCache(minRange, maxRange, Mode.FAST);
+        for (final PoissonSamplerCache c : new PoissonSamplerCache[] { cache, cache.withAcceptanceWindow() }) {
+            for (final double mean : new double[] { 40.3, 41, 45.5 })
+                PoissonSamplerTestUtils.assertSameSamples(100,
+                        (rng) -> new LargeMeanPoissonSampler(rng, mean, Mode.FAST),
+                        (rng) -> c.getPoissonSampler(rng, mean));
         }
     }
 
-    private static void testPoissonSamples(final RestorableUniformRandomProvider rng1,
-            final RestorableUniformRandomProvider rng2, PoissonSamplerCache cache, double mean) {
-        final PoissonSampler s1 = new PoissonSampler(rng1, mean);
-        final DiscreteSampler s2 = cache.getPoissonSampler(rng2, mean);
-        for (int j = 0; j < 10; j++)
-            Assert.assertEquals(s1.sample(), s2.sample());
+    @Test
+    public void testExpectedDistinctMeansSelectsStore() {
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 1000);
+        Assert.assertFalse(cache.isSparse());
+        Assert.assertFalse(cache.withExpectedDistinctMeans(0).isSparse());
+        Assert.assertFalse(cache.withExpectedDistinctMeans(500).isSparse());
+        Assert.assertTrue(cache.withExpectedDistinctMeans(10).isSparse());
+        // Settings are preserved
+        Assert.assertTrue(cache.withExpectedDistinctMeans(10).withAcceptanceWindow().isSparse());
+        Assert.assertTrue(new PoissonSamplerCache(0, 1000, LargeMeanAlgorithm.PTRS)
+                .withExpectedDistinctMeans(10).isSparse());
+        // The ratio of the range size to the expected distinct means
+        Assert.assertFalse(PoissonSamplerCache.isSparse(PoissonSamplerCache.SPARSE_RATIO * 10, 10));
+        Assert.assertTrue(PoissonSamplerCache.isSparse(PoissonSamplerCache.SPARSE_RATIO * 10 + 1, 10));
+        // Forced sparse store
+        Assert.assertTrue(cache.withSparseStore(1000).isSparse());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExpectedDistinctMeansThrowsWithNegative() {
+        new PoissonSamplerCache(0, 1000).withExpectedDistinctMeans(-1);
+    }
+
+    /**
+     * Test a cache for a huge range with few distinct means selects the sparse
+     * store without allocating memory proportional to the range. A dense array
+     * for the range would require at least 4 GiB.
+     */
+    @Test
+    public void canCreateSparseStoreForHugeRangeWithoutDenseAllocation() {
+        final long before = getAllocatedBytes();
+        final PoissonSamplerCache cache = PoissonSamplerCache.createWithExpectedDistinctMeans(10, 1 << 30, 100);
+        final long allocated = getAllocatedBytes() - before;
+        Assert.assertTrue(cache.isSparse());
+        Assert.assertTrue("Allocated " + allocated, allocated < 1 << 20);
+
+        for (final double mean : new double[] { 5.3, 40.3, 12345.6, 1e9 + 0.5 })
+            testPoissonSamples(cache, mean);
+    }
+
+    /**
+     * Gets the bytes allocated by the current thread. The test is skipped if
+     * this is not supported.
+     *
+     * @return the allocated bytes
+     */
+    private static long getAllocatedBytes() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported() &&
+                threadBean.isThreadAllocatedMemoryEnabled());
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateWithExpectedDistinctMeansThrowsWithNegative() {
+        PoissonSamplerCache.createWithExpectedDistinctMeans(0, 1000, -1);
+    }
+
+    /**
+     * Test the builder can combine the settings of the {@code with} methods in
+     * one cache and the samples are the same as the PoissonSampler.
+     */
+    @Test
+    public void canBuildCacheWithCombinedSettings() {
+        final PoissonSamplerCache cache = PoissonSamplerCache.builder(0, 10000)
+                .packedStates(true).acceptanceWindow(true).statistics(true).meanStates(16, 0).build();
+        Assert.assertNotNull(cache.getStatistics());
+        for (int repeat = 0; repeat < 2; repeat++)
+            for (final double mean : new double[] { 5.3, 40.3, 60.9, 142.3, 12345.6 })
+                testPoissonSamples(cache, mean);
+        final PoissonSamplerCacheStatistics statistics = cache.getStatistics();
+        Assert.assertEquals(3, statistics.getHitCount());
+        Assert.assertEquals(3, statistics.getComputeCount());
+        Assert.assertEquals(2, statistics.getAboveRangeCount());
+        Assert.assertEquals(2, statistics.getSmallMeanCount());
+
+        final PoissonSamplerCache sparse = PoissonSamplerCache.builder(0, 1000000)
+                .pivot(50).expectedDistinctMeans(4).build();
+        Assert.assertTrue(sparse.isSparse());
+        Assert.assertEquals(50, sparse.getCurrentMinN());
+    }
+
+    /**
+     * Test the {@code with} methods keep the range of a cache with a pivot
+     * between the maximum n and the maximum mean.
+     */
+    @Test
+    public void canCopySettingsWithPivotAboveMaxN() {
+        final PoissonSamplerCache cache = new PoissonSamplerCache(30, 40.7, 40.5);
+        Assert.assertEquals(40, cache.getCurrentMinN());
+        Assert.assertEquals(40, cache.getCurrentMaxN());
+        final PoissonSamplerCache copy = cache.withStatistics();
+        Assert.assertEquals(40, copy.getCurrentMinN());
+        Assert.assertEquals(40, copy.getCurrentMaxN());
+        copy.getPoissonSampler(RandomSource.create(RandomSource.SPLIT_MIX_64), 40.6);
+        Assert.assertEquals(1, copy.getStatistics().getComputeCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderThrowsWithMaxMeanBelowMinMean() {
+        PoissonSamplerCache.builder(50, 45).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderThrowsWithInvalidPivot() {
+        PoissonSamplerCache.builder(0, 100).pivot(0.5).build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testBuilderThrowsWithGrowableRangeAndNoStates() {
+        PoissonSamplerCache.builder(0, 10).growableRange(100).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderThrowsWithGrowableRangeBelowRangeSize() {
+        PoissonSamplerCache.builder(40, 100).growableRange(10).build();
+    }
+
+    private static void testPoissonSamples(PoissonSamplerCache cache, double mean) {
+        PoissonSamplerTestUtils.assertSameSamples(10, (rng) -> new PoissonSampler(rng, mean),
+                (rng) -> cache.getPoissonSampler(rng, mean));
+    }
+
+    private static void testPoissonSamples(PoissonSamplerCache2 cache, double mean) {
+        PoissonSamplerTestUtils.assertSameSamples(10, (rng) -> new PoissonSampler(rng, mean),
+                (rng) -> cache.getPoissonSampler(rng, mean));
+    }
+
+    private static void testWrapperPoissonSamples(double mean) {
+        PoissonSamplerTestUtils.assertSameSamples(10, (rng) -> new PoissonSampler(rng, mean),
+                (rng) -> new WrapperPoissonSampler(rng, mean, Mode.EXACT));
     }
 }
@@ -0,0 +1,178 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.math3.distribution.PoissonDistribution;
+import org.apache.commons.math3.stat.inference.ChiSquareTest;
+import org.apache.commons.rng.RandomProviderState;
+import org.apache.commons.rng.RestorableUniformRandomProvider;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * Utilities for testing samplers of the Poisson distribution.
+ */
+public class PoissonSamplerTestUtils {
+
+    /** The minimum expected count for a bin in the chi-square test. */
+    private static final double MIN_EXPECTED = 5;
+
+    /**
+     * Creates a sampler using a generator.
+     */
+    public interface DiscreteSamplerFactory {
+        /**
+         * @param rng Generator of uniformly distributed random numbers.
+         * @return the sampler
+         */
+        DiscreteSampler create(UniformRandomProvider rng);
+    }
+
+    /** No public construction. */
+    private PoissonSamplerTestUtils() {}
+
+    /**
+     * Create generators with the same state.
+     *
+     * @param count the number of generators
+     * @return the generators
+     */
+    public static RestorableUniformRandomProvider[] createGenerators(int count) {
+        final RestorableUniformRandomProvider[] rngs = new RestorableUniformRandomProvider[count];
+        rngs[0] = RandomSource.create(RandomSource.WELL_19937_C);
+        final RandomProviderState state = rngs[0].saveState();
+        for (int i = 1; i < count; i++) {
+            rngs[i] = RandomSource.create(RandomSource.WELL_19937_C);
+            rngs[i].restoreState(state);
+        }
+        return rngs;
+    }
+
+    /**
+     * Test the samplers return the same samples. Each sampler is created with a
+     * generator with the same state.
+     *
+     * @param samples  the number of samples
+     * @param expected the factory for the sampler of the expected samples
+     * @param observed the factories for the samplers to test
+     */
+    public static void assertSameSamples(int samples, DiscreteSamplerFactory expected,
+            DiscreteSamplerFactory... observed) {
+        final RestorableUniformRandomProvider[] rngs = createGenerators(observed.length + 1);
+        final DiscreteSampler s1 = expected.create(rngs[0]);
+        final DiscreteSampler[] s2 = new DiscreteSampler[observed.length];
+        for (int i = 0; i < observed.length; i++)
+            s2[i] = observed[i].create(rngs[i + 1]);
+        for (int j = 0; j < samples; j++) {
+            final int k = s1.sample();
+            for (final DiscreteSampler s : s2)
+                Assert.assertEquals(k, s.sample());
+        }
+    }
+
+    /**
+     * Test the sampler output matches the Poisson distribution using a
+     * chi-square test.
+     *
+     * @param sampler      the sampler
+     * @param mean         the mean
+     * @param sampleSize   the sample size
+     * @param significance the significance level
+     */
+    public static void assertPoisson(DiscreteSampler sampler, double mean, int sampleSize,
+            double significance) {
+        final IntegerHistogram h = new IntegerHistogram(4096);
+        for (int i = 0; i < sampleSize; i++)
+            h.add(sampler.sample());
+        final double p = chiSquareTest(h, mean);
+        Assert.assertTrue("Not Poisson: mean=" + mean + ", p=" + p, p > significance);
+    }
+
+    /**
+     * Compute the p-value of a chi-square test of the histogram against the Poisson
+     * distribution. Bins are combined so that each bin has a minimum expected count.
+     *
+     * @param h    the histogram
+     * @param mean the mean
+     * @return the p-value
+     */
+    public static double chiSquareTest(IntegerHistogram h, double mean) {
+        final int[][] data = h.getHistogram();
+        final int[] values = data[0];
+        final int[] counts = data[1];
+        final int total = h.getCount();
+
+        final PoissonDistribution pd = new PoissonDistribution(null, mean,
+                PoissonDistribution.DEFAULT_EPSILON, PoissonDistribution.DEFAULT_MAX_ITERATIONS);
+
+        // Build bins from 0 upwards. Each bin has an expected count above the minimum.
+        final TDoubleArrayList expected = new TDoubleArrayList();
+        final TIntArrayList observed = new TIntArrayList();
+        final int upper = (int) Math.ceil(mean + 20 * Math.sqrt(mean) + 20);
+        double e = 0;
+        int o = 0;
+        int j = 0;
+        double lastCdf = 0;
+        for (int x = 0; x < upper; x++) {
+            final double cdf = pd.cumulativeProbability(x);
+            e += (cdf - lastCdf) * total;
+            lastCdf = cdf;
+            while (j < values.length && values[j] == x)
+                o += counts[j++];
+            if (e >= MIN_EXPECTED && (1 - cdf) * total >= MIN_EXPECTED) {
+                expected.add(e);
+                observed.add(o);
+                e = 0;
+                o = 0;
+            }
+        }
+        // Remaining tail
+        e += (1 - lastCdf) * total;
+        while (j < values.length)
+            o += counts[j++];
+        expected.add(e);
+        observed.add(o);
+
+        final int[] obs = observed.toArray();
+        final long[] obsL = new long[obs.length];
+        for (int i = 0; i < obs.length; i++)
+            obsL[i] = obs[i];
+        return new ChiSquareTest().chiSquareTest(expected.toArray(), obsL);
+    }
+
+    /**
+     * Compute the total variation distance between the histogram and the Poisson
+     * distribution: {@code 0.5 * sum |p(k) - q(k)|} where {@code q} is the
+     * empirical probability from the histogram.
+     * <p>
+     * Note: The empirical distance includes sampling noise which is approximately
+     * proportional to {@code 1 / sqrt(count)}.
+     *
+     * @param h    the histogram
+     * @param mean the mean
+     * @return the total variation distance
+     */
+    public static double totalVariationDistance(IntegerHistogram h, double mean) {
+        final int[][] data = h.getHistogram();
+        final int[] values = data[0];
+        final int[] counts = data[1];
+        final double total = h.getCount();
+
+        final PoissonDistribution pd = new PoissonDistribution(null, mean,
+                PoissonDistribution.DEFAULT_EPSILON, PoissonDistribution.DEFAULT_MAX_ITERATIONS);
+
+        // Sum the difference for all observed values. The remaining expected
+        // probability was not observed.
+        double sum = 0;
+        double observedP = 0;
+        for (int i = 0; i < values.length; i++) {
+            final double p = pd.probability(values[i]);
+            sum += Math.abs(p - counts[i] / total);
+            observedP += p;
+        }
+        sum += Math.max(0, 1 - observedP);
+        return 0.5 * sum;
+    }
+}
@@ -0,0 +1,50 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.LargeMeanAlgorithm;
+import org.apache.commons.rng.sampling.distribution.WrapperPoissonSampler.SmallMeanAlgorithm;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link PtrsPoissonSampler} samples from the Poisson
+ * distribution and can be used by the {@link WrapperPoissonSampler} and
+ * {@link PoissonSamplerCache}.
+ */
+public class PtrsPoissonSamplerTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithSmallMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new PtrsPoissonSampler(rng, 9.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrapperPoissonSamplerThrowsWithSmallPivot() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new WrapperPoissonSampler(rng, 20, 5, SmallMeanAlgorithm.PRODUCT, LargeMeanAlgorithm.PTRS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPoissonSamplerCacheThrowsWithSmallPivot() {
+        new PoissonSamplerCache(0, 100, 5, null, LargeMeanAlgorithm.PTRS);
+    }
+
+    @Test
+    public void canSamplePoissonDistribution() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        // Test with and without a fractional part
+        for (final double mean : new double[] { 10, 10.5, 40.3, 142.3, 1024.7, 65432.1 })
+            PoissonSamplerTestUtils.assertPoisson(new PtrsPoissonSampler(rng, mean), mean, 100000, 0.001);
+    }
+
+    @Test
+    public void canComputeSameSamplesWithPoissonSamplerCache() {
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 100, LargeMeanAlgorithm.PTRS);
+        // Below the pivot, in the cache and above the cache
+        for (final double mean : new double[] { 5.3, 60.9, 142.3 })
+            PoissonSamplerTestUtils.assertSameSamples(10,
+                    (rng) -> new WrapperPoissonSampler(rng, mean, LargeMeanAlgorithm.PTRS),
+                    (rng) -> cache.getPoissonSampler(rng, mean));
+    }
+}
@@ -0,0 +1,65 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link ReusablePoissonSampler} can be re-parameterised
+ * with a new mean.
+ */
+public class ReusablePoissonSamplerTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithZeroMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new ReusablePoissonSampler(rng, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetMeanThrowsWithNegativeMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64);
+        new ReusablePoissonSampler(rng, 1).setMean(-1);
+    }
+
+    @Test
+    public void canComputeSameSamplesAsWrapperPoissonSampler() {
+        // Small to small
+        canComputeSameSamples(5.3, 20.1);
+        // Small to large
+        canComputeSameSamples(5.3, 60.9);
+        // Large to small
+        canComputeSameSamples(60.9, 5.3);
+        // Large to large with the same floor(mean)
+        canComputeSameSamples(60.2, 60.9);
+        // Large to large with a different floor(mean)
+        canComputeSameSamples(60.9, 142.3);
+        // Large with no fraction
+        canComputeSameSamples(60.9, 142);
+    }
+
+    private static void canComputeSameSamples(double mean1, double mean2) {
+        PoissonSamplerTestUtils.assertSameSamples(100, (rng) -> new WrapperPoissonSampler(rng, mean2), (rng) -> {
+            // Set the mean before any samples are generated
+            final ReusablePoissonSampler s = new ReusablePoissonSampler(rng, mean1);
+            s.setMean(mean2);
+            Assert.assertEquals(mean2, s.getMean(), 0);
+            return s;
+        });
+    }
+
+    @Test
+    public void canSamplePoissonDistributionWithChangingMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final ReusablePoissonSampler sampler = new ReusablePoissonSampler(rng, 1);
+        final double[] means = { 5.3, 60.9 };
+        final IntegerHistogram[] h = { new IntegerHistogram(4096), new IntegerHistogram(4096) };
+        // Alternate the mean to exercise the change of state
+        for (int i = 0; i < 100000; i++)
+            for (int j = 0; j < means.length; j++)
+                h[j].add(sampler.sample(means[j]));
+        for (int j = 0; j < means.length; j++)
+            Assert.assertTrue(PoissonSamplerTestUtils.chiSquareTest(h[j], means[j]) > 0.001);
+    }
+}
@@ -0,0 +1,96 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.TableSmallMeanPoissonSampler.SmallMeanPoissonTable;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link SmallMeanPoissonTableCache} creates samplers for
+ * the Poisson distribution.
+ */
+public class SmallMeanPoissonTableCacheTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithZeroStep() {
+        new SmallMeanPoissonTableCache(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithTooManyGridPoints() {
+        new SmallMeanPoissonTableCache(1e-10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithMaxMeanAboveMax() {
+        new SmallMeanPoissonTableCache(Math.nextUp(KempSmallMeanPoissonSampler.MAX_MEAN), 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetPoissonSamplerThrowsWithMeanAboveMax() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 0L);
+        new SmallMeanPoissonTableCache(0.1).getPoissonSampler(rng, 800);
+    }
+
+    @Test
+    public void canCacheTablesWithMaxMean() {
+        final SmallMeanPoissonTableCache cache = new SmallMeanPoissonTableCache(
+                KempSmallMeanPoissonSampler.MAX_MEAN, 100);
+        final SmallMeanPoissonTable table = cache.getTable(KempSmallMeanPoissonSampler.MAX_MEAN);
+        Assert.assertNotNull(table);
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final DiscreteSampler s = cache.getPoissonSampler(rng, KempSmallMeanPoissonSampler.MAX_MEAN);
+        long sum = 0;
+        final int size = 10000;
+        for (int i = 0; i < size; i++)
+            sum += s.sample();
+        Assert.assertEquals(KempSmallMeanPoissonSampler.MAX_MEAN, (double) sum / size, 2);
+    }
+
+    @Test
+    public void canCacheTablesOnTheGrid() {
+        final SmallMeanPoissonTableCache cache = new SmallMeanPoissonTableCache(0.1);
+        // On the grid. Allow for rounding in the computation of the grid mean.
+        final SmallMeanPoissonTable table = cache.getTable(0.3);
+        Assert.assertNotNull(table);
+        Assert.assertSame(table, cache.getTable(3 * 0.1));
+        Assert.assertSame(table, cache.getTable(0.1 + 0.2));
+        Assert.assertNotNull(cache.getTable(35.7));
+        Assert.assertNotNull(cache.getTable(40));
+        // Off the grid
+        Assert.assertNull(cache.getTable(0.31));
+        Assert.assertNull(cache.getTable(0.01));
+        // Outside the range
+        Assert.assertNull(cache.getTable(40.1));
+        Assert.assertNull(cache.getTable(0));
+    }
+
+    @Test
+    public void canSamplePoissonDistribution() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final SmallMeanPoissonTableCache cache = new SmallMeanPoissonTableCache(0.1);
+        // On and off the grid
+        for (final double mean : new double[] { 0.3, 5.3, 20.1, 35.7, 0.35, 12.345 })
+            PoissonSamplerTestUtils.assertPoisson(cache.getPoissonSampler(rng, mean), mean, 100000, 0.001);
+    }
+
+    @Test
+    public void canSampleWithTinyMean() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 0L);
+        final DiscreteSampler s = new TableSmallMeanPoissonSampler(rng, 1e-20);
+        for (int i = 0; i < 100; i++)
+            Assert.assertEquals(0, s.sample());
+    }
+
+    @Test
+    public void canSampleSingleUsePoissonDistributionWithPoissonSamplerCache() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        final PoissonSamplerCache cache = new PoissonSamplerCache(0, 0, new SmallMeanPoissonTableCache(0.5));
+        final double mean = 7.5;
+        final IntegerHistogram h = new IntegerHistogram(4096);
+        for (int i = 0; i < 100000; i++)
+            h.add(cache.getPoissonSampler(rng, mean).sample());
+        Assert.assertTrue(PoissonSamplerTestUtils.chiSquareTest(h, mean) > 0.001);
+    }
+}
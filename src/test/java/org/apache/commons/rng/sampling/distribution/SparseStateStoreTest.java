@@ -0,0 +1,116 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link SparseStateStore} stores and returns states.
+ */
+public class SparseStateStoreTest {
+
+    @Test
+    public void testGetCapacity() {
+        Assert.assertEquals(16, SparseStateStore.getCapacity(0));
+        Assert.assertEquals(16, SparseStateStore.getCapacity(8));
+        Assert.assertEquals(32, SparseStateStore.getCapacity(9));
+        Assert.assertEquals(1 << 30, SparseStateStore.getCapacity(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void canPutAndGet() {
+        final SparseStateStore<Integer> store = new SparseStateStore<>(4);
+        Assert.assertNull(store.get(42));
+        store.put(42, 1);
+        store.put(43, 2);
+        Assert.assertEquals(Integer.valueOf(1), store.get(42));
+        Assert.assertEquals(Integer.valueOf(2), store.get(43));
+        Assert.assertNull(store.get(44));
+        // Replace
+        store.put(42, 3);
+        Assert.assertEquals(Integer.valueOf(3), store.get(42));
+    }
+
+    @Test
+    public void canGrow() {
+        final SparseStateStore<Integer> store = new SparseStateStore<>(4);
+        final int capacity = store.getCapacity();
+        // Keys with a large stride
+        final int size = 1000;
+        for (int i = 1; i <= size; i++)
+            store.put(i * 1024, i);
+        Assert.assertTrue(store.getCapacity() > capacity);
+        Assert.assertTrue(store.getCapacity() >= size);
+        for (int i = 1; i <= size; i++)
+            Assert.assertEquals(Integer.valueOf(i), store.get(i * 1024));
+        Assert.assertNull(store.get(size * 1024 + 1));
+    }
+
+    @Test
+    public void canDropStatesWhenFull() {
+        final SparseStateStore<Integer> store = new SparseStateStore<>(4, 16);
+        final int size = 100;
+        for (int i = 1; i <= size; i++)
+            store.put(i, i);
+        Assert.assertEquals(16, store.getCapacity());
+        Assert.assertEquals(size - 16, store.getDropped());
+        int found = 0;
+        for (int i = 1; i <= size; i++) {
+            final Integer state = store.get(i);
+            if (state != null) {
+                Assert.assertEquals(i, state.intValue());
+                found++;
+            }
+        }
+        Assert.assertEquals(16, found);
+        // A search for a missing key in a full table terminates
+        Assert.assertNull(store.get(size + 1));
+    }
+
+    /**
+     * Test concurrent writers. A state stored during growth is not lost.
+     *
+     * @throws Exception if the task fails
+     */
+    @Test
+    public void canPutAndGetConcurrently() throws Exception {
+        final SparseStateStore<Integer> store = new SparseStateStore<>(4);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 1; i <= 10000; i++) {
+                        final int n = i * 4 + offset;
+                        store.put(n, n);
+                        final Integer state = store.get(n);
+                        if (state != null)
+                            Assert.assertEquals(n, state.intValue());
+                    }
+                }));
+            }
+            for (final Future<?> f : futures)
+                f.get();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        int found = 0;
+        for (int n = 4; n <= 40003; n++) {
+            final Integer state = store.get(n);
+            if (state != null) {
+                Assert.assertEquals(n, state.intValue());
+                found++;
+            }
+        }
+        Assert.assertEquals(40000, found);
+        Assert.assertEquals(0, store.getDropped());
+    }
+}
@@ -0,0 +1,56 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.distribution.InternalUtils.FactorialLog;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This test checks the {@link StirlingLogFactorial} computes {@code log(n!)}.
+ */
+public class StirlingLogFactorialTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValueThrowsWithNegativeArgument() {
+        StirlingLogFactorial.getInstance().value(-1);
+    }
+
+    @Test
+    public void canComputeExactValuesInTheTable() {
+        final FactorialLog factorialLog = FactorialLog.create();
+        final LogFactorial function = StirlingLogFactorial.getInstance();
+        for (int n = 0; n < StirlingLogFactorial.TABLE_SIZE; n++)
+            Assert.assertEquals(factorialLog.value(n), function.value(n), 0);
+    }
+
+    @Test
+    public void canComputeValuesUsingTheSeries() {
+        final FactorialLog factorialLog = FactorialLog.create();
+        final LogFactorial function = StirlingLogFactorial.getInstance();
+        for (int n = StirlingLogFactorial.TABLE_SIZE; n < 100000; n += 7)
+            assertWithinErrorBound(n, factorialLog.value(n), function.value(n));
+        for (final int n : new int[] { 1 << 20, 1 << 25, 1 << 30 })
+            assertWithinErrorBound(n, factorialLog.value(n), function.value(n));
+    }
+
+    @Test
+    public void testMaxTruncationError() {
+        // 1 / (1260 * 2^40)
+        Assert.assertEquals(7.218211918832764e-16, StirlingLogFactorial.MAX_TRUNCATION_ERROR, 1e-30);
+    }
+
+    private static void assertWithinErrorBound(int n, double expected, double actual) {
+        // Truncation error plus rounding of the series and the reference value
+        Assert.assertEquals("n=" + n, expected, actual,
+                StirlingLogFactorial.MAX_TRUNCATION_ERROR + 8 * Math.ulp(expected));
+    }
+
+    @Test
+    public void canSamplePoissonDistributionWithLargeMeanPoissonSampler() {
+        final UniformRandomProvider rng = RandomSource.create(RandomSource.SPLIT_MIX_64, 12345L);
+        for (final double mean : new double[] { 40.3, 142.3, 1024.7 })
+            PoissonSamplerTestUtils.assertPoisson(
+                    new LargeMeanPoissonSampler(rng, mean, StirlingLogFactorial.getInstance()), mean, 100000, 0.001);
+    }
+}
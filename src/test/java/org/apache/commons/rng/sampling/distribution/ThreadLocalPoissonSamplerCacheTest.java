@@ -0,0 +1,49 @@
+package org.apache.commons.rng.sampling.distribution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * This test checks the {@link ThreadLocalPoissonSamplerCache} returns the same
+ * samples as the {@link PoissonSampler}.
+ */
+public class ThreadLocalPoissonSamplerCacheTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithMaxIsLessThanMin() {
+        new ThreadLocalPoissonSamplerCache(50, 45);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorThrowsWithMaxIsLessThanZero() {
+        new ThreadLocalPoissonSamplerCache(-5, -1);
+    }
+
+    @Test
+    public void canComputeSameSamplesAsPoissonSamplerInConcurrentThreads()
+            throws InterruptedException, ExecutionException {
+        final ThreadLocalPoissonSamplerCache cache = new ThreadLocalPoissonSamplerCache(0, 1000);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int repeat = 0; repeat < 2; repeat++)
+                        for (final double mean : new double[] { 5.3, 40.3, 500.5, 999.9, 1200.5 })
+                            PoissonSamplerTestUtils.assertSameSamples(10, (rng) -> new PoissonSampler(rng, mean),
+                                    (rng) -> cache.getPoissonSampler(rng, mean));
+                }));
+            }
+            for (final Future<?> f : futures)
+                f.get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}